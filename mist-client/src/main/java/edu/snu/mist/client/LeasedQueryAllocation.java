@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client;
+
+import edu.snu.mist.formats.avro.IPAddress;
+import edu.snu.mist.formats.avro.QueryAllocationLease;
+
+import java.util.List;
+
+/**
+ * A query allocation lease that is received from the master and cached by the client.
+ * The queries of the application are submitted to the leased task with the reserved query ids
+ * until the lease expires or all the query ids are used.
+ */
+final class LeasedQueryAllocation {
+
+  /**
+   * The task where the queries are allocated.
+   */
+  private final IPAddress task;
+
+  /**
+   * The jar paths of the application.
+   */
+  private final List<String> jarPaths;
+
+  /**
+   * The prefix of the reserved query ids.
+   */
+  private final String queryIdPrefix;
+
+  /**
+   * The index of the next query id, and the end index of the reserved query ids (exclusive).
+   */
+  private long nextQueryIndex;
+  private final long endQueryIndex;
+
+  /**
+   * The time when this lease expires.
+   */
+  private final long expirationTime;
+
+  LeasedQueryAllocation(final QueryAllocationLease lease,
+                        final long receivedTime) {
+    this.task = lease.getTask();
+    this.jarPaths = lease.getJarPaths();
+    this.queryIdPrefix = lease.getQueryIds().getPrefix();
+    this.nextQueryIndex = lease.getQueryIds().getStart();
+    this.endQueryIndex = nextQueryIndex + lease.getQueryIds().getNum();
+    this.expirationTime = receivedTime + lease.getLeaseTime();
+  }
+
+  /**
+   * Take the next query id of this lease.
+   * @param currentTime current time
+   * @return query id, or null if the lease is expired or has no remaining query id
+   */
+  synchronized String nextQueryId(final long currentTime) {
+    if (currentTime >= expirationTime || nextQueryIndex >= endQueryIndex) {
+      return null;
+    }
+    final StringBuilder sb = new StringBuilder();
+    sb.append(queryIdPrefix);
+    sb.append(nextQueryIndex);
+    nextQueryIndex += 1;
+    return sb.toString();
+  }
+
+  IPAddress getTask() {
+    return task;
+  }
+
+  List<String> getJarPaths() {
+    return jarPaths;
+  }
+}
@@ -19,6 +19,8 @@ import edu.snu.mist.client.datastreams.ContinuousStreamImpl;
 import edu.snu.mist.client.datastreams.MISTStream;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.formats.avro.Direction;
@@ -30,6 +32,9 @@ import java.util.*;
 /**
  * This class implements a logical DAG optimizer.
  * Through this optimizer, a few DAG optimization techniques will be applied to the logical DAG in client-side.
+ * It merges the conditional branches into a conditional branch operator,
+ * fuses the fixed-size windows with the following applyStatefulWindow operations,
+ * and flattens the chains of union operations into n-ary unions.
  * TODO: [MIST-452] (Minor) handle corner case in conditional branch API
  */
 public final class LogicalDagOptimizer {
@@ -48,6 +53,9 @@ public final class LogicalDagOptimizer {
    * @return the optimized DAG
    */
   public DAG<MISTStream, MISTEdge> getOptimizedDAG() {
+    fuseStatefulWindows();
+    flattenUnions();
+
     // check visited vertices
     final Set<MISTStream> visited = new HashSet<>();
 
@@ -63,6 +71,192 @@ public final class LogicalDagOptimizer {
     return dag;
   }
 
+  /**
+   * Fuse each time or count-based window and the applyStatefulWindow operation following the window
+   * into a single operator that updates the function of each window on arrival.
+   * The window is fused only if the applyStatefulWindow operation is its only downstream,
+   * so the windows which are also consumed by other operations are kept as they are.
+   */
+  private void fuseStatefulWindows() {
+    for (final MISTStream window : new ArrayList<>(dag.getVertices())) {
+      final Map<String, String> windowConf = window.getConfiguration();
+      final String windowType = windowConf.get(ConfKeys.OperatorConf.OP_TYPE.name());
+      final String fusedType;
+      if (ConfValues.OperatorType.TIME_WINDOW.name().equals(windowType)) {
+        fusedType = ConfValues.OperatorType.APPLY_STATEFUL_TIME_WINDOW.name();
+      } else if (ConfValues.OperatorType.COUNT_WINDOW.name().equals(windowType)) {
+        fusedType = ConfValues.OperatorType.APPLY_STATEFUL_COUNT_WINDOW.name();
+      } else {
+        continue;
+      }
+      // the fused operator does not keep the emitted windows for the late data
+      if (windowConf.containsKey(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name())
+          || windowConf.containsKey(ConfKeys.ReorderOperator.LATE_OUTPUT.name())) {
+        continue;
+      }
+
+      final Map<MISTStream, MISTEdge> windowEdges = dag.getEdges(window);
+      if (windowEdges.size() != 1 || dag.getInDegree(window) != 1) {
+        continue;
+      }
+      final MISTStream applyStateful = windowEdges.keySet().iterator().next();
+      final Map<String, String> applyStatefulConf = applyStateful.getConfiguration();
+      if (!ConfValues.OperatorType.APPLY_STATEFUL_WINDOW.name().equals(
+          applyStatefulConf.get(ConfKeys.OperatorConf.OP_TYPE.name()))) {
+        continue;
+      }
+
+      for (final MISTStream upStream : new ArrayList<>(dag.getVertices())) {
+        final MISTEdge upEdge = dag.getEdges(upStream).get(window);
+        if (upEdge != null) {
+          applyStatefulConf.put(ConfKeys.OperatorConf.OP_TYPE.name(), fusedType);
+          applyStatefulConf.put(ConfKeys.WindowOperator.WINDOW_SIZE.name(),
+              windowConf.get(ConfKeys.WindowOperator.WINDOW_SIZE.name()));
+          applyStatefulConf.put(ConfKeys.WindowOperator.WINDOW_INTERVAL.name(),
+              windowConf.get(ConfKeys.WindowOperator.WINDOW_INTERVAL.name()));
+          // the windows of a keyed stream are fused into the per-key operators
+          for (final ConfKeys.KeyedOperator keyedConf : ConfKeys.KeyedOperator.values()) {
+            if (windowConf.containsKey(keyedConf.name())) {
+              applyStatefulConf.put(keyedConf.name(), windowConf.get(keyedConf.name()));
+            }
+          }
+          if (windowConf.containsKey(ConfKeys.OperatorConf.PARALLELISM.name())) {
+            applyStatefulConf.put(ConfKeys.OperatorConf.PARALLELISM.name(),
+                windowConf.get(ConfKeys.OperatorConf.PARALLELISM.name()));
+          }
+          dag.removeEdge(window, applyStateful);
+          dag.removeEdge(upStream, window);
+          dag.removeVertex(window);
+          dag.addEdge(upStream, applyStateful, upEdge);
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Check whether the stream is a union of many streams.
+   */
+  private static boolean isUnion(final MISTStream stream) {
+    final Map<String, String> conf = stream.getConfiguration();
+    final String opType = conf.get(ConfKeys.OperatorConf.OP_TYPE.name());
+    return ConfValues.OperatorType.UNION.name().equals(opType)
+        || ConfValues.OperatorType.NARY_UNION.name().equals(opType);
+  }
+
+  /**
+   * Get the input streams of the union in the order of the inputs.
+   * The inputs of a binary union are ordered by the directions, and those of an n-ary union by the edge indices.
+   */
+  private List<MISTStream> getUnionInputs(final MISTStream union) {
+    final List<Map.Entry<MISTStream, MISTEdge>> inputEdges = new ArrayList<>();
+    for (final MISTStream upStream : dag.getVertices()) {
+      final MISTEdge edge = dag.getEdges(upStream).get(union);
+      if (edge != null) {
+        inputEdges.add(new AbstractMap.SimpleEntry<>(upStream, edge));
+      }
+    }
+    inputEdges.sort(Comparator.comparing((Map.Entry<MISTStream, MISTEdge> entry) -> entry.getValue().getDirection())
+        .thenComparingInt(entry -> entry.getValue().getIndex()));
+    final List<MISTStream> inputs = new ArrayList<>(inputEdges.size());
+    for (final Map.Entry<MISTStream, MISTEdge> inputEdge : inputEdges) {
+      inputs.add(inputEdge.getKey());
+    }
+    return inputs;
+  }
+
+  /**
+   * Flatten the chains of unions into n-ary unions, which merge all inputs at once.
+   * A union is merged into the downstream union if the downstream union is its only downstream,
+   * it does not have the late output, and both unions have the same allowed lateness.
+   * The input of an n-ary union is identified by the index of the edge, so an input which emits events
+   * according to the edge indices (a conditional branch or a stream with the late output)
+   * is connected through an identity map.
+   */
+  private void flattenUnions() {
+    final String latenessKey = ConfKeys.ReorderOperator.ALLOWED_LATENESS.name();
+    boolean flattened = true;
+    while (flattened) {
+      flattened = false;
+      for (final MISTStream union : dag.getVertices()) {
+        final Map<MISTStream, MISTEdge> unionEdges = dag.getEdges(union);
+        if (!isUnion(union) || unionEdges.size() != 1
+            || union.getConfiguration().containsKey(ConfKeys.ReorderOperator.LATE_OUTPUT.name())) {
+          continue;
+        }
+        final MISTStream downUnion = unionEdges.keySet().iterator().next();
+        if (!isUnion(downUnion) || !Objects.equals(union.getConfiguration().get(latenessKey),
+            downUnion.getConfiguration().get(latenessKey))) {
+          continue;
+        }
+
+        // An input cannot be connected with the n-ary union twice
+        final List<MISTStream> downUnionInputs = getUnionInputs(downUnion);
+        if (!Collections.disjoint(getUnionInputs(union), downUnionInputs)) {
+          continue;
+        }
+
+        final List<MISTStream> inputs = new ArrayList<>();
+        for (final MISTStream input : downUnionInputs) {
+          if (input == union) {
+            inputs.addAll(getUnionInputs(union));
+          } else {
+            inputs.add(input);
+          }
+          dag.removeEdge(input, downUnion);
+        }
+        for (final MISTStream input : getUnionInputs(union)) {
+          dag.removeEdge(input, union);
+        }
+        dag.removeVertex(union);
+
+        final Map<String, String> downUnionConf = downUnion.getConfiguration();
+        downUnionConf.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.NARY_UNION.name());
+        downUnionConf.put(ConfKeys.UnionOperator.NUM_INPUTS.name(), String.valueOf(inputs.size()));
+        for (int i = 0; i < inputs.size(); i++) {
+          dag.addEdge(inputs.get(i), downUnion, new MISTEdge(Direction.LEFT, i));
+        }
+        flattened = true;
+        break;
+      }
+    }
+
+    for (final MISTStream union : new ArrayList<>(dag.getVertices())) {
+      if (!ConfValues.OperatorType.NARY_UNION.name().equals(
+          union.getConfiguration().get(ConfKeys.OperatorConf.OP_TYPE.name()))) {
+        continue;
+      }
+      for (final MISTStream input : getUnionInputs(union)) {
+        final boolean branch = input instanceof ContinuousStreamImpl
+            && ((ContinuousStreamImpl) input).getBranchIndex() > 0;
+        if (branch || input.getConfiguration().containsKey(ConfKeys.ReorderOperator.LATE_OUTPUT.name())) {
+          final MISTEdge edge = dag.getEdges(input).get(union);
+          final MISTStream identityMap = new ContinuousStreamImpl(dag, newIdentityMapConf());
+          dag.addVertex(identityMap);
+          dag.removeEdge(input, union);
+          dag.addEdge(input, identityMap, new MISTEdge(Direction.LEFT));
+          dag.addEdge(identityMap, union, edge);
+        }
+      }
+    }
+  }
+
+  /**
+   * Create the configuration of a map operation that forwards the inputs as they are.
+   */
+  private static Map<String, String> newIdentityMapConf() {
+    final MISTFunction<Object, Object> identityFunc = input -> input;
+    final Map<String, String> conf = new HashMap<>();
+    conf.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.MAP.name());
+    try {
+      conf.put(ConfKeys.OperatorConf.UDF_STRING.name(), SerializeUtils.serializeToString(identityFunc));
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+    return conf;
+  }
+
   /**
    * Obtimize the operators and sinks recursively (DFS order) according to the mechanism.
    * @param currVertex  current vertex
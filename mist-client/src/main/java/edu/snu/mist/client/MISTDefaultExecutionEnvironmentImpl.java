@@ -20,7 +20,9 @@ import edu.snu.mist.formats.avro.AvroVertex;
 import edu.snu.mist.formats.avro.ClientToMasterMessage;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.Edge;
+import edu.snu.mist.formats.avro.IPAddress;
 import edu.snu.mist.formats.avro.JarUploadResult;
+import edu.snu.mist.formats.avro.QueryAllocationLease;
 import edu.snu.mist.formats.avro.QueryControlResult;
 import edu.snu.mist.formats.avro.QuerySubmitInfo;
 import org.apache.avro.ipc.NettyTransceiver;
@@ -34,6 +36,8 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -44,6 +48,9 @@ import java.util.logging.Logger;
  * After retrieving Tasks, it chooses a Task, and uploads its jar files to the MIST Task.
  * Then, the Task returns the paths of the stored jar files.
  * If the upload succeeds, it converts the query into AvroLogicalPlan, and submits the logical plan to the task.
+ * The task and the query ids for an application are leased from the master,
+ * so the following queries of the application are submitted to the task directly
+ * until the lease expires, runs out of the query ids, or a submission to the task fails.
  */
 public final class MISTDefaultExecutionEnvironmentImpl implements MISTExecutionEnvironment {
 
@@ -69,6 +76,17 @@ public final class MISTDefaultExecutionEnvironmentImpl implements MISTExecutionE
    */
   private final AtomicBoolean isMasterReady;
 
+  /**
+   * The query allocation leases of the applications.
+   */
+  private final ConcurrentMap<String, LeasedQueryAllocation> allocationLeaseMap;
+
+  /**
+   * False if the master does not lease the query allocations,
+   * so that the client asks for the submit info directly without requesting a lease.
+   */
+  private volatile boolean isLeaseEnabled;
+
   /**
    * Default constructor for MISTDefaultExecutionEnvironmentImpl.
    * @param masterAddr MIST Master server address.
@@ -81,6 +99,8 @@ public final class MISTDefaultExecutionEnvironmentImpl implements MISTExecutionE
     this.proxyToMaster = SpecificRequestor.getClient(ClientToMasterMessage.class, masterNettyTransceiver);
     this.taskConnectionMap = new HashMap<>();
     this.isMasterReady = new AtomicBoolean(false);
+    this.allocationLeaseMap = new ConcurrentHashMap<>();
+    this.isLeaseEnabled = true;
   }
 
   /**
@@ -101,11 +121,46 @@ public final class MISTDefaultExecutionEnvironmentImpl implements MISTExecutionE
         e.printStackTrace();
       }
     }
-    // Step 1: Get a task to submit the query and JAR file paths from MistMaster
-    final QuerySubmitInfo querySubmitInfo = proxyToMaster.getQuerySubmitInfo(queryToSubmit.getApplicationId());
+    // Step 1: Get a task to submit the query and JAR file paths from the lease or MistMaster
+    final String appId = queryToSubmit.getApplicationId();
+    LeasedQueryAllocation lease = null;
+    String queryId = null;
+    if (isLeaseEnabled) {
+      lease = allocationLeaseMap.get(appId);
+      queryId = lease == null ? null : lease.nextQueryId(System.currentTimeMillis());
+      if (queryId == null) {
+        final QueryAllocationLease newLease = proxyToMaster.getQueryAllocationLease(appId);
+        if (newLease.getQueryIds().getNum() == 0) {
+          // The master does not lease the allocation, so the lease is not requested anymore
+          isLeaseEnabled = false;
+          allocationLeaseMap.clear();
+          lease = null;
+        } else {
+          lease = new LeasedQueryAllocation(newLease, System.currentTimeMillis());
+          allocationLeaseMap.put(appId, lease);
+          queryId = lease.nextQueryId(System.currentTimeMillis());
+        }
+      }
+    }
+    final IPAddress task;
+    final List<String> jarPaths;
+    if (queryId == null) {
+      if (lease != null) {
+        allocationLeaseMap.remove(appId, lease);
+        lease = null;
+      }
+      final QuerySubmitInfo querySubmitInfo = proxyToMaster.getQuerySubmitInfo(appId);
+      queryId = querySubmitInfo.getQueryId();
+      task = querySubmitInfo.getTask();
+      jarPaths = querySubmitInfo.getJarPaths();
+    } else {
+      task = lease.getTask();
+      jarPaths = lease.getJarPaths();
+    }
+
     // Step 2: Contact to the designated task and submit the query
-    final String mistTaskHost = querySubmitInfo.getTask().getHostAddress();
-    final int mistTaskPort = querySubmitInfo.getTask().getPort();
+    final String mistTaskHost = task.getHostAddress();
+    final int mistTaskPort = task.getPort();
 
     final ClientToTaskMessage proxyToTask;
     final String key = String.format("%s:%d", mistTaskHost, mistTaskPort);
@@ -123,17 +178,30 @@ public final class MISTDefaultExecutionEnvironmentImpl implements MISTExecutionE
     final Tuple<List<AvroVertex>, List<Edge>> serializedDag = queryToSubmit.getAvroOperatorDag();
     final AvroDag.Builder avroDagBuilder = AvroDag.newBuilder();
     final AvroDag avroDag = avroDagBuilder
-        .setAppId(queryToSubmit.getApplicationId())
-        .setQueryId(querySubmitInfo.getQueryId())
-        .setJarPaths(querySubmitInfo.getJarPaths())
+        .setAppId(appId)
+        .setQueryId(queryId)
+        .setJarPaths(jarPaths)
         .setAvroVertices(serializedDag.getKey())
         .setEdges(serializedDag.getValue())
+        .setLatencySlo(queryToSubmit.getLatencySlo())
         .build();
-    final QueryControlResult queryControlResult = proxyToTask.sendQueries(avroDag);
+    final QueryControlResult queryControlResult;
+    try {
+      queryControlResult = proxyToTask.sendQueries(avroDag);
+    } catch (final IOException e) {
+      // The task may be unavailable, so the next query asks the master again
+      if (lease != null) {
+        allocationLeaseMap.remove(appId, lease);
+      }
+      throw e;
+    }
+    if (!queryControlResult.getIsSuccess() && lease != null) {
+      allocationLeaseMap.remove(appId, lease);
+    }
 
     // Transform QueryControlResult to APIQueryControlResult
     final APIQueryControlResult apiQueryControlResult =
-        new APIQueryControlResultImpl(queryControlResult.getQueryId(), querySubmitInfo.getTask(),
+        new APIQueryControlResultImpl(queryControlResult.getQueryId(), task,
             queryControlResult.getMsg(), queryControlResult.getIsSuccess());
 
     return apiQueryControlResult;
@@ -43,4 +43,9 @@ public interface MISTQuery {
    * Get the application id.
    */
   String getApplicationId();
+
+  /**
+   * Get the latency objective in milliseconds, or 0 if the query does not set the objective.
+   */
+  long getLatencySlo();
 }
@@ -26,6 +26,7 @@ import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.graph.AdjacentListDAG;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
+import io.netty.buffer.ByteBuf;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
@@ -57,6 +58,16 @@ public final class MISTQueryBuilder {
    */
   private String superGroupId;
 
+  /**
+   * The number of replicas of the stateless and keyed operators.
+   */
+  private int parallelism = 1;
+
+  /**
+   * The latency objective of the query in milliseconds, or 0 if it is not set.
+   */
+  private long latencySlo = 0L;
+
   /**
    * The default watermark configuration.
    */
@@ -79,6 +90,34 @@ public final class MISTQueryBuilder {
     return this;
   }
 
+  /**
+   * Set the number of replicas of the stateless (map, filter and flatMap) and keyed operators of the query.
+   * The replicas are processed by different event processors, and their outputs are merged in the input order.
+   * The inputs of keyed operators are partitioned by the hash of the key.
+   * @param numReplicas the number of replicas
+   */
+  public MISTQueryBuilder setParallelism(final int numReplicas) {
+    if (numReplicas < 1) {
+      throw new IllegalArgumentException("The parallelism should be positive: " + numReplicas);
+    }
+    parallelism = numReplicas;
+    return this;
+  }
+
+  /**
+   * Set the latency objective of the query.
+   * The event processors prioritize the events of the query by the deadlines derived from the objective
+   * if the task uses the deadline-based group scheduling.
+   * @param latencySloMillis the objective of the time from the arrival of an event to its processing in milliseconds
+   */
+  public MISTQueryBuilder setLatencySlo(final long latencySloMillis) {
+    if (latencySloMillis <= 0) {
+      throw new IllegalArgumentException("The latency objective should be positive: " + latencySloMillis);
+    }
+    latencySlo = latencySloMillis;
+    return this;
+  }
+
   /**
    * Build a new continuous stream connected with the source.
    * @param sourceConf source configuration
@@ -119,6 +158,31 @@ public final class MISTQueryBuilder {
     return buildStream(srcConf.getConfiguration(), watermarkConf.getConfiguration());
   }
 
+  /**
+   * Create a continuous stream that receives length-prefixed binary data from the socket server.
+   * The received buffers are slices of the netty buffers, which are released after each event is processed.
+   * The functions of the operators should not keep the buffers after the call, and the stateful operators
+   * such as windows get copies of the buffers.
+   * @param srcConf source configuration
+   * @return a new continuous stream
+   */
+  public ContinuousStream<ByteBuf> socketBinaryStream(final SourceConfiguration srcConf) {
+    return socketBinaryStream(srcConf, getDefaultWatermarkConf());
+  }
+
+  /**
+   * Create a continuous stream that receives length-prefixed binary data from the socket server.
+   * @param srcConf source configuration
+   * @param watermarkConf a watermark configuration
+   * @return a new continuous stream
+   */
+  public ContinuousStream<ByteBuf> socketBinaryStream(final SourceConfiguration srcConf,
+                                                     final WatermarkConfiguration watermarkConf) {
+    assert srcConf.getConfiguration()
+        .get(ConfKeys.SourceConf.SOURCE_TYPE.name()) == ConfValues.SourceType.NETTY_BINARY.name();
+    return buildStream(srcConf.getConfiguration(), watermarkConf.getConfiguration());
+  }
+
   /**
    * Create a continuous stream that receives data from the kafka producer.
    * @param srcConf kafka configuration
@@ -171,6 +235,28 @@ public final class MISTQueryBuilder {
     if (superGroupId == null) {
       throw new RuntimeException("The application id should be set");
     }
-    return new MISTQueryImpl(dag, superGroupId);
+    if (parallelism > 1) {
+      for (final MISTStream stream : dag.getVertices()) {
+        if (isParallelizable(stream.getConfiguration())) {
+          stream.getConfiguration().put(ConfKeys.OperatorConf.PARALLELISM.name(), String.valueOf(parallelism));
+        }
+      }
+    }
+    return new MISTQueryImpl(dag, superGroupId, latencySlo);
+  }
+
+  /**
+   * Check whether the operator can be replicated.
+   * The stateless operators do not depend on the other inputs, and the inputs of a keyed operator
+   * only depend on the inputs of the same key.
+   */
+  private static boolean isParallelizable(final Map<String, String> conf) {
+    if (conf.containsKey(ConfKeys.KeyedOperator.KEY_SELECTOR.name())) {
+      return true;
+    }
+    final String opType = conf.get(ConfKeys.OperatorConf.OP_TYPE.name());
+    return ConfValues.OperatorType.MAP.name().equals(opType)
+        || ConfValues.OperatorType.FILTER.name().equals(opType)
+        || ConfValues.OperatorType.FLAT_MAP.name().equals(opType);
   }
 }
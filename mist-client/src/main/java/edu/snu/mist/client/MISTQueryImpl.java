@@ -39,6 +39,11 @@ public final class MISTQueryImpl implements MISTQuery {
   private final AvroConfigurationSerializer serializer;
   private final String applicationId;
 
+  /**
+   * The latency objective of the query in milliseconds, or 0 if it is not set.
+   */
+  private final long latencySlo;
+
   /**
    * The integer for generating vertex id.
    */
@@ -46,9 +51,16 @@ public final class MISTQueryImpl implements MISTQuery {
 
   public MISTQueryImpl(final DAG<MISTStream, MISTEdge> dag,
                        final String applicationId) {
+    this(dag, applicationId, 0L);
+  }
+
+  public MISTQueryImpl(final DAG<MISTStream, MISTEdge> dag,
+                       final String applicationId,
+                       final long latencySlo) {
     this.dag = dag;
     this.serializer = new AvroConfigurationSerializer();
     this.applicationId = applicationId;
+    this.latencySlo = latencySlo;
     this.vertexIdIndex = 0;
   }
 
@@ -117,4 +129,9 @@ public final class MISTQueryImpl implements MISTQuery {
   public String getApplicationId() {
     return applicationId;
   }
+
+  @Override
+  public long getLatencySlo() {
+    return latencySlo;
+  }
 }
@@ -19,6 +19,7 @@ import edu.snu.mist.common.functions.*;
 import edu.snu.mist.common.cep.CepEventPattern;
 import edu.snu.mist.common.types.Tuple2;
 import edu.snu.mist.common.windows.WindowInformation;
+import io.netty.buffer.ByteBuf;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
 import java.io.IOException;
@@ -118,6 +119,40 @@ public interface ContinuousStream<T> extends MISTStream<T> {
    */
   ContinuousStream<T> union(ContinuousStream<T> inputStream);
 
+  /**
+   * Applies union operation to the current stream and the input continuous streams at once.
+   * The streams are merged by a single n-ary union instead of a chain of binary unions.
+   * @param inputStreams the streams to be unified with this stream
+   * @return new unified stream after applying type-checking
+   */
+  ContinuousStream<T> union(List<ContinuousStream<T>> inputStreams);
+
+  /**
+   * Applies union operation to the current stream and input continuous stream
+   * whose events can arrive out of order within the allowed lateness.
+   * The unified stream is ordered by timestamp, and the events that are later than the allowed lateness
+   * are dropped or emitted to the late events stream.
+   * @param inputStream the stream to be unified with this stream
+   * @param allowedLateness the allowed lateness in milliseconds
+   * @return new unified stream after applying type-checking
+   */
+  ContinuousStream<T> union(ContinuousStream<T> inputStream, long allowedLateness);
+
+  /**
+   * Sorts the events of the current stream that can arrive out of order within the allowed lateness.
+   * The events that are later than the allowed lateness are dropped or emitted to the late events stream.
+   * @param allowedLateness the allowed lateness in milliseconds
+   * @return new stream ordered by timestamp
+   */
+  ContinuousStream<T> reorder(long allowedLateness);
+
+  /**
+   * Gets the stream of the late events of the current union or reorder stream,
+   * which are not emitted to the current stream.
+   * @return the stream of the late events
+   */
+  ContinuousStream<T> lateEvents();
+
   /**
    * Creates a new WindowsStream according to the WindowInformation.
    * @param windowInfo the WindowInformation contains some information used during windowing operation
@@ -125,6 +160,35 @@ public interface ContinuousStream<T> extends MISTStream<T> {
    */
   WindowedStream<T> window(WindowInformation windowInfo);
 
+  /**
+   * Creates a new time-based WindowedStream whose windows are kept for the allowed lateness after they are emitted.
+   * The late data that belong to the kept windows update the windows, and the updated windows are emitted again.
+   * The data that are later than the allowed lateness are dropped or emitted to the late events stream.
+   * @param windowInfo the TimeWindowInformation contains some information used during windowing operation
+   * @param allowedLateness the allowed lateness in milliseconds
+   * @return new windowed stream after applying the windowing operation
+   */
+  WindowedStream<T> window(WindowInformation windowInfo, long allowedLateness);
+
+  /**
+   * Partitions the current stream by the key of each data.
+   * The operations applied to the keyed stream keep a separate state for each key.
+   * @param keySelector the function that extracts the key from the data
+   * @param <K> the type of key
+   * @return new keyed stream
+   */
+  <K> KeyedStream<K, T> keyBy(MISTFunction<T, K> keySelector);
+
+  /**
+   * Partitions the current stream by the key of each data.
+   * The state of a key is removed if the key does not receive any data during the idle key timeout.
+   * @param keySelector the function that extracts the key from the data
+   * @param idleKeyTimeout the event time after which the state of an idle key is removed (0 to keep the keys)
+   * @param <K> the type of key
+   * @return new keyed stream
+   */
+  <K> KeyedStream<K, T> keyBy(MISTFunction<T, K> keySelector, long idleKeyTimeout);
+
   /**
    * Joins current stream with the input stream.
    * Two streams are windowed according to the WindowInfo and joined within the window.
@@ -156,6 +220,14 @@ public interface ContinuousStream<T> extends MISTStream<T> {
    */
   MISTStream<String> textSocketOutput(String serverAddr, int serverPort);
 
+  /**
+   * Push the length-prefixed binary stream to the socket server.
+   * @param serverAddr socket server address
+   * @param serverPort socket server port
+   * @return sink stream
+   */
+  MISTStream<ByteBuf> binarySocketOutput(String serverAddr, int serverPort);
+
   /**
    * Publish the mqtt text stream to the mqtt broker.
    * @param brokerURI broker URI
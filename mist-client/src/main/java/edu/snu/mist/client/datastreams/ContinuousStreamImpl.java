@@ -29,6 +29,7 @@ import edu.snu.mist.common.windows.CountWindowInformation;
 import edu.snu.mist.common.windows.TimeWindowInformation;
 import edu.snu.mist.common.windows.WindowInformation;
 import edu.snu.mist.formats.avro.Direction;
+import io.netty.buffer.ByteBuf;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
 import java.io.IOException;
@@ -83,7 +84,7 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
    * @param <OUT> output type
    * @return windowed stream
    */
-  private <OUT> WindowedStream<OUT> transformToWindowedStream(
+  <OUT> WindowedStream<OUT> transformToWindowedStream(
       final Map<String, String> conf,
       final MISTStream upStream) {
     final WindowedStream<OUT> downStream = new WindowedStreamImpl<>(dag, conf);
@@ -123,20 +124,66 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
   private <OUT> ContinuousStream<OUT> transformWithSingleUdfOperator(
       final Serializable udf,
       final ConfValues.OperatorType operatorType) {
+    return transformToSingleInputContinuousStream(newSingleUdfConf(udf, operatorType), this);
+  }
 
+  /**
+   * Create the configuration of the operator using a single udf.
+   * @param udf a user-defined function
+   * @param operatorType a class representing the operator
+   * @return configuration
+   */
+  static Map<String, String> newSingleUdfConf(final Serializable udf,
+                                              final ConfValues.OperatorType operatorType) {
     final Map<String, String> confMap = new HashMap<>();
 
     try {
       confMap.put(ConfKeys.OperatorConf.UDF_STRING.name(),
           SerializeUtils.serializeToString(udf));
       confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), operatorType.name());
-      return transformToSingleInputContinuousStream(confMap, this);
+      return confMap;
     } catch (final IOException e) {
       e.printStackTrace();
       throw new RuntimeException(e);
     }
   }
 
+  /**
+   * Create the configuration of the cep operator.
+   * @param cepEventPatterns sequence of cep events
+   * @param windowTime window time
+   * @return configuration
+   */
+  static Map<String, String> newCepConf(final List<? extends CepEventPattern> cepEventPatterns,
+                                        final long windowTime) throws IOException {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.CEP.name());
+    confMap.put(ConfKeys.CepOperator.CEP_EVENT.name(),
+        SerializeUtils.serializeToString((Serializable) cepEventPatterns));
+    confMap.put(ConfKeys.CepOperator.WINDOW_TIME.name(), String.valueOf(windowTime));
+    return confMap;
+  }
+
+  /**
+   * Create the configuration of the window operator.
+   * @param windowInfo the WindowInformation contains some information used during windowing operation
+   * @return configuration
+   */
+  static Map<String, String> newWindowConf(final WindowInformation windowInfo) {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.WindowOperator.WINDOW_SIZE.name(), String.valueOf(windowInfo.getWindowSize()));
+    confMap.put(ConfKeys.WindowOperator.WINDOW_INTERVAL.name(), String.valueOf(windowInfo.getWindowInterval()));
+
+    if (windowInfo instanceof TimeWindowInformation) {
+      confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.TIME_WINDOW.name());
+    } else if (windowInfo instanceof CountWindowInformation) {
+      confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.COUNT_WINDOW.name());
+    } else {
+      confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.SESSION_WINDOW.name());
+    }
+    return confMap;
+  }
+
   @Override
   public <OUT> ContinuousStream<OUT> map(final MISTFunction<T, OUT> mapFunc) {
     return transformWithSingleUdfOperator(mapFunc, ConfValues.OperatorType.MAP);
@@ -177,13 +224,7 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
   @Override
   public ContinuousStream<Map<String, List<T>>> cepOperator(final List<CepEventPattern<T>> cepEventPatterns,
                                                             final long windowTime) throws IOException {
-    final Map<String, String> confMap = new HashMap<>();
-    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.CEP.name());
-    confMap.put(ConfKeys.CepOperator.CEP_EVENT.name(),
-        SerializeUtils.serializeToString((Serializable) cepEventPatterns));
-    confMap.put(ConfKeys.CepOperator.WINDOW_TIME.name(), String.valueOf(windowTime));
-
-    return transformToSingleInputContinuousStream(confMap, this);
+    return transformToSingleInputContinuousStream(newCepConf(cepEventPatterns, windowTime), this);
   }
 
   @Override
@@ -213,21 +254,81 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
   }
 
   @Override
-  public WindowedStream<T> window(final WindowInformation windowInfo) {
+  public ContinuousStream<T> union(final List<ContinuousStream<T>> inputStreams) {
+    if (inputStreams.size() == 1) {
+      return union(inputStreams.get(0));
+    }
     final Map<String, String> confMap = new HashMap<>();
-    confMap.put(ConfKeys.WindowOperator.WINDOW_SIZE.name(), String.valueOf(windowInfo.getWindowSize()));
-    confMap.put(ConfKeys.WindowOperator.WINDOW_INTERVAL.name(), String.valueOf(windowInfo.getWindowInterval()));
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.NARY_UNION.name());
+    confMap.put(ConfKeys.UnionOperator.NUM_INPUTS.name(), String.valueOf(inputStreams.size() + 1));
+    final ContinuousStream<T> downStream = new ContinuousStreamImpl<>(dag, confMap);
+    dag.addVertex(downStream);
+    // The inputs of the n-ary union are identified by the indices of the edges
+    dag.addEdge(this, downStream, new MISTEdge(Direction.LEFT, 0));
+    for (int i = 0; i < inputStreams.size(); i++) {
+      dag.addEdge(inputStreams.get(i), downStream, new MISTEdge(Direction.LEFT, i + 1));
+    }
+    return downStream;
+  }
 
-    if (windowInfo instanceof TimeWindowInformation) {
-      confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.TIME_WINDOW.name());
-    } else if (windowInfo instanceof CountWindowInformation) {
-      confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.COUNT_WINDOW.name());
-    } else {
-      confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.SESSION_WINDOW.name());
+  @Override
+  public ContinuousStream<T> union(final ContinuousStream<T> inputStream, final long allowedLateness) {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.UNION.name());
+    confMap.put(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name(), String.valueOf(allowedLateness));
+    return transformToDoubleInputContinuousStream(confMap, this, inputStream);
+  }
+
+  @Override
+  public ContinuousStream<T> reorder(final long allowedLateness) {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.REORDER.name());
+    confMap.put(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name(), String.valueOf(allowedLateness));
+    return transformToSingleInputContinuousStream(confMap, this);
+  }
+
+  @Override
+  public ContinuousStream<T> lateEvents() {
+    final String opType = conf.get(ConfKeys.OperatorConf.OP_TYPE.name());
+    if (!ConfValues.OperatorType.UNION.name().equals(opType)
+        && !ConfValues.OperatorType.NARY_UNION.name().equals(opType)
+        && !ConfValues.OperatorType.REORDER.name().equals(opType)) {
+      throw new IllegalStateException("Only union and reorder streams have late events");
+    }
+    return transformToLateEventStream();
+  }
+
+  @Override
+  public WindowedStream<T> window(final WindowInformation windowInfo) {
+    return transformToWindowedStream(newWindowConf(windowInfo), this);
+  }
+
+  @Override
+  public WindowedStream<T> window(final WindowInformation windowInfo, final long allowedLateness) {
+    if (!(windowInfo instanceof TimeWindowInformation)) {
+      throw new IllegalArgumentException("Only time-based windows have the allowed lateness");
     }
+    final Map<String, String> confMap = newWindowConf(windowInfo);
+    confMap.put(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name(), String.valueOf(allowedLateness));
     return transformToWindowedStream(confMap, this);
   }
 
+  @Override
+  public <K> KeyedStream<K, T> keyBy(final MISTFunction<T, K> keySelector) {
+    return keyBy(keySelector, 0L);
+  }
+
+  @Override
+  public <K> KeyedStream<K, T> keyBy(final MISTFunction<T, K> keySelector,
+                                     final long idleKeyTimeout) {
+    try {
+      return new KeyedStreamImpl<>(this, SerializeUtils.serializeToString(keySelector), idleKeyTimeout);
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
+
   /**
    * Before joining, maps two streams into a Tuple2 form, unifies them, and
    * applies windowing operation with user-defined WindowInformation.
@@ -289,6 +390,20 @@ public class ContinuousStreamImpl<T> extends MISTStreamImpl<T> implements Contin
     return sink;
   }
 
+  @Override
+  public MISTStream<ByteBuf> binarySocketOutput(final String serverAddress,
+                                                final int serverPort) {
+    final Map<String, String> confMap = new HashMap<>();
+    confMap.put(ConfKeys.SinkConf.SINK_TYPE.name(), ConfValues.SinkType.NETTY_BINARY.name());
+    confMap.put(ConfKeys.NettySink.SINK_ADDRESS.name(), serverAddress);
+    confMap.put(ConfKeys.NettySink.SINK_PORT.name(), String.valueOf(serverPort));
+
+    final MISTStream<ByteBuf> sink = new MISTStreamImpl<>(dag, confMap);
+    dag.addVertex(sink);
+    dag.addEdge(this, sink, new MISTEdge(Direction.LEFT));
+    return sink;
+  }
+
   @Override
   public MISTStream<MqttMessage> mqttOutput(final String brokerURI, final String topic) {
 
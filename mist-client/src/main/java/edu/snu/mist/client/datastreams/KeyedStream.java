@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.datastreams;
+
+import edu.snu.mist.common.cep.CepEventPattern;
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.common.windows.WindowInformation;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyed Stream is a continuous stream partitioned by the key of each data.
+ * The stateful operations applied to the keyed stream keep a separate state for each key,
+ * so the user-defined functions do not need to maintain the states of the keys by themselves.
+ * @param <K> the type of key
+ * @param <T> the type of data
+ */
+public interface KeyedStream<K, T> {
+
+  /**
+   * Applies user-defined stateful operation to the data of each key.
+   * @param applyStatefulFunction the function that is copied and initialized for each key
+   * @param <OUT> the type of the result
+   * @return new transformed stream after applying the user-defined stateful operation
+   */
+  <OUT> ContinuousStream<OUT> applyStateful(ApplyStatefulFunction<T, OUT> applyStatefulFunction);
+
+  /**
+   * Creates a new WindowedStream whose windows are created for each key.
+   * Each window only contains the data of a single key.
+   * @param windowInfo the WindowInformation contains some information used during windowing operation
+   * @return new windowed stream after applying the windowing operation
+   */
+  WindowedStream<T> window(WindowInformation windowInfo);
+
+  /**
+   * Applies cep operator to the data of each key.
+   * @param cepEventPatterns sequence of cep events
+   * @param windowTime window time
+   * @return new transformed stream after applying cep operation
+   */
+  ContinuousStream<Map<String, List<T>>> cepOperator(List<CepEventPattern<T>> cepEventPatterns,
+                                                     long windowTime) throws IOException;
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.datastreams;
+
+import edu.snu.mist.common.cep.CepEventPattern;
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.common.windows.WindowInformation;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class implements KeyedStream by adding the key selector to the configurations of the operations.
+ * The keyed stream is not a vertex of the DAG, and the keyed operations are connected to the upstream directly.
+ * @param <K> the type of key
+ * @param <T> the type of data
+ */
+final class KeyedStreamImpl<K, T> implements KeyedStream<K, T> {
+
+  /**
+   * The stream partitioned by the key.
+   */
+  private final ContinuousStreamImpl<T> upStream;
+
+  /**
+   * The serialized key selector.
+   */
+  private final String serializedKeySelector;
+
+  /**
+   * The event time after which the state of an idle key is removed.
+   */
+  private final long idleKeyTimeout;
+
+  KeyedStreamImpl(final ContinuousStreamImpl<T> upStream,
+                  final String serializedKeySelector,
+                  final long idleKeyTimeout) {
+    this.upStream = upStream;
+    this.serializedKeySelector = serializedKeySelector;
+    this.idleKeyTimeout = idleKeyTimeout;
+  }
+
+  /**
+   * Add the key selector to the configuration of the operation.
+   * @param confMap configuration
+   * @return keyed configuration
+   */
+  private Map<String, String> toKeyedConf(final Map<String, String> confMap) {
+    confMap.put(ConfKeys.KeyedOperator.KEY_SELECTOR.name(), serializedKeySelector);
+    confMap.put(ConfKeys.KeyedOperator.IDLE_KEY_TIMEOUT.name(), String.valueOf(idleKeyTimeout));
+    return confMap;
+  }
+
+  @Override
+  public <OUT> ContinuousStream<OUT> applyStateful(final ApplyStatefulFunction<T, OUT> applyStatefulFunction) {
+    return upStream.transformToSingleInputContinuousStream(toKeyedConf(
+        ContinuousStreamImpl.newSingleUdfConf(applyStatefulFunction, ConfValues.OperatorType.APPLY_STATEFUL)),
+        upStream);
+  }
+
+  @Override
+  public WindowedStream<T> window(final WindowInformation windowInfo) {
+    return upStream.transformToWindowedStream(toKeyedConf(ContinuousStreamImpl.newWindowConf(windowInfo)), upStream);
+  }
+
+  @Override
+  public ContinuousStream<Map<String, List<T>>> cepOperator(final List<CepEventPattern<T>> cepEventPatterns,
+                                                            final long windowTime) throws IOException {
+    return upStream.transformToSingleInputContinuousStream(
+        toKeyedConf(ContinuousStreamImpl.newCepConf(cepEventPatterns, windowTime)), upStream);
+  }
+}
@@ -15,10 +15,16 @@
  */
 package edu.snu.mist.client.datastreams;
 
+import edu.snu.mist.common.SerializeUtils;
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.formats.avro.Direction;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -60,6 +66,29 @@ class MISTStreamImpl<OUT> implements MISTStream<OUT> {
     return downStream;
   }
 
+  /**
+   * Enable the late output of this stream and create a new continuous stream of the late events.
+   * The late events are forwarded by an identity map connected with the late output of this stream.
+   * @param <L> the type of late events
+   * @return continuous stream of the late events
+   */
+  protected <L> ContinuousStream<L> transformToLateEventStream() {
+    conf.put(ConfKeys.ReorderOperator.LATE_OUTPUT.name(), String.valueOf(true));
+    final MISTFunction<L, L> identityFunc = input -> input;
+    final Map<String, String> opConf = new HashMap<>();
+    opConf.put(ConfKeys.OperatorConf.OP_TYPE.name(), ConfValues.OperatorType.MAP.name());
+    try {
+      opConf.put(ConfKeys.OperatorConf.UDF_STRING.name(), SerializeUtils.serializeToString(identityFunc));
+    } catch (final IOException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+    final ContinuousStream<L> downStream = new ContinuousStreamImpl<>(dag, opConf);
+    dag.addVertex(downStream);
+    dag.addEdge(this, downStream, new MISTEdge(Direction.LEFT, ConfValues.LATE_OUTPUT_INDEX));
+    return downStream;
+  }
+
   @Override
   public Map<String, String> getConfiguration() {
     return conf;
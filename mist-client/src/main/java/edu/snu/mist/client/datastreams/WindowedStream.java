@@ -56,4 +56,11 @@ public interface WindowedStream<T> extends MISTStream<WindowData<T>> {
    * @return new aggregated continuous stream after applying the stateful operation
    */
   <R> ContinuousStream<R> applyStatefulWindow(ApplyStatefulFunction<T, R> applyStatefulFunction);
+
+  /**
+   * Gets the stream of the late data of the current time-based windowed stream,
+   * which do not belong to any window that is kept.
+   * @return the stream of the late data
+   */
+  ContinuousStream<T> lateEvents();
 }
\ No newline at end of file
@@ -85,4 +85,12 @@ final class WindowedStreamImpl<T> extends MISTStreamImpl<WindowData<T>> implemen
       throw new RuntimeException(e);
     }
   }
+
+  @Override
+  public ContinuousStream<T> lateEvents() {
+    if (!ConfValues.OperatorType.TIME_WINDOW.name().equals(conf.get(ConfKeys.OperatorConf.OP_TYPE.name()))) {
+      throw new IllegalStateException("Only time-based windowed streams have late events");
+    }
+    return transformToLateEventStream();
+  }
 }
@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.client.rulebased;
 
+import edu.snu.mist.common.types.RuleBasedSchema;
 import edu.snu.mist.common.types.Tuple2;
 
 import java.util.*;
@@ -81,6 +82,13 @@ public final class RuleBasedInput {
     return fields;
   }
 
+  /**
+   * @return schema of the records parsed from this input
+   */
+  public RuleBasedSchema getSchema() {
+    return RuleBasedValueType.toSchema(fields);
+  }
+
   /**
    * @return separator of this input
    */
@@ -16,7 +16,10 @@
 package edu.snu.mist.client.rulebased;
 
 import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.RuleBasedRecord;
+import edu.snu.mist.common.types.RuleBasedSchema;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -28,6 +31,22 @@ public final class RuleBasedMapToStringFunction implements MISTFunction<Map<Stri
   private final List<Object> fields;
   private final String separator;
 
+  /**
+   * The schema that the template is compiled for.
+   * The compiled template is not serialized, and compiled again when the schema of the input is changed.
+   */
+  private transient RuleBasedSchema compiledSchema;
+
+  /**
+   * The literal parts of the compiled template. The element is null if the part is a field reference.
+   */
+  private transient String[] compiledTemplate;
+
+  /**
+   * The slot indices of the field references in the compiled template.
+   */
+  private transient int[] compiledSlots;
+
   public RuleBasedMapToStringFunction(final List<Object> fieldsParam, final String separatorParam) {
     this.fields = fieldsParam;
     this.separator = separatorParam;
@@ -59,6 +78,106 @@ public final class RuleBasedMapToStringFunction implements MISTFunction<Map<Stri
 
   @Override
   public String apply(final Map<String, Object> s) {
+    if (s instanceof RuleBasedRecord && ((RuleBasedRecord) s).hasSchema()) {
+      return applyToRecord((RuleBasedRecord) s);
+    }
+
+    String resultStr = getTemplate();
+    final Iterator<String> iter = s.keySet().iterator();
+    while (iter.hasNext()) {
+      final String field = iter.next();
+      if (resultStr.matches(".*" + "[$]" + field + ".*")) {
+        resultStr = resultStr.replaceAll("[$]" + field, s.get(field).toString());
+      }
+    }
+    return resultStr;
+  }
+
+  /**
+   * Make the output string of the record with the template compiled for the schema of the record.
+   * @param record input record
+   * @return output string
+   */
+  private String applyToRecord(final RuleBasedRecord record) {
+    if (record.getSchema() != compiledSchema) {
+      compileTemplate(record.getSchema());
+    }
+    final StringBuilder strBuilder = new StringBuilder();
+    for (int i = 0; i < compiledTemplate.length; i++) {
+      final String literal = compiledTemplate[i];
+      if (literal != null) {
+        strBuilder.append(literal);
+        continue;
+      }
+      final int slot = compiledSlots[i];
+      final Class<?> type = compiledSchema.getFieldType(slot);
+      if (type == Integer.class) {
+        strBuilder.append(record.getInt(slot));
+      } else if (type == Long.class) {
+        strBuilder.append(record.getLong(slot));
+      } else if (type == Double.class) {
+        strBuilder.append(record.getDouble(slot));
+      } else {
+        strBuilder.append(record.getString(slot));
+      }
+    }
+    return strBuilder.toString();
+  }
+
+  /**
+   * Compile the template into literal parts and field references of the schema.
+   * A field reference is "$" followed by the longest field name of the schema.
+   * @param schema schema of the input records
+   */
+  private void compileTemplate(final RuleBasedSchema schema) {
+    final String template = getTemplate();
+    final List<String> literals = new ArrayList<>();
+    final List<Integer> slots = new ArrayList<>();
+    final StringBuilder literal = new StringBuilder();
+    int i = 0;
+    while (i < template.length()) {
+      final char c = template.charAt(i);
+      int matchedSlot = -1;
+      if (c == '$') {
+        for (int slot = 0; slot < schema.size(); slot++) {
+          final String fieldName = schema.getFieldName(slot);
+          if (template.startsWith(fieldName, i + 1)
+              && (matchedSlot < 0 || fieldName.length() > schema.getFieldName(matchedSlot).length())) {
+            matchedSlot = slot;
+          }
+        }
+      }
+      if (matchedSlot < 0) {
+        literal.append(c);
+        i += 1;
+      } else {
+        if (literal.length() > 0) {
+          literals.add(literal.toString());
+          slots.add(-1);
+          literal.setLength(0);
+        }
+        literals.add(null);
+        slots.add(matchedSlot);
+        i += 1 + schema.getFieldName(matchedSlot).length();
+      }
+    }
+    if (literal.length() > 0) {
+      literals.add(literal.toString());
+      slots.add(-1);
+    }
+
+    compiledTemplate = literals.toArray(new String[0]);
+    compiledSlots = new int[slots.size()];
+    for (int j = 0; j < compiledSlots.length; j++) {
+      compiledSlots[j] = slots.get(j);
+    }
+    compiledSchema = schema;
+  }
+
+  /**
+   * @return the parameters joined with the separator
+   */
+  private String getTemplate() {
     final StringBuilder strBuilder = new StringBuilder();
 
     for (final Object iter : fields) {
@@ -71,15 +190,6 @@ public final class RuleBasedMapToStringFunction implements MISTFunction<Map<Stri
     }
 
     strBuilder.delete(strBuilder.length() - separator.length(), strBuilder.length());
-
-    final Iterator<String> iter = s.keySet().iterator();
-    String resultStr = strBuilder.toString();
-    while (iter.hasNext()) {
-      final String field = iter.next();
-      if (resultStr.matches(".*" + "[$]" + field + ".*")) {
-        resultStr = resultStr.replaceAll("[$]" + field, s.get(field).toString());
-      }
-    }
-    return resultStr;
+    return strBuilder.toString();
   }
 }
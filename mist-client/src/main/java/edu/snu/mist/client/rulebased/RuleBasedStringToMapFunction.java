@@ -16,59 +16,32 @@
 package edu.snu.mist.client.rulebased;
 
 import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.RuleBasedRecordParser;
 import edu.snu.mist.common.types.Tuple2;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Class for Translate input String into Map.
+ * The result is a RuleBasedRecord whose field slots are resolved when the query is built.
+ * If the input has more fields than the declared fields, the spare parts are eliminated.
  */
 public final class RuleBasedStringToMapFunction implements MISTFunction<String, Map<String, Object>> {
   private final List<Tuple2<String, RuleBasedValueType>> fields;
   private final String separator;
+  private final RuleBasedRecordParser parser;
 
   public RuleBasedStringToMapFunction(final List<Tuple2<String, RuleBasedValueType>> fieldsParam,
                                       final String separatorParam) {
     this.fields = fieldsParam;
     this.separator = separatorParam;
+    this.parser = new RuleBasedRecordParser(RuleBasedValueType.toSchema(fieldsParam), separatorParam);
   }
 
   @Override
   public Map<String, Object> apply(final String s) {
-    final String[] inputParse = s.split(separator);
-    final int inputSize = inputParse.length;
-
-    if (inputSize < fields.size()) {
-      throw new IllegalStateException("Cannot match input string to tuple since the size is different!");
-    }
-
-    final Map<String, Object> result = new HashMap<>();
-    Object value;
-
-    //if inputSize is larger than fields size, then the spare parts are eliminated.
-    for (int i = 0; i < fields.size(); i++) {
-      final Tuple2<String, RuleBasedValueType> tuple = fields.get(i);
-      switch ((RuleBasedValueType) tuple.get(1)) {
-        case DOUBLE:
-          value = Double.parseDouble(inputParse[i].trim());
-          break;
-        case INTEGER:
-          value = Integer.parseInt(inputParse[i].trim());
-          break;
-        case LONG:
-          value = Long.parseLong(inputParse[i].trim());
-          break;
-        case STRING:
-          value = inputParse[i].trim();
-          break;
-        default:
-          throw new IllegalStateException("Fields value type is wrong!");
-      }
-      result.put((String) tuple.get(0), value);
-    }
-    return result;
+    return parser.parse(s);
   }
 
   @Override
@@ -15,12 +15,49 @@
  */
 package edu.snu.mist.client.rulebased;
 
+import edu.snu.mist.common.types.RuleBasedSchema;
+import edu.snu.mist.common.types.Tuple2;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Data value types.
  */
 public enum RuleBasedValueType {
-  INTEGER,
-  STRING,
-  LONG,
-  DOUBLE
-}
\ No newline at end of file
+  INTEGER(Integer.class),
+  STRING(String.class),
+  LONG(Long.class),
+  DOUBLE(Double.class);
+
+  /**
+   * The class of the values.
+   */
+  private final Class<?> valueClass;
+
+  RuleBasedValueType(final Class<?> valueClass) {
+    this.valueClass = valueClass;
+  }
+
+  /**
+   * @return the class of the values
+   */
+  public Class<?> getValueClass() {
+    return valueClass;
+  }
+
+  /**
+   * Create the schema of rule-based records that have the fields.
+   * @param fields the names and types of the fields
+   * @return schema
+   */
+  public static RuleBasedSchema toSchema(final List<Tuple2<String, RuleBasedValueType>> fields) {
+    final List<String> fieldNames = new ArrayList<>(fields.size());
+    final List<Class<?>> fieldTypes = new ArrayList<>(fields.size());
+    for (final Tuple2<String, RuleBasedValueType> field : fields) {
+      fieldNames.add((String) field.get(0));
+      fieldTypes.add(((RuleBasedValueType) field.get(1)).getValueClass());
+    }
+    return new RuleBasedSchema(fieldNames, fieldTypes);
+  }
+}
@@ -18,9 +18,16 @@ package edu.snu.mist.client;
 import edu.snu.mist.client.datastreams.ContinuousStream;
 import edu.snu.mist.client.datastreams.ContinuousStreamImpl;
 import edu.snu.mist.client.datastreams.MISTStream;
+import edu.snu.mist.client.datastreams.WindowedStream;
 import edu.snu.mist.client.utils.TestParameters;
+import edu.snu.mist.client.utils.UDFTestUtils;
+import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.types.Tuple2;
+import edu.snu.mist.common.windows.CountWindowInformation;
+import edu.snu.mist.common.windows.TimeWindowInformation;
 import edu.snu.mist.formats.avro.Direction;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Assert;
@@ -115,4 +122,113 @@ public final class LogicalDagOptimizerTest {
     result7.put(sink3, new MISTEdge(Direction.LEFT));
     Assert.assertEquals(e7, result7);
   }
+
+  /**
+   * Test the fusion of windows and applyStatefulWindow operations.
+   * logical dag:
+   *             -> window1 (time) -> applyStateful1 -> sink1
+   * src1 -> op1 -> window2 (count) -> applyStateful2 -> sink2
+   *                                -> aggregate -> sink3
+   *
+   * should be converted to the expected optimized dag:
+   *             -> fusedApplyStateful1 (time) -> sink1
+   * src1 -> op1 -> window2 (count) -> applyStateful2 -> sink2
+   *                                -> aggregate -> sink3
+   */
+  @Test
+  public void testStatefulWindowFusion() throws InjectionException {
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID);
+    final ContinuousStream<String> src1 =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<Tuple2<String, Integer>> op1 = src1.map((x) -> new Tuple2<>(x, 1));
+    final WindowedStream<Tuple2<String, Integer>> window1 = op1.window(new TimeWindowInformation(500, 250));
+    final WindowedStream<Tuple2<String, Integer>> window2 = op1.window(new CountWindowInformation(10, 5));
+    final ContinuousStream<Integer> applyStateful1 =
+        window1.applyStatefulWindow(new UDFTestUtils.TestApplyStatefulFunction());
+    final ContinuousStream<Integer> applyStateful2 =
+        window2.applyStatefulWindow(new UDFTestUtils.TestApplyStatefulFunction());
+    final ContinuousStream<Integer> aggregate = window2.aggregateWindow((x) -> 1);
+
+    final MISTStream<String> sink1 = applyStateful1.textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+    applyStateful2.textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+    aggregate.textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+
+    final MISTQuery query = queryBuilder.build();
+    final DAG<MISTStream, MISTEdge> optimizedDAG = new LogicalDagOptimizer(query.getDAG()).getOptimizedDAG();
+
+    // Check op1 -> fusedApplyStateful1, and op1 -> window2
+    final Map<MISTStream, MISTEdge> e1 = optimizedDAG.getEdges(op1);
+    final Map<MISTStream, MISTEdge> result1 = new HashMap<>();
+    result1.put(applyStateful1, new MISTEdge(Direction.LEFT));
+    result1.put(window2, new MISTEdge(Direction.LEFT));
+    Assert.assertEquals(result1, e1);
+    Assert.assertFalse(optimizedDAG.hasVertex(window1));
+
+    final Map<String, String> fusedConf = applyStateful1.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.APPLY_STATEFUL_TIME_WINDOW.name(),
+        fusedConf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("500", fusedConf.get(ConfKeys.WindowOperator.WINDOW_SIZE.name()));
+    Assert.assertEquals("250", fusedConf.get(ConfKeys.WindowOperator.WINDOW_INTERVAL.name()));
+    Assert.assertTrue(optimizedDAG.getEdges(applyStateful1).containsKey(sink1));
+
+    // The window consumed by multiple operations is not fused
+    Assert.assertEquals(2, optimizedDAG.getEdges(window2).size());
+    Assert.assertEquals(ConfValues.OperatorType.APPLY_STATEFUL_WINDOW.name(),
+        applyStateful2.getConfiguration().get(ConfKeys.OperatorConf.OP_TYPE.name()));
+  }
+
+  /**
+   * Test whether a chain of binary unions is flattened into an n-ary union,
+   * and an input with the late output is connected through an identity map.
+   */
+  @Test
+  public void testUnionFlattening() throws InjectionException {
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID);
+    final ContinuousStream<String> src1 =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<String> src2 =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<String> src3 =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<String> src4 =
+        queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<String> reordered = src4.reorder(10L);
+    reordered.lateEvents().textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+
+    final ContinuousStream<String> union1 = src1.union(src2);
+    final ContinuousStream<String> union2 = src3.union(union1);
+    final ContinuousStream<String> union3 = union2.union(reordered);
+    final MISTStream<String> sink = union3.textSocketOutput(TestParameters.HOST, TestParameters.SINK_PORT);
+
+    final MISTQuery query = queryBuilder.build();
+    final DAG<MISTStream, MISTEdge> optimizedDAG = new LogicalDagOptimizer(query.getDAG()).getOptimizedDAG();
+
+    Assert.assertFalse(optimizedDAG.hasVertex(union1));
+    Assert.assertFalse(optimizedDAG.hasVertex(union2));
+    final Map<String, String> unionConf = union3.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.NARY_UNION.name(),
+        unionConf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("4", unionConf.get(ConfKeys.UnionOperator.NUM_INPUTS.name()));
+
+    // The inputs are ordered as they are in the chain
+    Assert.assertEquals(new MISTEdge(Direction.LEFT, 0), optimizedDAG.getEdges(src3).get(union3));
+    Assert.assertEquals(new MISTEdge(Direction.LEFT, 1), optimizedDAG.getEdges(src1).get(union3));
+    Assert.assertEquals(new MISTEdge(Direction.LEFT, 2), optimizedDAG.getEdges(src2).get(union3));
+    Assert.assertFalse(optimizedDAG.getEdges(reordered).containsKey(union3));
+    Assert.assertTrue(optimizedDAG.getEdges(union3).containsKey(sink));
+
+    // The reordered stream emits the events to the late output, so it is connected through an identity map
+    MISTStream identityMap = null;
+    for (final MISTStream next : optimizedDAG.getEdges(reordered).keySet()) {
+      if (optimizedDAG.getEdges(next).containsKey(union3)) {
+        identityMap = next;
+      }
+    }
+    Assert.assertNotNull(identityMap);
+    Assert.assertEquals(ConfValues.OperatorType.MAP.name(),
+        identityMap.getConfiguration().get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals(new MISTEdge(Direction.LEFT, 3), optimizedDAG.getEdges(identityMap).get(union3));
+  }
 }
@@ -53,8 +53,9 @@ public class MISTDefaultExecutionEnvironmentImplTest {
   @Test
   public void testMISTDefaultExecutionEnvironment() throws IOException {
     // Step 1: Launch mock RPC Server
+    final MockMasterServer mockMasterServer = new MockMasterServer(host, taskPortNum);
     final Server masterServer = new NettyServer(
-        new SpecificResponder(ClientToMasterMessage.class, new MockMasterServer(host, taskPortNum)),
+        new SpecificResponder(ClientToMasterMessage.class, mockMasterServer),
         new InetSocketAddress(masterPortNum));
     final Server taskServer = new NettyServer(
         new SpecificResponder(ClientToTaskMessage.class, new MockTaskServer(testQueryResult)),
@@ -90,8 +91,46 @@ public class MISTDefaultExecutionEnvironmentImplTest {
     // Step 4: Send a query and check whether the query comes to the task correctly
     final APIQueryControlResult result = executionEnvironment.submitQuery(query);
     Assert.assertEquals(result.getQueryId(), testQueryResult);
+
+    // Step 5: Send more queries, which reuse the query allocation lease of the application
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(testQueryResult, executionEnvironment.submitQuery(query).getQueryId());
+    }
+    Assert.assertEquals(1, mockMasterServer.getLeaseNum());
     masterServer.close();
     taskServer.close();
     Files.delete(tempJarFile);
   }
+
+  /**
+   * Test whether the client stops requesting the query allocation leases
+   * if the master does not lease the allocations.
+   */
+  @Test
+  public void testSubmitWithoutLease() throws IOException {
+    final MockMasterServer mockMasterServer = new MockMasterServer(host, taskPortNum, 0);
+    final Server masterServer = new NettyServer(
+        new SpecificResponder(ClientToMasterMessage.class, mockMasterServer),
+        new InetSocketAddress(masterPortNum));
+    final Server taskServer = new NettyServer(
+        new SpecificResponder(ClientToTaskMessage.class, new MockTaskServer(testQueryResult)),
+        new InetSocketAddress(taskPortNum));
+    final MISTExecutionEnvironment executionEnvironment = new MISTDefaultExecutionEnvironmentImpl(
+        host, masterPortNum);
+
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId("app_id")
+        .socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF)
+        .textSocketOutput("localhost", 13667);
+    final MISTQuery query = queryBuilder.build();
+
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(testQueryResult, executionEnvironment.submitQuery(query).getQueryId());
+    }
+    // Only the first query requests a lease
+    Assert.assertEquals(1, mockMasterServer.getLeaseNum());
+    Assert.assertEquals(3, mockMasterServer.getSubmitInfoNum());
+    masterServer.close();
+    taskServer.close();
+  }
 }
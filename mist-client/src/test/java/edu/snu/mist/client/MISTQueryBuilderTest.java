@@ -19,10 +19,12 @@ import edu.snu.mist.client.datastreams.ContinuousStream;
 import edu.snu.mist.client.datastreams.configurations.KafkaSourceConfiguration;
 import edu.snu.mist.client.datastreams.configurations.MQTTSourceConfiguration;
 import edu.snu.mist.client.datastreams.configurations.TextSocketSourceConfiguration;
+import edu.snu.mist.client.utils.UDFTestUtils;
 import edu.snu.mist.client.utils.TestParameters;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
 import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.types.Tuple2;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.exceptions.InjectionException;
@@ -146,4 +148,52 @@ public class MISTQueryBuilderTest {
     Assert.assertEquals("1000", conf.get(ConfKeys.Watermark.PERIODIC_WATERMARK_PERIOD.name()));
     Assert.assertEquals("0", conf.get(ConfKeys.Watermark.PERIODIC_WATERMARK_DELAY.name()));
   }
+
+  /**
+   * Test whether the parallelism is set to the stateless and keyed operators only.
+   */
+  @Test
+  public void testParallelism() {
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID).setParallelism(4);
+
+    final ContinuousStream<String> source = queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final ContinuousStream<Tuple2<String, Integer>> map = source.map(s -> new Tuple2<>(s, s.length()));
+    final ContinuousStream<Tuple2<String, Integer>> filter = map.filter(t -> (Integer) t.get(1) > 1);
+    final ContinuousStream<Integer> keyedStream =
+        filter.keyBy(t -> t.get(0)).applyStateful(new UDFTestUtils.TestApplyStatefulFunction());
+    final ContinuousStream<Integer> applyStateful = filter.applyStateful(new UDFTestUtils.TestApplyStatefulFunction());
+    queryBuilder.build();
+
+    final String parallelismKey = ConfKeys.OperatorConf.PARALLELISM.name();
+    Assert.assertEquals("4", map.getConfiguration().get(parallelismKey));
+    Assert.assertEquals("4", filter.getConfiguration().get(parallelismKey));
+    Assert.assertEquals("4", keyedStream.getConfiguration().get(parallelismKey));
+    Assert.assertFalse(source.getConfiguration().containsKey(parallelismKey));
+    Assert.assertFalse(applyStateful.getConfiguration().containsKey(parallelismKey));
+  }
+
+  /**
+   * Test whether the latency objective is carried by the query, not by the configurations of the sources.
+   */
+  @Test
+  public void testLatencySlo() {
+    final MISTQueryBuilder queryBuilder = new MISTQueryBuilder();
+    queryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID).setLatencySlo(50L);
+
+    final ContinuousStream<String> source = queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    source.map(String::length);
+    final MISTQuery query = queryBuilder.build();
+
+    final MISTQueryBuilder otherQueryBuilder = new MISTQueryBuilder();
+    otherQueryBuilder.setApplicationId(TestParameters.SUPER_GROUP_ID);
+    final ContinuousStream<String> otherSource =
+        otherQueryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF);
+    final MISTQuery otherQuery = otherQueryBuilder.build();
+
+    Assert.assertEquals(50L, query.getLatencySlo());
+    Assert.assertEquals(0L, otherQuery.getLatencySlo());
+    // The source configuration is the key of the query merging, so it should not differ by the objective
+    Assert.assertEquals(otherSource.getConfiguration(), source.getConfiguration());
+  }
 }
@@ -21,6 +21,7 @@ import edu.snu.mist.client.utils.TestParameters;
 import edu.snu.mist.client.utils.UDFTestUtils;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.configurations.ConfKeys;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.common.functions.*;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
@@ -37,6 +38,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -137,6 +140,36 @@ public final class ContinuousStreamTest {
         statefulOperatorStream, new MISTEdge(Direction.LEFT));
   }
 
+  /**
+   * Test for keyed stateful UDF operator and keyed window.
+   */
+  @Test
+  public void testKeyedStream() throws IOException {
+    final MISTFunction<Tuple2<String, Integer>, String> keySelector = t -> (String) t.get(0);
+    final KeyedStream<String, Tuple2<String, Integer>> keyedStream = filteredMappedStream.keyBy(keySelector, 1000L);
+    final ContinuousStream<Integer> keyedStatefulStream =
+        keyedStream.applyStateful(new UDFTestUtils.TestApplyStatefulFunction());
+    final WindowedStream<Tuple2<String, Integer>> keyedWindowedStream =
+        keyedStream.window(new CountWindowInformation(windowSize, windowEmissionInterval));
+
+    final Map<String, String> conf = keyedStatefulStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.APPLY_STATEFUL.name(),
+        conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals(SerializeUtils.serializeToString(keySelector),
+        conf.get(ConfKeys.KeyedOperator.KEY_SELECTOR.name()));
+    Assert.assertEquals("1000", conf.get(ConfKeys.KeyedOperator.IDLE_KEY_TIMEOUT.name()));
+    checkSizeBasedWindowInfo(windowSize, windowEmissionInterval, keyedWindowedStream.getConfiguration());
+    Assert.assertEquals(SerializeUtils.serializeToString(keySelector),
+        keyedWindowedStream.getConfiguration().get(ConfKeys.KeyedOperator.KEY_SELECTOR.name()));
+
+    // Check map -> keyed applyStateful, and map -> keyed window
+    final DAG<MISTStream, MISTEdge> dag = queryBuilder.build().getDAG();
+    final Map<MISTStream, MISTEdge> edges = dag.getEdges(filteredMappedStream);
+    Assert.assertEquals(2, edges.size());
+    Assert.assertEquals(new MISTEdge(Direction.LEFT), edges.get(keyedStatefulStream));
+    Assert.assertEquals(new MISTEdge(Direction.LEFT), edges.get(keyedWindowedStream));
+  }
+
   /**
    * Test for union operator.
    */
@@ -163,6 +196,67 @@ public final class ContinuousStreamTest {
     Assert.assertEquals(new MISTEdge(Direction.RIGHT), n2.get(unifiedStream));
   }
 
+  /**
+   * Test for n-ary union operation.
+   */
+  @Test
+  public void testNaryUnionOperatorStream() {
+    final List<ContinuousStream<Tuple2<String, Integer>>> inputStreams = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      inputStreams.add(queryBuilder.socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF)
+          .map(s -> new Tuple2<>(s, 1)));
+    }
+    final ContinuousStream<Tuple2<String, Integer>> unifiedStream = filteredMappedStream.union(inputStreams);
+
+    final Map<String, String> conf = unifiedStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.NARY_UNION.name(), conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("4", conf.get(ConfKeys.UnionOperator.NUM_INPUTS.name()));
+
+    // The inputs are identified by the edge indices
+    final DAG<MISTStream, MISTEdge> dag = queryBuilder.build().getDAG();
+    Assert.assertEquals(new MISTEdge(Direction.LEFT, 0), dag.getEdges(filteredMappedStream).get(unifiedStream));
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(new MISTEdge(Direction.LEFT, i + 1), dag.getEdges(inputStreams.get(i)).get(unifiedStream));
+    }
+  }
+
+  /**
+   * Test for union and reorder operations that tolerate out-of-order events with the late events stream.
+   */
+  @Test
+  public void testOutOfOrderStreams() {
+    final ContinuousStream<Tuple2<String, Integer>> filteredMappedStream2 = queryBuilder
+        .socketTextStream(TestParameters.LOCAL_TEXT_SOCKET_SOURCE_CONF)
+            .map(s -> new Tuple2<>(s, 1));
+    final ContinuousStream<Tuple2<String, Integer>> unifiedStream
+        = filteredMappedStream.union(filteredMappedStream2, 100L);
+    final ContinuousStream<Tuple2<String, Integer>> reorderedStream = filteredMappedStream2.reorder(50L);
+    final ContinuousStream<Tuple2<String, Integer>> lateStream = unifiedStream.lateEvents();
+
+    final Map<String, String> unionConf = unifiedStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.UNION.name(), unionConf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("100", unionConf.get(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name()));
+    Assert.assertEquals("true", unionConf.get(ConfKeys.ReorderOperator.LATE_OUTPUT.name()));
+    final Map<String, String> reorderConf = reorderedStream.getConfiguration();
+    Assert.assertEquals(ConfValues.OperatorType.REORDER.name(),
+        reorderConf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    Assert.assertEquals("50", reorderConf.get(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name()));
+    Assert.assertFalse(reorderConf.containsKey(ConfKeys.ReorderOperator.LATE_OUTPUT.name()));
+
+    // The late events are sent through the late output edge
+    final DAG<MISTStream, MISTEdge> dag = queryBuilder.build().getDAG();
+    Assert.assertEquals(new MISTEdge(Direction.LEFT, ConfValues.LATE_OUTPUT_INDEX),
+        dag.getEdges(unifiedStream).get(lateStream));
+  }
+
+  /**
+   * Test whether only union and reorder streams have late events.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testLateEventsOfInvalidStream() {
+    filteredMappedStream.lateEvents();
+  }
+
   /**
    * Test for creating time-based WindowedStream from ContinuousStream.
    */
@@ -178,6 +272,32 @@ public final class ContinuousStreamTest {
         timeWindowedStream, new MISTEdge(Direction.LEFT));
   }
 
+  /**
+   * Test for creating time-based WindowedStream with the allowed lateness and the late events.
+   */
+  @Test
+  public void testLateTimeWindowedStream() {
+    final WindowedStream<Tuple2<String, Integer>> timeWindowedStream = filteredMappedStream
+        .window(new TimeWindowInformation(windowSize, windowEmissionInterval), 200L);
+    final ContinuousStream<Tuple2<String, Integer>> lateStream = timeWindowedStream.lateEvents();
+
+    final Map<String, String> conf = timeWindowedStream.getConfiguration();
+    checkSizeBasedWindowInfo(windowSize, windowEmissionInterval, conf);
+    Assert.assertEquals("200", conf.get(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name()));
+    Assert.assertEquals("true", conf.get(ConfKeys.ReorderOperator.LATE_OUTPUT.name()));
+    final DAG<MISTStream, MISTEdge> dag = queryBuilder.build().getDAG();
+    Assert.assertEquals(new MISTEdge(Direction.LEFT, ConfValues.LATE_OUTPUT_INDEX),
+        dag.getEdges(timeWindowedStream).get(lateStream));
+  }
+
+  /**
+   * Test whether only time-based windows have the allowed lateness.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testLatenessOfCountWindow() {
+    filteredMappedStream.window(new CountWindowInformation(windowSize, windowEmissionInterval), 200L);
+  }
+
   /**
    * Test for creating count-based WindowedStream from ContinuousStream.
    */
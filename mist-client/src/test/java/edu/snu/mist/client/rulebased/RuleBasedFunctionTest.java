@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.client.rulebased;
+
+import edu.snu.mist.common.types.RuleBasedRecord;
+import edu.snu.mist.common.types.Tuple2;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A collection of tests for the functions used in translated rule-based queries.
+ */
+public class RuleBasedFunctionTest {
+
+  private final List<Tuple2<String, RuleBasedValueType>> fields = Arrays.asList(
+      new Tuple2<>("ID", RuleBasedValueType.STRING),
+      new Tuple2<>("Temp", RuleBasedValueType.INTEGER),
+      new Tuple2<>("Temperature", RuleBasedValueType.DOUBLE));
+
+  /**
+   * Test whether the string is parsed into a record that follows the schema of the input.
+   */
+  @Test
+  public void testStringToMapFunction() {
+    final RuleBasedStringToMapFunction function = new RuleBasedStringToMapFunction(fields, ":");
+    final Map<String, Object> result = function.apply("HelloMIST: 10 :36.5");
+    Assert.assertTrue(result instanceof RuleBasedRecord);
+
+    final Map<String, Object> expected = new HashMap<>();
+    expected.put("ID", "HelloMIST");
+    expected.put("Temp", 10);
+    expected.put("Temperature", 36.5);
+    Assert.assertEquals(expected, result);
+
+    final RuleBasedInput input = new RuleBasedInput.TextSocketBuilder()
+        .addField("ID", RuleBasedValueType.STRING)
+        .addField("Temp", RuleBasedValueType.INTEGER)
+        .addField("Temperature", RuleBasedValueType.DOUBLE)
+        .build();
+    Assert.assertEquals(input.getSchema(), ((RuleBasedRecord) result).getSchema());
+  }
+
+  /**
+   * Test whether the map to string function produces the same output for records and maps.
+   */
+  @Test
+  public void testMapToStringFunction() {
+    final RuleBasedMapToStringFunction function =
+        new RuleBasedMapToStringFunction(Arrays.asList("$ID", "$Temperature", "$$Temp"), ",");
+    final Map<String, Object> record = new RuleBasedStringToMapFunction(fields, ":").apply("HelloMIST:10:36.5");
+    final Map<String, Object> map = new HashMap<>(record);
+
+    // The longest field name is used for the record
+    Assert.assertEquals("HelloMIST,36.5,$10", function.apply(record));
+
+    final RuleBasedMapToStringFunction simpleFunction =
+        new RuleBasedMapToStringFunction(Arrays.asList("$ID", "$Temp"), ":");
+    Assert.assertEquals(simpleFunction.apply(map), simpleFunction.apply(record));
+  }
+}
@@ -18,12 +18,15 @@ package edu.snu.mist.client.utils;
 import edu.snu.mist.formats.avro.ClientToMasterMessage;
 import edu.snu.mist.formats.avro.IPAddress;
 import edu.snu.mist.formats.avro.JarUploadResult;
+import edu.snu.mist.formats.avro.QueryAllocationLease;
+import edu.snu.mist.formats.avro.QueryIdRange;
 import edu.snu.mist.formats.avro.QuerySubmitInfo;
 import org.apache.avro.AvroRemoteException;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A task provider for test.
@@ -31,11 +34,37 @@ import java.util.List;
 public class MockMasterServer implements ClientToMasterMessage {
   private final String taskHost;
   private final int taskPortNum;
+  private final int leaseSize;
+  private final AtomicInteger leaseNum;
+  private final AtomicInteger submitInfoNum;
 
   public MockMasterServer(final String taskHost,
                           final int taskPortNum) {
+    this(taskHost, taskPortNum, 10);
+  }
+
+  public MockMasterServer(final String taskHost,
+                          final int taskPortNum,
+                          final int leaseSize) {
     this.taskHost = taskHost;
     this.taskPortNum = taskPortNum;
+    this.leaseSize = leaseSize;
+    this.leaseNum = new AtomicInteger();
+    this.submitInfoNum = new AtomicInteger();
+  }
+
+  /**
+   * @return the number of the query allocation leases given to the clients
+   */
+  public int getLeaseNum() {
+    return leaseNum.get();
+  }
+
+  /**
+   * @return the number of the query submit infos given to the clients
+   */
+  public int getSubmitInfoNum() {
+    return submitInfoNum.get();
   }
 
   @Override
@@ -55,10 +84,22 @@ public class MockMasterServer implements ClientToMasterMessage {
 
   @Override
   public QuerySubmitInfo getQuerySubmitInfo(final String appId) throws AvroRemoteException {
+    submitInfoNum.incrementAndGet();
     return QuerySubmitInfo.newBuilder()
         .setJarPaths(new ArrayList())
         .setQueryId("query_id")
         .setTask(new IPAddress(taskHost, taskPortNum))
         .build();
   }
-}
\ No newline at end of file
+
+  @Override
+  public QueryAllocationLease getQueryAllocationLease(final String appId) throws AvroRemoteException {
+    leaseNum.incrementAndGet();
+    return QueryAllocationLease.newBuilder()
+        .setJarPaths(new ArrayList<>())
+        .setQueryIds(new QueryIdRange("query_id-", 0L, leaseSize))
+        .setTask(new IPAddress(taskHost, taskPortNum))
+        .setLeaseTime(60000L)
+        .build();
+  }
+}
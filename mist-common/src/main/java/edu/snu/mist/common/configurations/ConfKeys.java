@@ -44,6 +44,16 @@ public final class ConfKeys {
   public enum OperatorConf {
     OP_TYPE,
     UDF_STRING,
+    PARALLELISM,
+  }
+
+  public enum UnionOperator {
+    NUM_INPUTS
+  }
+
+  public enum ReorderOperator {
+    ALLOWED_LATENESS,
+    LATE_OUTPUT
   }
 
   public enum StateTransitionOperator {
@@ -67,6 +77,11 @@ public final class ConfKeys {
     WINDOW_INTERVAL
   }
 
+  public enum KeyedOperator {
+    KEY_SELECTOR,
+    IDLE_KEY_TIMEOUT
+  }
+
   public enum ConditionalBranchOperator {
     UDF_LIST_STRING
   }
@@ -21,9 +21,16 @@ public final class ConfValues {
 
   }
 
+  /**
+   * The index of the edges that receive the late events of the operators which reorder their inputs
+   * or keep their windows for the late events.
+   */
+  public static final int LATE_OUTPUT_INDEX = 1;
+
   public enum SourceType {
     KAFKA,
     NETTY,
+    NETTY_BINARY,
     MQTT
   }
 
@@ -36,16 +43,21 @@ public final class ConfValues {
     CEP,
     REDUCE_BY_KEY,
     UNION,
+    NARY_UNION,
+    REORDER,
     TIME_WINDOW,
     COUNT_WINDOW,
     SESSION_WINDOW,
     JOIN,
     AGGREGATE_WINDOW,
-    APPLY_STATEFUL_WINDOW
+    APPLY_STATEFUL_WINDOW,
+    APPLY_STATEFUL_TIME_WINDOW,
+    APPLY_STATEFUL_COUNT_WINDOW
   }
 
   public enum SinkType {
     NETTY,
+    NETTY_BINARY,
     MQTT
   }
 
@@ -31,6 +31,10 @@ public final class RuleBasedANDPredicate implements MISTPredicate<Map<String, Ob
     this.predicateList = predicateList;
   }
 
+  public List<MISTPredicate<Map<String, Object>>> getPredicateList() {
+    return predicateList;
+  }
+
   @Override
   public boolean test(final Map<String, Object> stringObjectMap) {
     boolean result = true;
@@ -31,6 +31,10 @@ public final class RuleBasedORPredicate implements MISTPredicate<Map<String, Obj
     this.predicateList = predicateList;
   }
 
+  public List<MISTPredicate<Map<String, Object>>> getPredicateList() {
+    return predicateList;
+  }
+
   @Override
   public boolean test(final Map<String, Object> stringObjectMap) {
     boolean result = false;
@@ -0,0 +1,371 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.predicates;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.types.RuleBasedRecord;
+import edu.snu.mist.common.types.RuleBasedSchema;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a tree of rule-based predicates into type-specialized evaluators.
+ * The type of the compared value is resolved once at compile time,
+ * so the compiled predicate compares unboxed primitives instead of checking the classes of the objects per event.
+ * AND/OR predicates are flattened into arrays of compiled children.
+ * If the event is a RuleBasedRecord, the field is read from its slot without hashing and boxing.
+ * If an event field does not have the expected type, the compiled predicate falls back to
+ * the interpreted predicate, which keeps the original semantics (including the type mismatch exception).
+ */
+public final class RuleBasedPredicateCompiler {
+
+  /**
+   * Bit masks over the sign of a comparison result.
+   * Bit 0 is set if the predicate accepts (event < value), bit 1 for (event == value), and bit 2 for (event > value).
+   */
+  private static final int LT_MASK = 0b001;
+  private static final int EQ_MASK = 0b010;
+  private static final int GT_MASK = 0b100;
+
+  private RuleBasedPredicateCompiler() {
+    // empty constructor
+  }
+
+  /**
+   * Compile the predicate if it is a rule-based predicate.
+   * @param predicate predicate
+   * @param <T> input type
+   * @return the compiled predicate, or the given predicate if it cannot be compiled
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> MISTPredicate<T> compile(final MISTPredicate<T> predicate) {
+    if (!isCompilable(predicate)) {
+      return predicate;
+    }
+    return (MISTPredicate<T>) compileNode((MISTPredicate<Map<String, Object>>) predicate);
+  }
+
+  /**
+   * Check whether the predicate is a rule-based predicate that can be compiled.
+   * @param predicate predicate
+   * @return true if the predicate can be compiled
+   */
+  public static boolean isCompilable(final MISTPredicate<?> predicate) {
+    return predicate instanceof RuleBasedCCPredicate
+        || predicate instanceof RuleBasedANDPredicate
+        || predicate instanceof RuleBasedORPredicate;
+  }
+
+  private static MISTPredicate<Map<String, Object>> compileNode(final MISTPredicate<Map<String, Object>> predicate) {
+    if (predicate instanceof RuleBasedANDPredicate) {
+      return new CompiledAND(compileChildren(((RuleBasedANDPredicate) predicate).getPredicateList()));
+    } else if (predicate instanceof RuleBasedORPredicate) {
+      return new CompiledOR(compileChildren(((RuleBasedORPredicate) predicate).getPredicateList()));
+    } else if (predicate instanceof RuleBasedCCPredicate) {
+      return compileComparison((RuleBasedCCPredicate) predicate);
+    } else {
+      // User-defined predicates are used as they are
+      return predicate;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static MISTPredicate<Map<String, Object>>[] compileChildren(
+      final List<MISTPredicate<Map<String, Object>>> predicateList) {
+    final MISTPredicate<Map<String, Object>>[] children = new MISTPredicate[predicateList.size()];
+    for (int i = 0; i < children.length; i++) {
+      children[i] = compileNode(predicateList.get(i));
+    }
+    return children;
+  }
+
+  private static MISTPredicate<Map<String, Object>> compileComparison(final RuleBasedCCPredicate predicate) {
+    final int mask = getAcceptMask(predicate);
+    if (mask < 0) {
+      return predicate;
+    }
+    final Object value = predicate.getValue();
+    if (value instanceof Integer) {
+      return new IntComparison(predicate, mask);
+    } else if (value instanceof Long) {
+      return new LongComparison(predicate, mask);
+    } else if (value instanceof Double) {
+      return new DoubleComparison(predicate, mask);
+    } else if (value instanceof String) {
+      return new StringComparison(predicate, mask);
+    } else {
+      return predicate;
+    }
+  }
+
+  /**
+   * Get the accept mask of the comparison predicate.
+   * @param predicate comparison predicate
+   * @return accept mask, or -1 if the predicate is unknown
+   */
+  private static int getAcceptMask(final RuleBasedCCPredicate predicate) {
+    if (predicate instanceof RuleBasedEQPredicate) {
+      return EQ_MASK;
+    } else if (predicate instanceof RuleBasedNEQPredicate) {
+      return LT_MASK | GT_MASK;
+    } else if (predicate instanceof RuleBasedGTPredicate) {
+      return GT_MASK;
+    } else if (predicate instanceof RuleBasedGEPredicate) {
+      return GT_MASK | EQ_MASK;
+    } else if (predicate instanceof RuleBasedLTPredicate) {
+      return LT_MASK;
+    } else if (predicate instanceof RuleBasedLEPredicate) {
+      return LT_MASK | EQ_MASK;
+    } else {
+      return -1;
+    }
+  }
+
+  /**
+   * Check whether the comparison result is accepted by the mask.
+   */
+  private static boolean accepts(final int mask, final int compareResult) {
+    if (compareResult < 0) {
+      return (mask & LT_MASK) != 0;
+    } else if (compareResult == 0) {
+      return (mask & EQ_MASK) != 0;
+    } else {
+      return (mask & GT_MASK) != 0;
+    }
+  }
+
+  /**
+   * Compiled AND predicate.
+   */
+  private static final class CompiledAND implements MISTPredicate<Map<String, Object>> {
+    private final MISTPredicate<Map<String, Object>>[] children;
+
+    CompiledAND(final MISTPredicate<Map<String, Object>>[] children) {
+      this.children = children;
+    }
+
+    @Override
+    public boolean test(final Map<String, Object> event) {
+      for (final MISTPredicate<Map<String, Object>> child : children) {
+        if (!child.test(event)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Compiled OR predicate.
+   */
+  private static final class CompiledOR implements MISTPredicate<Map<String, Object>> {
+    private final MISTPredicate<Map<String, Object>>[] children;
+
+    CompiledOR(final MISTPredicate<Map<String, Object>>[] children) {
+      this.children = children;
+    }
+
+    @Override
+    public boolean test(final Map<String, Object> event) {
+      for (final MISTPredicate<Map<String, Object>> child : children) {
+        if (child.test(event)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Base class of the compiled comparisons.
+   * The slot index of the field is resolved once per record schema.
+   */
+  private abstract static class CompiledComparison implements MISTPredicate<Map<String, Object>> {
+    protected final RuleBasedCCPredicate interpreted;
+    protected final String field;
+    protected final int mask;
+    private final Class<?> valueType;
+
+    /**
+     * The schema of the latest record and the slot of the field in the schema.
+     * They are replaced together, so the threads sharing the predicate never see a slot of another schema.
+     */
+    private transient volatile SlotCache slotCache;
+
+    CompiledComparison(final RuleBasedCCPredicate interpreted, final int mask) {
+      this.interpreted = interpreted;
+      this.field = interpreted.getField();
+      this.mask = mask;
+      this.valueType = interpreted.getValue().getClass();
+    }
+
+    /**
+     * Get the slot of the field in the record.
+     * @param record record
+     * @return slot index, or -1 if the record does not have the field with the value type
+     */
+    protected final int resolveSlot(final RuleBasedRecord record) {
+      final RuleBasedSchema schema = record.getSchema();
+      final SlotCache cache = slotCache;
+      if (cache != null && cache.schema == schema) {
+        return cache.slot;
+      }
+      final int slot = schema.getSlot(field);
+      final SlotCache newCache =
+          new SlotCache(schema, slot >= 0 && schema.getFieldType(slot) == valueType ? slot : -1);
+      slotCache = newCache;
+      return newCache.slot;
+    }
+  }
+
+  /**
+   * An immutable pair of a record schema and the slot of a field in the schema.
+   * The slot is -1 if the schema does not have the field with the value type.
+   */
+  private static final class SlotCache {
+    private final RuleBasedSchema schema;
+    private final int slot;
+
+    SlotCache(final RuleBasedSchema schema, final int slot) {
+      this.schema = schema;
+      this.slot = slot;
+    }
+  }
+
+  /**
+   * Comparison with an integer value.
+   */
+  private static final class IntComparison extends CompiledComparison {
+    private final int value;
+
+    IntComparison(final RuleBasedCCPredicate interpreted, final int mask) {
+      super(interpreted, mask);
+      this.value = (Integer) interpreted.getValue();
+    }
+
+    @Override
+    public boolean test(final Map<String, Object> event) {
+      if (event instanceof RuleBasedRecord) {
+        final RuleBasedRecord record = (RuleBasedRecord) event;
+        final int slot = resolveSlot(record);
+        if (slot >= 0) {
+          return accepts(mask, Integer.compare(record.getInt(slot), value));
+        }
+      } else {
+        final Object eventValue = event.get(field);
+        if (eventValue instanceof Integer) {
+          return accepts(mask, Integer.compare((Integer) eventValue, value));
+        }
+      }
+      return interpreted.test(event);
+    }
+  }
+
+  /**
+   * Comparison with a long value.
+   */
+  private static final class LongComparison extends CompiledComparison {
+    private final long value;
+
+    LongComparison(final RuleBasedCCPredicate interpreted, final int mask) {
+      super(interpreted, mask);
+      this.value = (Long) interpreted.getValue();
+    }
+
+    @Override
+    public boolean test(final Map<String, Object> event) {
+      if (event instanceof RuleBasedRecord) {
+        final RuleBasedRecord record = (RuleBasedRecord) event;
+        final int slot = resolveSlot(record);
+        if (slot >= 0) {
+          return accepts(mask, Long.compare(record.getLong(slot), value));
+        }
+      } else {
+        final Object eventValue = event.get(field);
+        if (eventValue instanceof Long) {
+          return accepts(mask, Long.compare((Long) eventValue, value));
+        }
+      }
+      return interpreted.test(event);
+    }
+  }
+
+  /**
+   * Comparison with a double value.
+   * Double.compare is used to keep the semantics of Double.equals for NaN and signed zeros.
+   */
+  private static final class DoubleComparison extends CompiledComparison {
+    private final double value;
+
+    DoubleComparison(final RuleBasedCCPredicate interpreted, final int mask) {
+      super(interpreted, mask);
+      this.value = (Double) interpreted.getValue();
+    }
+
+    @Override
+    public boolean test(final Map<String, Object> event) {
+      if (event instanceof RuleBasedRecord) {
+        final RuleBasedRecord record = (RuleBasedRecord) event;
+        final int slot = resolveSlot(record);
+        if (slot >= 0) {
+          return accepts(mask, Double.compare(record.getDouble(slot), value));
+        }
+      } else {
+        final Object eventValue = event.get(field);
+        if (eventValue instanceof Double) {
+          return accepts(mask, Double.compare((Double) eventValue, value));
+        }
+      }
+      return interpreted.test(event);
+    }
+  }
+
+  /**
+   * Comparison with a string value.
+   */
+  private static final class StringComparison extends CompiledComparison {
+    private final String value;
+
+    StringComparison(final RuleBasedCCPredicate interpreted, final int mask) {
+      super(interpreted, mask);
+      this.value = (String) interpreted.getValue();
+    }
+
+    @Override
+    public boolean test(final Map<String, Object> event) {
+      final String eventValue;
+      if (event instanceof RuleBasedRecord) {
+        final RuleBasedRecord record = (RuleBasedRecord) event;
+        final int slot = resolveSlot(record);
+        if (slot < 0) {
+          return interpreted.test(event);
+        }
+        eventValue = record.getString(slot);
+      } else {
+        final Object obj = event.get(field);
+        if (!(obj instanceof String)) {
+          return interpreted.test(event);
+        }
+        eventValue = (String) obj;
+      }
+      if (eventValue == null) {
+        return interpreted.test(event);
+      }
+      return accepts(mask, eventValue.compareTo(value));
+    }
+  }
+}
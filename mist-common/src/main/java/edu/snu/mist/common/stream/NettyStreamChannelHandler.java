@@ -13,26 +13,26 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package edu.snu.mist.common.stream.textmessage;
+package edu.snu.mist.common.stream;
 
-import edu.snu.mist.common.stream.NettyChannelHandler;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
 import io.netty.channel.group.ChannelGroup;
+import io.netty.util.ReferenceCountUtil;
 /**
- * Netty channel handler for text message stream generator.
+ * Netty channel handler for the stream generators and the output receivers, which manages the channel group.
  */
-final class NettyTextMessageStreamChannelHandler extends ChannelInboundHandlerAdapter {
+final class NettyStreamChannelHandler extends ChannelInboundHandlerAdapter {
 
   private final ChannelGroup channelGroup;
   private final NettyChannelHandler channelHandler;
 
-  NettyTextMessageStreamChannelHandler(final ChannelGroup channelGroup) {
+  NettyStreamChannelHandler(final ChannelGroup channelGroup) {
     this(channelGroup, null);
   }
 
-  NettyTextMessageStreamChannelHandler(final ChannelGroup channelGroup,
-                                       final NettyChannelHandler channelHandler) {
+  NettyStreamChannelHandler(final ChannelGroup channelGroup,
+                            final NettyChannelHandler channelHandler) {
     this.channelGroup = channelGroup;
     this.channelHandler = channelHandler;
   }
@@ -54,6 +54,8 @@ final class NettyTextMessageStreamChannelHandler extends ChannelInboundHandlerAd
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
     if (channelHandler != null) {
       channelHandler.channelRead(ctx, msg);
+    } else {
+      ReferenceCountUtil.release(msg);
     }
   }
 
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.stream;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+
+import java.net.InetSocketAddress;
+import java.util.function.Function;
+
+/**
+ * This class is the base of the stream generators and the output receivers using Netty.
+ * It binds a server socket and manages the group of the connected channels,
+ * and the subclasses decide the message framing with their channel initializers.
+ */
+public abstract class NettyStreamServer implements AutoCloseable {
+  protected static final int SERVER_BOSS_NUM_THREADS = 3;
+  protected static final int SERVER_WORKER_NUM_THREADS = 10;
+
+  private final ChannelGroup serverChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+  private final EventLoopGroup serverBossGroup;
+  private final EventLoopGroup serverWorkerGroup;
+  private final Channel acceptor;
+
+  /**
+   * @param address server address
+   * @param serverPort server port
+   * @param channelHandler channel handler which is notified of the channel events, or null
+   * @param numBossThreads the number of boss threads
+   * @param numWorkerThreads the number of worker threads
+   * @param threadNamePrefix the prefix of the thread names
+   * @param channelInitializer the function which creates the channel initializer with a handler factory
+   */
+  protected NettyStreamServer(
+      final String address,
+      final int serverPort,
+      final NettyChannelHandler channelHandler,
+      final int numBossThreads,
+      final int numWorkerThreads,
+      final String threadNamePrefix,
+      final Function<NettyChannelHandlerFactory, ChannelInitializer<SocketChannel>> channelInitializer)
+      throws InterruptedException {
+    this.serverBossGroup = new NioEventLoopGroup(numBossThreads,
+        new DefaultThreadFactory(threadNamePrefix + "Boss"));
+    this.serverWorkerGroup = new NioEventLoopGroup(numWorkerThreads,
+        new DefaultThreadFactory(threadNamePrefix + "Worker"));
+    final ServerBootstrap serverBootstrap = new ServerBootstrap();
+    serverBootstrap.group(this.serverBossGroup, this.serverWorkerGroup)
+        .channel(NioServerSocketChannel.class)
+        .childHandler(channelInitializer.apply(() ->
+            new NettyStreamChannelHandler(serverChannelGroup, channelHandler)))
+        .option(ChannelOption.SO_BACKLOG, 128)
+        .option(ChannelOption.SO_REUSEADDR, true)
+        .childOption(ChannelOption.SO_KEEPALIVE, true);
+    this.acceptor = serverBootstrap.bind(
+        new InetSocketAddress(address, serverPort)).sync().channel();
+  }
+
+  /**
+   * @return the group of the connected channels
+   */
+  protected ChannelGroup getChannelGroup() {
+    return serverChannelGroup;
+  }
+
+  @Override
+  public void close() throws Exception {
+    serverChannelGroup.close().awaitUninterruptibly();
+    acceptor.close().sync();
+    serverBossGroup.shutdownGracefully();
+    serverWorkerGroup.shutdownGracefully();
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.stream.binarymessage;
+
+import edu.snu.mist.common.stream.NettyChannelHandlerFactory;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.codec.LengthFieldPrepender;
+
+/**
+ * This class initializes socket channel for binary messages.
+ * Each message is framed with a 4-byte length prefix.
+ * The decoded frames are retained slices of the received buffer, so the payloads are not copied,
+ * and the receiver of a frame is responsible for releasing it.
+ */
+public final class NettyBinaryMessageChannelInitializer
+    extends ChannelInitializer<SocketChannel> {
+  /**
+   * The max size of the frame decoder.
+   */
+  private static final int MAXFRAMELENGTH = 10 * 1024 * 1024;
+
+  /**
+   * The length of the length prefix.
+   */
+  private static final int LENGTH_FIELD_LENGTH = 4;
+
+  /**
+   * Factory for channel handler.
+   */
+  private final NettyChannelHandlerFactory handlerFactory;
+
+  public NettyBinaryMessageChannelInitializer(final NettyChannelHandlerFactory handlerFactory) {
+    this.handlerFactory = handlerFactory;
+  }
+
+  /**
+   * Initializes the socket channel with length-prefixed frame decoder and encoder for binary messages.
+   * @param ch
+   * @throws Exception
+   */
+  @Override
+  protected void initChannel(final SocketChannel ch) throws Exception {
+    ch.pipeline()
+        .addLast("frameDecoder", new SliceFrameDecoder())
+        .addLast("frameEncoder", new LengthFieldPrepender(LENGTH_FIELD_LENGTH))
+        .addLast("handler", handlerFactory.createChannelInboundHandler());
+  }
+
+  /**
+   * Length-prefixed frame decoder which does not copy the frames.
+   */
+  private static final class SliceFrameDecoder extends LengthFieldBasedFrameDecoder {
+    SliceFrameDecoder() {
+      super(MAXFRAMELENGTH, 0, LENGTH_FIELD_LENGTH, 0, LENGTH_FIELD_LENGTH);
+    }
+
+    @Override
+    protected ByteBuf extractFrame(final ChannelHandlerContext ctx, final ByteBuf buffer,
+                                   final int index, final int length) {
+      return buffer.slice(index, length).retain();
+    }
+  }
+}
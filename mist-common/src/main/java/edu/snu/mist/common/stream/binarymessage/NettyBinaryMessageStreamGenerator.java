@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.stream.binarymessage;
+
+import edu.snu.mist.common.stream.NettyChannelHandler;
+import edu.snu.mist.common.stream.NettyStreamServer;
+import edu.snu.mist.common.stream.StreamGenerator;
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.tang.exceptions.InjectionException;
+
+/**
+ * This class pushes length-prefixed binary data stream to connected queries using Netty.
+ * It can connect with multiple queries and broadcast the stream to that queries.
+ */
+public final class NettyBinaryMessageStreamGenerator extends NettyStreamServer implements StreamGenerator<ByteBuf> {
+  private static final String CLASS_NAME = NettyBinaryMessageStreamGenerator.class.getName();
+
+  public NettyBinaryMessageStreamGenerator(final String address,
+                                           final int serverPort)
+      throws InjectionException, InterruptedException {
+    this(address, serverPort, null, SERVER_BOSS_NUM_THREADS, SERVER_WORKER_NUM_THREADS);
+  }
+
+  public NettyBinaryMessageStreamGenerator(final String address,
+                                           final int serverPort,
+                                           final NettyChannelHandler channelHandler)
+      throws InjectionException, InterruptedException {
+    this(address, serverPort, channelHandler, SERVER_BOSS_NUM_THREADS, SERVER_WORKER_NUM_THREADS);
+  }
+
+  public NettyBinaryMessageStreamGenerator(final String address,
+                                           final int serverPort,
+                                           final NettyChannelHandler channelHandler,
+                                           final int numBossThreads,
+                                           final int numWorkerThreads)
+      throws InjectionException, InterruptedException {
+    super(address, serverPort, channelHandler, numBossThreads, numWorkerThreads,
+        CLASS_NAME + "SourceServer", NettyBinaryMessageChannelInitializer::new);
+  }
+
+  /**
+   * Push data to the connected receivers.
+   * The ownership of the buffer is transferred to netty, which releases it after writing it to all receivers.
+   * @param data data
+   */
+  @Override
+  public void write(final ByteBuf data) {
+    getChannelGroup().writeAndFlush(data);
+  }
+}
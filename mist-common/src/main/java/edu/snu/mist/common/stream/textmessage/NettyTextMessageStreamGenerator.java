@@ -16,34 +16,16 @@
 package edu.snu.mist.common.stream.textmessage;
 
 import edu.snu.mist.common.stream.NettyChannelHandler;
+import edu.snu.mist.common.stream.NettyStreamServer;
 import edu.snu.mist.common.stream.StreamGenerator;
-import io.netty.bootstrap.ServerBootstrap;
-import io.netty.channel.Channel;
-import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.group.ChannelGroup;
-import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.util.concurrent.GlobalEventExecutor;
 import org.apache.reef.tang.exceptions.InjectionException;
-import org.apache.reef.wake.impl.DefaultThreadFactory;
-
-import java.net.InetSocketAddress;
 
 /**
  * This class pushes text data stream to connected queries using Netty.
  * It can connect with multiple queries and broadcast the stream to that queries.
  */
-public final class NettyTextMessageStreamGenerator implements StreamGenerator<String> {
+public final class NettyTextMessageStreamGenerator extends NettyStreamServer implements StreamGenerator<String> {
   private static final String CLASS_NAME = NettyTextMessageStreamGenerator.class.getName();
-  private static final int SERVER_BOSS_NUM_THREADS = 3;
-  private static final int SERVER_WORKER_NUM_THREADS = 10;
-
-  private final ChannelGroup serverChannelGroup = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
-  private final EventLoopGroup serverBossGroup;
-  private final EventLoopGroup serverWorkerGroup;
-  private final Channel acceptor;
 
   private final String newline = System.getProperty("line.separator");
 
@@ -66,20 +48,8 @@ public final class NettyTextMessageStreamGenerator implements StreamGenerator<St
                                          final int numBossThreads,
                                          final int numWorkerThreads)
       throws InjectionException, InterruptedException {
-    this.serverBossGroup = new NioEventLoopGroup(numBossThreads,
-        new DefaultThreadFactory(CLASS_NAME + "SourceServerBoss"));
-    this.serverWorkerGroup = new NioEventLoopGroup(numWorkerThreads,
-        new DefaultThreadFactory(CLASS_NAME + "SourceServerWorker"));
-    final ServerBootstrap serverBootstrap = new ServerBootstrap();
-    serverBootstrap.group(this.serverBossGroup, this.serverWorkerGroup)
-        .channel(NioServerSocketChannel.class)
-        .childHandler(new NettyTextMessageChannelInitializer(() ->
-            new NettyTextMessageStreamChannelHandler(serverChannelGroup, channelHandler)))
-        .option(ChannelOption.SO_BACKLOG, 128)
-        .option(ChannelOption.SO_REUSEADDR, true)
-        .childOption(ChannelOption.SO_KEEPALIVE, true);
-    this.acceptor = serverBootstrap.bind(
-        new InetSocketAddress(address, serverPort)).sync().channel();
+    super(address, serverPort, channelHandler, numBossThreads, numWorkerThreads,
+        CLASS_NAME + "SourceServer", NettyTextMessageChannelInitializer::new);
   }
 
   /**
@@ -90,20 +60,12 @@ public final class NettyTextMessageStreamGenerator implements StreamGenerator<St
   @Override
   public void write(final String data) {
     if (data.contains(newline)) {
-      serverChannelGroup.writeAndFlush(data);
+      getChannelGroup().writeAndFlush(data);
     } else {
       final StringBuilder sb = new StringBuilder();
       sb.append(data);
       sb.append("\n");
-      serverChannelGroup.writeAndFlush(sb.toString());
+      getChannelGroup().writeAndFlush(sb.toString());
     }
   }
-
-  @Override
-  public void close() throws Exception {
-    serverChannelGroup.close().awaitUninterruptibly();
-    acceptor.close().sync();
-    serverBossGroup.shutdownGracefully();
-    serverWorkerGroup.shutdownGracefully();
-  }
 }
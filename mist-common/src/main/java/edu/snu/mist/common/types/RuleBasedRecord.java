@@ -0,0 +1,270 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.types;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * A flat record of rule-based queries that follows a fixed RuleBasedSchema.
+ * Integer, long and double fields are stored in a primitive column and string fields in an object column,
+ * so that the fields can be accessed by slot index without hashing and boxing.
+ * This class also implements the Map interface,
+ * so it can be used by the operators and functions that use the map of fields.
+ * A put of a schema field with a value of the field type updates the slot in place.
+ * The other changes through the Map interface copy the fields into a map,
+ * and then the record works as the copied map and does not have the slots anymore.
+ */
+public final class RuleBasedRecord extends AbstractMap<String, Object> implements Serializable {
+
+  /**
+   * The schema of the records that were copied into a map.
+   */
+  private static final RuleBasedSchema EMPTY_SCHEMA =
+      new RuleBasedSchema(Collections.<String>emptyList(), Collections.<Class<?>>emptyList());
+
+  private RuleBasedSchema schema;
+
+  /**
+   * Integer and long values, and the raw bits of double values.
+   */
+  private long[] primitiveValues;
+
+  /**
+   * String values.
+   */
+  private String[] stringValues;
+
+  /**
+   * The copied fields. This is null until the record is changed out of the schema.
+   */
+  private Map<String, Object> copiedFields;
+
+  public RuleBasedRecord(final RuleBasedSchema schema) {
+    this.schema = schema;
+    this.primitiveValues = new long[schema.size()];
+    this.stringValues = new String[schema.size()];
+    this.copiedFields = null;
+  }
+
+  /**
+   * @return the schema of the record, which has no field if the record was copied into a map
+   */
+  public RuleBasedSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return true if the fields are stored in the slots of the schema
+   */
+  public boolean hasSchema() {
+    return copiedFields == null;
+  }
+
+  public int getInt(final int slot) {
+    return (int) primitiveValues[slot];
+  }
+
+  public long getLong(final int slot) {
+    return primitiveValues[slot];
+  }
+
+  public double getDouble(final int slot) {
+    return Double.longBitsToDouble(primitiveValues[slot]);
+  }
+
+  public String getString(final int slot) {
+    return stringValues[slot];
+  }
+
+  public void setInt(final int slot, final int value) {
+    primitiveValues[slot] = value;
+  }
+
+  public void setLong(final int slot, final long value) {
+    primitiveValues[slot] = value;
+  }
+
+  public void setDouble(final int slot, final double value) {
+    primitiveValues[slot] = Double.doubleToRawLongBits(value);
+  }
+
+  public void setString(final int slot, final String value) {
+    stringValues[slot] = value;
+  }
+
+  /**
+   * Get the boxed value of the slot.
+   * @param slot slot index
+   * @return boxed value
+   */
+  public Object getValue(final int slot) {
+    final Class<?> type = schema.getFieldType(slot);
+    if (type == Integer.class) {
+      return getInt(slot);
+    } else if (type == Long.class) {
+      return getLong(slot);
+    } else if (type == Double.class) {
+      return getDouble(slot);
+    } else {
+      return getString(slot);
+    }
+  }
+
+  @Override
+  public Object get(final Object key) {
+    if (copiedFields != null) {
+      return copiedFields.get(key);
+    }
+    final int slot = schema.getSlot(key);
+    if (slot < 0) {
+      return null;
+    }
+    return getValue(slot);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    if (copiedFields != null) {
+      return copiedFields.containsKey(key);
+    }
+    return schema.getSlot(key) >= 0;
+  }
+
+  @Override
+  public int size() {
+    if (copiedFields != null) {
+      return copiedFields.size();
+    }
+    return schema.size();
+  }
+
+  @Override
+  public Object put(final String key, final Object value) {
+    if (copiedFields == null) {
+      final int slot = schema.getSlot(key);
+      if (slot >= 0 && value != null && value.getClass() == schema.getFieldType(slot)) {
+        final Object oldValue = getValue(slot);
+        if (value instanceof Integer) {
+          setInt(slot, (Integer) value);
+        } else if (value instanceof Long) {
+          setLong(slot, (Long) value);
+        } else if (value instanceof Double) {
+          setDouble(slot, (Double) value);
+        } else {
+          setString(slot, (String) value);
+        }
+        return oldValue;
+      }
+      copyFields();
+    }
+    return copiedFields.put(key, value);
+  }
+
+  @Override
+  public Object remove(final Object key) {
+    if (!containsKey(key)) {
+      return null;
+    }
+    copyFields();
+    return copiedFields.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    copyFields();
+    copiedFields.clear();
+  }
+
+  /**
+   * Copy the fields into a map, and release the slots.
+   */
+  private void copyFields() {
+    if (copiedFields != null) {
+      return;
+    }
+    final Map<String, Object> fields = new LinkedHashMap<>();
+    for (int slot = 0; slot < schema.size(); slot++) {
+      fields.put(schema.getFieldName(slot), getValue(slot));
+    }
+    copiedFields = fields;
+    schema = EMPTY_SCHEMA;
+    primitiveValues = new long[0];
+    stringValues = new String[0];
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    if (copiedFields != null) {
+      return copiedFields.entrySet();
+    }
+    final RuleBasedSchema iteratedSchema = schema;
+    return new AbstractSet<Entry<String, Object>>() {
+      @Override
+      public Iterator<Entry<String, Object>> iterator() {
+        return new Iterator<Entry<String, Object>>() {
+          private int slot = 0;
+
+          @Override
+          public boolean hasNext() {
+            return slot < iteratedSchema.size();
+          }
+
+          @Override
+          public Entry<String, Object> next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            final String key = iteratedSchema.getFieldName(slot);
+            final Entry<String, Object> entry =
+                new RecordEntry(key, copiedFields == null ? getValue(slot) : copiedFields.get(key));
+            slot += 1;
+            return entry;
+          }
+
+          @Override
+          public void remove() {
+            if (slot == 0) {
+              throw new IllegalStateException();
+            }
+            RuleBasedRecord.this.remove(iteratedSchema.getFieldName(slot - 1));
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return RuleBasedRecord.this.size();
+      }
+    };
+  }
+
+  /**
+   * An entry of the record that writes its value through to the record.
+   */
+  private final class RecordEntry extends SimpleEntry<String, Object> {
+
+    RecordEntry(final String key, final Object value) {
+      super(key, value);
+    }
+
+    @Override
+    public Object setValue(final Object value) {
+      put(getKey(), value);
+      return super.setValue(value);
+    }
+  }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.types;
+
+import java.io.Serializable;
+import java.util.regex.Pattern;
+
+/**
+ * A parser that converts a delimited line into a RuleBasedRecord.
+ * If the separator does not contain regex meta characters, the line is scanned with String.indexOf
+ * and integer fields are parsed in place, without regex matching and intermediate strings.
+ * Otherwise, the separator is treated as a regex as String.split does.
+ * As before, each field is trimmed and the spare fields at the end of the line are ignored,
+ * and the empty fields at the end of the line are not counted, as String.split drops them.
+ */
+public final class RuleBasedRecordParser implements Serializable {
+
+  private static final String REGEX_META_CHARACTERS = ".$|()[]{}^?*+\\";
+
+  private static final String SIZE_MISMATCH_MESSAGE =
+      "Cannot match input string to tuple since the size is different!";
+
+  private final RuleBasedSchema schema;
+  private final String separator;
+
+  /**
+   * The compiled separator. This is null if the separator is a literal.
+   */
+  private final Pattern separatorPattern;
+
+  public RuleBasedRecordParser(final RuleBasedSchema schema,
+                               final String separator) {
+    if (separator.isEmpty()) {
+      throw new IllegalArgumentException("The separator should not be empty!");
+    }
+    this.schema = schema;
+    this.separator = separator;
+    if (isLiteral(separator)) {
+      this.separatorPattern = null;
+    } else {
+      this.separatorPattern = Pattern.compile(separator);
+    }
+  }
+
+  private static boolean isLiteral(final String separator) {
+    for (int i = 0; i < separator.length(); i++) {
+      if (REGEX_META_CHARACTERS.indexOf(separator.charAt(i)) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the schema of the parsed records
+   */
+  public RuleBasedSchema getSchema() {
+    return schema;
+  }
+
+  /**
+   * Parse the line into a record.
+   * @param line input line
+   * @return parsed record
+   */
+  public RuleBasedRecord parse(final String line) {
+    if (separatorPattern != null) {
+      return parseWithPattern(line);
+    }
+    final RuleBasedRecord record = new RuleBasedRecord(schema);
+    final int fieldNum = schema.size();
+    int start = 0;
+    boolean isLastFieldEmpty = false;
+    for (int slot = 0; slot < fieldNum; slot++) {
+      if (start > line.length()) {
+        throw new IllegalStateException(SIZE_MISMATCH_MESSAGE);
+      }
+      int end = line.indexOf(separator, start);
+      if (end < 0) {
+        end = line.length();
+      }
+      setField(record, slot, line, start, end);
+      isLastFieldEmpty = start == end;
+      start = end + separator.length();
+    }
+    // String.split removes the trailing empty fields unless the line has no separator
+    if (isLastFieldEmpty && line.contains(separator) && !hasNonEmptyField(line, start)) {
+      throw new IllegalStateException(SIZE_MISMATCH_MESSAGE);
+    }
+    return record;
+  }
+
+  /**
+   * @return true if the line has a non-empty field from the index
+   */
+  private boolean hasNonEmptyField(final String line, final int from) {
+    int index = from;
+    while (index < line.length()) {
+      if (!line.startsWith(separator, index)) {
+        return true;
+      }
+      index += separator.length();
+    }
+    return false;
+  }
+
+  private RuleBasedRecord parseWithPattern(final String line) {
+    final String[] inputParse = separatorPattern.split(line);
+    if (inputParse.length < schema.size()) {
+      throw new IllegalStateException(SIZE_MISMATCH_MESSAGE);
+    }
+    final RuleBasedRecord record = new RuleBasedRecord(schema);
+    for (int slot = 0; slot < schema.size(); slot++) {
+      setField(record, slot, inputParse[slot], 0, inputParse[slot].length());
+    }
+    return record;
+  }
+
+  /**
+   * Trim the substring [begin, end) of the line and set it to the slot of the record.
+   */
+  private void setField(final RuleBasedRecord record,
+                        final int slot,
+                        final String line,
+                        final int begin,
+                        final int end) {
+    int trimmedBegin = begin;
+    int trimmedEnd = end;
+    while (trimmedBegin < trimmedEnd && line.charAt(trimmedBegin) <= ' ') {
+      trimmedBegin += 1;
+    }
+    while (trimmedBegin < trimmedEnd && line.charAt(trimmedEnd - 1) <= ' ') {
+      trimmedEnd -= 1;
+    }
+
+    final Class<?> type = schema.getFieldType(slot);
+    if (type == Integer.class) {
+      record.setInt(slot, parseInt(line, trimmedBegin, trimmedEnd));
+    } else if (type == Long.class) {
+      record.setLong(slot, parseLong(line, trimmedBegin, trimmedEnd));
+    } else if (type == Double.class) {
+      record.setDouble(slot, Double.parseDouble(line.substring(trimmedBegin, trimmedEnd)));
+    } else {
+      record.setString(slot, line.substring(trimmedBegin, trimmedEnd));
+    }
+  }
+
+  /**
+   * Parse a decimal integer in place.
+   * Values that may overflow and malformed values are delegated to Integer.parseInt.
+   */
+  private static int parseInt(final String s, final int begin, final int end) {
+    if (end - begin > 9) {
+      return Integer.parseInt(s.substring(begin, end));
+    }
+    return (int) parseDigits(s, begin, end);
+  }
+
+  /**
+   * Parse a decimal long in place.
+   * Values that may overflow and malformed values are delegated to Long.parseLong.
+   */
+  private static long parseLong(final String s, final int begin, final int end) {
+    if (end - begin > 18) {
+      return Long.parseLong(s.substring(begin, end));
+    }
+    return parseDigits(s, begin, end);
+  }
+
+  private static long parseDigits(final String s, final int begin, final int end) {
+    int i = begin;
+    boolean negative = false;
+    if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+      negative = s.charAt(i) == '-';
+      i += 1;
+    }
+    if (i == end) {
+      // Throws NumberFormatException
+      return Long.parseLong(s.substring(begin, end));
+    }
+    long result = 0;
+    for (; i < end; i++) {
+      final int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        // Throws NumberFormatException
+        return Long.parseLong(s.substring(begin, end));
+      }
+      result = result * 10 + digit;
+    }
+    if (negative) {
+      return -result;
+    }
+    return result;
+  }
+}
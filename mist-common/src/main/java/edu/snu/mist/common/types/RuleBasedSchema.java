@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common.types;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fixed schema of rule-based records.
+ * Each field has a slot index which is resolved when the query is built,
+ * and a value type which is one of Integer, Long, Double and String.
+ */
+public final class RuleBasedSchema implements Serializable {
+
+  /**
+   * The names of the fields, in the order of the slots.
+   */
+  private final String[] fieldNames;
+
+  /**
+   * The value types of the fields.
+   */
+  private final Class<?>[] fieldTypes;
+
+  /**
+   * The map of field name to slot index.
+   */
+  private final Map<String, Integer> slotMap;
+
+  public RuleBasedSchema(final List<String> fieldNames,
+                         final List<Class<?>> fieldTypes) {
+    if (fieldNames.size() != fieldTypes.size()) {
+      throw new IllegalArgumentException("The number of field names and types are different!");
+    }
+    this.fieldNames = fieldNames.toArray(new String[0]);
+    this.fieldTypes = fieldTypes.toArray(new Class<?>[0]);
+    this.slotMap = new HashMap<>();
+    for (int i = 0; i < this.fieldNames.length; i++) {
+      final Class<?> type = this.fieldTypes[i];
+      if (type != Integer.class && type != Long.class && type != Double.class && type != String.class) {
+        throw new IllegalArgumentException("The wrong type of field " + this.fieldNames[i] + ": " + type);
+      }
+      if (slotMap.put(this.fieldNames[i], i) != null) {
+        throw new IllegalArgumentException("Duplicated field name: " + this.fieldNames[i]);
+      }
+    }
+  }
+
+  /**
+   * @return the number of fields
+   */
+  public int size() {
+    return fieldNames.length;
+  }
+
+  /**
+   * Get the slot index of the field.
+   * @param fieldName field name
+   * @return slot index, or -1 if the field does not exist
+   */
+  public int getSlot(final Object fieldName) {
+    final Integer slot = slotMap.get(fieldName);
+    if (slot == null) {
+      return -1;
+    }
+    return slot;
+  }
+
+  /**
+   * @param slot slot index
+   * @return the name of the field in the slot
+   */
+  public String getFieldName(final int slot) {
+    return fieldNames[slot];
+  }
+
+  /**
+   * @param slot slot index
+   * @return the value type of the field in the slot
+   */
+  public Class<?> getFieldType(final int slot) {
+    return fieldTypes[slot];
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final RuleBasedSchema that = (RuleBasedSchema) o;
+    return Arrays.equals(fieldNames, that.fieldNames) && Arrays.equals(fieldTypes, that.fieldTypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(fieldNames) + Arrays.hashCode(fieldTypes);
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.predicates.*;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.logging.Logger;
+
+public final class RuleBasedPredicateCompilerTest {
+  private static final Logger LOG = Logger.getLogger(RuleBasedPredicateCompilerTest.class.getName());
+
+  private static final String[] IDS = {"HelloMIST", "HelloWorld", "MIST", "Hello"};
+
+  /**
+   * Create events that have the fields of RuleBasedHelloMist and numeric fields.
+   */
+  private List<Map<String, Object>> createEvents(final int num) {
+    final Random random = new Random(0);
+    final List<Map<String, Object>> events = new ArrayList<>(num);
+    for (int i = 0; i < num; i++) {
+      final Map<String, Object> event = new HashMap<>();
+      event.put("ID", IDS[random.nextInt(IDS.length)]);
+      event.put("Message", "message" + i);
+      event.put("Temp", random.nextInt(100));
+      event.put("Time", (long) random.nextInt(100));
+      event.put("Humidity", random.nextDouble() * 100);
+      events.add(event);
+    }
+    return events;
+  }
+
+  /**
+   * Create a predicate tree that has all kinds of comparisons.
+   */
+  private MISTPredicate<Map<String, Object>> createPredicate() {
+    final List<MISTPredicate<Map<String, Object>>> orList = new ArrayList<>();
+    orList.add(new RuleBasedGTPredicate("Temp", 70));
+    orList.add(new RuleBasedLEPredicate("Time", 10L));
+    orList.add(new RuleBasedANDPredicate(Arrays.asList(
+        new RuleBasedGEPredicate("Humidity", 50.0),
+        new RuleBasedLTPredicate("Humidity", 60.0))));
+    orList.add(new RuleBasedNEQPredicate("Temp", 30));
+
+    final List<MISTPredicate<Map<String, Object>>> andList = new ArrayList<>();
+    andList.add(new RuleBasedEQPredicate("ID", "HelloMIST"));
+    andList.add(new RuleBasedORPredicate(orList));
+    return new RuleBasedANDPredicate(andList);
+  }
+
+  /**
+   * Test whether the compiled predicates return the same results as the interpreted predicates.
+   */
+  @Test
+  public void testCompiledPredicateEquivalence() {
+    final List<MISTPredicate<Map<String, Object>>> predicates = new ArrayList<>();
+    predicates.add(createPredicate());
+    for (final Object value : Arrays.asList(50, 50L, 50.0, "HelloMIST")) {
+      final String field;
+      if (value instanceof Integer) {
+        field = "Temp";
+      } else if (value instanceof Long) {
+        field = "Time";
+      } else if (value instanceof Double) {
+        field = "Humidity";
+      } else {
+        field = "ID";
+      }
+      predicates.add(new RuleBasedEQPredicate(field, value));
+      predicates.add(new RuleBasedNEQPredicate(field, value));
+      predicates.add(new RuleBasedGTPredicate(field, value));
+      predicates.add(new RuleBasedGEPredicate(field, value));
+      predicates.add(new RuleBasedLTPredicate(field, value));
+      predicates.add(new RuleBasedLEPredicate(field, value));
+    }
+
+    final List<Map<String, Object>> events = createEvents(1000);
+    for (final MISTPredicate<Map<String, Object>> predicate : predicates) {
+      Assert.assertTrue(RuleBasedPredicateCompiler.isCompilable(predicate));
+      final MISTPredicate<Map<String, Object>> compiled = RuleBasedPredicateCompiler.compile(predicate);
+      Assert.assertNotSame(predicate, compiled);
+      for (final Map<String, Object> event : events) {
+        Assert.assertEquals(predicate.test(event), compiled.test(event));
+      }
+    }
+  }
+
+  /**
+   * Test whether the compiled predicate falls back to the interpreted predicate when the types are different.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeMismatchFallback() {
+    final MISTPredicate<Map<String, Object>> compiled =
+        RuleBasedPredicateCompiler.compile(new RuleBasedGTPredicate("Temp", 10));
+    final Map<String, Object> event = new HashMap<>();
+    event.put("Temp", 20L);
+    compiled.test(event);
+  }
+
+  /**
+   * Test whether non rule-based predicates are not compiled.
+   */
+  @Test
+  public void testUserDefinedPredicate() {
+    final MISTPredicate<String> predicate = s -> s.isEmpty();
+    Assert.assertFalse(RuleBasedPredicateCompiler.isCompilable(predicate));
+    Assert.assertSame(predicate, RuleBasedPredicateCompiler.compile(predicate));
+  }
+
+  /**
+   * Compare the throughput of the interpreted and compiled predicates with a RuleBasedHelloMist-style workload.
+   * This only logs the results, because the timing depends on the test machine.
+   */
+  @Test
+  public void benchmarkRuleBasedHelloMistWorkload() {
+    final List<Map<String, Object>> events = createEvents(10000);
+    final MISTPredicate<Map<String, Object>> interpreted = createPredicate();
+    final MISTPredicate<Map<String, Object>> compiled = RuleBasedPredicateCompiler.compile(interpreted);
+    final int iterations = 50;
+
+    // Warm up
+    final long interpretedMatches = runWorkload(interpreted, events, iterations);
+    final long compiledMatches = runWorkload(compiled, events, iterations);
+    Assert.assertEquals(interpretedMatches, compiledMatches);
+
+    final long interpretedStart = System.nanoTime();
+    runWorkload(interpreted, events, iterations);
+    final long interpretedTime = System.nanoTime() - interpretedStart;
+
+    final long compiledStart = System.nanoTime();
+    runWorkload(compiled, events, iterations);
+    final long compiledTime = System.nanoTime() - compiledStart;
+
+    final long eventNum = (long) events.size() * iterations;
+    LOG.info(String.format("Interpreted predicate: %.1f ns/event, compiled predicate: %.1f ns/event",
+        (double) interpretedTime / eventNum, (double) compiledTime / eventNum));
+  }
+
+  private long runWorkload(final MISTPredicate<Map<String, Object>> predicate,
+                           final List<Map<String, Object>> events,
+                           final int iterations) {
+    long matches = 0;
+    for (int i = 0; i < iterations; i++) {
+      for (final Map<String, Object> event : events) {
+        if (predicate.test(event)) {
+          matches += 1;
+        }
+      }
+    }
+    return matches;
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.common;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedGTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedPredicateCompiler;
+import edu.snu.mist.common.types.RuleBasedRecord;
+import edu.snu.mist.common.types.RuleBasedRecordParser;
+import edu.snu.mist.common.types.RuleBasedSchema;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class RuleBasedRecordTest {
+
+  private final RuleBasedSchema schema = new RuleBasedSchema(
+      Arrays.asList("ID", "Temp", "Time", "Humidity"),
+      Arrays.asList(String.class, Integer.class, Long.class, Double.class));
+
+  private Map<String, Object> expectedMap() {
+    final Map<String, Object> expected = new HashMap<>();
+    expected.put("ID", "HelloMIST");
+    expected.put("Temp", -42);
+    expected.put("Time", 1234567890123L);
+    expected.put("Humidity", 55.5);
+    return expected;
+  }
+
+  /**
+   * Test whether the parser parses the line with a literal separator, and the record works as a map.
+   */
+  @Test
+  public void testLiteralSeparatorParsing() {
+    final RuleBasedRecordParser parser = new RuleBasedRecordParser(schema, "::");
+    final RuleBasedRecord record = parser.parse(" HelloMIST ::-42:: 1234567890123::55.5::spare");
+    Assert.assertEquals(expectedMap(), record);
+    Assert.assertEquals(record, expectedMap());
+    Assert.assertEquals(expectedMap().hashCode(), record.hashCode());
+    Assert.assertEquals(-42, record.getInt(schema.getSlot("Temp")));
+    Assert.assertEquals(55.5, record.getDouble(schema.getSlot("Humidity")));
+    Assert.assertNull(record.get("Message"));
+  }
+
+  /**
+   * Test whether the separator that has regex meta characters is treated as a regex as before.
+   */
+  @Test
+  public void testRegexSeparatorParsing() {
+    final RuleBasedRecordParser parser = new RuleBasedRecordParser(schema, "\\s+");
+    Assert.assertEquals(expectedMap(), parser.parse("HelloMIST  -42 1234567890123   55.5"));
+  }
+
+  /**
+   * Test whether the parser throws an exception when the input has less fields than the schema.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testInsufficientFields() {
+    new RuleBasedRecordParser(schema, ",").parse("HelloMIST,1");
+  }
+
+  /**
+   * Test whether the parser counts the fields as String.split, which drops the trailing empty fields.
+   */
+  @Test
+  public void testTrailingEmptyFields() {
+    final RuleBasedSchema stringSchema = new RuleBasedSchema(
+        Arrays.asList("A", "B"), Arrays.asList(String.class, String.class));
+    final String[] lines = {"a,b", "a,b,", "a,", "a,,", ",b", ",", "a", "", "a,,c", ",,"};
+    for (final String line : lines) {
+      final boolean expectedSuccess = line.split(",").length >= stringSchema.size();
+      try {
+        final RuleBasedRecord record = new RuleBasedRecordParser(stringSchema, ",").parse(line);
+        Assert.assertTrue(line, expectedSuccess);
+        Assert.assertEquals(line.split(",")[1].trim(), record.get("B"));
+      } catch (final IllegalStateException e) {
+        Assert.assertFalse(line, expectedSuccess);
+        Assert.assertEquals("Cannot match input string to tuple since the size is different!", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Test whether the record can be changed through the Map interface.
+   */
+  @Test
+  public void testPut() {
+    final RuleBasedRecordParser parser = new RuleBasedRecordParser(schema, ",");
+    final RuleBasedRecord record = parser.parse("HelloMIST,-42,1234567890123,55.5");
+    final Map<String, Object> expected = expectedMap();
+
+    // A value of the field type is set to the slot
+    Assert.assertEquals(-42, record.put("Temp", 10));
+    expected.put("Temp", 10);
+    Assert.assertEquals(expected, record);
+    Assert.assertTrue(record.hasSchema());
+    Assert.assertEquals(10, record.getInt(schema.getSlot("Temp")));
+
+    // The other changes copy the record into a map
+    Assert.assertNull(record.put("Message", "hi"));
+    expected.put("Message", "hi");
+    Assert.assertEquals("HelloMIST", record.put("ID", 1));
+    expected.put("ID", 1);
+    Assert.assertEquals(55.5, record.remove("Humidity"));
+    expected.remove("Humidity");
+    Assert.assertFalse(record.hasSchema());
+    Assert.assertEquals(expected, record);
+    Assert.assertEquals(4, record.size());
+
+    // The compiled predicates read the copied fields
+    final MISTPredicate<Map<String, Object>> compiled =
+        RuleBasedPredicateCompiler.compile(new RuleBasedGTPredicate("Temp", 5));
+    Assert.assertTrue(compiled.test(record));
+  }
+
+  /**
+   * Test whether the parser delegates malformed numbers to the standard parsers.
+   */
+  @Test(expected = NumberFormatException.class)
+  public void testMalformedNumber() {
+    new RuleBasedRecordParser(schema, ",").parse("HelloMIST,1a,1,1.0");
+  }
+
+  /**
+   * Test whether the compiled predicates read the fields of the records.
+   */
+  @Test
+  public void testCompiledPredicateOnRecord() {
+    final RuleBasedRecordParser parser = new RuleBasedRecordParser(schema, ",");
+    final MISTPredicate<Map<String, Object>> interpreted = new RuleBasedGTPredicate("Temp", 10);
+    final MISTPredicate<Map<String, Object>> compiled = RuleBasedPredicateCompiler.compile(interpreted);
+    for (int i = 0; i < 20; i++) {
+      final RuleBasedRecord record = parser.parse("HelloMIST," + i + ",1,1.0");
+      Assert.assertEquals(interpreted.test(record), compiled.test(record));
+      Assert.assertEquals(i > 10, compiled.test(record));
+    }
+  }
+
+  /**
+   * Test whether a compiled predicate shared by multiple threads reads the right slots
+   * when the records of different schemas are interleaved.
+   */
+  @Test(timeout = 10000L)
+  public void testCompiledPredicateOnSchemasConcurrently() throws InterruptedException {
+    final RuleBasedSchema reorderedSchema = new RuleBasedSchema(
+        Arrays.asList("Humidity", "Time", "ID", "Temp"),
+        Arrays.asList(Double.class, Long.class, String.class, Integer.class));
+    final RuleBasedRecord record1 = new RuleBasedRecordParser(schema, ",").parse("HelloMIST,20,1,1.0");
+    final RuleBasedRecord record2 = new RuleBasedRecordParser(reorderedSchema, ",").parse("1.0,1,HelloMIST,20");
+    final MISTPredicate<Map<String, Object>> compiled =
+        RuleBasedPredicateCompiler.compile(new RuleBasedGTPredicate("Temp", 10));
+
+    final int numThreads = 4;
+    final AtomicInteger failures = new AtomicInteger(0);
+    final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      executorService.submit(() -> {
+        for (int j = 0; j < 100000; j++) {
+          if (!compiled.test(j % 2 == 0 ? record1 : record2)) {
+            failures.incrementAndGet();
+          }
+        }
+      });
+    }
+    executorService.shutdown();
+    Assert.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertEquals(0, failures.get());
+  }
+}
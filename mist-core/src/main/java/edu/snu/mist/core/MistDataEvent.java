@@ -22,9 +22,16 @@ import edu.snu.mist.common.exceptions.NegativeTimestampException;
  * MistDataEvent is designed to be *reused* when operators emit the outputs.
  * When an operator emits its outputs as MistDataEvent,
  * it can reuse the input object of MistDataEvent by setting output values with setter methods.
+ * A data sampled by the source carries the ingestion time as a latency marker,
+ * and the latency from the ingestion is recorded whenever the data arrives at an operator or a sink.
  */
 public final class MistDataEvent implements MistEvent {
 
+  /**
+   * The latency marker of the data which is not sampled.
+   */
+  public static final long NO_LATENCY_MARKER = Long.MIN_VALUE;
+
   /**
    * Value of the data.
    */
@@ -35,6 +42,11 @@ public final class MistDataEvent implements MistEvent {
    */
   private long timestamp;
 
+  /**
+   * The ingestion time of the data from System.nanoTime(), or NO_LATENCY_MARKER if the data is not sampled.
+   */
+  private long latencyMarker;
+
   public MistDataEvent(final Object value) {
     this(value, System.currentTimeMillis());
   }
@@ -46,6 +58,14 @@ public final class MistDataEvent implements MistEvent {
     }
     this.value = value;
     this.timestamp = timestamp;
+    this.latencyMarker = NO_LATENCY_MARKER;
+  }
+
+  public MistDataEvent(final Object value,
+                       final long timestamp,
+                       final long latencyMarker) {
+    this(value, timestamp);
+    this.latencyMarker = latencyMarker;
   }
 
   public Object getValue() {
@@ -60,6 +80,21 @@ public final class MistDataEvent implements MistEvent {
     value = v;
   }
 
+  public long getLatencyMarker() {
+    return latencyMarker;
+  }
+
+  public void setLatencyMarker(final long marker) {
+    latencyMarker = marker;
+  }
+
+  /**
+   * @return true if the data is sampled for the latency
+   */
+  public boolean hasLatencyMarker() {
+    return latencyMarker != NO_LATENCY_MARKER;
+  }
+
   @Override
   public boolean isData() {
     return true;
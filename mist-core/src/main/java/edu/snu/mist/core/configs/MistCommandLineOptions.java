@@ -18,15 +18,26 @@ package edu.snu.mist.core.configs;
 import edu.snu.mist.core.master.lb.parameters.*;
 import edu.snu.mist.core.master.recovery.parameters.RecoveryUnitSize;
 import edu.snu.mist.core.parameters.*;
+import edu.snu.mist.core.shared.parameters.MqttClientRebalancingPeriod;
 import edu.snu.mist.core.shared.parameters.MqttSinkClientNumPerBroker;
 import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.MqttSinkMinClientNumPerBroker;
+import edu.snu.mist.core.shared.parameters.MqttSourceClientMaxMessageRate;
 import edu.snu.mist.core.shared.parameters.MqttSourceClientNumPerBroker;
+import edu.snu.mist.core.shared.parameters.MqttSourceDispatchQueueCapacity;
 import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.MqttSourceMinClientNumPerBroker;
+import edu.snu.mist.core.sources.parameters.PartitionIdleTimeout;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultLatencySlo;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultNumEventProcessors;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupRebalancingPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupSchedulingOption;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.NumIoCores;
 import edu.snu.mist.core.task.groupaware.parameters.GroupPinningTime;
 import edu.snu.mist.core.task.groupaware.parameters.ProcessingTimeout;
+import edu.snu.mist.core.task.metrics.parameters.LatencySampleInterval;
+import edu.snu.mist.core.task.metrics.parameters.OperatorProfiling;
 import edu.snu.mist.core.task.recovery.parameters.RecoveryThreadsNum;
 import org.apache.reef.tang.formats.CommandLine;
 
@@ -60,18 +71,30 @@ public final class MistCommandLineOptions {
         .registerShortNameOfClass(NewRatio.class)
         .registerShortNameOfClass(ReservedCodeCacheSize.class)
         .registerShortNameOfClass(DefaultNumEventProcessors.class)
+        .registerShortNameOfClass(Pinning.class)
+        .registerShortNameOfClass(NumIoCores.class)
         .registerShortNameOfClass(MqttSourceKeepAliveSec.class)
         .registerShortNameOfClass(MqttSinkKeepAliveSec.class)
         .registerShortNameOfClass(MqttSourceClientNumPerBroker.class)
         .registerShortNameOfClass(MqttSinkClientNumPerBroker.class)
+        .registerShortNameOfClass(MqttSourceMinClientNumPerBroker.class)
+        .registerShortNameOfClass(MqttSinkMinClientNumPerBroker.class)
+        .registerShortNameOfClass(MqttSourceClientMaxMessageRate.class)
+        .registerShortNameOfClass(MqttClientRebalancingPeriod.class)
+        .registerShortNameOfClass(MqttSourceDispatchQueueCapacity.class)
         .registerShortNameOfClass(ProcessingTimeout.class)
         .registerShortNameOfClass(GroupPinningTime.class)
         .registerShortNameOfClass(GroupRebalancingPeriod.class)
         .registerShortNameOfClass(PeriodicCheckpointPeriod.class)
+        .registerShortNameOfClass(PartitionIdleTimeout.class)
         .registerShortNameOfClass(UnderloadedTaskLoadThreshold.class)
         .registerShortNameOfClass(OverloadedTaskLoadThreshold.class)
         .registerShortNameOfClass(QueryAllocationOption.class)
         .registerShortNameOfClass(RecoveryThreadsNum.class)
+        .registerShortNameOfClass(LatencySampleInterval.class)
+        .registerShortNameOfClass(OperatorProfiling.class)
+        .registerShortNameOfClass(GroupSchedulingOption.class)
+        .registerShortNameOfClass(DefaultLatencySlo.class)
         .registerShortNameOfClass(RecoverySchedulerOption.class)
         .registerShortNameOfClass(RecoveryUnitSize.class)
         .registerShortNameOfClass(DynamicScalingOption.class)
@@ -82,6 +105,8 @@ public final class MistCommandLineOptions {
         .registerShortNameOfClass(ScaleInGracePeriod.class)
         .registerShortNameOfClass(ScaleInIdleTaskRatio.class)
         .registerShortNameOfClass(ScaleOutGracePeriod.class)
-        .registerShortNameOfClass(ScaleOutOverloadedTaskRatio.class);
+        .registerShortNameOfClass(ScaleOutOverloadedTaskRatio.class)
+        .registerShortNameOfClass(QueryAllocationLeaseSize.class)
+        .registerShortNameOfClass(QueryAllocationLeaseTime.class);
   }
 }
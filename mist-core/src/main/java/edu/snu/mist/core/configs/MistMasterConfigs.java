@@ -143,6 +143,16 @@ public final class MistMasterConfigs implements MistConfigs {
    */
   private final double scaleOutOverloadedTaskRatio;
 
+  /**
+   * The number of queries in a query allocation lease.
+   */
+  private final int queryAllocationLeaseSize;
+
+  /**
+   * The expiration time of a query allocation lease.
+   */
+  private final long queryAllocationLeaseTime;
+
   @Inject
   private MistMasterConfigs(
       @Parameter(NumTasks.class) final int numTasks,
@@ -163,7 +173,9 @@ public final class MistMasterConfigs implements MistConfigs {
       @Parameter(ScaleInGracePeriod.class) final long scaleInGracePeriod,
       @Parameter(ScaleInIdleTaskRatio.class) final double scaleInIdleTaskRatio,
       @Parameter(ScaleOutGracePeriod.class) final long scaleOutGracePeriod,
-      @Parameter(ScaleOutOverloadedTaskRatio.class) final double scaleOutOverloadedTaskRatio) {
+      @Parameter(ScaleOutOverloadedTaskRatio.class) final double scaleOutOverloadedTaskRatio,
+      @Parameter(QueryAllocationLeaseSize.class) final int queryAllocationLeaseSize,
+      @Parameter(QueryAllocationLeaseTime.class) final long queryAllocationLeaseTime) {
     this.numTasks = numTasks;
     this.taskMemSize = taskMemSize;
     this.numTaskCores = numTaskCores;
@@ -184,6 +196,8 @@ public final class MistMasterConfigs implements MistConfigs {
     this.scaleInIdleTaskRatio = scaleInIdleTaskRatio;
     this.scaleOutGracePeriod = scaleOutGracePeriod;
     this.scaleOutOverloadedTaskRatio = scaleOutOverloadedTaskRatio;
+    this.queryAllocationLeaseSize = queryAllocationLeaseSize;
+    this.queryAllocationLeaseTime = queryAllocationLeaseTime;
   }
 
   private Class<? extends QueryAllocationManager> getQueryAllocationImplClass() {
@@ -230,6 +244,8 @@ public final class MistMasterConfigs implements MistConfigs {
     jcb.bindNamedParameter(ScaleInIdleTaskRatio.class, String.valueOf(scaleInIdleTaskRatio));
     jcb.bindNamedParameter(ScaleOutGracePeriod.class, String.valueOf(scaleOutGracePeriod));
     jcb.bindNamedParameter(ScaleOutOverloadedTaskRatio.class, String.valueOf(scaleOutOverloadedTaskRatio));
+    jcb.bindNamedParameter(QueryAllocationLeaseSize.class, String.valueOf(queryAllocationLeaseSize));
+    jcb.bindNamedParameter(QueryAllocationLeaseTime.class, String.valueOf(queryAllocationLeaseTime));
 
     // Implementations.
     jcb.bindImplementation(QueryAllocationManager.class, getQueryAllocationImplClass());
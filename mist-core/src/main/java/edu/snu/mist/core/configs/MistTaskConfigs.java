@@ -15,17 +15,25 @@
  */
 package edu.snu.mist.core.configs;
 
+import edu.snu.mist.core.parameters.Pinning;
 import edu.snu.mist.core.rpc.DefaultClientToTaskMessageImpl;
 import edu.snu.mist.core.rpc.DefaultMasterToTaskMessageImpl;
-import edu.snu.mist.core.shared.parameters.MqttSinkClientNumPerBroker;
-import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
-import edu.snu.mist.core.shared.parameters.MqttSourceClientNumPerBroker;
-import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.*;
+import edu.snu.mist.core.sources.parameters.PartitionIdleTimeout;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.BlockingQueueGroupSelectorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EarliestDeadlineGroupSelectorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.NextGroupSelectorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.OldestEventGroupSelectorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultLatencySlo;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultNumEventProcessors;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupRebalancingPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupSchedulingOption;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.NumIoCores;
 import edu.snu.mist.core.task.groupaware.parameters.GroupPinningTime;
 import edu.snu.mist.core.task.groupaware.parameters.ProcessingTimeout;
+import edu.snu.mist.core.task.metrics.parameters.LatencySampleInterval;
+import edu.snu.mist.core.task.metrics.parameters.OperatorProfiling;
 import edu.snu.mist.core.task.recovery.parameters.RecoveryThreadsNum;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.MasterToTaskMessage;
@@ -46,6 +54,16 @@ public final class MistTaskConfigs implements MistConfigs {
    */
   private final int numEventProcessors;
 
+  /**
+   * Pin the event processors and the I/O threads or not.
+   */
+  private final boolean pinning;
+
+  /**
+   * The number of cpus reserved for the I/O threads.
+   */
+  private final int numIoCores;
+
   /**
    * The mqtt keep alive time for sources in seconds.
    */
@@ -57,15 +75,40 @@ public final class MistTaskConfigs implements MistConfigs {
   private final int mqttSinkKeepAliveSec;
 
   /**
-   * The number of mqtt source clients per broker.
+   * The maximum number of mqtt source clients per broker.
    */
   private final int mqttSourceClientNumPerBroker;
 
   /**
-   * The number of mqtt sink clients per broker.
+   * The maximum number of mqtt sink clients per broker.
    */
   private final int mqttSinkClientNumPerBroker;
 
+  /**
+   * The minimum number of mqtt source clients per broker.
+   */
+  private final int mqttSourceMinClientNumPerBroker;
+
+  /**
+   * The minimum number of mqtt sink clients per broker.
+   */
+  private final int mqttSinkMinClientNumPerBroker;
+
+  /**
+   * The message rate of a mqtt source client above which its topics are migrated.
+   */
+  private final double mqttSourceClientMaxMessageRate;
+
+  /**
+   * The period of rebalancing the topics of mqtt source clients.
+   */
+  private final long mqttClientRebalancingPeriod;
+
+  /**
+   * The capacity of the dispatch queue of each mqtt source client.
+   */
+  private final int mqttSourceDispatchQueueCapacity;
+
   /**
    * Group rebalancing period.
    */
@@ -86,32 +129,84 @@ public final class MistTaskConfigs implements MistConfigs {
    */
   private final long checkpointPeriod;
 
+  /**
+   * The time after which a silent partition is excluded from the watermark of a source.
+   */
+  private final long partitionIdleTimeout;
+
   /**
    * The number of threads used for task-side recovery.
    */
   private final int recoveryThreadsNum;
 
+  /**
+   * The interval of the events whose latencies are sampled.
+   */
+  private final int latencySampleInterval;
+
+  /**
+   * True if the operator invocations are profiled.
+   */
+  private final boolean operatorProfiling;
+
+  /**
+   * The order in which the event processors select the active groups.
+   */
+  private final String groupSchedulingOption;
+
+  /**
+   * The latency objective of the queries that do not set the objective.
+   */
+  private final long defaultLatencySlo;
+
   @Inject
   private MistTaskConfigs(@Parameter(DefaultNumEventProcessors.class) final int numEventProcessors,
+                          @Parameter(Pinning.class) final boolean pinning,
+                          @Parameter(NumIoCores.class) final int numIoCores,
                           @Parameter(MqttSourceKeepAliveSec.class) final int mqttSourceKeepAliveSec,
                           @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec,
                           @Parameter(MqttSourceClientNumPerBroker.class) final int mqttSourceClientNumPerBroker,
                           @Parameter(MqttSinkClientNumPerBroker.class) final int mqttSinkClientNumPerBroker,
+                          @Parameter(MqttSourceMinClientNumPerBroker.class)
+                          final int mqttSourceMinClientNumPerBroker,
+                          @Parameter(MqttSinkMinClientNumPerBroker.class) final int mqttSinkMinClientNumPerBroker,
+                          @Parameter(MqttSourceClientMaxMessageRate.class)
+                          final double mqttSourceClientMaxMessageRate,
+                          @Parameter(MqttClientRebalancingPeriod.class) final long mqttClientRebalancingPeriod,
+                          @Parameter(MqttSourceDispatchQueueCapacity.class)
+                          final int mqttSourceDispatchQueueCapacity,
                           @Parameter(GroupRebalancingPeriod.class) final long rebalancingPeriod,
                           @Parameter(ProcessingTimeout.class) final long processingTimeout,
                           @Parameter(GroupPinningTime.class) final long groupPinningTime,
                           @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
-                          @Parameter(RecoveryThreadsNum.class) final int recoveryThreadsNum) {
+                          @Parameter(PartitionIdleTimeout.class) final long partitionIdleTimeout,
+                          @Parameter(RecoveryThreadsNum.class) final int recoveryThreadsNum,
+                          @Parameter(LatencySampleInterval.class) final int latencySampleInterval,
+                          @Parameter(OperatorProfiling.class) final boolean operatorProfiling,
+                          @Parameter(GroupSchedulingOption.class) final String groupSchedulingOption,
+                          @Parameter(DefaultLatencySlo.class) final long defaultLatencySlo) {
     this.numEventProcessors = numEventProcessors;
+    this.pinning = pinning;
+    this.numIoCores = numIoCores;
     this.rebalancingPeriod = rebalancingPeriod;
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
     this.mqttSourceClientNumPerBroker = mqttSourceClientNumPerBroker;
     this.mqttSinkClientNumPerBroker = mqttSinkClientNumPerBroker;
+    this.mqttSourceMinClientNumPerBroker = mqttSourceMinClientNumPerBroker;
+    this.mqttSinkMinClientNumPerBroker = mqttSinkMinClientNumPerBroker;
+    this.mqttSourceClientMaxMessageRate = mqttSourceClientMaxMessageRate;
+    this.mqttClientRebalancingPeriod = mqttClientRebalancingPeriod;
+    this.mqttSourceDispatchQueueCapacity = mqttSourceDispatchQueueCapacity;
     this.groupPinningTime = groupPinningTime;
     this.processingTimeout = processingTimeout;
     this.checkpointPeriod = checkpointPeriod;
+    this.partitionIdleTimeout = partitionIdleTimeout;
     this.recoveryThreadsNum = recoveryThreadsNum;
+    this.latencySampleInterval = latencySampleInterval;
+    this.operatorProfiling = operatorProfiling;
+    this.groupSchedulingOption = groupSchedulingOption;
+    this.defaultLatencySlo = defaultLatencySlo;
   }
 
   /**
@@ -123,19 +218,43 @@ public final class MistTaskConfigs implements MistConfigs {
 
     // Parameter
     jcb.bindNamedParameter(DefaultNumEventProcessors.class, Integer.toString(numEventProcessors));
+    jcb.bindNamedParameter(Pinning.class, Boolean.toString(pinning));
+    jcb.bindNamedParameter(NumIoCores.class, Integer.toString(numIoCores));
     jcb.bindNamedParameter(MqttSourceKeepAliveSec.class, Integer.toString(mqttSourceKeepAliveSec));
     jcb.bindNamedParameter(MqttSinkKeepAliveSec.class, Integer.toString(mqttSinkKeepAliveSec));
     jcb.bindNamedParameter(MqttSourceClientNumPerBroker.class, Integer.toString(mqttSourceClientNumPerBroker));
     jcb.bindNamedParameter(MqttSinkClientNumPerBroker.class, Integer.toString(mqttSinkClientNumPerBroker));
+    jcb.bindNamedParameter(MqttSourceMinClientNumPerBroker.class, Integer.toString(mqttSourceMinClientNumPerBroker));
+    jcb.bindNamedParameter(MqttSinkMinClientNumPerBroker.class, Integer.toString(mqttSinkMinClientNumPerBroker));
+    jcb.bindNamedParameter(MqttSourceClientMaxMessageRate.class, Double.toString(mqttSourceClientMaxMessageRate));
+    jcb.bindNamedParameter(MqttClientRebalancingPeriod.class, Long.toString(mqttClientRebalancingPeriod));
+    jcb.bindNamedParameter(MqttSourceDispatchQueueCapacity.class, Integer.toString(mqttSourceDispatchQueueCapacity));
     jcb.bindNamedParameter(GroupRebalancingPeriod.class, Long.toString(rebalancingPeriod));
     jcb.bindNamedParameter(ProcessingTimeout.class, Long.toString(processingTimeout));
     jcb.bindNamedParameter(GroupPinningTime.class, Long.toString(groupPinningTime));
     jcb.bindNamedParameter(PeriodicCheckpointPeriod.class, Long.toString(checkpointPeriod));
+    jcb.bindNamedParameter(PartitionIdleTimeout.class, Long.toString(partitionIdleTimeout));
     jcb.bindNamedParameter(RecoveryThreadsNum.class, Integer.toString(recoveryThreadsNum));
+    jcb.bindNamedParameter(LatencySampleInterval.class, Integer.toString(latencySampleInterval));
+    jcb.bindNamedParameter(OperatorProfiling.class, Boolean.toString(operatorProfiling));
+    jcb.bindNamedParameter(DefaultLatencySlo.class, Long.toString(defaultLatencySlo));
 
     // Implementation
     jcb.bindImplementation(ClientToTaskMessage.class, DefaultClientToTaskMessageImpl.class);
     jcb.bindImplementation(MasterToTaskMessage.class, DefaultMasterToTaskMessageImpl.class);
+    jcb.bindImplementation(NextGroupSelectorFactory.class, getNextGroupSelectorFactoryClass());
     return jcb.build();
   }
+
+  private Class<? extends NextGroupSelectorFactory> getNextGroupSelectorFactoryClass() {
+    if (groupSchedulingOption.equals("fifo")) {
+      return BlockingQueueGroupSelectorFactory.class;
+    } else if (groupSchedulingOption.equals("oldest")) {
+      return OldestEventGroupSelectorFactory.class;
+    } else if (groupSchedulingOption.equals("deadline")) {
+      return EarliestDeadlineGroupSelectorFactory.class;
+    } else {
+      throw new IllegalArgumentException("Invalid group scheduling option: " + groupSchedulingOption);
+    }
+  }
 }
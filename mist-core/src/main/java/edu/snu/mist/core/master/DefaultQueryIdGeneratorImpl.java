@@ -17,6 +17,7 @@ package edu.snu.mist.core.master;
 
 import edu.snu.mist.core.parameters.MasterIndex;
 import edu.snu.mist.core.parameters.QueryIdPrefix;
+import edu.snu.mist.formats.avro.QueryIdRange;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
@@ -34,30 +35,31 @@ final class DefaultQueryIdGeneratorImpl implements QueryIdGenerator {
   private final AtomicLong numSubmittedQueries;
 
   /**
-   * Prefix of query id.
+   * The common prefix of the generated ids, which consists of the prefix and the master index.
    */
-  private final String prefix;
-
-  /**
-   * The index of this master.
-   */
-  private final Integer masterIndex;
+  private final String idPrefix;
 
   @Inject
   private DefaultQueryIdGeneratorImpl(@Parameter(QueryIdPrefix.class) final String prefix,
                                       @Parameter(MasterIndex.class) final int masterIndex) {
-    this.prefix = prefix;
     this.numSubmittedQueries = new AtomicLong();
-    this.masterIndex = masterIndex;
+    this.idPrefix = prefix + masterIndex + "-";
   }
 
   @Override
   public String generate() {
     final StringBuilder sb = new StringBuilder();
-    sb.append(prefix);
-    sb.append(masterIndex);
-    sb.append("-");
+    sb.append(idPrefix);
     sb.append(numSubmittedQueries.getAndIncrement());
     return sb.toString();
   }
+
+  @Override
+  public QueryIdRange generateRange(final int num) {
+    return QueryIdRange.newBuilder()
+        .setPrefix(idPrefix)
+        .setStart(numSubmittedQueries.getAndAdd(num))
+        .setNum(num)
+        .build();
+  }
 }
@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.master;
 
+import edu.snu.mist.formats.avro.QueryIdRange;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
 /**
@@ -27,4 +28,13 @@ public interface QueryIdGenerator {
    * @return query id
    */
   String generate();
+
+  /**
+   * Reserves a range of query ids at once.
+   * The i-th id of the range is the prefix of the range followed by (start + i),
+   * and the ids are not generated again by this generator.
+   * @param num the number of query ids
+   * @return query id range
+   */
+  QueryIdRange generateRange(int num);
 }
@@ -26,11 +26,14 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * The shared map which contains information about MistTask stats.
+ * It publishes an immutable snapshot of the stats whenever the stats are changed,
+ * so that the stats can be read without holding TaskInfoRWLock.
  */
 public final class TaskStatsMap {
 
@@ -51,11 +54,33 @@ public final class TaskStatsMap {
    */
   private final TaskInfoRWLock taskInfoRWLock;
 
+  /**
+   * The latest snapshot of the task stats.
+   */
+  private final AtomicReference<TaskStatsSnapshot> snapshot;
+
   @Inject
   private TaskStatsMap(final TaskInfoRWLock taskInfoRWLock) {
     this.taskInfoRWLock = taskInfoRWLock;
     this.innerMap = new ConcurrentHashMap<>();
     this.innerList = new CopyOnWriteArrayList<>();
+    this.snapshot = new AtomicReference<>(new TaskStatsSnapshot(0L, innerList, innerMap));
+  }
+
+  /**
+   * Publish a new snapshot of the current task stats.
+   * It is synchronized to publish the snapshots in the version order.
+   */
+  private synchronized void publishSnapshot() {
+    snapshot.set(new TaskStatsSnapshot(snapshot.get().getVersion() + 1, innerList, innerMap));
+  }
+
+  /**
+   * Get the latest snapshot of the task stats. It does not require any lock.
+   * @return the task stats snapshot
+   */
+  public TaskStatsSnapshot getSnapshot() {
+    return snapshot.get();
   }
 
   public TaskStats get(final String taskId) {
@@ -66,22 +91,28 @@ public final class TaskStatsMap {
   public TaskStats addTask(final String taskId) {
     assert taskInfoRWLock.isWriteLockedByCurrentThread();
     innerList.add(taskId);
-    return innerMap.putIfAbsent(taskId, TaskStats.newBuilder()
+    final TaskStats taskStats = innerMap.putIfAbsent(taskId, TaskStats.newBuilder()
         .setTaskLoad(0.0)
         .setGroupStatsMap(new HashMap<>())
         .build());
+    publishSnapshot();
+    return taskStats;
   }
 
   public TaskStats removeTask(final String taskId) {
     assert taskInfoRWLock.isWriteLockedByCurrentThread();
     innerList.remove(taskId);
-    return innerMap.remove(taskId);
+    final TaskStats taskStats = innerMap.remove(taskId);
+    publishSnapshot();
+    return taskStats;
   }
 
   public void updateTaskStats(final String taskId, final TaskStats updatedTaskStats) {
     LOG.log(Level.INFO, "Updated task stats: Task {0}, Load {1}",
         new Object[]{taskId, updatedTaskStats.getTaskLoad()});
-    innerMap.replace(taskId, updatedTaskStats);
+    if (innerMap.replace(taskId, updatedTaskStats) != null) {
+      publishSnapshot();
+    }
   }
 
   public Set<Map.Entry<String, TaskStats>> entrySet() {
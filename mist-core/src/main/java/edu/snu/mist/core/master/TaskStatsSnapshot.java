@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.master;
+
+import edu.snu.mist.formats.avro.TaskStats;
+
+import java.util.*;
+
+/**
+ * An immutable snapshot of the task stats, which is published by TaskStatsMap whenever the stats are changed.
+ * The load balancing components read the snapshot without locks.
+ * The loads are sorted, so the number of overloaded / idle tasks and the minimum load task
+ * are found without scanning all the tasks.
+ */
+public final class TaskStatsSnapshot {
+
+  /**
+   * The version of this snapshot, which increases whenever a new snapshot is published.
+   */
+  private final long version;
+
+  /**
+   * The task ids in the registered order.
+   */
+  private final List<String> taskList;
+
+  /**
+   * The task stats of the tasks.
+   */
+  private final Map<String, TaskStats> taskStatsMap;
+
+  /**
+   * The task ids and the loads of the tasks, which are sorted by the loads.
+   */
+  private final String[] sortedTasks;
+  private final double[] sortedLoads;
+
+  TaskStatsSnapshot(final long version,
+                    final List<String> taskList,
+                    final Map<String, TaskStats> taskStatsMap) {
+    this.version = version;
+    this.taskList = Collections.unmodifiableList(new ArrayList<>(taskList));
+    this.taskStatsMap = Collections.unmodifiableMap(new HashMap<>(taskStatsMap));
+
+    final List<Map.Entry<String, TaskStats>> entries = new ArrayList<>(this.taskStatsMap.entrySet());
+    entries.sort(Comparator.comparingDouble(entry -> entry.getValue().getTaskLoad()));
+    this.sortedTasks = new String[entries.size()];
+    this.sortedLoads = new double[entries.size()];
+    for (int i = 0; i < entries.size(); i++) {
+      sortedTasks[i] = entries.get(i).getKey();
+      sortedLoads[i] = entries.get(i).getValue().getTaskLoad();
+    }
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public int size() {
+    return sortedTasks.length;
+  }
+
+  /**
+   * @return the unmodifiable list of the task ids
+   */
+  public List<String> getTaskList() {
+    return taskList;
+  }
+
+  /**
+   * @param taskId task id
+   * @return the task stats, or null if the task does not exist in this snapshot
+   */
+  public TaskStats getTaskStats(final String taskId) {
+    return taskStatsMap.get(taskId);
+  }
+
+  /**
+   * @return the task that has the minimum load, or null if there is no task
+   */
+  public String getMinLoadTask() {
+    return sortedTasks.length == 0 ? null : sortedTasks[0];
+  }
+
+  /**
+   * @param threshold load threshold
+   * @return the number of tasks whose load is larger than the threshold
+   */
+  public int getNumTasksOverLoad(final double threshold) {
+    return sortedLoads.length - upperBound(threshold);
+  }
+
+  /**
+   * @param threshold load threshold
+   * @return the number of tasks whose load is not larger than the threshold
+   */
+  public int getNumTasksUnderLoad(final double threshold) {
+    return upperBound(threshold);
+  }
+
+  /**
+   * Find the index of the first load that is larger than the threshold.
+   */
+  private int upperBound(final double threshold) {
+    int low = 0;
+    int high = sortedLoads.length;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (sortedLoads[mid] <= threshold) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
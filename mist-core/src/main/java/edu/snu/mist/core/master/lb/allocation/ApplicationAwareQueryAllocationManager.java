@@ -18,6 +18,7 @@ package edu.snu.mist.core.master.lb.allocation;
 import edu.snu.mist.core.master.TaskAddressInfoMap;
 import edu.snu.mist.core.master.TaskInfoRWLock;
 import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.TaskStatsSnapshot;
 import edu.snu.mist.core.master.lb.AppTaskListMap;
 import edu.snu.mist.core.master.lb.parameters.OverloadedTaskLoadThreshold;
 import edu.snu.mist.core.master.lb.parameters.UnderloadedTaskLoadThreshold;
@@ -28,7 +29,7 @@ import org.apache.reef.tang.annotations.Parameter;
 import javax.inject.Inject;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Logger;
 
 /**
@@ -82,19 +83,19 @@ public final class ApplicationAwareQueryAllocationManager implements QueryAlloca
     this.taskInfoRWLock = taskInfoRWLock;
   }
 
-  private String getRandomTask(final List<String> allTaskList) {
-    final Random random = new Random();
+  private String getRandomTask(final TaskStatsSnapshot snapshot, final List<String> allTaskList) {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
     // To deal with thundering herd, we pick a random underloaded or normal task for allocation.
     final List<String> underloadedTaskList = new ArrayList<>();
     final List<String> normalTaskList = new ArrayList<>();
     for (final String task : allTaskList) {
-      final TaskStats taskStats = taskStatsMap.get(task);
+      final TaskStats taskStats = snapshot.getTaskStats(task);
       if (taskStats == null) {
         // Cannot find the task stats due to synchronization issue...
         // This should not happen, so we throw RuntimeException here.
         throw new RuntimeException("Synchronization error!");
       }
-      final double currentTaskLoad = taskStatsMap.get(task).getTaskLoad();
+      final double currentTaskLoad = taskStats.getTaskLoad();
       if (currentTaskLoad < underloadedTaskThreshold) {
         underloadedTaskList.add(task);
       } else if (currentTaskLoad < overloadedTaskThreshold) {
@@ -116,24 +117,24 @@ public final class ApplicationAwareQueryAllocationManager implements QueryAlloca
   public IPAddress getAllocatedTask(final String appId) {
     // Acquire read lock starting task allocation.
     taskInfoRWLock.readLock().lock();
+    final TaskStatsSnapshot snapshot = taskStatsMap.getSnapshot();
     final List<String> taskList = appTaskListMap.getTaskListForApp(appId);
     if (taskList == null) {
-      final List<String> allTaskList = taskStatsMap.getTaskList();
-      final String selectedTask = getRandomTask(allTaskList);
+      final String selectedTask = getRandomTask(snapshot, snapshot.getTaskList());
       appTaskListMap.addTaskToApp(appId, selectedTask);
       final IPAddress result = taskAddressInfoMap.getClientToTaskAddress(selectedTask);
       taskInfoRWLock.readLock().unlock();
       return result;
     } else {
-      final String selectedTask = getRandomTask(taskList);
-      final double selectedTaskLoad = taskStatsMap.get(selectedTask).getTaskLoad();
+      final String selectedTask = getRandomTask(snapshot, taskList);
+      final double selectedTaskLoad = snapshot.getTaskStats(selectedTask).getTaskLoad();
       if (selectedTaskLoad > overloadedTaskThreshold) {
         // All the tasks are overloaded. Allocate to a new task.
-        final List<String> remainingList = taskStatsMap.getTaskList();
+        final List<String> remainingList = new ArrayList<>(snapshot.getTaskList());
         remainingList.removeAll(taskList);
         if (!remainingList.isEmpty()) {
-          final String taskCandidate = getRandomTask(remainingList);
-          if (taskStatsMap.get(taskCandidate).getTaskLoad() < overloadedTaskThreshold) {
+          final String taskCandidate = getRandomTask(snapshot, remainingList);
+          if (snapshot.getTaskStats(taskCandidate).getTaskLoad() < overloadedTaskThreshold) {
             appTaskListMap.addTaskToApp(appId, taskCandidate);
             final IPAddress result = taskAddressInfoMap.getClientToTaskAddress(taskCandidate);
             taskInfoRWLock.readLock().unlock();
@@ -19,10 +19,8 @@ import edu.snu.mist.core.master.TaskAddressInfoMap;
 import edu.snu.mist.core.master.TaskInfoRWLock;
 import edu.snu.mist.core.master.TaskStatsMap;
 import edu.snu.mist.formats.avro.IPAddress;
-import edu.snu.mist.formats.avro.TaskStats;
 
 import javax.inject.Inject;
-import java.util.Map;
 
 /**
  * The minimum load query allocation manager.
@@ -58,14 +56,7 @@ public final class MinLoadQueryAllocationManager implements QueryAllocationManag
    * Get the task address that has the minimum load.
    */
   private IPAddress getMinTaskIpAddress() {
-    double minLoad = Double.MAX_VALUE;
-    String minTask = null;
-    for (final Map.Entry<String, TaskStats> entry : taskStatsMap.entrySet()) {
-      if (minLoad > entry.getValue().getTaskLoad()) {
-        minLoad = entry.getValue().getTaskLoad();
-        minTask = entry.getKey();
-      }
-    }
+    final String minTask = taskStatsMap.getSnapshot().getMinLoadTask();
     assert minTask != null;
     return taskAddressInfoMap.getClientToTaskAddress(minTask);
   }
@@ -18,6 +18,7 @@ package edu.snu.mist.core.master.lb.allocation;
 import edu.snu.mist.core.master.TaskAddressInfoMap;
 import edu.snu.mist.core.master.TaskInfoRWLock;
 import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.TaskStatsSnapshot;
 import edu.snu.mist.formats.avro.IPAddress;
 
 import javax.inject.Inject;
@@ -64,7 +65,13 @@ public final class PowerOfTwoQueryAllocationManager implements QueryAllocationMa
   @Override
   public IPAddress getAllocatedTask(final String appId) {
     taskInfoRWLock.readLock().lock();
-    final List<String> taskList = taskStatsMap.getTaskList();
+    final TaskStatsSnapshot snapshot = taskStatsMap.getSnapshot();
+    final List<String> taskList = snapshot.getTaskList();
+    if (taskList.size() == 1) {
+      final IPAddress result = taskAddressInfoMap.getClientToTaskAddress(taskList.get(0));
+      taskInfoRWLock.readLock().unlock();
+      return result;
+    }
     int index0, index1;
     index0 = random.nextInt(taskList.size());
     index1 = random.nextInt(taskList.size());
@@ -73,7 +80,7 @@ public final class PowerOfTwoQueryAllocationManager implements QueryAllocationMa
     }
     final String task0 = taskList.get(index0);
     final String task1 = taskList.get(index1);
-    if (this.taskStatsMap.get(task0).getTaskLoad() < this.taskStatsMap.get(task1).getTaskLoad()) {
+    if (snapshot.getTaskStats(task0).getTaskLoad() < snapshot.getTaskStats(task1).getTaskLoad()) {
       final IPAddress result = taskAddressInfoMap.getClientToTaskAddress(task0);
       taskInfoRWLock.readLock().unlock();
       return result;
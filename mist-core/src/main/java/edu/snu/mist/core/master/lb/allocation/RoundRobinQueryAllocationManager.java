@@ -64,7 +64,7 @@ public final class RoundRobinQueryAllocationManager implements QueryAllocationMa
   @Override
   public IPAddress getAllocatedTask(final String appId) {
     taskInfoRWLock.readLock().lock();
-    final List<String> taskList = taskStatsMap.getTaskList();
+    final List<String> taskList = taskStatsMap.getSnapshot().getTaskList();
     final int myIndex = currentIndex.getAndIncrement() % taskList.size();
     final IPAddress result = taskAddressInfoMap.getClientToTaskAddress(taskList.get(myIndex));
     taskInfoRWLock.readLock().unlock();
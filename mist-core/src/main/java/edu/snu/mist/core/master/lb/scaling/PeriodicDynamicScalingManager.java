@@ -15,8 +15,8 @@
  */
 package edu.snu.mist.core.master.lb.scaling;
 
-import edu.snu.mist.core.master.TaskInfoRWLock;
 import edu.snu.mist.core.master.TaskStatsMap;
+import edu.snu.mist.core.master.TaskStatsSnapshot;
 import edu.snu.mist.core.master.lb.parameters.DynamicScalingPeriod;
 import edu.snu.mist.core.master.lb.parameters.IdleTaskLoadThreshold;
 import edu.snu.mist.core.master.lb.parameters.MaxTaskNum;
@@ -27,11 +27,9 @@ import edu.snu.mist.core.master.lb.parameters.ScaleInIdleTaskRatio;
 import edu.snu.mist.core.master.lb.parameters.ScaleOutGracePeriod;
 import edu.snu.mist.core.master.lb.parameters.ScaleOutOverloadedTaskRatio;
 import edu.snu.mist.core.master.recovery.RecoveryLock;
-import edu.snu.mist.formats.avro.TaskStats;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
-import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -125,11 +123,6 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
    */
   private final RecoveryLock recoveryLock;
 
-  /**
-   * The read/write lock for task info update.
-   */
-  private final TaskInfoRWLock taskInfoRWLock;
-
   @Inject
   private PeriodicDynamicScalingManager(
       final TaskStatsMap taskStatsMap,
@@ -143,8 +136,7 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
       @Parameter(ScaleInIdleTaskRatio.class) final double scaleInIdleTaskRatio,
       @Parameter(ScaleOutOverloadedTaskRatio.class) final double scaleOutOverloadedTaskRatio,
       final ScaleInManager scaleInManager,
-      final RecoveryLock recoveryLock,
-      final TaskInfoRWLock taskInfoRWLock) {
+      final RecoveryLock recoveryLock) {
     this.taskStatsMap = taskStatsMap;
     this.dynamicScalingPeriod = dynamicScalingPeriod;
     this.maxTaskNum = maxTaskNum;
@@ -161,28 +153,22 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
     this.scheduledExecutorService = Executors.newSingleThreadScheduledExecutor();
     this.scaleInManager = scaleInManager;
     this.recoveryLock = recoveryLock;
-    this.taskInfoRWLock = taskInfoRWLock;
   }
 
-  private boolean isClusterOverloaded() {
-    int overloadedTaskNum = 0;
-    for (final Map.Entry<String, TaskStats> entry : taskStatsMap.entrySet()) {
-      if (entry.getValue().getTaskLoad() > overloadedTaskLoadThreshold) {
-        overloadedTaskNum += 1;
-      }
+  private boolean isClusterOverloaded(final TaskStatsSnapshot snapshot) {
+    if (snapshot.size() == 0) {
+      return false;
     }
-    final double overloadedTaskRatio = overloadedTaskNum / taskStatsMap.getTaskList().size();
+    final double overloadedTaskRatio =
+        (double) snapshot.getNumTasksOverLoad(overloadedTaskLoadThreshold) / snapshot.size();
     return overloadedTaskRatio > scaleOutOverloadedTaskRatio;
   }
 
-  private boolean isClusterIdle() {
-    int idleTaskNum = 0;
-    for (final Map.Entry<String, TaskStats> entry : taskStatsMap.entrySet()) {
-      if (entry.getValue().getTaskLoad() <= idleTaskLoadThreshold) {
-        idleTaskNum += 1;
-      }
+  private boolean isClusterIdle(final TaskStatsSnapshot snapshot) {
+    if (snapshot.size() == 0) {
+      return false;
     }
-    final double idleTaskRatio = idleTaskNum / taskStatsMap.getTaskList().size();
+    final double idleTaskRatio = (double) snapshot.getNumTasksUnderLoad(idleTaskLoadThreshold) / snapshot.size();
     return idleTaskRatio > scaleInIdleTaskRatio;
   }
 
@@ -194,23 +180,22 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
 
     @Override
     public void run() {
-      taskInfoRWLock.readLock().lock();
+      // The task stats are read from the latest snapshot without locking
+      final TaskStatsSnapshot snapshot = taskStatsMap.getSnapshot();
       final long oldTimeStamp = lastMeasuredTimestamp;
       lastMeasuredTimestamp = System.currentTimeMillis();
 
-      final boolean clusterOverloaded = isClusterOverloaded();
-      final boolean clusterIdle = isClusterIdle();
+      final boolean clusterOverloaded = isClusterOverloaded(snapshot);
+      final boolean clusterIdle = isClusterIdle(snapshot);
 
       LOG.log(Level.INFO, "Task Num = {0}. Overloaded = {1}, Idle = {2}",
-          new Object[]{taskStatsMap.entrySet().size(), clusterOverloaded, clusterIdle});
+          new Object[]{snapshot.size(), clusterOverloaded, clusterIdle});
 
       if (clusterOverloaded) {
         overloadedTimeElapsed += lastMeasuredTimestamp - oldTimeStamp;
-        if (overloadedTimeElapsed > scaleOutGracePeriod && taskStatsMap.getTaskList().size() < maxTaskNum
+        if (overloadedTimeElapsed > scaleOutGracePeriod && snapshot.size() < maxTaskNum
             && recoveryLock.tryLock()) {
           try {
-            // Release the lock.
-            taskInfoRWLock.readLock().unlock();
             // TODO: [MIST-1130] Perform automatic scale-out.
             overloadedTimeElapsed = 0;
           } catch (final Exception e) {
@@ -227,12 +212,10 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
       if (clusterIdle) {
         idleTimeElapsed += lastMeasuredTimestamp - oldTimeStamp;
         // Try to acquire recovery lock to prevent fault recovery during automatic scaling.
-        if (idleTimeElapsed > scaleInGracePeriod && taskStatsMap.getTaskList().size() > minTaskNum
+        if (idleTimeElapsed > scaleInGracePeriod && snapshot.size() > minTaskNum
             && recoveryLock.tryLock()) {
           LOG.log(Level.INFO, "Start scaling-in...");
           try {
-            // Release the lock.
-            taskInfoRWLock.readLock().unlock();
             scaleInManager.scaleIn();
             // Initialize the idleTimeElapsed.
             idleTimeElapsed = 0;
@@ -246,7 +229,6 @@ public final class PeriodicDynamicScalingManager implements DynamicScalingManage
       } else {
         idleTimeElapsed = 0;
       }
-      taskInfoRWLock.readLock().unlock();
     }
   }
 
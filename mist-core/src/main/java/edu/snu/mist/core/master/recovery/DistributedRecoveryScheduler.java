@@ -180,7 +180,8 @@ public final class DistributedRecoveryScheduler implements RecoveryScheduler {
       return new ArrayList<>();
     } else {
       final Set<String> allocatedGroups = new HashSet<>();
-      final double vLoad = taskStatsMap.get(taskHostname).getTaskLoad();
+      // The load is read from the latest snapshot, because the task info lock is not held here
+      final double vLoad = taskStatsMap.getSnapshot().getTaskStats(taskHostname).getTaskLoad();
       final Iterator<Map.Entry<String, GroupStats>> recoveryGroupIterator = recoveryGroups.entrySet().iterator();
       while (recoveryGroupIterator.hasNext() && vLoad < overloadedTaskThreshold
           && allocatedGroups.size() < recoveryUnitSize) {
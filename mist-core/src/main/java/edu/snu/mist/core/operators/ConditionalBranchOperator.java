@@ -20,6 +20,7 @@ import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedPredicateCompiler;
 import edu.snu.mist.core.operators.parameters.SerializedUdfList;
 import org.apache.reef.tang.annotations.Parameter;
 
@@ -33,7 +34,7 @@ import java.util.logging.Logger;
  * Conditional branch operator which branches out from input stream.
  * @param <I> input type
  */
-public final class ConditionalBranchOperator<I> extends OneStreamOperator {
+public final class ConditionalBranchOperator<I> extends OneStreamOperator implements NonBufferingOperator {
   private static final Logger LOG = Logger.getLogger(ConditionalBranchOperator.class.getName());
 
   private final List<MISTPredicate<I>> predicates;
@@ -44,12 +45,16 @@ public final class ConditionalBranchOperator<I> extends OneStreamOperator {
       final ClassLoader classLoader) throws IOException, ClassNotFoundException {
     predicates = new ArrayList<>(serializedUdfList.size());
     for (final String serializedUdf : serializedUdfList) {
-      predicates.add(SerializeUtils.deserializeFromString(serializedUdf, classLoader));
+      final MISTPredicate<I> predicate = SerializeUtils.deserializeFromString(serializedUdf, classLoader);
+      predicates.add(RuleBasedPredicateCompiler.compile(predicate));
     }
   }
 
   public ConditionalBranchOperator(final List<MISTPredicate<I>> predicates) {
-    this.predicates = predicates;
+    this.predicates = new ArrayList<>(predicates.size());
+    for (final MISTPredicate<I> predicate : predicates) {
+      this.predicates.add(RuleBasedPredicateCompiler.compile(predicate));
+    }
   }
 
   /**
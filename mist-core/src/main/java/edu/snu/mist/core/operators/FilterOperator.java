@@ -20,6 +20,7 @@ import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedPredicateCompiler;
 import edu.snu.mist.core.operators.parameters.SerializedUdf;
 import org.apache.reef.tang.annotations.Parameter;
 
@@ -32,14 +33,20 @@ import java.util.logging.Logger;
  * Filter operator which filters input stream.
  * @param <I> input type
  */
-public final class FilterOperator<I> extends OneStreamOperator {
+public final class FilterOperator<I> extends OneStreamOperator implements NonBufferingOperator {
   private static final Logger LOG = Logger.getLogger(FilterOperator.class.getName());
 
   /**
    * Filter function.
+   * Rule-based predicates are compiled into type-specialized evaluators.
    */
   private final MISTPredicate<I> filterFunc;
 
+  /**
+   * The filter function before compilation.
+   */
+  private final MISTPredicate<I> originalFilterFunc;
+
   @Inject
   private FilterOperator(
       @Parameter(SerializedUdf.class) final String serializedObject,
@@ -49,7 +56,15 @@ public final class FilterOperator<I> extends OneStreamOperator {
 
   @Inject
   public FilterOperator(final MISTPredicate<I> filterFunc) {
-    this.filterFunc = filterFunc;
+    this.originalFilterFunc = filterFunc;
+    this.filterFunc = RuleBasedPredicateCompiler.compile(filterFunc);
+  }
+
+  /**
+   * @return the filter function given by the user
+   */
+  public MISTPredicate<I> getFilterFunc() {
+    return originalFilterFunc;
   }
 
   /**
@@ -32,7 +32,7 @@ import java.util.logging.Logger;
 /**
  * Maps and flattens the list of outputs.
  */
-public final class FlatMapOperator<I, O> extends OneStreamOperator {
+public final class FlatMapOperator<I, O> extends OneStreamOperator implements NonBufferingOperator {
   private static final Logger LOG = Logger.getLogger(FlatMapOperator.class.getName());
 
   /**
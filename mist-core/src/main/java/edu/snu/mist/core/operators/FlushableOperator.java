@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+/**
+ * This is an interface that is implemented by the operators that keep the inputs in open windows.
+ * The keyed operator flushes the open windows of an idle key before it removes the key.
+ */
+public interface FlushableOperator {
+
+  /**
+   * Emits the open windows regardless of their ends, and removes them.
+   */
+  void flush();
+}
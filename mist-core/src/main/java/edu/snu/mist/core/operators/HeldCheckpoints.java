@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.OutputEmitter;
+import org.apache.reef.io.Tuple;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/**
+ * The checkpoint events which are held by an operator that buffers data events,
+ * until the data events buffered before them are drained.
+ * The buffered events are drained in the order of timestamp,
+ * so a checkpoint is released once no buffered event is earlier than or equal to
+ * the latest event that the operator had received before the checkpoint.
+ * This class is not thread-safe, as an operator is processed by one event processor at once.
+ */
+final class HeldCheckpoints {
+
+  /**
+   * The held checkpoints with the timestamps of the latest events before them.
+   */
+  private final Queue<Tuple<Long, MistCheckpointEvent>> checkpoints;
+
+  HeldCheckpoints() {
+    this.checkpoints = new ArrayDeque<>();
+  }
+
+  /**
+   * Hold the checkpoint until the buffered events which are not later than the timestamp are drained.
+   * @param timestamp the maximum timestamp of the buffered events, or Long.MIN_VALUE if there is none
+   * @param checkpoint checkpoint event
+   */
+  void hold(final long timestamp, final MistCheckpointEvent checkpoint) {
+    checkpoints.add(new Tuple<>(timestamp, checkpoint));
+  }
+
+  /**
+   * Emit the held checkpoints in order while the events buffered before them are drained.
+   * @param minBufferedTimestamp the minimum timestamp of the buffered events, or Long.MAX_VALUE if there is none
+   * @param outputEmitter the output emitter of the operator
+   */
+  void release(final long minBufferedTimestamp, final OutputEmitter outputEmitter) {
+    while (!checkpoints.isEmpty() && checkpoints.peek().getKey() < minBufferedTimestamp) {
+      outputEmitter.emitCheckpoint(checkpoints.poll().getValue());
+    }
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This operator partitions the inputs by their keys, and processes the inputs of each key
+ * with a separate operator created by the operator factory.
+ * The operators of the keys are kept in a KeyedStateTable, which removes the keys idle for the idle key timeout
+ * and takes the snapshots of the updated keys only.
+ * If the operators keep the inputs in open windows, the windows of an idle key are flushed before the key is removed.
+ * The watermarks are forwarded to the operators of all keys only if the operators use the watermarks
+ * to make progress (e.g., windows), and a watermark is emitted once even if it is emitted by multiple keys.
+ * @param <T> the type of input data
+ * @param <K> the type of key
+ */
+public final class KeyedOperator<T, K> extends OneStreamStateHandlerOperator {
+  private static final Logger LOG = Logger.getLogger(KeyedOperator.class.getName());
+
+  /**
+   * The function that extracts the key from the input.
+   */
+  private final MISTFunction<T, K> keySelector;
+
+  /**
+   * True if the watermarks are processed by the operators of the keys.
+   */
+  private final boolean forwardWatermarks;
+
+  /**
+   * The operators of the keys.
+   */
+  private final KeyedStateTable keyedStateTable;
+
+  /**
+   * The timestamp of the latest emitted watermark.
+   */
+  private long latestWatermarkTimestamp;
+
+  /**
+   * True while the operator of an idle key is flushed.
+   */
+  private boolean flushing;
+
+  /**
+   * @param keySelector the function that extracts the key from the input
+   * @param operatorFactory the factory that creates an operator for a new key
+   * @param forwardWatermarks true if the watermarks are processed by the operators of the keys
+   * @param idleKeyTimeout the event time after which an idle key is removed (0 to keep the keys)
+   */
+  public KeyedOperator(final MISTFunction<T, K> keySelector,
+                       final Supplier<OneStreamOperator> operatorFactory,
+                       final boolean forwardWatermarks,
+                       final long idleKeyTimeout) {
+    super();
+    this.keySelector = keySelector;
+    this.forwardWatermarks = forwardWatermarks;
+    this.latestWatermarkTimestamp = Long.MIN_VALUE;
+    this.flushing = false;
+    final OutputEmitter keyOutputEmitter = new KeyOutputEmitter();
+    this.keyedStateTable = new KeyedStateTable(() -> {
+      final OneStreamOperator operator = operatorFactory.get();
+      operator.setOutputEmitter(keyOutputEmitter);
+      return operator;
+    }, idleKeyTimeout);
+  }
+
+  /**
+   * @return the number of keys in this operator
+   */
+  public int getNumKeys() {
+    return keyedStateTable.size();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    final K key = keySelector.apply((T) input.getValue());
+    keyedStateTable.getOperator(key, input.getTimestamp()).processLeftData(input);
+    evictIdleKeys(input.getTimestamp());
+    updateLatestEventTimestamp(input.getTimestamp());
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    if (forwardWatermarks) {
+      for (final OneStreamOperator operator : keyedStateTable.getOperators()) {
+        operator.processLeftWatermark(input);
+      }
+      keyedStateTable.markAllDirty();
+    } else {
+      emitWatermark(input);
+    }
+    evictIdleKeys(input.getTimestamp());
+    updateLatestEventTimestamp(input.getTimestamp());
+  }
+
+  private void evictIdleKeys(final long timestamp) {
+    final int evictedNum = keyedStateTable.evictIdleKeys(timestamp, this::flush);
+    if (evictedNum > 0 && LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} removes {1} idle keys at {2}",
+          new Object[]{this.getClass().getName(), evictedNum, timestamp});
+    }
+  }
+
+  /**
+   * Flush the open windows of the operator of an idle key.
+   * The watermarks of the flushed windows are not emitted, as the other keys can still receive the earlier data.
+   */
+  private void flush(final OneStreamOperator operator) {
+    if (!(operator instanceof FlushableOperator)) {
+      return;
+    }
+    flushing = true;
+    try {
+      ((FlushableOperator) operator).flush();
+    } finally {
+      flushing = false;
+    }
+  }
+
+  /**
+   * Emit the watermark if it is later than the latest emitted watermark.
+   */
+  private void emitWatermark(final MistWatermarkEvent watermark) {
+    if (flushing) {
+      return;
+    }
+    if (watermark.getTimestamp() > latestWatermarkTimestamp) {
+      latestWatermarkTimestamp = watermark.getTimestamp();
+      outputEmitter.emitWatermark(watermark);
+    }
+  }
+
+  @Override
+  public Map<String, Object> getStateSnapshot() {
+    final Map<String, Object> stateMap = new HashMap<>();
+    stateMap.put("keyedStates", keyedStateTable.getSnapshot());
+    stateMap.put("latestWatermarkTimestamp", latestWatermarkTimestamp);
+    return stateMap;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setState(final Map<String, Object> loadedState) {
+    keyedStateTable.setSnapshot((Map<Object, Map<String, Object>>) loadedState.get("keyedStates"));
+    latestWatermarkTimestamp = (long) loadedState.get("latestWatermarkTimestamp");
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent input) {
+    checkpointMap.put(latestTimestampBeforeCheckpoint, getStateSnapshot());
+    outputEmitter.emitCheckpoint(input);
+  }
+
+  /**
+   * The output emitter of the operators of the keys.
+   * It emits the data to the next operators, and removes the duplicate watermarks from the keys.
+   */
+  private final class KeyOutputEmitter implements OutputEmitter {
+
+    @Override
+    public void emitData(final MistDataEvent data) {
+      outputEmitter.emitData(data);
+    }
+
+    @Override
+    public void emitData(final MistDataEvent data, final int index) {
+      outputEmitter.emitData(data, index);
+    }
+
+    @Override
+    public void emitWatermark(final MistWatermarkEvent watermark) {
+      KeyedOperator.this.emitWatermark(watermark);
+    }
+
+    @Override
+    public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+      // The checkpoints are handled by the keyed operator
+    }
+  }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * This class keeps an operator for each key of a keyed operator.
+ * The keys are indexed by their last access time in a priority queue, so the idle keys can be found
+ * from the eldest one without scanning the whole table.
+ * It also keeps the latest snapshot of each key, and re-snapshots only the keys updated since the last snapshot.
+ */
+final class KeyedStateTable {
+
+  /**
+   * The factory that creates an operator for a new key.
+   */
+  private final Supplier<OneStreamOperator> operatorFactory;
+
+  /**
+   * The event time after which an idle key is removed. 0 if the keys are never removed.
+   */
+  private final long idleKeyTimeout;
+
+  /**
+   * The states of the keys.
+   */
+  private final Map<Object, KeyedState> table;
+
+  /**
+   * The states of the keys ordered by the last access time when they were indexed.
+   * A state is indexed once, and is indexed again with the updated access time when it reaches the head.
+   */
+  private final PriorityQueue<IndexedState> accessIndex;
+
+  /**
+   * The states of the keys updated after the last snapshot.
+   */
+  private final Map<Object, KeyedState> dirtyStates;
+
+  /**
+   * The latest snapshot of each key.
+   */
+  private final Map<Object, Map<String, Object>> keySnapshots;
+
+  KeyedStateTable(final Supplier<OneStreamOperator> operatorFactory,
+                  final long idleKeyTimeout) {
+    this.operatorFactory = operatorFactory;
+    this.idleKeyTimeout = idleKeyTimeout;
+    this.table = new HashMap<>();
+    this.accessIndex = new PriorityQueue<>(Comparator.comparingLong(indexed -> indexed.timestamp));
+    this.dirtyStates = new HashMap<>();
+    this.keySnapshots = new HashMap<>();
+  }
+
+  /**
+   * Get the operator of the key, or create a new operator if the key does not exist.
+   * @param key key
+   * @param timestamp the timestamp of the event accessing the key
+   * @return the operator of the key
+   */
+  OneStreamOperator getOperator(final Object key, final long timestamp) {
+    KeyedState keyedState = table.get(key);
+    if (keyedState == null) {
+      keyedState = new KeyedState(key, operatorFactory.get(), timestamp);
+      addState(keyedState);
+    } else if (timestamp > keyedState.lastTimestamp) {
+      keyedState.lastTimestamp = timestamp;
+    }
+    dirtyStates.put(key, keyedState);
+    return keyedState.operator;
+  }
+
+  private void addState(final KeyedState keyedState) {
+    table.put(keyedState.key, keyedState);
+    if (idleKeyTimeout > 0) {
+      accessIndex.add(new IndexedState(keyedState));
+    }
+  }
+
+  /**
+   * @return the operators of all keys
+   */
+  Collection<OneStreamOperator> getOperators() {
+    final Collection<OneStreamOperator> operators = new ArrayList<>(table.size());
+    for (final KeyedState keyedState : table.values()) {
+      operators.add(keyedState.operator);
+    }
+    return operators;
+  }
+
+  /**
+   * Mark all keys updated, when an event changed the states of all keys.
+   */
+  void markAllDirty() {
+    dirtyStates.putAll(table);
+  }
+
+  /**
+   * Remove the keys that are not accessed during the idle key timeout.
+   * @param timestamp current event time
+   * @param evictionHandler the handler that is called with the operator of each removed key before the removal
+   * @return the number of removed keys
+   */
+  int evictIdleKeys(final long timestamp, final Consumer<OneStreamOperator> evictionHandler) {
+    if (idleKeyTimeout <= 0) {
+      return 0;
+    }
+    int evictedNum = 0;
+    while (!accessIndex.isEmpty() && accessIndex.peek().timestamp + idleKeyTimeout <= timestamp) {
+      final IndexedState indexed = accessIndex.poll();
+      final KeyedState keyedState = indexed.state;
+      if (keyedState.lastTimestamp + idleKeyTimeout > timestamp) {
+        // The key was accessed after it was indexed
+        accessIndex.add(new IndexedState(keyedState));
+        continue;
+      }
+      evictionHandler.accept(keyedState.operator);
+      table.remove(keyedState.key);
+      dirtyStates.remove(keyedState.key);
+      keySnapshots.remove(keyedState.key);
+      evictedNum += 1;
+    }
+    return evictedNum;
+  }
+
+  /**
+   * @return the number of keys
+   */
+  int size() {
+    return table.size();
+  }
+
+  /**
+   * Take the snapshot of the keys.
+   * Only the keys updated after the last snapshot are copied, and the others reuse their last snapshots.
+   * @return the snapshot of each key
+   */
+  Map<Object, Map<String, Object>> getSnapshot() {
+    for (final Map.Entry<Object, KeyedState> entry : dirtyStates.entrySet()) {
+      final KeyedState keyedState = entry.getValue();
+      final Map<String, Object> keySnapshot = new HashMap<>();
+      keySnapshot.put("lastTimestamp", keyedState.lastTimestamp);
+      if (keyedState.operator instanceof StateHandler) {
+        keySnapshot.put("operatorState", ((StateHandler) keyedState.operator).getStateSnapshot());
+      }
+      keySnapshots.put(entry.getKey(), keySnapshot);
+    }
+    dirtyStates.clear();
+    return new HashMap<>(keySnapshots);
+  }
+
+  /**
+   * Restore the keys from the snapshot.
+   * @param snapshot the snapshot of each key
+   */
+  @SuppressWarnings("unchecked")
+  void setSnapshot(final Map<Object, Map<String, Object>> snapshot) {
+    table.clear();
+    accessIndex.clear();
+    dirtyStates.clear();
+    keySnapshots.clear();
+    for (final Map.Entry<Object, Map<String, Object>> entry : snapshot.entrySet()) {
+      final Map<String, Object> keySnapshot = entry.getValue();
+      final KeyedState keyedState = new KeyedState(entry.getKey(), operatorFactory.get(),
+          (long) keySnapshot.get("lastTimestamp"));
+      if (keyedState.operator instanceof StateHandler && keySnapshot.containsKey("operatorState")) {
+        ((StateHandler) keyedState.operator).setState((Map<String, Object>) keySnapshot.get("operatorState"));
+      }
+      addState(keyedState);
+      keySnapshots.put(entry.getKey(), keySnapshot);
+    }
+  }
+
+  /**
+   * The operator and the last access time of a key.
+   */
+  private static final class KeyedState {
+    private final Object key;
+    private final OneStreamOperator operator;
+    private long lastTimestamp;
+
+    KeyedState(final Object key,
+               final OneStreamOperator operator,
+               final long lastTimestamp) {
+      this.key = key;
+      this.operator = operator;
+      this.lastTimestamp = lastTimestamp;
+    }
+  }
+
+  /**
+   * An entry of the access index, which keeps the access time of the state when it was indexed.
+   */
+  private static final class IndexedState {
+    private final KeyedState state;
+    private final long timestamp;
+
+    IndexedState(final KeyedState state) {
+      this.state = state;
+      this.timestamp = state.lastTimestamp;
+    }
+  }
+}
@@ -33,7 +33,7 @@ import java.util.logging.Logger;
  * @param <I> input type
  * @param <I> output type
  */
-public final class MapOperator<I, O> extends OneStreamOperator {
+public final class MapOperator<I, O> extends OneStreamOperator implements NonBufferingOperator {
   private static final Logger LOG = Logger.getLogger(MapOperator.class.getName());
 
   /**
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+
+/**
+ * This abstract class is for processing the events of many input streams.
+ * The input of an event is the index of the edge from the upstream.
+ * The LEFT and RIGHT events are regarded as the events of the first and second inputs.
+ */
+public abstract class MultiStreamOperator extends BaseOperator {
+
+  /**
+   * Process the data of the input.
+   * @param input the index of the input
+   * @param data data
+   */
+  public abstract void processData(int input, MistDataEvent data);
+
+  /**
+   * Process the watermark of the input.
+   * @param input the index of the input
+   * @param watermark watermark
+   */
+  public abstract void processWatermark(int input, MistWatermarkEvent watermark);
+
+  /**
+   * Process the checkpoint of the input.
+   * @param input the index of the input
+   * @param checkpoint checkpoint
+   */
+  public abstract void processCheckpoint(int input, MistCheckpointEvent checkpoint);
+
+  @Override
+  public void processLeftData(final MistDataEvent data) {
+    processData(0, data);
+  }
+
+  @Override
+  public void processRightData(final MistDataEvent data) {
+    processData(1, data);
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent watermark) {
+    processWatermark(0, watermark);
+  }
+
+  @Override
+  public void processRightWatermark(final MistWatermarkEvent watermark) {
+    processWatermark(1, watermark);
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent checkpoint) {
+    processCheckpoint(0, checkpoint);
+  }
+
+  @Override
+  public void processRightCheckpoint(final MistCheckpointEvent checkpoint) {
+    processCheckpoint(1, checkpoint);
+  }
+}
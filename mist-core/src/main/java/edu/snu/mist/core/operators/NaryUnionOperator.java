@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Union operator which unifies many upstreams with a single k-way merge.
+ * Like UnionOperator, the events of each input are kept in a reorder buffer,
+ * and they are drained in the order of timestamp until the minimum frontier of the inputs.
+ * The inputs are kept in a min-heap ordered by the timestamps of their earliest events,
+ * so draining an event takes O(log n) for n inputs instead of passing through a chain of n - 1 binary unions.
+ * It emits one combined watermark, which is the latest watermark of the inputs bounded by the minimum frontier.
+ * The late events and the checkpoints are handled in the same way as UnionOperator.
+ */
+public final class NaryUnionOperator extends MultiStreamOperator {
+  private static final Logger LOG = Logger.getLogger(NaryUnionOperator.class.getName());
+
+  /**
+   * The reorder buffers of the inputs.
+   */
+  private final ReorderBuffer[] buffers;
+
+  /**
+   * The timestamps of the latest watermarks of the inputs.
+   */
+  private final long[] watermarkTimestamps;
+
+  /**
+   * The frontiers of the inputs.
+   */
+  private final long[] frontiers;
+
+  /**
+   * The min-heap of the inputs ordered by the timestamps of their earliest events.
+   */
+  private final int[] heap;
+
+  /**
+   * The positions of the inputs in the heap.
+   */
+  private final int[] heapPositions;
+
+  /**
+   * The maximum number of the buffered events.
+   */
+  private final int bufferCapacity;
+
+  /**
+   * True if the late events are emitted to the late output.
+   */
+  private final boolean lateOutput;
+
+  /**
+   * The number of the buffered events.
+   */
+  private int numBufferedEvents;
+
+  /**
+   * The input which has the minimum frontier.
+   */
+  private int minFrontierInput;
+
+  /**
+   * The maximum timestamp of the watermarks of the inputs.
+   */
+  private long maxWatermarkTimestamp;
+
+  /**
+   * The timestamp of the latest emitted watermark.
+   */
+  private long emittedWatermarkTimestamp;
+
+  /**
+   * The timestamp of the latest drained event.
+   */
+  private long drainedTimestamp;
+
+  /**
+   * The number of late events.
+   */
+  private long numLateEvents;
+
+  /**
+   * The checkpoints which are held until the events buffered before them are drained.
+   */
+  private final HeldCheckpoints heldCheckpoints;
+
+  /**
+   * @param numInputs the number of inputs
+   * @param allowedLateness the allowed lateness of the upstream events
+   * @param bufferCapacity the maximum number of the buffered events
+   * @param lateOutput true if the late events are emitted to the late output
+   */
+  public NaryUnionOperator(final int numInputs,
+                           final long allowedLateness,
+                           final int bufferCapacity,
+                           final boolean lateOutput) {
+    this.buffers = new ReorderBuffer[numInputs];
+    this.watermarkTimestamps = new long[numInputs];
+    this.frontiers = new long[numInputs];
+    this.heap = new int[numInputs];
+    this.heapPositions = new int[numInputs];
+    for (int i = 0; i < numInputs; i++) {
+      buffers[i] = new ReorderBuffer(allowedLateness);
+      heap[i] = i;
+      heapPositions[i] = i;
+    }
+    this.bufferCapacity = bufferCapacity;
+    this.lateOutput = lateOutput;
+    this.numBufferedEvents = 0;
+    this.minFrontierInput = 0;
+    this.maxWatermarkTimestamp = 0L;
+    this.emittedWatermarkTimestamp = 0L;
+    this.drainedTimestamp = 0L;
+    this.numLateEvents = 0L;
+    this.heldCheckpoints = new HeldCheckpoints();
+  }
+
+  public NaryUnionOperator(final int numInputs,
+                           final long allowedLateness,
+                           final boolean lateOutput) {
+    this(numInputs, allowedLateness, ReorderBuffer.DEFAULT_CAPACITY, lateOutput);
+  }
+
+  /**
+   * Compares the inputs by the timestamps of their earliest events, and by the indices if they are the same.
+   */
+  private boolean isEarlier(final int input1, final int input2) {
+    final long timestamp1 = buffers[input1].peekTimestamp();
+    final long timestamp2 = buffers[input2].peekTimestamp();
+    return timestamp1 < timestamp2 || (timestamp1 == timestamp2 && input1 < input2);
+  }
+
+  private void swap(final int position1, final int position2) {
+    final int input1 = heap[position1];
+    final int input2 = heap[position2];
+    heap[position1] = input2;
+    heap[position2] = input1;
+    heapPositions[input2] = position1;
+    heapPositions[input1] = position2;
+  }
+
+  private void siftUp(final int position) {
+    int current = position;
+    while (current > 0) {
+      final int parent = (current - 1) / 2;
+      if (!isEarlier(heap[current], heap[parent])) {
+        return;
+      }
+      swap(current, parent);
+      current = parent;
+    }
+  }
+
+  private void siftDown(final int position) {
+    int current = position;
+    while (true) {
+      final int left = 2 * current + 1;
+      if (left >= heap.length) {
+        return;
+      }
+      final int right = left + 1;
+      int earliest = left;
+      if (right < heap.length && isEarlier(heap[right], heap[left])) {
+        earliest = right;
+      }
+      if (!isEarlier(heap[earliest], heap[current])) {
+        return;
+      }
+      swap(current, earliest);
+      current = earliest;
+    }
+  }
+
+  /**
+   * Updates the frontier of the input.
+   * The frontiers only increase, so the minimum frontier is searched again
+   * only if the input had the minimum frontier.
+   */
+  private void updateFrontier(final int input) {
+    frontiers[input] = buffers[input].getFrontier(watermarkTimestamps[input]);
+    if (input == minFrontierInput) {
+      for (int i = 0; i < frontiers.length; i++) {
+        if (frontiers[i] < frontiers[minFrontierInput]) {
+          minFrontierInput = i;
+        }
+      }
+    }
+  }
+
+  /**
+   * Emits the event which has the minimum timestamp in the buffers.
+   */
+  private void drainMinimumEvent() {
+    final int input = heap[0];
+    final MistDataEvent event = buffers[input].poll();
+    numBufferedEvents -= 1;
+    siftDown(0);
+    drainedTimestamp = Math.max(drainedTimestamp, event.getTimestamp());
+    if (lateOutput) {
+      outputEmitter.emitData(event, 0);
+    } else {
+      outputEmitter.emitData(event);
+    }
+  }
+
+  /**
+   * Emits the events and the combined watermark until the minimum frontier of the inputs.
+   */
+  private void drain() {
+    // Drains the earliest events if the buffers are full
+    while (numBufferedEvents > bufferCapacity) {
+      drainMinimumEvent();
+    }
+
+    final long timestamp = frontiers[minFrontierInput];
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} drains inputs until timestamp {1}",
+          new Object[]{this.getClass().getName(), timestamp});
+    }
+    while (buffers[heap[0]].peekTimestamp() <= timestamp) {
+      drainMinimumEvent();
+    }
+
+    final long watermarkTimestamp = Math.min(maxWatermarkTimestamp, timestamp);
+    if (watermarkTimestamp > emittedWatermarkTimestamp) {
+      emittedWatermarkTimestamp = watermarkTimestamp;
+      drainedTimestamp = Math.max(drainedTimestamp, watermarkTimestamp);
+      outputEmitter.emitWatermark(new MistWatermarkEvent(watermarkTimestamp));
+    }
+    heldCheckpoints.release(buffers[heap[0]].peekTimestamp(), outputEmitter);
+  }
+
+  /**
+   * @return the number of late events
+   */
+  public long getNumLateEvents() {
+    return numLateEvents;
+  }
+
+  @Override
+  public void processData(final int input, final MistDataEvent data) {
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} gets data {1} from input {2}",
+          new Object[]{this.getClass().getName(), data, input});
+    }
+    if (data.getTimestamp() < drainedTimestamp) {
+      numLateEvents += 1;
+      if (lateOutput) {
+        outputEmitter.emitData(data, ConfValues.LATE_OUTPUT_INDEX);
+      }
+      return;
+    }
+    buffers[input].add(data);
+    numBufferedEvents += 1;
+    siftUp(heapPositions[input]);
+    updateFrontier(input);
+    drain();
+  }
+
+  @Override
+  public void processWatermark(final int input, final MistWatermarkEvent watermark) {
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} gets watermark {1} from input {2}",
+          new Object[]{this.getClass().getName(), watermark, input});
+    }
+    if (watermarkTimestamps[input] < watermark.getTimestamp()) {
+      watermarkTimestamps[input] = watermark.getTimestamp();
+      maxWatermarkTimestamp = Math.max(maxWatermarkTimestamp, watermark.getTimestamp());
+      updateFrontier(input);
+      drain();
+    }
+  }
+
+  @Override
+  public void processCheckpoint(final int input, final MistCheckpointEvent checkpoint) {
+    // The checkpoint is held until the events buffered before it are drained
+    long timestamp = Long.MIN_VALUE;
+    for (final ReorderBuffer buffer : buffers) {
+      if (!buffer.isEmpty()) {
+        timestamp = Math.max(timestamp, buffer.getMaxTimestamp());
+      }
+    }
+    heldCheckpoints.hold(timestamp, checkpoint);
+    drain();
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.core.MistDataEvent;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * A timestamp-ordered buffer of the data events of an upstream, which tolerates out-of-order events.
+ * The events that arrive in order are appended to a ring buffer,
+ * and the events that arrive out of order are kept in a min-heap ordered by timestamp,
+ * so the buffer does not pay for the heap when the upstream is ordered.
+ * The events are polled in the order of timestamp from the two buffers.
+ * This class is not thread-safe, as an operator is processed by one event processor at once.
+ */
+final class ReorderBuffer {
+
+  /**
+   * The default maximum number of the buffered events of an operator.
+   */
+  static final int DEFAULT_CAPACITY = 65536;
+
+  /**
+   * The events that arrived in order.
+   */
+  private final Queue<MistDataEvent> orderedEvents;
+
+  /**
+   * The events that arrived out of order.
+   */
+  private final PriorityQueue<MistDataEvent> outOfOrderEvents;
+
+  /**
+   * The allowed lateness of the events, in milliseconds.
+   */
+  private final long allowedLateness;
+
+  /**
+   * The maximum timestamp of the events.
+   */
+  private long maxTimestamp;
+
+  ReorderBuffer(final long allowedLateness) {
+    this.orderedEvents = new ArrayDeque<>();
+    this.outOfOrderEvents = new PriorityQueue<>(Comparator.comparingLong(MistDataEvent::getTimestamp));
+    this.allowedLateness = allowedLateness;
+    this.maxTimestamp = 0L;
+  }
+
+  /**
+   * Add the event to the buffer.
+   * @param event data event
+   */
+  void add(final MistDataEvent event) {
+    final long timestamp = event.getTimestamp();
+    if (timestamp >= maxTimestamp) {
+      maxTimestamp = timestamp;
+      orderedEvents.add(event);
+    } else {
+      outOfOrderEvents.add(event);
+    }
+  }
+
+  /**
+   * Get the timestamp until which the upstream does not send events anymore.
+   * The upstream can send an event that is earlier than the latest event by the allowed lateness,
+   * but it cannot send an event that is earlier than the watermark.
+   * @param watermarkTimestamp the timestamp of the latest watermark of the upstream
+   * @return timestamp
+   */
+  long getFrontier(final long watermarkTimestamp) {
+    return Math.max(maxTimestamp - allowedLateness, watermarkTimestamp);
+  }
+
+  /**
+   * @return the maximum timestamp of the events which have been added, which bounds the buffered events
+   */
+  long getMaxTimestamp() {
+    return maxTimestamp;
+  }
+
+  /**
+   * @return the minimum timestamp of the buffered events, or Long.MAX_VALUE if the buffer is empty
+   */
+  long peekTimestamp() {
+    long timestamp = Long.MAX_VALUE;
+    if (!orderedEvents.isEmpty()) {
+      timestamp = orderedEvents.peek().getTimestamp();
+    }
+    if (!outOfOrderEvents.isEmpty()) {
+      timestamp = Math.min(timestamp, outOfOrderEvents.peek().getTimestamp());
+    }
+    return timestamp;
+  }
+
+  /**
+   * Remove the event that has the minimum timestamp.
+   * The event that arrived earlier is removed first if the timestamps are the same.
+   * @return the event, or null if the buffer is empty
+   */
+  MistDataEvent poll() {
+    if (outOfOrderEvents.isEmpty()) {
+      return orderedEvents.poll();
+    } else if (orderedEvents.isEmpty()
+        || outOfOrderEvents.peek().getTimestamp() < orderedEvents.peek().getTimestamp()) {
+      return outOfOrderEvents.poll();
+    } else {
+      return orderedEvents.poll();
+    }
+  }
+
+  /**
+   * @return the number of the buffered events
+   */
+  int size() {
+    return orderedEvents.size() + outOfOrderEvents.size();
+  }
+
+  boolean isEmpty() {
+    return orderedEvents.isEmpty() && outOfOrderEvents.isEmpty();
+  }
+}
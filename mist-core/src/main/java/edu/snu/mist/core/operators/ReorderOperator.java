@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.common.configurations.ConfValues;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This operator sorts the events of an upstream that arrive out of order within the allowed lateness.
+ * It buffers the events and emits them in the order of timestamp
+ * until the timestamp that the upstream does not send events anymore.
+ * An event which is earlier than the emitted events is late, and it is emitted to the late output
+ * (the downstreams connected with ConfValues.LATE_OUTPUT_INDEX) if it is enabled, or dropped otherwise.
+ * If the buffer is full, the earliest event is emitted without waiting for the watermark.
+ * A checkpoint is emitted after the events which were buffered before it are emitted.
+ */
+public final class ReorderOperator extends OneStreamOperator {
+  private static final Logger LOG = Logger.getLogger(ReorderOperator.class.getName());
+
+  private final ReorderBuffer buffer;
+
+  /**
+   * The maximum number of the buffered events.
+   */
+  private final int bufferCapacity;
+
+  /**
+   * True if the late events are emitted to the late output.
+   */
+  private final boolean lateOutput;
+
+  /**
+   * The latest watermark which is not emitted yet, or null.
+   */
+  private MistWatermarkEvent pendingWatermark;
+
+  /**
+   * The timestamp of the latest watermark.
+   */
+  private long latestWatermarkTimestamp;
+
+  /**
+   * The timestamp of the latest emitted event.
+   */
+  private long emittedTimestamp;
+
+  /**
+   * The number of late events.
+   */
+  private long numLateEvents;
+
+  /**
+   * The checkpoints which are held until the events buffered before them are drained.
+   */
+  private final HeldCheckpoints heldCheckpoints;
+
+  /**
+   * @param allowedLateness the allowed lateness of the upstream events
+   * @param bufferCapacity the maximum number of the buffered events
+   * @param lateOutput true if the late events are emitted to the late output
+   */
+  public ReorderOperator(final long allowedLateness,
+                         final int bufferCapacity,
+                         final boolean lateOutput) {
+    this.buffer = new ReorderBuffer(allowedLateness);
+    this.bufferCapacity = bufferCapacity;
+    this.lateOutput = lateOutput;
+    this.pendingWatermark = null;
+    this.latestWatermarkTimestamp = 0L;
+    this.emittedTimestamp = 0L;
+    this.numLateEvents = 0L;
+    this.heldCheckpoints = new HeldCheckpoints();
+  }
+
+  public ReorderOperator(final long allowedLateness,
+                         final boolean lateOutput) {
+    this(allowedLateness, ReorderBuffer.DEFAULT_CAPACITY, lateOutput);
+  }
+
+  private void emitEarliestEvent() {
+    final MistDataEvent event = buffer.poll();
+    emittedTimestamp = Math.max(emittedTimestamp, event.getTimestamp());
+    if (lateOutput) {
+      outputEmitter.emitData(event, 0);
+    } else {
+      outputEmitter.emitData(event);
+    }
+  }
+
+  /**
+   * Emits the events and the watermark until the timestamp that the upstream does not send events anymore.
+   */
+  private void drain() {
+    while (buffer.size() > bufferCapacity) {
+      emitEarliestEvent();
+    }
+    final long frontier = buffer.getFrontier(latestWatermarkTimestamp);
+    while (buffer.peekTimestamp() <= frontier) {
+      emitEarliestEvent();
+    }
+    if (pendingWatermark != null && pendingWatermark.getTimestamp() <= frontier) {
+      outputEmitter.emitWatermark(pendingWatermark);
+      emittedTimestamp = Math.max(emittedTimestamp, pendingWatermark.getTimestamp());
+      pendingWatermark = null;
+    }
+    heldCheckpoints.release(buffer.peekTimestamp(), outputEmitter);
+  }
+
+  /**
+   * @return the number of late events
+   */
+  public long getNumLateEvents() {
+    return numLateEvents;
+  }
+
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    if (input.getTimestamp() < emittedTimestamp) {
+      numLateEvents += 1;
+      if (LOG.isLoggable(Level.FINE)) {
+        LOG.log(Level.FINE, "{0} gets a late event {1} which is earlier than {2}",
+            new Object[]{this.getClass().getName(), input, emittedTimestamp});
+      }
+      if (lateOutput) {
+        outputEmitter.emitData(input, ConfValues.LATE_OUTPUT_INDEX);
+      }
+      return;
+    }
+    buffer.add(input);
+    drain();
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent input) {
+    if (latestWatermarkTimestamp < input.getTimestamp()) {
+      latestWatermarkTimestamp = input.getTimestamp();
+      pendingWatermark = input;
+      drain();
+    }
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent input) {
+    heldCheckpoints.hold(buffer.isEmpty() ? Long.MIN_VALUE : buffer.getMaxTimestamp(), input);
+    drain();
+  }
+}
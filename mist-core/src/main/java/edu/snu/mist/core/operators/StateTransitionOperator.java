@@ -20,6 +20,7 @@ import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.common.SerializeUtils;
 import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.predicates.RuleBasedPredicateCompiler;
 import edu.snu.mist.core.operators.parameters.FinalState;
 import edu.snu.mist.core.operators.parameters.InitialState;
 import edu.snu.mist.core.operators.parameters.StateTable;
@@ -47,8 +48,11 @@ public final class StateTransitionOperator extends OneStreamStateHandlerOperator
   // final state
   private final Set<String> finalState;
 
-  // changing state table: Map<current state, Tuple2<condition, next state>>
-  private final Map<String, Collection<Tuple2<MISTPredicate, String>>> stateTable;
+  // compiled state table: Map<current state, transitions in the order of the given state table>
+  private final Map<String, Transition[]> stateTable;
+
+  // possible transitions in current state
+  private Transition[] currTransitions;
 
   @Inject
   private StateTransitionOperator(
@@ -70,20 +74,41 @@ public final class StateTransitionOperator extends OneStreamStateHandlerOperator
     this.initialState = initialState;
     this.currState = initialState;
     this.finalState = finalState;
-    this.stateTable = stateTable;
+    this.stateTable = compileStateTable(stateTable);
+    this.currTransitions = this.stateTable.get(currState);
+  }
+
+  /**
+   * Compile the state table into arrays of transitions with compiled predicates,
+   * so that a state transition does not need to iterate over collections of tuples.
+   * @param stateTable state table
+   * @return compiled state table
+   */
+  private static Map<String, Transition[]> compileStateTable(
+      final Map<String, Collection<Tuple2<MISTPredicate, String>>> stateTable) {
+    final Map<String, Transition[]> compiledTable = new HashMap<>();
+    for (final Map.Entry<String, Collection<Tuple2<MISTPredicate, String>>> entry : stateTable.entrySet()) {
+      final Transition[] transitions = new Transition[entry.getValue().size()];
+      int i = 0;
+      for (final Tuple2<MISTPredicate, String> transition : entry.getValue()) {
+        final MISTPredicate<Map<String, Object>> predicate = (MISTPredicate<Map<String, Object>>) transition.get(0);
+        transitions[i] = new Transition(RuleBasedPredicateCompiler.compile(predicate), (String) transition.get(1));
+        i += 1;
+      }
+      compiledTable.put(entry.getKey(), transitions);
+    }
+    return compiledTable;
   }
 
   // update state with input data
   private void stateTransition(final Map<String, Object> inputData) {
-    // possible transition list in current state
-    final Collection<Tuple2<MISTPredicate, String>> transitionList = stateTable.get(currState);
-    if (transitionList == null) {
+    if (currTransitions == null) {
       return;
     }
-    for (final Tuple2<MISTPredicate, String> transition : transitionList) {
-      final MISTPredicate<Map<String, Object>> predicate = (MISTPredicate<Map<String, Object>>) transition.get(0);
-      if (predicate.test(inputData)) {
-        currState = (String) transition.get(1);
+    for (final Transition transition : currTransitions) {
+      if (transition.predicate.test(inputData)) {
+        currState = transition.nextState;
+        currTransitions = stateTable.get(currState);
         break;
       }
     }
@@ -125,10 +150,25 @@ public final class StateTransitionOperator extends OneStreamStateHandlerOperator
   @Override
   public void setState(final Map<String, Object> loadedState) {
     currState = (String) loadedState.get("stateTransitionOperatorState");
+    currTransitions = stateTable.get(currState);
   }
 
   @Override
   public void processLeftCheckpoint(final MistCheckpointEvent input) {
     checkpointMap.put(latestTimestampBeforeCheckpoint, getStateSnapshot());
   }
-}
\ No newline at end of file
+
+  /**
+   * A transition to the next state with its condition.
+   */
+  private static final class Transition {
+    private final MISTPredicate<Map<String, Object>> predicate;
+    private final String nextState;
+
+    Transition(final MISTPredicate<Map<String, Object>> predicate,
+               final String nextState) {
+      this.predicate = predicate;
+      this.nextState = nextState;
+    }
+  }
+}
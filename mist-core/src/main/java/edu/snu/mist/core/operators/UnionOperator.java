@@ -15,140 +15,138 @@
  */
 package edu.snu.mist.core.operators;
 
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
-import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 
 import javax.inject.Inject;
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Union operator which unifies two upstreams.
- * We suppose the upstream events are always ordered.
+ * The upstream events can arrive out of order within the allowed lateness.
  *
- * This operator has two queues: leftUpstreamQueue and rightUpstreamQueue.
- * Each queue contains MistDataEvent and MistWatermarkEvent.
- * The operator drains events from the queues to the next operator until watermark timestamp.
+ * This operator has two reorder buffers: leftUpstreamBuffer and rightUpstreamBuffer.
+ * Each buffer contains the MistDataEvents of an upstream ordered by timestamp.
+ * The operator drains events from the buffers to the next operator in the order of timestamp
+ * until the minimum timestamp that both upstreams do not send events anymore.
+ * An event which is earlier than the drained events is late, and it is emitted to the late output
+ * (the downstreams connected with ConfValues.LATE_OUTPUT_INDEX) if it is enabled, or dropped otherwise.
+ * If the buffers are full, the earliest event is drained without waiting for the watermarks.
+ * A checkpoint is emitted after the events which were buffered before it are drained.
  */
 public final class UnionOperator extends TwoStreamOperator {
   private static final Logger LOG = Logger.getLogger(UnionOperator.class.getName());
 
-  private final Queue<MistEvent> leftUpstreamQueue;
-  private final Queue<MistEvent> rightUpstreamQueue;
+  private final ReorderBuffer leftUpstreamBuffer;
+  private final ReorderBuffer rightUpstreamBuffer;
   private final MistWatermarkEvent defaultWatermark;
   private MistWatermarkEvent latestLeftWatermark;
   private MistWatermarkEvent latestRightWatermark;
-  private long recentLeftTimestamp;
-  private long recentRightTimestamp;
+
+  /**
+   * The maximum number of the buffered events.
+   */
+  private final int bufferCapacity;
+
+  /**
+   * True if the late events are emitted to the late output.
+   */
+  private final boolean lateOutput;
+
+  /**
+   * The timestamp of the latest drained event.
+   */
+  private long drainedTimestamp;
+
+  /**
+   * The number of late events.
+   */
+  private long numLateEvents;
+
+  /**
+   * The checkpoints which are held until the events buffered before them are drained.
+   */
+  private final HeldCheckpoints heldCheckpoints;
 
   @Inject
   public UnionOperator() {
-    this.leftUpstreamQueue = new LinkedBlockingQueue<>();
-    this.rightUpstreamQueue = new LinkedBlockingQueue<>();
+    this(0L, ReorderBuffer.DEFAULT_CAPACITY, false);
+  }
+
+  /**
+   * @param allowedLateness the allowed lateness of the upstream events
+   * @param bufferCapacity the maximum number of the buffered events
+   * @param lateOutput true if the late events are emitted to the late output
+   */
+  public UnionOperator(final long allowedLateness,
+                       final int bufferCapacity,
+                       final boolean lateOutput) {
+    this.leftUpstreamBuffer = new ReorderBuffer(allowedLateness);
+    this.rightUpstreamBuffer = new ReorderBuffer(allowedLateness);
+    this.bufferCapacity = bufferCapacity;
+    this.lateOutput = lateOutput;
     defaultWatermark = new MistWatermarkEvent(0L);
     this.latestLeftWatermark = defaultWatermark;
     this.latestRightWatermark = defaultWatermark;
-    this.recentLeftTimestamp = 0L;
-    this.recentRightTimestamp = 0L;
+    this.drainedTimestamp = 0L;
+    this.numLateEvents = 0L;
+    this.heldCheckpoints = new HeldCheckpoints();
   }
 
-
-  /**
-   * Peek the timestamp of the first event.
-   * @param queue queue
-   * @return timestamp
-   */
-  private long peekTimestamp(final Queue<MistEvent> queue) {
-    return queue.peek().getTimestamp();
+  public UnionOperator(final long allowedLateness,
+                       final boolean lateOutput) {
+    this(allowedLateness, ReorderBuffer.DEFAULT_CAPACITY, lateOutput);
   }
 
   /**
-   * Emits events which have less timestamp than the required timestamp from the queue .
-   * @param queue queue
-   * @param timestamp timestamp
+   * Emits the event which has the minimum timestamp in the buffers.
+   * The left event is emitted first if the timestamps are the same.
    */
-  private void drainUntilTimestamp(final Queue<MistEvent> queue, final long timestamp) {
-    // The events in the queue is ordered by timestamp, so just peeks one by one
-    while (!queue.isEmpty() && peekTimestamp(queue) <= timestamp) {
-      final MistDataEvent event = (MistDataEvent) queue.poll();
+  private void drainMinimumEvent() {
+    final MistDataEvent event;
+    if (leftUpstreamBuffer.peekTimestamp() <= rightUpstreamBuffer.peekTimestamp()) {
+      event = leftUpstreamBuffer.poll();
+    } else {
+      event = rightUpstreamBuffer.poll();
+    }
+    drainedTimestamp = Math.max(drainedTimestamp, event.getTimestamp());
+    if (lateOutput) {
+      outputEmitter.emitData(event, 0);
+    } else {
       outputEmitter.emitData(event);
     }
   }
 
   /**
-   * Emits events which have less timestamp than the minimum watermark
-   * calculated from the leftUpstreamQueue, currentLeftWatermark, rightUpstreamQueue, and currentRightWatermark.
+   * Emits events which have less timestamp than the minimum frontier of the left and right upstreams.
    * This method is not thread-safe now. Therefore, only one event processor have to process union operation at once.
    */
   private void drainUntilMinimumWatermark() {
+    // Drains the earliest events if the buffers are full
+    while (leftUpstreamBuffer.size() + rightUpstreamBuffer.size() > bufferCapacity) {
+      drainMinimumEvent();
+    }
+
     final long leftWatermarkTimestamp = latestLeftWatermark.getTimestamp();
     final long rightWatermarkTimestamp = latestRightWatermark.getTimestamp();
-    final long timestamp = getMinimumWatermark(leftWatermarkTimestamp, rightWatermarkTimestamp);
+    final long timestamp = Math.min(leftUpstreamBuffer.getFrontier(leftWatermarkTimestamp),
+        rightUpstreamBuffer.getFrontier(rightWatermarkTimestamp));
 
     if (LOG.isLoggable(Level.FINE)) {
       LOG.log(Level.FINE, "{0} drains inputs until timestamp {1}",
           new Object[]{this.getClass().getName(), timestamp});
     }
 
-    // The events in the queue is ordered by timestamp, so just peeks one by one
-    while (!leftUpstreamQueue.isEmpty() && !rightUpstreamQueue.isEmpty()) {
-      // Drain any checkpoint events first.
-      // The left and right checkpoint events do not have to be ordered because they are the same.
-      if (leftUpstreamQueue.peek().isCheckpoint()) {
-        final MistCheckpointEvent event = (MistCheckpointEvent) leftUpstreamQueue.poll();
-        outputEmitter.emitCheckpoint(event);
-      } else if (rightUpstreamQueue.peek().isCheckpoint()) {
-        final MistCheckpointEvent event = (MistCheckpointEvent) rightUpstreamQueue.poll();
-        outputEmitter.emitCheckpoint(event);
-      } else {
-        // Pick minimum timestamp from left and right queue.
-        long leftTs = peekTimestamp(leftUpstreamQueue);
-        long rightTs = peekTimestamp(rightUpstreamQueue);
-
-        // End of the drain
-        if (leftTs > timestamp && rightTs > timestamp) {
-          return;
-        }
-
-        if (leftTs <= rightTs) {
-          final MistDataEvent event = (MistDataEvent) leftUpstreamQueue.poll();
-          outputEmitter.emitData(event);
-        } else {
-          final MistDataEvent event = (MistDataEvent) rightUpstreamQueue.poll();
-          outputEmitter.emitData(event);
-        }
-      }
-    }
-
-    // If one of the upstreamQueues is not empty, then drain events from the queue
-    if (!(leftUpstreamQueue.isEmpty() && rightUpstreamQueue.isEmpty())) {
-      if (leftUpstreamQueue.isEmpty()) {
-        // Drain from right upstream queue.
-        drainUntilTimestamp(rightUpstreamQueue, timestamp);
-      } else {
-        // Drain from left upstream queue.
-        drainUntilTimestamp(leftUpstreamQueue, timestamp);
-      }
+    while (Math.min(leftUpstreamBuffer.peekTimestamp(), rightUpstreamBuffer.peekTimestamp()) <= timestamp) {
+      drainMinimumEvent();
     }
 
     emitWatermarkUntilTimestamp(leftWatermarkTimestamp, rightWatermarkTimestamp, timestamp);
-  }
-
-  /**
-   * Gets the minimum timestamp to drain.
-   * We supposed that all MistDataEvents are arrived in-orderly,
-   * but a data that has larger timestamp than a watermark could arrived faster than the watermark.
-   * Therefore, we need to find the larger timestamp between the data and watermark in a single direction respectively,
-   * and compare them to find minimum watermark.
-   * @return the minimum timestamp to drain
-   */
-  private long getMinimumWatermark(final long leftWatermarkTimestamp, final long rightWatermarkTimestamp) {
-    return Math.min(
-        Math.max(recentLeftTimestamp, leftWatermarkTimestamp), Math.max(recentRightTimestamp, rightWatermarkTimestamp));
+    heldCheckpoints.release(Math.min(leftUpstreamBuffer.peekTimestamp(), rightUpstreamBuffer.peekTimestamp()),
+        outputEmitter);
   }
 
   /**
@@ -162,23 +160,52 @@ public final class UnionOperator extends TwoStreamOperator {
                                            final long minimumWatermark) {
     if (latestLeftWatermark != defaultWatermark && leftWatermarkTimestamp <= minimumWatermark) {
       outputEmitter.emitWatermark(latestLeftWatermark);
+      drainedTimestamp = Math.max(drainedTimestamp, leftWatermarkTimestamp);
       latestLeftWatermark = defaultWatermark;
     }
     if (latestRightWatermark != defaultWatermark && rightWatermarkTimestamp <= minimumWatermark) {
       outputEmitter.emitWatermark(latestRightWatermark);
+      drainedTimestamp = Math.max(drainedTimestamp, rightWatermarkTimestamp);
       latestRightWatermark = defaultWatermark;
     }
   }
 
+  /**
+   * Checks whether the event is earlier than the drained events, and emits it to the late output if so.
+   * @param event data event
+   * @return true if the event is late
+   */
+  private boolean handleLateEvent(final MistDataEvent event) {
+    if (event.getTimestamp() >= drainedTimestamp) {
+      return false;
+    }
+    numLateEvents += 1;
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} gets a late event {1} which is earlier than {2}",
+          new Object[]{this.getClass().getName(), event, drainedTimestamp});
+    }
+    if (lateOutput) {
+      outputEmitter.emitData(event, ConfValues.LATE_OUTPUT_INDEX);
+    }
+    return true;
+  }
+
+  /**
+   * @return the number of late events
+   */
+  public long getNumLateEvents() {
+    return numLateEvents;
+  }
+
   @Override
   public void processLeftData(final MistDataEvent event) {
-    final long timestamp = event.getTimestamp();
-    if (recentLeftTimestamp > timestamp) {
-      throw new RuntimeException("The upstream events should be ordered by timestamp.");
+    if (LOG.isLoggable(Level.FINE)) {
+      LOG.log(Level.FINE, "{0} gets left data {1}", new Object[]{this.getClass().getName(), event});
+    }
+    if (handleLateEvent(event)) {
+      return;
     }
-    LOG.log(Level.FINE, "{0} gets left data {1}", new Object[]{this.getClass().getName(), event});
-    recentLeftTimestamp = timestamp;
-    leftUpstreamQueue.add(event);
+    leftUpstreamBuffer.add(event);
 
     // Drain events until the minimum watermark.
     drainUntilMinimumWatermark();
@@ -186,17 +213,13 @@ public final class UnionOperator extends TwoStreamOperator {
 
   @Override
   public void processRightData(final MistDataEvent event) {
-    final long timestamp = event.getTimestamp();
-    if (recentRightTimestamp > timestamp) {
-      throw new RuntimeException("The upstream events should be ordered by timestamp.");
-    }
-
     if (LOG.isLoggable(Level.FINE)) {
       LOG.log(Level.FINE, "{0} gets right data {1}", new Object[]{this.getClass().getName(), event});
     }
-
-    recentRightTimestamp = timestamp;
-    rightUpstreamQueue.add(event);
+    if (handleLateEvent(event)) {
+      return;
+    }
+    rightUpstreamBuffer.add(event);
 
     // Drain events until the minimum watermark.
     drainUntilMinimumWatermark();
@@ -230,15 +253,33 @@ public final class UnionOperator extends TwoStreamOperator {
     }
   }
 
+  /**
+   * Holds the checkpoint until the events buffered before it are drained.
+   */
+  private void holdCheckpoint(final MistCheckpointEvent input) {
+    long timestamp = Long.MIN_VALUE;
+    if (!leftUpstreamBuffer.isEmpty()) {
+      timestamp = leftUpstreamBuffer.getMaxTimestamp();
+    }
+    if (!rightUpstreamBuffer.isEmpty()) {
+      timestamp = Math.max(timestamp, rightUpstreamBuffer.getMaxTimestamp());
+    }
+    heldCheckpoints.hold(timestamp, input);
+    drainUntilMinimumWatermark();
+  }
+
+  /**
+   * The checkpoints are emitted after the events which were buffered before them,
+   * so the downstream states at the checkpoint cover the events.
+   * The left and right checkpoint events do not have to be ordered because they are the same.
+   */
   @Override
   public void processLeftCheckpoint(final MistCheckpointEvent input) {
-    leftUpstreamQueue.add(input);
-    drainUntilMinimumWatermark();
+    holdCheckpoint(input);
   }
 
   @Override
   public void processRightCheckpoint(final MistCheckpointEvent input) {
-    rightUpstreamQueue.add(input);
-    drainUntilMinimumWatermark();
+    holdCheckpoint(input);
   }
 }
\ No newline at end of file
@@ -17,9 +17,11 @@ package edu.snu.mist.core.operators.window;
 
 import com.rits.cloning.Cloner;
 import com.rits.cloning.ObjenesisInstantiationStrategy;
+import edu.snu.mist.common.configurations.ConfValues;
 import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.FlushableOperator;
 import edu.snu.mist.core.operators.OneStreamStateHandlerOperator;
 
 import java.util.*;
@@ -30,39 +32,88 @@ import java.util.logging.Logger;
  * This abstract class represents a basic operator makes windows and emits a collection of data.
  * When a sub-class receives a watermark or data, it requests FixedSizeWindowOperator to
  * reorganize the queue to have available windows and put the watermark or data into the windows.
+ * If the allowed lateness or the late output is set, the emitted windows are kept
+ * until the point of the latest event exceeds the end of the window by the allowed lateness.
+ * A late data which belongs to a kept window is put into the window, and the updated window is emitted again.
+ * A data which only belongs to the discarded windows is emitted to the late output
+ * (the downstreams connected with ConfValues.LATE_OUTPUT_INDEX) if it is enabled, or dropped otherwise.
  * @param <T> the type of data
  */
-abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator {
+abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator implements FlushableOperator {
   // TODO: [MIST-324] Refactor fixed size windowing operation semantics
   private static final Logger LOG = Logger.getLogger(FixedSizeWindowOperator.class.getName());
 
   /**
-   * The size of window expressed in milliseconds or the number of inputs.
+   * The creator which decides when the windows are created.
    */
-  private final int windowSize;
+  private final WindowCreator windowCreator;
 
   /**
-   * The interval of emission expressed in milliseconds or the number of inputs.
+   * The queue of windows in this operator.
    */
-  private final int windowEmissionInterval;
+  private final Queue<Window<T>> windowQueue;
 
   /**
-   * The immediate window creation time or count.
+   * The allowed lateness of the data.
    */
-  private long windowCreationPoint;
+  private final long allowedLateness;
 
   /**
-   * The queue of windows in this operator.
+   * True if the late data are emitted to the late output.
    */
-  private final Queue<Window<T>> windowQueue;
+  private final boolean lateOutput;
+
+  /**
+   * True if the emitted windows are kept for the late data.
+   */
+  private final boolean keepsEmittedWindows;
+
+  /**
+   * The queue of the emitted windows which can be updated by the late data.
+   */
+  private final Queue<Window<T>> emittedWindowQueue;
+
+  /**
+   * The latest point of the received events.
+   */
+  private long latestEventPoint;
+
+  /**
+   * The latest end of the discarded windows.
+   */
+  private long discardedWindowEnd;
+
+  /**
+   * The number of late data which do not belong to any window.
+   */
+  private long numLateEvents;
 
   protected FixedSizeWindowOperator(final int windowSize,
                                     final int windowEmissionInterval) {
+    this(windowSize, windowEmissionInterval, 0L, false);
+  }
+
+  protected FixedSizeWindowOperator(final int windowSize,
+                                    final int windowEmissionInterval,
+                                    final long allowedLateness,
+                                    final boolean lateOutput) {
     super();
-    this.windowSize = windowSize;
-    this.windowEmissionInterval = windowEmissionInterval;
+    this.windowCreator = new WindowCreator(windowSize, windowEmissionInterval);
     this.windowQueue = new LinkedList<>();
-    this.windowCreationPoint = Long.MIN_VALUE;
+    this.allowedLateness = allowedLateness;
+    this.lateOutput = lateOutput;
+    this.keepsEmittedWindows = allowedLateness > 0 || lateOutput;
+    this.emittedWindowQueue = new LinkedList<>();
+    this.latestEventPoint = Long.MIN_VALUE;
+    this.discardedWindowEnd = Long.MIN_VALUE;
+    this.numLateEvents = 0L;
+  }
+
+  /**
+   * @return the number of late data which do not belong to any window
+   */
+  public long getNumLateEvents() {
+    return numLateEvents;
   }
 
   /**
@@ -70,26 +121,8 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
    * @param currentEventPoint the point of received event
    */
   protected void createWindow(final long currentEventPoint) {
-    if (windowCreationPoint == Long.MIN_VALUE) {
-      // Creates some initial windows
-      long temporalWindowSize = windowEmissionInterval;
-      if (windowEmissionInterval > windowSize) {
-        windowCreationPoint = currentEventPoint;
-      } else {
-        do {
-          final Window<T> window = new WindowImpl<>(currentEventPoint, temporalWindowSize);
-          windowQueue.add(window);
-          temporalWindowSize += windowEmissionInterval;
-        } while (temporalWindowSize <= windowSize);
-        windowCreationPoint = currentEventPoint + temporalWindowSize - windowSize;
-      }
-    }
-    // Checks the window creation time is elapsed
-    while (windowCreationPoint <= currentEventPoint) {
-      final Window<T> window = new WindowImpl<>(windowCreationPoint, windowSize);
-      windowQueue.add(window);
-      windowCreationPoint += windowEmissionInterval;
-    }
+    windowCreator.createWindow(currentEventPoint,
+        (start, size) -> windowQueue.add(new WindowImpl<>(start, size)));
   }
 
   /**
@@ -100,12 +133,45 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
     // Checks the window emission time is elapsed
     while (!windowQueue.isEmpty() && ((Window) windowQueue.peek()).getEnd() < currentEventPoint) {
       final Window<T> window = windowQueue.poll();
-      outputEmitter.emitData(new MistDataEvent(window, window.getLatestTimestamp()));
+      if (keepsEmittedWindows) {
+        // The kept window can be updated, so a copy of the window is emitted
+        emitWindow(new WindowImpl<>(window));
+        emittedWindowQueue.add(window);
+      } else {
+        outputEmitter.emitData(new MistDataEvent(window, window.getLatestTimestamp()));
+      }
       final MistWatermarkEvent latestWatermark = window.getLatestWatermark();
       if (latestWatermark.getTimestamp() != 0L) {
         outputEmitter.emitWatermark(latestWatermark);
       }
     }
+
+    if (keepsEmittedWindows) {
+      latestEventPoint = Math.max(latestEventPoint, currentEventPoint);
+      // Discards the emitted windows which cannot be updated anymore
+      while (!emittedWindowQueue.isEmpty()
+          && emittedWindowQueue.peek().getEnd() < latestEventPoint - allowedLateness) {
+        discardedWindowEnd = Math.max(discardedWindowEnd, emittedWindowQueue.poll().getEnd());
+      }
+    }
+  }
+
+  @Override
+  public void flush() {
+    emitElapsedWindow(Long.MAX_VALUE);
+  }
+
+  /**
+   * Emits the window to the main output.
+   * @param window the window
+   */
+  private void emitWindow(final Window<T> window) {
+    final MistDataEvent event = new MistDataEvent(window, window.getLatestTimestamp());
+    if (lateOutput) {
+      outputEmitter.emitData(event, 0);
+    } else {
+      outputEmitter.emitData(event);
+    }
   }
 
   /**
@@ -113,6 +179,10 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
    * @param input the input data
    */
   protected void putData(final MistDataEvent input) {
+    if (keepsEmittedWindows) {
+      putDataConsideringLateness(input);
+      return;
+    }
     // Iterates the windowQueue and puts the input MistEvent into some windows
     final Iterator<Window<T>> itr = windowQueue.iterator();
     while (itr.hasNext()) {
@@ -127,6 +197,41 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
     }
   }
 
+  /**
+   * Puts input data into the windows whose range contains the timestamp of the data.
+   * The kept windows which get the data are emitted again,
+   * and the data is late if it only belongs to the discarded windows.
+   * @param input the input data
+   */
+  private void putDataConsideringLateness(final MistDataEvent input) {
+    final long timestamp = input.getTimestamp();
+    boolean accepted = false;
+    for (final Window<T> window : windowQueue) {
+      if (window.getStart() <= timestamp && timestamp <= window.getEnd()) {
+        window.putData(input);
+        accepted = true;
+      }
+    }
+    for (final Window<T> window : emittedWindowQueue) {
+      if (window.getStart() <= timestamp && timestamp <= window.getEnd()) {
+        window.putData(input);
+        emitWindow(new WindowImpl<>(window));
+        accepted = true;
+      }
+    }
+
+    if (!accepted && timestamp <= discardedWindowEnd) {
+      numLateEvents += 1;
+      if (LOG.isLoggable(Level.FINE)) {
+        LOG.log(Level.FINE, "{0} gets a late data {1} whose windows are discarded until {2}",
+            new Object[]{this.getClass().getName(), input, discardedWindowEnd});
+      }
+      if (lateOutput) {
+        outputEmitter.emitData(input, ConfValues.LATE_OUTPUT_INDEX);
+      }
+    }
+  }
+
   /**
    * Puts input watermark into available windows.
    * @param input the input watermark
@@ -143,16 +248,27 @@ abstract class FixedSizeWindowOperator<T> extends OneStreamStateHandlerOperator
   @Override
   public Map<String, Object> getStateSnapshot() {
     final Map<String, Object> stateMap = new HashMap<>();
-    stateMap.put("windowCreationPoint", windowCreationPoint);
+    stateMap.put("windowCreationPoint", windowCreator.getWindowCreationPoint());
     stateMap.put("windowQueue", new Cloner(new ObjenesisInstantiationStrategy()).deepClone(windowQueue));
+    if (keepsEmittedWindows) {
+      stateMap.put("emittedWindowQueue",
+          new Cloner(new ObjenesisInstantiationStrategy()).deepClone(emittedWindowQueue));
+      stateMap.put("latestEventPoint", latestEventPoint);
+      stateMap.put("discardedWindowEnd", discardedWindowEnd);
+    }
     return stateMap;
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public void setState(final Map<String, Object> loadedState) {
-    windowCreationPoint = (long)loadedState.get("windowCreationPoint");
+    windowCreator.setWindowCreationPoint((long)loadedState.get("windowCreationPoint"));
     windowQueue.addAll((Queue<Window<T>>)loadedState.get("windowQueue"));
+    if (loadedState.containsKey("emittedWindowQueue")) {
+      emittedWindowQueue.addAll((Queue<Window<T>>)loadedState.get("emittedWindowQueue"));
+      latestEventPoint = (long)loadedState.get("latestEventPoint");
+      discardedWindowEnd = (long)loadedState.get("discardedWindowEnd");
+    }
   }
 
   @Override
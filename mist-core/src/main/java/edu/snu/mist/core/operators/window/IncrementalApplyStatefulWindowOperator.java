@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.window;
+
+import com.rits.cloning.Cloner;
+import com.rits.cloning.ObjenesisInstantiationStrategy;
+import edu.snu.mist.common.functions.ApplyStatefulFunction;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.FlushableOperator;
+import edu.snu.mist.core.operators.OneStreamStateHandlerOperator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This operator fuses a time or count-based window operator and ApplyStatefulWindowOperator.
+ * Instead of buffering the inputs of each window and replaying them when the window is emitted,
+ * it keeps an ApplyStatefulFunction for each open window and updates the function when an input arrives.
+ * Thus, emitting a window only requires producing the result of the function.
+ * The windows are created and emitted in the same way as TimeWindowOperator and CountWindowOperator.
+ * @param <IN> the type of input data
+ * @param <OUT> the type of output data
+ */
+public final class IncrementalApplyStatefulWindowOperator<IN, OUT> extends OneStreamStateHandlerOperator
+    implements FlushableOperator {
+  private static final Logger LOG = Logger.getLogger(IncrementalApplyStatefulWindowOperator.class.getName());
+
+  /**
+   * The user-defined ApplyStatefulFunction which is copied for each window.
+   * It is not updated by this operator.
+   */
+  private final ApplyStatefulFunction<IN, OUT> applyStatefulFunction;
+
+  /**
+   * The creator which decides when the windows are created, in the same way as FixedSizeWindowOperator.
+   */
+  private final WindowCreator windowCreator;
+
+  /**
+   * True if the windows are count-based, false if they are time-based.
+   */
+  private final boolean countBased;
+
+  /**
+   * The count represents the number of inputs already arrived.
+   */
+  private long count;
+
+  /**
+   * The queue of open windows in this operator.
+   */
+  private final Queue<StatefulWindow<IN, OUT>> windowQueue;
+
+  /**
+   * The cloner that copies the user-defined function and the states.
+   */
+  private final Cloner cloner;
+
+  /**
+   * @param applyStatefulFunction the user-defined ApplyStatefulFunction
+   * @param windowSize the size of window
+   * @param windowEmissionInterval the interval of emission
+   * @param countBased true if the windows are count-based
+   */
+  public IncrementalApplyStatefulWindowOperator(final ApplyStatefulFunction<IN, OUT> applyStatefulFunction,
+                                                final int windowSize,
+                                                final int windowEmissionInterval,
+                                                final boolean countBased) {
+    super();
+    this.applyStatefulFunction = applyStatefulFunction;
+    this.windowCreator = new WindowCreator(windowSize, windowEmissionInterval);
+    this.countBased = countBased;
+    this.count = 1L;
+    this.windowQueue = new LinkedList<>();
+    this.cloner = new Cloner(new ObjenesisInstantiationStrategy());
+  }
+
+  /**
+   * Creates an initialized copy of the user-defined function for a new window.
+   */
+  private ApplyStatefulFunction<IN, OUT> newFunction() {
+    final ApplyStatefulFunction<IN, OUT> function = cloner.deepClone(applyStatefulFunction);
+    function.initialize();
+    return function;
+  }
+
+  /**
+   * Checks whether the window creation time or count is elapsed, and creates some windows if so.
+   * @param currentEventPoint the point of received event
+   */
+  private void createWindow(final long currentEventPoint) {
+    windowCreator.createWindow(currentEventPoint,
+        (start, size) -> windowQueue.add(new StatefulWindow<>(start, size, newFunction())));
+  }
+
+  /**
+   * Checks whether the window emission time or count is elapsed, and emits the results of the windows if so.
+   * @param currentEventPoint the point of received event
+   */
+  private void emitElapsedWindow(final long currentEventPoint) {
+    while (!windowQueue.isEmpty() && windowQueue.peek().end < currentEventPoint) {
+      final StatefulWindow<IN, OUT> window = windowQueue.poll();
+      final OUT operationResult = window.function.produceResult();
+
+      if (LOG.isLoggable(Level.FINE)) {
+        LOG.log(Level.FINE, "{0} emits the result {1} of the window which started at {2} and ended at {3}",
+            new Object[]{this.getClass().getName(), operationResult, window.start, window.end});
+      }
+
+      outputEmitter.emitData(new MistDataEvent(operationResult, window.latestTimestamp));
+      if (window.latestWatermark.getTimestamp() != 0L) {
+        outputEmitter.emitWatermark(window.latestWatermark);
+      }
+    }
+  }
+
+  @Override
+  public void flush() {
+    emitElapsedWindow(Long.MAX_VALUE);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    if (countBased) {
+      createWindow(count);
+    } else {
+      emitElapsedWindow(input.getTimestamp());
+      createWindow(input.getTimestamp());
+    }
+    final IN value = (IN) input.getValue();
+    for (final StatefulWindow<IN, OUT> window : windowQueue) {
+      window.function.update(value);
+      window.latestTimestamp = input.getTimestamp();
+    }
+    if (countBased) {
+      count++;
+      emitElapsedWindow(count);
+    }
+    updateLatestEventTimestamp(input.getTimestamp());
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent input) {
+    if (isEarlierThanRecoveredTimestamp(input)) {
+      return;
+    }
+    if (!countBased) {
+      emitElapsedWindow(input.getTimestamp());
+      createWindow(input.getTimestamp());
+    }
+    for (final StatefulWindow<IN, OUT> window : windowQueue) {
+      window.putWatermark(input);
+    }
+    updateLatestEventTimestamp(input.getTimestamp());
+  }
+
+  @Override
+  public Map<String, Object> getStateSnapshot() {
+    final List<Object[]> windowStates = new ArrayList<>(windowQueue.size());
+    for (final StatefulWindow<IN, OUT> window : windowQueue) {
+      windowStates.add(new Object[]{window.start, window.end, window.latestTimestamp,
+          window.latestWatermark.getTimestamp(), cloner.deepClone(window.function.getCurrentState())});
+    }
+    final Map<String, Object> stateMap = new HashMap<>();
+    stateMap.put("windowCreationPoint", windowCreator.getWindowCreationPoint());
+    stateMap.put("count", count);
+    stateMap.put("windowStates", windowStates);
+    return stateMap;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setState(final Map<String, Object> loadedState) {
+    windowCreator.setWindowCreationPoint((long)loadedState.get("windowCreationPoint"));
+    count = (long)loadedState.get("count");
+    windowQueue.clear();
+    for (final Object[] windowState : (List<Object[]>)loadedState.get("windowStates")) {
+      final long start = (long)windowState[0];
+      final ApplyStatefulFunction<IN, OUT> function = newFunction();
+      function.setFunctionState(windowState[4]);
+      final StatefulWindow<IN, OUT> window =
+          new StatefulWindow<>(start, (long)windowState[1] - start + 1, function);
+      window.latestTimestamp = (long)windowState[2];
+      window.latestWatermark = new MistWatermarkEvent((long)windowState[3]);
+      windowQueue.add(window);
+    }
+  }
+
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent input) {
+    checkpointMap.put(latestTimestampBeforeCheckpoint, getStateSnapshot());
+    outputEmitter.emitCheckpoint(input);
+  }
+
+  /**
+   * An open window that keeps the ApplyStatefulFunction updated with its inputs.
+   */
+  private static final class StatefulWindow<IN, OUT> {
+    private final long start;
+    private final long end;
+    private final ApplyStatefulFunction<IN, OUT> function;
+    private long latestTimestamp;
+    private MistWatermarkEvent latestWatermark;
+
+    StatefulWindow(final long start, final long size, final ApplyStatefulFunction<IN, OUT> function) {
+      this.start = start;
+      this.end = start + size - 1;
+      this.function = function;
+      this.latestTimestamp = 0L;
+      this.latestWatermark = new MistWatermarkEvent(0L);
+    }
+
+    void putWatermark(final MistWatermarkEvent event) {
+      final long timestamp = event.getTimestamp();
+      if (latestTimestamp < timestamp) {
+        latestTimestamp = timestamp;
+      }
+      if (latestWatermark.getTimestamp() < timestamp) {
+        latestWatermark = event;
+      }
+    }
+  }
+}
@@ -20,6 +20,7 @@ import com.rits.cloning.ObjenesisInstantiationStrategy;
 import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.FlushableOperator;
 import edu.snu.mist.core.operators.OneStreamStateHandlerOperator;
 import edu.snu.mist.core.operators.parameters.WindowInterval;
 import org.apache.reef.tang.annotations.Parameter;
@@ -37,7 +38,7 @@ import java.util.logging.Logger;
  * After that, a new session is created.
  * @param <T> the type of data
  */
-public final class SessionWindowOperator<T> extends OneStreamStateHandlerOperator {
+public final class SessionWindowOperator<T> extends OneStreamStateHandlerOperator implements FlushableOperator {
   private static final Logger LOG = Logger.getLogger(SessionWindowOperator.class.getName());
 
   /**
@@ -93,6 +94,15 @@ public final class SessionWindowOperator<T> extends OneStreamStateHandlerOperato
     }
   }
 
+  @Override
+  public void flush() {
+    if (currentWindow != null && startedNewWindow) {
+      outputEmitter.emitData(new MistDataEvent(currentWindow, currentWindow.getLatestTimestamp()));
+      startedNewWindow = false;
+    }
+    currentWindow = null;
+  }
+
   @Override
   public void processLeftData(final MistDataEvent input) {
     if (isEarlierThanRecoveredTimestamp(input)) {
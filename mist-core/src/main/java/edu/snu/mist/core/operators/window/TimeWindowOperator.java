@@ -37,6 +37,19 @@ public final class TimeWindowOperator<T> extends FixedSizeWindowOperator<T> {
     super(windowSize, windowEmissionInterval);
   }
 
+  /**
+   * @param windowSize the size of window
+   * @param windowEmissionInterval the interval of emission
+   * @param allowedLateness the time that the emitted windows are kept for the late data
+   * @param lateOutput true if the late data are emitted to the late output
+   */
+  public TimeWindowOperator(final int windowSize,
+                            final int windowEmissionInterval,
+                            final long allowedLateness,
+                            final boolean lateOutput) {
+    super(windowSize, windowEmissionInterval, allowedLateness, lateOutput);
+  }
+
   @Override
   public void processLeftData(final MistDataEvent input) {
     if (isEarlierThanRecoveredTimestamp(input)) {
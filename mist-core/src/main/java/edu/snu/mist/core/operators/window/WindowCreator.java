@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators.window;
+
+/**
+ * This class decides when the fixed size windows are created.
+ * It is shared by FixedSizeWindowOperator and IncrementalApplyStatefulWindowOperator,
+ * which keep different kinds of windows but open them at the same points.
+ */
+final class WindowCreator {
+
+  /**
+   * The size of window expressed in milliseconds or the number of inputs.
+   */
+  private final int windowSize;
+
+  /**
+   * The interval of emission expressed in milliseconds or the number of inputs.
+   */
+  private final int windowEmissionInterval;
+
+  /**
+   * The immediate window creation time or count.
+   */
+  private long windowCreationPoint;
+
+  WindowCreator(final int windowSize,
+                final int windowEmissionInterval) {
+    this.windowSize = windowSize;
+    this.windowEmissionInterval = windowEmissionInterval;
+    this.windowCreationPoint = Long.MIN_VALUE;
+  }
+
+  /**
+   * Checks whether the window creation time or count is elapsed, and creates some windows if so.
+   * @param currentEventPoint the point of received event
+   * @param factory the factory which creates a window of the start and the size
+   */
+  void createWindow(final long currentEventPoint, final WindowFactory factory) {
+    if (windowCreationPoint == Long.MIN_VALUE) {
+      // Creates some initial windows
+      long temporalWindowSize = windowEmissionInterval;
+      if (windowEmissionInterval > windowSize) {
+        windowCreationPoint = currentEventPoint;
+      } else {
+        do {
+          factory.create(currentEventPoint, temporalWindowSize);
+          temporalWindowSize += windowEmissionInterval;
+        } while (temporalWindowSize <= windowSize);
+        windowCreationPoint = currentEventPoint + temporalWindowSize - windowSize;
+      }
+    }
+    // Checks the window creation time is elapsed
+    while (windowCreationPoint <= currentEventPoint) {
+      factory.create(windowCreationPoint, windowSize);
+      windowCreationPoint += windowEmissionInterval;
+    }
+  }
+
+  long getWindowCreationPoint() {
+    return windowCreationPoint;
+  }
+
+  void setWindowCreationPoint(final long windowCreationPoint) {
+    this.windowCreationPoint = windowCreationPoint;
+  }
+
+  /**
+   * The factory which creates a window and puts it into the window queue of the operator.
+   */
+  interface WindowFactory {
+    void create(long start, long size);
+  }
+}
@@ -42,6 +42,16 @@ public final class WindowImpl<T> implements Window<T>, Serializable {
     this(start, size, new LinkedList<>());
   }
 
+  /**
+   * Creates a copy of the window, which is not affected by the updates of the window.
+   * @param window the window to copy
+   */
+  public WindowImpl(final Window<T> window) {
+    this(window.getStart(), window.getEnd() - window.getStart() + 1, new LinkedList<>(window.getDataCollection()));
+    this.latestTimestamp = window.getLatestTimestamp();
+    this.latestWatermark = window.getLatestWatermark();
+  }
+
   public WindowImpl(final long start, final long size, final Collection<T> dataCollection) {
     latestTimestamp = 0L;
     latestWatermark = new MistWatermarkEvent(0L);
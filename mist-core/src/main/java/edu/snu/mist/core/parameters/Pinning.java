@@ -18,7 +18,8 @@ package edu.snu.mist.core.parameters;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 
-@NamedParameter(doc = "The number of cores of mist task", short_name = "pinning", default_value = "true")
+@NamedParameter(doc = "Pin the event processors and the I/O threads to the cpus",
+    short_name = "pinning", default_value = "true")
 public final class Pinning implements Name<Boolean> {
   // empty
 }
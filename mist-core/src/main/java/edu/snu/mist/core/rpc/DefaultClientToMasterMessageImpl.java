@@ -19,10 +19,14 @@ import edu.snu.mist.core.master.ApplicationCodeManager;
 import edu.snu.mist.core.master.MasterSetupFinished;
 import edu.snu.mist.core.master.lb.allocation.QueryAllocationManager;
 import edu.snu.mist.core.master.QueryIdGenerator;
+import edu.snu.mist.core.master.lb.parameters.QueryAllocationLeaseSize;
+import edu.snu.mist.core.master.lb.parameters.QueryAllocationLeaseTime;
 import edu.snu.mist.formats.avro.ClientToMasterMessage;
 import edu.snu.mist.formats.avro.JarUploadResult;
+import edu.snu.mist.formats.avro.QueryAllocationLease;
 import edu.snu.mist.formats.avro.QuerySubmitInfo;
 import org.apache.avro.AvroRemoteException;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.nio.ByteBuffer;
@@ -56,11 +60,25 @@ public final class DefaultClientToMasterMessageImpl implements ClientToMasterMes
    */
   private final QueryIdGenerator queryIdGenerator;
 
+  /**
+   * The number of query ids in a query allocation lease.
+   */
+  private final int leaseSize;
+
+  /**
+   * The expiration time of a query allocation lease.
+   */
+  private final long leaseTime;
+
   @Inject
-  private DefaultClientToMasterMessageImpl(final QueryAllocationManager queryAllocationManager,
+  private DefaultClientToMasterMessageImpl(@Parameter(QueryAllocationLeaseSize.class) final int leaseSize,
+                                           @Parameter(QueryAllocationLeaseTime.class) final long leaseTime,
+                                           final QueryAllocationManager queryAllocationManager,
                                            final ApplicationCodeManager appCodeManager,
                                            final MasterSetupFinished masterSetupFinished,
                                            final QueryIdGenerator queryIdGenerator) {
+    this.leaseSize = leaseSize;
+    this.leaseTime = leaseTime;
     this.queryAllocationManager = queryAllocationManager;
     this.appCodeManager = appCodeManager;
     this.masterSetupFinished = masterSetupFinished;
@@ -95,4 +113,19 @@ public final class DefaultClientToMasterMessageImpl implements ClientToMasterMes
       throw new RuntimeException(e);
     }
   }
+
+  @Override
+  public QueryAllocationLease getQueryAllocationLease(final String appId) {
+    try {
+      return QueryAllocationLease.newBuilder()
+          .setJarPaths(appCodeManager.getJarPaths(appId))
+          .setQueryIds(queryIdGenerator.generateRange(leaseSize))
+          .setTask(queryAllocationManager.getAllocatedTask(appId))
+          .setLeaseTime(leaseTime)
+          .build();
+    } catch (final Exception e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
 }
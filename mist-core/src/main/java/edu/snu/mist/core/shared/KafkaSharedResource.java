@@ -15,38 +15,80 @@
  */
 package edu.snu.mist.core.shared;
 
+import edu.snu.mist.core.sources.KafkaDataGenerator;
+import edu.snu.mist.core.sources.KafkaSubscribeClient;
+import edu.snu.mist.core.sources.parameters.KafkaConsumerNumPerConfig;
+import edu.snu.mist.core.sources.parameters.KafkaPartitionParallelism;
 import edu.snu.mist.core.sources.parameters.NumKafkaThreads;
+import edu.snu.mist.core.task.groupaware.eventprocessor.CpuAffinityManager;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
-import java.util.concurrent.ExecutorService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * This class is shared by multiple kafka data generators
  * in order to share a thread pool among kafka sources to reduce the number of I/O threads.
+ * The kafka sources having the same consumer configuration share a few kafka consumers,
+ * each of which subscribes the union of the topics assigned to it.
+ * The consumers are multiplexed on the thread pool, so the number of the sources is not limited by the threads.
+ * A topic can be subscribed by multiple consumers of the configuration,
+ * so that the partitions of the topic are assigned to the consumers and fetched in parallel.
  */
 public final class KafkaSharedResource implements AutoCloseable {
 
   /**
    * The default timeout for consumer polling represented in milliseconds.
+   * It is short because a consumer holds a thread of the pool while polling.
    */
-  private static final int DEFAULT_POLL_TIMEOUT = 2000;
+  private static final int DEFAULT_POLL_TIMEOUT = 100;
 
   /**
    * The executor service used to restrict the number of threads for kafka sources.
+   * The consumers that back off or have nothing to poll are scheduled with a delay instead of sleeping.
    */
-  private ExecutorService executorService;
+  private ScheduledExecutorService executorService;
+
+  /**
+   * The maximum number of consumers per consumer configuration.
+   */
+  private final int consumerNumPerConfig;
+
+  /**
+   * The number of consumers which subscribe a topic.
+   */
+  private final int partitionParallelism;
+
+  /**
+   * The map that has the consumer configuration as a key and the list of the consumers as a value.
+   */
+  private final Map<Map<String, Object>, List<KafkaSubscribeClient>> confConsumerMap;
 
   /**
    * @param threads the number of I/O threads
+   * @param consumerNumPerConfig the number of consumers per consumer configuration
+   * @param partitionParallelism the number of consumers which subscribe a topic
+   * @param cpuAffinityManager cpu affinity manager that pins the I/O threads
    */
   @Inject
-  private KafkaSharedResource(@Parameter(NumKafkaThreads.class) final int threads) {
-    this.executorService = Executors.newFixedThreadPool(threads);
+  private KafkaSharedResource(@Parameter(NumKafkaThreads.class) final int threads,
+                              @Parameter(KafkaConsumerNumPerConfig.class) final int consumerNumPerConfig,
+                              @Parameter(KafkaPartitionParallelism.class) final int partitionParallelism,
+                              final CpuAffinityManager cpuAffinityManager) {
+    this.executorService = Executors.newScheduledThreadPool(threads,
+        cpuAffinityManager.newIoThreadFactory(Executors.defaultThreadFactory()));
+    this.consumerNumPerConfig = consumerNumPerConfig;
+    this.partitionParallelism = Math.min(partitionParallelism, consumerNumPerConfig);
+    this.confConsumerMap = new HashMap<>();
   }
 
-  public ExecutorService getExecutorService() {
+  public ScheduledExecutorService getExecutorService() {
     return executorService;
   }
 
@@ -54,8 +96,116 @@ public final class KafkaSharedResource implements AutoCloseable {
     return DEFAULT_POLL_TIMEOUT;
   }
 
+  /**
+   * Subscribe the topic for the data generator with shared consumers.
+   * The consumers which already subscribe the topic are used first.
+   * Otherwise, the topic is subscribed by the partition parallelism number of consumers:
+   * a new consumer is created if the number of consumers for the configuration is less than the maximum,
+   * or the consumer that subscribes the least topics is used.
+   * @param kafkaConsumerConf kafka consumer configuration
+   * @param topic kafka topic
+   * @param dataGenerator data generator
+   */
+  public synchronized <K, V> void subscribe(final Map<String, Object> kafkaConsumerConf,
+                                            final String topic,
+                                            final KafkaDataGenerator<K, V> dataGenerator) {
+    List<KafkaSubscribeClient> consumerList = confConsumerMap.get(kafkaConsumerConf);
+    if (consumerList == null) {
+      consumerList = new ArrayList<>();
+      confConsumerMap.put(new HashMap<>(kafkaConsumerConf), consumerList);
+    }
+    final List<KafkaSubscribeClient> selectedList = new ArrayList<>();
+    for (final KafkaSubscribeClient consumer : consumerList) {
+      if (consumer.hasTopic(topic)) {
+        selectedList.add(consumer);
+      }
+    }
+    // The consumers of a topic are fixed while the topic is subscribed,
+    // because each consumer fetches only the partitions assigned to it.
+    while (selectedList.isEmpty() || selectedList.size() < partitionParallelism) {
+      if (consumerList.size() < consumerNumPerConfig) {
+        final KafkaSubscribeClient consumer =
+            new KafkaSubscribeClient<>(kafkaConsumerConf, executorService, DEFAULT_POLL_TIMEOUT);
+        consumerList.add(consumer);
+        selectedList.add(consumer);
+      } else {
+        KafkaSubscribeClient selected = null;
+        for (final KafkaSubscribeClient consumer : consumerList) {
+          if (!selectedList.contains(consumer)
+              && (selected == null || consumer.getTopicNum() < selected.getTopicNum())) {
+            selected = consumer;
+          }
+        }
+        selectedList.add(selected);
+      }
+    }
+    for (final KafkaSubscribeClient consumer : selectedList) {
+      consumer.subscribe(topic, dataGenerator);
+    }
+  }
+
+  /**
+   * Unsubscribe the topic for the data generator.
+   * The consumer is closed if it does not have any topic to subscribe.
+   * @param kafkaConsumerConf kafka consumer configuration
+   * @param topic kafka topic
+   * @param dataGenerator data generator
+   */
+  public synchronized <K, V> void unsubscribe(final Map<String, Object> kafkaConsumerConf,
+                                              final String topic,
+                                              final KafkaDataGenerator<K, V> dataGenerator) {
+    final List<KafkaSubscribeClient> consumerList = confConsumerMap.get(kafkaConsumerConf);
+    if (consumerList == null) {
+      return;
+    }
+    final Iterator<KafkaSubscribeClient> iterator = consumerList.iterator();
+    while (iterator.hasNext()) {
+      final KafkaSubscribeClient consumer = iterator.next();
+      if (consumer.hasTopic(topic)) {
+        consumer.unsubscribe(topic, dataGenerator);
+        if (consumer.getTopicNum() == 0) {
+          consumer.close();
+          iterator.remove();
+        }
+      }
+    }
+    if (consumerList.isEmpty()) {
+      confConsumerMap.remove(kafkaConsumerConf);
+    }
+  }
+
+  /**
+   * Record the offsets of the data generator at its stored checkpoint to the consumers of the topic.
+   * @param kafkaConsumerConf kafka consumer configuration
+   * @param topic kafka topic
+   * @param dataGenerator data generator
+   * @param offsets the next offsets of the partitions after the emitted records
+   */
+  public synchronized <K, V> void checkpointOffsets(final Map<String, Object> kafkaConsumerConf,
+                                                    final String topic,
+                                                    final KafkaDataGenerator<K, V> dataGenerator,
+                                                    final Map<Integer, Long> offsets) {
+    final List<KafkaSubscribeClient> consumerList = confConsumerMap.get(kafkaConsumerConf);
+    if (consumerList == null) {
+      return;
+    }
+    for (final KafkaSubscribeClient consumer : consumerList) {
+      if (consumer.hasTopic(topic)) {
+        consumer.checkpointOffsets(topic, dataGenerator, offsets);
+      }
+    }
+  }
+
   @Override
   public void close() throws Exception {
+    synchronized (this) {
+      for (final List<KafkaSubscribeClient> consumerList : confConsumerMap.values()) {
+        for (final KafkaSubscribeClient consumer : consumerList) {
+          consumer.close();
+        }
+      }
+      confConsumerMap.clear();
+    }
     executorService.shutdown();
   }
 }
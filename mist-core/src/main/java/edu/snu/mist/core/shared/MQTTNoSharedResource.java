@@ -17,9 +17,11 @@ package edu.snu.mist.core.shared;
 
 import edu.snu.mist.core.shared.parameters.MaxInflightMqttEventNum;
 import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.MqttSourceDispatchQueueCapacity;
 import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
 import edu.snu.mist.core.sources.MQTTDataGenerator;
 import edu.snu.mist.core.sources.MQTTSubscribeClient;
+import edu.snu.mist.core.task.groupaware.eventprocessor.CpuAffinityManager;
 import org.apache.reef.tang.annotations.Parameter;
 import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
 import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
@@ -28,6 +30,7 @@ import org.eclipse.paho.client.mqttv3.MqttException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -55,14 +58,22 @@ public final class MQTTNoSharedResource implements MQTTResource {
 
   private final int mqttSinkKeepAliveSec;
 
+  private final int mqttSourceDispatchQueueCapacity;
+
+  private final ThreadFactory dispatchThreadFactory;
+
   @Inject
   private MQTTNoSharedResource(
       @Parameter(MaxInflightMqttEventNum.class) final int maxInflightMqttEventNumParam,
       @Parameter(MqttSourceKeepAliveSec.class) final int mqttSourceKeepAliveSec,
-      @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec) {
+      @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec,
+      @Parameter(MqttSourceDispatchQueueCapacity.class) final int mqttSourceDispatchQueueCapacity,
+      final CpuAffinityManager cpuAffinityManager) {
     this.maxInflightMqttEventNum = maxInflightMqttEventNumParam;
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
+    this.mqttSourceDispatchQueueCapacity = mqttSourceDispatchQueueCapacity;
+    this.dispatchThreadFactory = cpuAffinityManager.newIoThreadFactory(Thread::new);
     this.sourceClientCounter = new AtomicInteger(0);
     this.sinkClientCounter = new AtomicInteger(0);
   }
@@ -82,7 +93,8 @@ public final class MQTTNoSharedResource implements MQTTResource {
   @Override
   public MQTTDataGenerator getDataGenerator(final String brokerURI, final String topic) {
     final MQTTSubscribeClient client = new MQTTSubscribeClient(brokerURI, MQTT_SUBSCRIBER_ID_PREFIX +
-        sourceClientCounter.getAndIncrement(), mqttSourceKeepAliveSec);
+        sourceClientCounter.getAndIncrement(), mqttSourceKeepAliveSec, mqttSourceDispatchQueueCapacity,
+        dispatchThreadFactory);
    return client.connectToTopic(topic);
   }
 
@@ -16,13 +16,10 @@
 package edu.snu.mist.core.shared;
 
 import edu.snu.mist.core.parameters.TaskId;
-import edu.snu.mist.core.shared.parameters.MaxInflightMqttEventNum;
-import edu.snu.mist.core.shared.parameters.MqttSinkClientNumPerBroker;
-import edu.snu.mist.core.shared.parameters.MqttSinkKeepAliveSec;
-import edu.snu.mist.core.shared.parameters.MqttSourceClientNumPerBroker;
-import edu.snu.mist.core.shared.parameters.MqttSourceKeepAliveSec;
+import edu.snu.mist.core.shared.parameters.*;
 import edu.snu.mist.core.sources.MQTTDataGenerator;
 import edu.snu.mist.core.sources.MQTTSubscribeClient;
+import edu.snu.mist.core.task.groupaware.eventprocessor.CpuAffinityManager;
 import org.apache.reef.tang.annotations.Parameter;
 import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
 import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
@@ -31,10 +28,13 @@ import org.eclipse.paho.client.mqttv3.MqttException;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -43,6 +43,14 @@ import java.util.logging.Logger;
 
 /**
  * This class manages MQTT clients.
+ * The clients of each broker are managed with a separate lock, so the queries of different brokers
+ * do not wait for each other when they create their sources and sinks.
+ * The pools of the clients start with the minimum number of clients and grow up to the maximum number.
+ * A topic of a source is assigned to the subscribe client with the lowest message rate,
+ * and the rebalancer periodically measures the message rates of the clients and the topics,
+ * migrates the topics from overloaded clients to other clients, and removes an idle client.
+ * A topic of a sink is assigned to the publish client with the fewest in-flight messages,
+ * and a new publish client is created if all the clients are busy.
  */
 public final class MQTTSharedResource implements MQTTResource {
   private static final Logger LOG = Logger.getLogger(MQTTSharedResource.class.getName());
@@ -58,44 +66,37 @@ public final class MQTTSharedResource implements MQTTResource {
   public static final String MQTT_SUBSCRIBER_ID_PREFIX = "MIST_MQTT_SUBSCRIBER_";
 
   /**
-   * The map containing topic-subscriber information.
+   * The maximum number of attempts to connect a sink client, and the backoff time before the first retry.
    */
-  private final Map<String, Map<String, MQTTSubscribeClient>> topicSubscriberMap;
+  private static final int MAX_SINK_CONNECT_ATTEMPTS = 5;
+  private static final long SINK_CONNECT_INITIAL_BACKOFF_MS = 100;
 
   /**
-   * The map containing topic-publisher information.
+   * The map that has broker URI as a key and the subscribe clients of the broker as a value.
    */
-  private final Map<String, Map<String, IMqttAsyncClient>> topicPublisherMap;
+  private final ConcurrentMap<String, BrokerSubscribers> brokerSubscriberMap;
 
   /**
-   * The map coupling MQTT broker URI and MQTTSubscribeClient.
+   * The map that has broker URI as a key and the publish clients of the broker as a value.
    */
-  private final Map<String, List<MQTTSubscribeClient>> brokerSubscriberMap;
+  private final ConcurrentMap<String, BrokerPublishers> brokerPublisherMap;
 
   /**
-   * The map that has the number of sinks each mqtt clients support.
+   * The number of minimum and maximum mqtt source clients per broker.
    */
-  private final Map<MQTTSubscribeClient, Integer> subscriberSourceNumMap;
+  private final int mqttSourceMinClientNumPerBroker;
+  private final int mqttSourceMaxClientNumPerBroker;
 
   /**
-   * The map that has broker URI as a key and list of mqtt clients as a value.
+   * The number of minimum and maximum mqtt sink clients per broker.
    */
-  private final Map<String, List<IMqttAsyncClient>> brokerPublisherMap;
+  private final int mqttSinkMinClientNumPerBroker;
+  private final int mqttSinkMaxClientNumPerBroker;
 
   /**
-   * The map that has the number of sinks each mqtt clients support.
+   * The message rate of a source client above which its topics are migrated.
    */
-  private final Map<IMqttAsyncClient, Integer> publisherSinkNumMap;
-
-  /**
-   * The number of maximum mqtt sources per client.
-   */
-  private final int mqttSourceClientNumPerBroker;
-
-  /**
-   * The number of maximum mqtt sinks per client.
-   */
-  private final int mqttSinkClientNumPerBroker;
+  private final double mqttSourceClientMaxMessageRate;
 
   /**
    * The maximum number of mqtt inflight events, which is waiting inside the mqtt client queue.
@@ -103,24 +104,24 @@ public final class MQTTSharedResource implements MQTTResource {
   private final int maxInflightMqttEventNum;
 
   /**
-   * The lock used to synchronize subscriber creation.
+   * Mqtt source keep-alive time in seconds.
    */
-  private final Lock subscriberLock;
+  private final int mqttSourceKeepAliveSec;
 
   /**
-   * The lock used to sychronize publisher creation.
+   * Mqtt sink keep-alive time in seconds.
    */
-  private final Lock publisherLock;
+  private final int mqttSinkKeepAliveSec;
 
   /**
-   * Mqtt source keep-alive time in seconds.
+   * The capacity of the dispatch queue of each mqtt source client.
    */
-  private final int mqttSourceKeepAliveSec;
+  private final int mqttSourceDispatchQueueCapacity;
 
   /**
-   * Mqtt sink keep-alive time in seconds.
+   * The thread factory of the dispatch threads of the mqtt source clients, which are pinned to the I/O cpus.
    */
-  private final int mqttSinkKeepAliveSec;
+  private final ThreadFactory dispatchThreadFactory;
 
   /**
    * The hostname of this MistTask.
@@ -132,130 +133,172 @@ public final class MQTTSharedResource implements MQTTResource {
    */
   private final AtomicInteger idGen = new AtomicInteger(0);
 
+  /**
+   * The executor which rebalances the topics of the subscribe clients, or null if the rebalancing is disabled.
+   */
+  private final ScheduledExecutorService rebalancer;
+
   @Inject
   private MQTTSharedResource(
+      @Parameter(MqttSourceMinClientNumPerBroker.class) final int mqttSourceMinClientNumPerBroker,
       @Parameter(MqttSourceClientNumPerBroker.class) final int mqttSourceClientNumPerBrokerParam,
+      @Parameter(MqttSinkMinClientNumPerBroker.class) final int mqttSinkMinClientNumPerBroker,
       @Parameter(MqttSinkClientNumPerBroker.class) final int mqttSinkClientNumPerBrokerParam,
+      @Parameter(MqttSourceClientMaxMessageRate.class) final double mqttSourceClientMaxMessageRate,
+      @Parameter(MqttClientRebalancingPeriod.class) final long rebalancingPeriod,
       @Parameter(MaxInflightMqttEventNum.class) final int maxInflightMqttEventNumParam,
       @Parameter(MqttSourceKeepAliveSec.class) final int mqttSourceKeepAliveSec,
       @Parameter(MqttSinkKeepAliveSec.class) final int mqttSinkKeepAliveSec,
-      @Parameter(TaskId.class) final String taskId) {
-    this.brokerSubscriberMap = new HashMap<>();
-    this.subscriberSourceNumMap = new HashMap<>();
-    this.brokerPublisherMap = new HashMap<>();
-    this.publisherSinkNumMap = new HashMap<>();
-    this.topicPublisherMap = new HashMap<>();
-    this.topicSubscriberMap = new HashMap<>();
-    this.subscriberLock = new ReentrantLock();
-    this.publisherLock = new ReentrantLock();
-    this.mqttSourceClientNumPerBroker = mqttSourceClientNumPerBrokerParam;
-    this.mqttSinkClientNumPerBroker = mqttSinkClientNumPerBrokerParam;
+      @Parameter(MqttSourceDispatchQueueCapacity.class) final int mqttSourceDispatchQueueCapacity,
+      @Parameter(TaskId.class) final String taskId,
+      final CpuAffinityManager cpuAffinityManager) {
+    this.brokerSubscriberMap = new ConcurrentHashMap<>();
+    this.brokerPublisherMap = new ConcurrentHashMap<>();
+    this.mqttSourceMaxClientNumPerBroker = Math.max(1, mqttSourceClientNumPerBrokerParam);
+    this.mqttSourceMinClientNumPerBroker =
+        Math.max(1, Math.min(mqttSourceMinClientNumPerBroker, mqttSourceMaxClientNumPerBroker));
+    this.mqttSinkMaxClientNumPerBroker = Math.max(1, mqttSinkClientNumPerBrokerParam);
+    this.mqttSinkMinClientNumPerBroker =
+        Math.max(1, Math.min(mqttSinkMinClientNumPerBroker, mqttSinkMaxClientNumPerBroker));
+    this.mqttSourceClientMaxMessageRate = mqttSourceClientMaxMessageRate;
     this.maxInflightMqttEventNum = maxInflightMqttEventNumParam;
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
     this.mqttSinkKeepAliveSec = mqttSinkKeepAliveSec;
+    this.mqttSourceDispatchQueueCapacity = mqttSourceDispatchQueueCapacity;
     this.taskId = taskId;
+    this.dispatchThreadFactory = cpuAffinityManager.newIoThreadFactory(Thread::new);
+    if (rebalancingPeriod > 0) {
+      this.rebalancer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "MQTTSharedResource-Rebalancer");
+        thread.setDaemon(true);
+        return thread;
+      });
+      this.rebalancer.scheduleWithFixedDelay(this::rebalance,
+          rebalancingPeriod, rebalancingPeriod, TimeUnit.MILLISECONDS);
+    } else {
+      this.rebalancer = null;
+    }
   }
 
   /**
    * Get the mqtt client for the sink with the target broker.
+   * If a new client fails to connect to the broker, the connection is retried with exponential backoff
+   * up to MAX_SINK_CONNECT_ATTEMPTS times. The lock of the broker is released while backing off,
+   * so the other sinks of the broker are not blocked by the retries.
    * @param brokerURI the mqtt broker uri
    * @return mqtt client
-   * @throws MqttException
+   * @throws MqttException if the client cannot connect to the broker after the retries
    * @throws IOException
    */
   public IMqttAsyncClient getMqttSinkClient(
       final String brokerURI,
       final String topic) throws MqttException, IOException {
-    this.publisherLock.lock();
-    final List<IMqttAsyncClient> mqttAsyncClientList = brokerPublisherMap.get(brokerURI);
-    if (mqttAsyncClientList == null) {
-      // Initialize the broker list
-      brokerPublisherMap.put(brokerURI, new ArrayList<>());
-      for (int i = 0; i < mqttSinkClientNumPerBroker; i++) {
-        createSinkClient(brokerURI, brokerPublisherMap.get(brokerURI));
-      }
-      // Initialize the topic-client list
-      final HashMap<String, IMqttAsyncClient> myTopicPublisherMap = new HashMap<>();
-      topicPublisherMap.put(brokerURI, myTopicPublisherMap);
-      // Get the first client...
-      final IMqttAsyncClient client = brokerPublisherMap.get(brokerURI).get(0);
-      final Integer c = publisherSinkNumMap.get(client);
-      publisherSinkNumMap.replace(client, c + 1);
-      myTopicPublisherMap.put(topic, client);
-      this.publisherLock.unlock();
-      return client;
-    } else {
-      final Map<String, IMqttAsyncClient> myTopicPublisherMap = topicPublisherMap.get(brokerURI);
-      if (myTopicPublisherMap.containsKey(topic)) {
-        final IMqttAsyncClient client = myTopicPublisherMap.get(topic);
-        publisherSinkNumMap.replace(client, publisherSinkNumMap.get(client) + 1);
-        this.publisherLock.unlock();
-        return client;
-      } else {
-        int minSinkNum = Integer.MAX_VALUE;
-        IMqttAsyncClient client = null;
-        for (final IMqttAsyncClient mqttAsyncClient: brokerPublisherMap.get(brokerURI)) {
-          if (minSinkNum > publisherSinkNumMap.get(mqttAsyncClient)) {
-            minSinkNum = publisherSinkNumMap.get(mqttAsyncClient);
-            client = mqttAsyncClient;
-          }
+    final BrokerPublishers publishers = brokerPublisherMap.computeIfAbsent(brokerURI, BrokerPublishers::new);
+    long backoff = SINK_CONNECT_INITIAL_BACKOFF_MS;
+    for (int attempt = 1;; attempt++) {
+      publishers.lock.lock();
+      try {
+        return assignSinkClient(publishers, topic);
+      } catch (final MqttException e) {
+        if (attempt >= MAX_SINK_CONNECT_ATTEMPTS) {
+          LOG.log(Level.SEVERE, "Failed to connect mqtt sink client to {0} after {1} attempts... {2}",
+              new Object[] {brokerURI, attempt, e});
+          throw e;
         }
-        publisherSinkNumMap.replace(client, publisherSinkNumMap.get(client) + 1);
-        myTopicPublisherMap.put(topic, client);
-        this.publisherLock.unlock();
-        return client;
+        LOG.log(Level.WARNING, "Failed to connect mqtt sink client to {0}... retry in {1} ms: {2}",
+            new Object[] {brokerURI, backoff, e});
+      } finally {
+        publishers.lock.unlock();
+      }
+      try {
+        Thread.sleep(backoff);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while connecting mqtt sink client to " + brokerURI, e);
+      }
+      backoff *= 2;
+    }
+  }
+
+  /**
+   * Assign a client to the topic, or return the client that is already assigned to it.
+   * Should be called with the lock of the publishers acquired.
+   * @param publishers the publish clients of the broker
+   * @param topic the topic of the sink
+   * @return the client of the topic
+   * @throws MqttException if a new client fails to connect to the broker
+   */
+  private IMqttAsyncClient assignSinkClient(final BrokerPublishers publishers,
+                                            final String topic) throws MqttException {
+    IMqttAsyncClient client = publishers.topicClientMap.get(topic);
+    if (client == null) {
+      while (publishers.clients.size() < mqttSinkMinClientNumPerBroker) {
+        createSinkClient(publishers);
+      }
+      client = publishers.getLeastLoadedClient();
+      if (publishers.getInflightNum(client) >= maxInflightMqttEventNum / 2
+          && publishers.clients.size() < mqttSinkMaxClientNumPerBroker) {
+        // All the clients are busy
+        client = createSinkClient(publishers);
       }
+      publishers.topicClientMap.put(topic, client);
     }
+    publishers.sinkNumMap.merge(client, 1, Integer::sum);
+    return client;
   }
 
   @Override
   public void deleteMqttSinkClient(final String brokerURI,
                                    final String topic,
                                    final IMqttAsyncClient client) {
-    this.publisherLock.lock();
+    final BrokerPublishers publishers = brokerPublisherMap.get(brokerURI);
+    if (publishers == null) {
+      return;
+    }
+    publishers.lock.lock();
     try {
-      client.close();
-    } catch (MqttException e) {
-      e.printStackTrace();
+      if (publishers.sinkNumMap.remove(client) == null) {
+        // The client is already deleted by another sink
+        return;
+      }
+      try {
+        client.close();
+      } catch (final MqttException e) {
+        LOG.log(Level.WARNING, "Failed to close mqtt sink client of {0}... {1}", new Object[] {brokerURI, e});
+      }
+      publishers.clients.remove(client);
+      // The other topics of the client are assigned to other clients
+      publishers.topicClientMap.values().removeIf(client::equals);
+    } finally {
+      publishers.lock.unlock();
     }
-    final List<IMqttAsyncClient> mqttAsyncClientList = brokerPublisherMap.get(brokerURI);
-    mqttAsyncClientList.remove(client);
-    topicPublisherMap.get(brokerURI).remove(topic);
-    publisherSinkNumMap.remove(client);
-    this.publisherLock.unlock();
   }
 
   /**
-   * A helper function which creates create sink client. Should be called with publisherLock acquired.
-   * @param brokerURI broker URI
-   * @param mqttAsyncClientList the client list which broker URI belongs to
+   * A helper function which creates create sink client. Should be called with the lock of the publishers acquired.
+   * @param publishers the publish clients of the broker
    * @return newly created sink client
-   * @throws MqttException
-   * @throws IOException
+   * @throws MqttException if the client fails to connect to the broker
    */
-  private void createSinkClient(final String brokerURI, final List<IMqttAsyncClient> mqttAsyncClientList)
-      throws MqttException, IOException {
-    while (true) {
+  private IMqttAsyncClient createSinkClient(final BrokerPublishers publishers) throws MqttException {
+    final IMqttAsyncClient client = new MqttAsyncClient(publishers.brokerURI, MQTT_PUBLISHER_ID_PREFIX + taskId
+        + publishers.brokerURI + idGen.getAndIncrement());
+    final MqttConnectOptions connectOptions = new MqttConnectOptions();
+    connectOptions.setMaxInflight(maxInflightMqttEventNum);
+    connectOptions.setKeepAliveInterval(mqttSinkKeepAliveSec);
+    try {
+      client.connect(connectOptions).waitForCompletion();
+    } catch (final MqttException e) {
       try {
-        final IMqttAsyncClient client = new MqttAsyncClient(brokerURI, MQTT_PUBLISHER_ID_PREFIX + taskId
-            + brokerURI + idGen.getAndIncrement());
-        final MqttConnectOptions connectOptions = new MqttConnectOptions();
-        connectOptions.setMaxInflight(maxInflightMqttEventNum);
-        connectOptions.setKeepAliveInterval(mqttSinkKeepAliveSec);
-        client.connect(connectOptions).waitForCompletion();
-        mqttAsyncClientList.add(client);
-        publisherSinkNumMap.put(client, 0);
-        break;
-      } catch (final MqttException e) {
-        // Retry
-        LOG.log(Level.SEVERE, "Retry mqtt sink connection");
-        try {
-          Thread.sleep(1000);
-        } catch (InterruptedException e1) {
-          e1.printStackTrace();
-        }
+        client.close();
+      } catch (final MqttException closeException) {
+        LOG.log(Level.FINE, "Failed to close mqtt sink client... {0}", closeException);
       }
+      throw e;
     }
+    publishers.clients.add(client);
+    publishers.sinkNumMap.put(client, 0);
+    return client;
   }
 
   /**
@@ -267,62 +310,80 @@ public final class MQTTSharedResource implements MQTTResource {
   public MQTTDataGenerator getDataGenerator(
       final String brokerURI,
       final String topic) {
-    this.subscriberLock.lock();
     // TODO: Provide group information from QueryManager
-    final List<MQTTSubscribeClient> subscribeClientList = brokerSubscriberMap.get(brokerURI);
-    if (subscribeClientList == null) {
-      // Initialize the client list...
-      final List<MQTTSubscribeClient> newSubscribeClientList = new ArrayList<>();
-      for (int i = 0; i < this.mqttSourceClientNumPerBroker; i++) {
-        final MQTTSubscribeClient subscribeClient = new MQTTSubscribeClient(brokerURI, MQTT_SUBSCRIBER_ID_PREFIX +
-            taskId + brokerURI + "_" + i, mqttSourceKeepAliveSec);
-        subscriberSourceNumMap.put(subscribeClient, 0);
-        newSubscribeClientList.add(subscribeClient);
-      }
-      brokerSubscriberMap.put(brokerURI, newSubscribeClientList);
-      // Initialize the topic-sub map
-      final Map<String, MQTTSubscribeClient> myTopicSubscriberMap = new HashMap<>();
-      topicSubscriberMap.put(brokerURI, myTopicSubscriberMap);
-      final MQTTSubscribeClient client = newSubscribeClientList.get(0);
-      myTopicSubscriberMap.put(topic, client);
-      subscriberSourceNumMap.replace(client, subscriberSourceNumMap.get(client) + 1);
-      final MQTTDataGenerator gen = client.connectToTopic(topic);
-      this.subscriberLock.unlock();
-      return gen;
-    } else {
-      final Map<String, MQTTSubscribeClient> myTopicSubscriberMap = topicSubscriberMap.get(brokerURI);
-      if (myTopicSubscriberMap.containsKey(topic)) {
-        // This is for group-sharing.
-        final MQTTSubscribeClient client = myTopicSubscriberMap.get(topic);
-        final MQTTDataGenerator gen = client.connectToTopic(topic);
-        this.subscriberLock.unlock();
-        return gen;
-      } else {
+    final BrokerSubscribers subscribers = brokerSubscriberMap.computeIfAbsent(brokerURI, BrokerSubscribers::new);
+    subscribers.lock.lock();
+    try {
+      MQTTSubscribeClient client = subscribers.topicClientMap.get(topic);
+      if (client == null) {
         // This is a new group.
-        int minSourceNum = Integer.MAX_VALUE;
-        MQTTSubscribeClient client = null;
-        for (final MQTTSubscribeClient mqttSubcribeClient: subscribeClientList) {
-          if (minSourceNum > subscriberSourceNumMap.get(mqttSubcribeClient)) {
-            minSourceNum = subscriberSourceNumMap.get(mqttSubcribeClient);
-            client = mqttSubcribeClient;
-          }
+        while (subscribers.clients.size() < mqttSourceMinClientNumPerBroker) {
+          subscribers.createClient();
+        }
+        client = subscribers.getLeastLoadedClient();
+        if (subscribers.rateMap.getOrDefault(client, 0.0) >= mqttSourceClientMaxMessageRate
+            && subscribers.clients.size() < mqttSourceMaxClientNumPerBroker) {
+          client = subscribers.createClient();
         }
-        subscriberSourceNumMap.replace(client, subscriberSourceNumMap.get(client) + 1);
-        myTopicSubscriberMap.put(topic, client);
-        final MQTTDataGenerator gen = client.connectToTopic(topic);
-        this.subscriberLock.unlock();
-        return gen;
+        subscribers.topicClientMap.put(topic, client);
+      }
+      // If the topic exists, the client is shared for group-sharing.
+      return client.connectToTopic(topic);
+    } finally {
+      subscribers.lock.unlock();
+    }
+  }
+
+  /**
+   * Measure the message rates and rebalance the topics of the subscribe clients of all brokers.
+   * The clients removed by merging are disconnected after the lock of the broker is released,
+   * so the sources of the broker do not wait for the disconnection.
+   */
+  void rebalance() {
+    for (final BrokerSubscribers subscribers : brokerSubscriberMap.values()) {
+      MQTTSubscribeClient removedClient = null;
+      subscribers.lock.lock();
+      try {
+        removedClient = subscribers.rebalance();
+      } catch (final RuntimeException e) {
+        LOG.log(Level.SEVERE, "Failed to rebalance mqtt source clients of {0}... {1}",
+            new Object[] {subscribers.brokerURI, e});
+      } finally {
+        subscribers.lock.unlock();
+      }
+      if (removedClient != null) {
+        removedClient.disconnect();
       }
     }
   }
 
+  /**
+   * @param brokerURI the URI of broker
+   * @return the subscribe clients of the broker
+   */
+  List<MQTTSubscribeClient> getSubscribeClients(final String brokerURI) {
+    final BrokerSubscribers subscribers = brokerSubscriberMap.get(brokerURI);
+    if (subscribers == null) {
+      return Collections.emptyList();
+    }
+    subscribers.lock.lock();
+    try {
+      return new ArrayList<>(subscribers.clients);
+    } finally {
+      subscribers.lock.unlock();
+    }
+  }
+
   @Override
   public void close() throws Exception {
     // TODO: [MIST-489] Deal with close and connection problem in MQTT source
+    if (rebalancer != null) {
+      rebalancer.shutdownNow();
+    }
     brokerSubscriberMap.forEach(
-        (brokerURI, subClientList) -> subClientList.forEach(subClient -> subClient.disconnect())
+        (brokerURI, subscribers) -> subscribers.clients.forEach(subClient -> subClient.disconnect())
     );
-    brokerPublisherMap.forEach((address, mqttAsyncClientList) -> mqttAsyncClientList.forEach(MqttAsyncClient -> {
+    brokerPublisherMap.forEach((address, publishers) -> publishers.clients.forEach(MqttAsyncClient -> {
           try {
             MqttAsyncClient.disconnect();
           } catch (final Exception e) {
@@ -332,4 +393,190 @@ public final class MQTTSharedResource implements MQTTResource {
     ));
     brokerPublisherMap.clear();
   }
+
+  /**
+   * The subscribe clients of a broker, which are accessed with the lock of the broker.
+   */
+  private final class BrokerSubscribers {
+    private final String brokerURI;
+    private final Lock lock = new ReentrantLock();
+    private final List<MQTTSubscribeClient> clients = new ArrayList<>();
+
+    /**
+     * The map coupling the topics and the clients which subscribe them.
+     */
+    private final Map<String, MQTTSubscribeClient> topicClientMap = new HashMap<>();
+
+    /**
+     * The message rates of the clients and the topics measured in the latest period.
+     */
+    private final Map<MQTTSubscribeClient, Double> rateMap = new HashMap<>();
+    private final Map<String, Double> topicRateMap = new HashMap<>();
+
+    /**
+     * The number of received messages of the clients and the topics at the latest measurement.
+     */
+    private final Map<MQTTSubscribeClient, Long> lastMessageNumMap = new HashMap<>();
+    private final Map<String, Long> lastTopicMessageNumMap = new HashMap<>();
+    private long lastMeasuredTime = System.currentTimeMillis();
+
+    BrokerSubscribers(final String brokerURI) {
+      this.brokerURI = brokerURI;
+    }
+
+    MQTTSubscribeClient createClient() {
+      final MQTTSubscribeClient client = new MQTTSubscribeClient(brokerURI, MQTT_SUBSCRIBER_ID_PREFIX +
+          taskId + brokerURI + "_" + idGen.getAndIncrement(), mqttSourceKeepAliveSec,
+          mqttSourceDispatchQueueCapacity, dispatchThreadFactory);
+      clients.add(client);
+      rateMap.put(client, 0.0);
+      lastMessageNumMap.put(client, 0L);
+      return client;
+    }
+
+    MQTTSubscribeClient getLeastLoadedClient() {
+      MQTTSubscribeClient result = null;
+      double minRate = Double.MAX_VALUE;
+      for (final MQTTSubscribeClient client : clients) {
+        final double rate = rateMap.get(client);
+        if (rate < minRate) {
+          minRate = rate;
+          result = client;
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Measure the message rates and migrate topics from the most loaded client if it is overloaded.
+     * If the two least loaded clients are underloaded together, the topics of the least loaded client
+     * are merged into the other client.
+     * @return the client removed by the merge, which should be disconnected without the lock, or null
+     */
+    MQTTSubscribeClient rebalance() {
+      final long currentTime = System.currentTimeMillis();
+      final double elapsedSec = Math.max(1, currentTime - lastMeasuredTime) / 1000.0;
+      lastMeasuredTime = currentTime;
+      for (final MQTTSubscribeClient client : clients) {
+        final long messageNum = client.getReceivedMessageNum();
+        rateMap.put(client, (messageNum - lastMessageNumMap.get(client)) / elapsedSec);
+        lastMessageNumMap.put(client, messageNum);
+        for (final Map.Entry<String, Long> entry : client.getReceivedMessageNumPerTopic().entrySet()) {
+          final long lastNum = lastTopicMessageNumMap.getOrDefault(entry.getKey(), 0L);
+          topicRateMap.put(entry.getKey(), Math.max(0, entry.getValue() - lastNum) / elapsedSec);
+          lastTopicMessageNumMap.put(entry.getKey(), entry.getValue());
+        }
+      }
+
+      final List<MQTTSubscribeClient> sortedClients = new ArrayList<>(clients);
+      sortedClients.sort(Comparator.comparingDouble(rateMap::get));
+      final MQTTSubscribeClient hotClient = sortedClients.get(sortedClients.size() - 1);
+      if (rateMap.get(hotClient) > mqttSourceClientMaxMessageRate) {
+        migrateHotTopics(hotClient);
+      } else if (sortedClients.size() > mqttSourceMinClientNumPerBroker
+          && rateMap.get(sortedClients.get(0)) + rateMap.get(sortedClients.get(1))
+          < mqttSourceClientMaxMessageRate / 2) {
+        mergeClient(sortedClients.get(0), sortedClients.get(1));
+        return sortedClients.get(0);
+      }
+      return null;
+    }
+
+    /**
+     * Migrate the topics of the overloaded client to the least loaded client or a new client.
+     * A topic is migrated only if the migration reduces the imbalance of the two clients.
+     */
+    private void migrateHotTopics(final MQTTSubscribeClient hotClient) {
+      final List<String> topics = new ArrayList<>(hotClient.getTopics());
+      topics.sort(Comparator.comparingDouble((String topic) -> topicRateMap.getOrDefault(topic, 0.0)).reversed());
+      for (final String topic : topics) {
+        final double hotRate = rateMap.get(hotClient);
+        if (hotRate <= mqttSourceClientMaxMessageRate) {
+          return;
+        }
+        final double topicRate = topicRateMap.getOrDefault(topic, 0.0);
+        MQTTSubscribeClient target = getLeastLoadedClient();
+        if ((target == hotClient || rateMap.get(target) + topicRate > mqttSourceClientMaxMessageRate)
+            && clients.size() < mqttSourceMaxClientNumPerBroker) {
+          target = createClient();
+        }
+        if (target != hotClient && rateMap.get(target) + topicRate < hotRate) {
+          migrateTopic(topic, hotClient, target);
+          rateMap.put(hotClient, hotRate - topicRate);
+          rateMap.put(target, rateMap.get(target) + topicRate);
+        }
+      }
+    }
+
+    /**
+     * Migrate all the topics of the client to the target client, and remove the client from the pool.
+     * The removed client is disconnected by the caller.
+     */
+    private void mergeClient(final MQTTSubscribeClient client, final MQTTSubscribeClient target) {
+      for (final String topic : client.getTopics()) {
+        migrateTopic(topic, client, target);
+      }
+      rateMap.put(target, rateMap.get(target) + rateMap.get(client));
+      clients.remove(client);
+      rateMap.remove(client);
+      lastMessageNumMap.remove(client);
+    }
+
+    private void migrateTopic(final String topic,
+                              final MQTTSubscribeClient from,
+                              final MQTTSubscribeClient to) {
+      LOG.log(Level.FINE, "Migrate mqtt topic {0} of {1}", new Object[] {topic, brokerURI});
+      final Collection<MQTTDataGenerator> dataGenerators = from.detachTopic(topic);
+      to.attachTopic(topic, dataGenerators);
+      topicClientMap.put(topic, to);
+      // The received messages of the topic are counted from zero in the new client
+      lastTopicMessageNumMap.put(topic, 0L);
+    }
+  }
+
+  /**
+   * The publish clients of a broker, which are accessed with the lock of the broker.
+   */
+  private static final class BrokerPublishers {
+    private final String brokerURI;
+    private final Lock lock = new ReentrantLock();
+    private final List<IMqttAsyncClient> clients = new ArrayList<>();
+
+    /**
+     * The map coupling the topics and the clients which publish them.
+     */
+    private final Map<String, IMqttAsyncClient> topicClientMap = new HashMap<>();
+
+    /**
+     * The map that has the number of sinks each mqtt clients support.
+     */
+    private final Map<IMqttAsyncClient, Integer> sinkNumMap = new HashMap<>();
+
+    BrokerPublishers(final String brokerURI) {
+      this.brokerURI = brokerURI;
+    }
+
+    int getInflightNum(final IMqttAsyncClient client) {
+      return client.getPendingDeliveryTokens().length;
+    }
+
+    /**
+     * @return the client which has the fewest in-flight messages, or the fewest sinks if they are same
+     */
+    IMqttAsyncClient getLeastLoadedClient() {
+      IMqttAsyncClient result = null;
+      int minInflightNum = Integer.MAX_VALUE;
+      int minSinkNum = Integer.MAX_VALUE;
+      for (final IMqttAsyncClient client : clients) {
+        final int inflightNum = getInflightNum(client);
+        final int sinkNum = sinkNumMap.get(client);
+        if (inflightNum < minInflightNum || (inflightNum == minInflightNum && sinkNum < minSinkNum)) {
+          minInflightNum = inflightNum;
+          minSinkNum = sinkNum;
+          result = client;
+        }
+      }
+      return result;
+    }
+  }
 }
@@ -16,9 +16,12 @@
 package edu.snu.mist.core.shared;
 
 import edu.snu.mist.common.NettyMessageForwarder;
+import edu.snu.mist.common.stream.binarymessage.NettyBinaryMessageChannelInitializer;
 import edu.snu.mist.core.sources.parameters.NumNettyThreads;
+import edu.snu.mist.core.task.groupaware.eventprocessor.CpuAffinityManager;
 import edu.snu.mist.common.stream.textmessage.NettyTextMessageChannelInitializer;
 import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
@@ -50,6 +53,11 @@ public final class NettySharedResource implements AutoCloseable {
    */
   private ConcurrentMap<Channel, EventHandler<String>> channelMap;
 
+  /**
+   * Map of binary channel and handler.
+   */
+  private ConcurrentMap<Channel, EventHandler<ByteBuf>> binaryChannelMap;
+
   /**
    * An identifier factory.
    */
@@ -65,22 +73,37 @@ public final class NettySharedResource implements AutoCloseable {
    */
   private Bootstrap clientBootstrap;
 
+  /**
+   * Netty client bootstrap for length-prefixed binary messages.
+   * It shares the event loop group with the text message bootstrap.
+   */
+  private Bootstrap binaryClientBootstrap;
+
   /**
    * @param identifierFactory an identifier factory
    * @param threads the number of I/O threads
+   * @param cpuAffinityManager cpu affinity manager that pins the I/O threads
    */
   @Inject
   private NettySharedResource(
       final StringIdentifierFactory identifierFactory,
-      @Parameter(NumNettyThreads.class) final int threads) {
+      @Parameter(NumNettyThreads.class) final int threads,
+      final CpuAffinityManager cpuAffinityManager) {
     this.threads = threads;
     this.channelMap = new ConcurrentHashMap<>();
     this.clientWorkerGroup = new NioEventLoopGroup(threads,
-        new DefaultThreadFactory(CLASS_NAME + "-ClientWorker"));
+        cpuAffinityManager.newIoThreadFactory(new DefaultThreadFactory(CLASS_NAME + "-ClientWorker")));
     this.clientBootstrap = new Bootstrap();
     this.clientBootstrap.group(clientWorkerGroup)
         .channel(NioSocketChannel.class)
-        .handler(new NettyTextMessageChannelInitializer(() -> new NettyMessageForwarder(channelMap)))
+        .handler(new NettyTextMessageChannelInitializer(() -> new NettyMessageForwarder<>(channelMap)))
+        .option(ChannelOption.SO_REUSEADDR, true)
+        .option(ChannelOption.SO_KEEPALIVE, true);
+    this.binaryChannelMap = new ConcurrentHashMap<>();
+    this.binaryClientBootstrap = new Bootstrap();
+    this.binaryClientBootstrap.group(clientWorkerGroup)
+        .channel(NioSocketChannel.class)
+        .handler(new NettyBinaryMessageChannelInitializer(() -> new NettyMessageForwarder<>(binaryChannelMap)))
         .option(ChannelOption.SO_REUSEADDR, true)
         .option(ChannelOption.SO_KEEPALIVE, true);
     this.identifierFactory = identifierFactory;
@@ -94,6 +117,14 @@ public final class NettySharedResource implements AutoCloseable {
     return channelMap;
   }
 
+  public Bootstrap getBinaryClientBootstrap() {
+    return binaryClientBootstrap;
+  }
+
+  public ConcurrentMap<Channel, EventHandler<ByteBuf>> getBinaryChannelMap() {
+    return binaryChannelMap;
+  }
+
   @Override
   public void close() throws Exception {
     clientWorkerGroup.shutdownGracefully();
@@ -19,9 +19,10 @@ import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 
 /**
- * The number of maximum Mqtt Sinks per Client.
+ * The maximum number of Mqtt sink clients per broker.
+ * The clients are created when the existing clients are busy.
  */
-@NamedParameter(doc = "The number of Mqtt sink clients per broker", short_name = "num_mqtt_sink_client",
+@NamedParameter(doc = "The maximum number of Mqtt sink clients per broker", short_name = "num_mqtt_sink_client",
 default_value = "100")
 public final class MqttSinkClientNumPerBroker implements Name<Integer> {
 }
@@ -19,9 +19,10 @@ import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
 
 /**
- * The number of maximum Mqtt Sinks per Client.
+ * The maximum number of Mqtt source clients per broker.
+ * The clients are created when the existing clients are overloaded.
  */
-@NamedParameter(doc = "The number of Mqtt source clients per broker",
+@NamedParameter(doc = "The maximum number of Mqtt source clients per broker",
 short_name = "num_mqtt_source_client", default_value = "100")
 public final class MqttSourceClientNumPerBroker implements Name<Integer> {
 }
\ No newline at end of file
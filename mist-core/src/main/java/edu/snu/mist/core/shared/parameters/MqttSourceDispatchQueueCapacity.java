@@ -0,0 +1,28 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.shared.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The capacity of the queue between the mqtt source client and its dispatch thread.
+ * If it is not positive, the received messages are dispatched on the mqtt callback thread.
+ */
+@NamedParameter(doc = "The capacity of the dispatch queue of each mqtt source client",
+    short_name = "mqtt_dispatch_queue_src", default_value = "10000")
+public class MqttSourceDispatchQueueCapacity implements Name<Integer> {
+}
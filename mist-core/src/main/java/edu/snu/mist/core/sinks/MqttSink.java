@@ -16,27 +16,74 @@
 package edu.snu.mist.core.sinks;
 
 import edu.snu.mist.core.shared.MQTTResource;
+import edu.snu.mist.core.shared.parameters.MaxInflightMqttEventNum;
 import edu.snu.mist.core.sources.parameters.MQTTBrokerURI;
 import edu.snu.mist.core.sources.parameters.MQTTTopic;
 import org.apache.reef.tang.annotations.Parameter;
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
 import org.eclipse.paho.client.mqttv3.IMqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 
 /**
  * This class publishes MQTT messages to MQTT broker.
+ * The messages are published asynchronously, and at most the maximum inflight number of messages
+ * are pipelined by a sink. The messages published while the inflight window is full are kept,
+ * and they are published on a shared scheduler as the delivery callbacks of the inflight messages arrive.
+ * At most the maximum inflight number of messages are kept, and the upstream that publishes more messages
+ * is blocked until the kept messages are published, so no message is dropped while the broker is slow.
+ * If the client fails, the sink reconnects on the shared scheduler with a bounded number of attempts.
+ * If all the attempts fail, the kept messages are discarded, and the next message starts a new reconnection.
  */
-public final class MqttSink implements Sink<MqttMessage> {
+public final class MqttSink implements BufferedSink<MqttMessage> {
   private static final Logger LOG = Logger.getLogger(MqttSink.class.getName());
+
+  /**
+   * The number of the scheduler threads shared by all sinks.
+   */
+  private static final int SCHEDULER_THREAD_NUM = 2;
+
+  /**
+   * The scheduler which publishes the kept messages and reconnects the failed sink clients.
+   */
+  private static final ScheduledExecutorService SCHEDULER =
+      Executors.newScheduledThreadPool(SCHEDULER_THREAD_NUM, runnable -> {
+        final Thread thread = new Thread(runnable, "mqtt-sink-scheduler");
+        thread.setDaemon(true);
+        return thread;
+      });
+
+  /**
+   * The delay (ms) to publish the kept messages again when the shared client is full of the messages of other sinks.
+   */
+  private static final long PUBLISH_RETRY_DELAY = 10;
+
+  /**
+   * The maximum number of attempts to reconnect the failed client.
+   */
+  private static final int MAX_RECONNECT_ATTEMPTS = 5;
+
+  /**
+   * The delay (ms) before the second reconnection attempt, which is doubled for each attempt.
+   */
+  private static final long RECONNECT_INITIAL_BACKOFF = 1000;
+
   /**
    * MQTT publisher client.
    */
-  private IMqttAsyncClient mqttClient;
+  private volatile IMqttAsyncClient mqttClient;
 
   /**
    * MQTT shared resource.
@@ -52,53 +99,242 @@ public final class MqttSink implements Sink<MqttMessage> {
    */
   private final String topic;
 
+  /**
+   * The maximum number of inflight messages and kept messages of this sink.
+   */
+  private final int maxInflightNum;
+
+  /**
+   * The listener of the delivery of the published messages.
+   */
+  private final IMqttActionListener deliveryListener;
+
+  /**
+   * The number of the inflight messages published by the current client.
+   */
+  private int inflightNum;
+
+  /**
+   * The messages which are kept while the inflight window is full or the client is reconnecting.
+   */
+  private final Queue<MqttMessage> pendingMessages;
+
+  /**
+   * True if the client is reconnecting.
+   */
+  private boolean reconnecting;
+
+  /**
+   * True if the sink is closed.
+   */
+  private boolean closed;
+
+  /**
+   * The scheduled publishing of the kept messages, when no delivery callback of this sink is expected.
+   */
+  private ScheduledFuture<?> retryFuture;
+
+  /**
+   * The scheduled reconnection attempt.
+   */
+  private ScheduledFuture<?> reconnectFuture;
+
   @Inject
   public MqttSink(
       @Parameter(MQTTBrokerURI.class) final String brokerURI,
       @Parameter(MQTTTopic.class) final String topic,
+      @Parameter(MaxInflightMqttEventNum.class) final int maxInflightNum,
       final MQTTResource sharedResource) throws IOException, MqttException {
     this.brokerURI = brokerURI;
     this.topic = topic;
+    this.maxInflightNum = maxInflightNum;
     this.mqttClient = sharedResource.getMqttSinkClient(brokerURI, topic);
     this.resource = sharedResource;
+    this.deliveryListener = new DeliveryListener();
+    this.inflightNum = 0;
+    this.pendingMessages = new ArrayDeque<>();
+    this.reconnecting = false;
+    this.closed = false;
   }
 
+  /**
+   * Cancel the scheduled publishing and reconnection, and discard the kept messages.
+   * The client is owned by the mqtt resource, which closes it.
+   */
   @Override
-  public void close() throws Exception {
-    // TODO:[MIST-494] Safely close MQTT publisher client.
+  public synchronized void close() throws Exception {
+    closed = true;
+    cancel(retryFuture);
+    cancel(reconnectFuture);
+    if (!pendingMessages.isEmpty()) {
+      LOG.log(Level.WARNING, "Discarded {0} messages of topic {1} while closing the sink",
+          new Object[]{pendingMessages.size(), topic});
+      pendingMessages.clear();
+    }
+    // Release the upstream blocked by the full pending queue
+    notifyAll();
   }
 
+  @Override
+  public synchronized void handle(final MqttMessage input) {
+    // Block the upstream until the kept messages are published
+    while (!closed && pendingMessages.size() >= maxInflightNum) {
+      try {
+        wait();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    if (closed) {
+      LOG.log(Level.WARNING, "Discarded a message of topic {0} published after the sink is closed", topic);
+      return;
+    }
+    if (reconnecting || !pendingMessages.isEmpty() || !publish(input)) {
+      pendingMessages.add(input);
+      flush();
+    }
+  }
 
+  /**
+   * Publish the kept messages as long as the inflight window is available.
+   * The rest are published when the delivery callbacks of the inflight messages arrive.
+   */
   @Override
-  public void handle(final MqttMessage input) {
+  public synchronized void flush() {
+    while (!reconnecting && !closed) {
+      final MqttMessage message = pendingMessages.peek();
+      if (message == null) {
+        break;
+      }
+      if (!publish(message)) {
+        if (inflightNum == 0 && !reconnecting) {
+          // The shared client is full of the messages of other sinks, so no callback of this sink will arrive
+          scheduleRetry();
+        }
+        break;
+      }
+      pendingMessages.poll();
+    }
+    if (pendingMessages.size() < maxInflightNum) {
+      notifyAll();
+    }
+  }
+
+  /**
+   * Publish the message without waiting. Should be called with the lock of the sink acquired.
+   * @param message message
+   * @return true if the message is published, false if the inflight window is full or the client failed
+   */
+  private boolean publish(final MqttMessage message) {
+    if (inflightNum >= maxInflightNum) {
+      return false;
+    }
+    final IMqttAsyncClient client = mqttClient;
     try {
-      mqttClient.publish(topic, input);
+      // The client is the user context, so the callbacks of the failed client are ignored after reconnection
+      client.publish(topic, message, client, deliveryListener);
+      inflightNum += 1;
+      return true;
     } catch (final MqttException e) {
-      // Reconnect!
-      e.printStackTrace();
-      LOG.log(Level.SEVERE, "Reconnecting sink client of topic " + topic + ", uri: " + brokerURI);
-      resource.deleteMqttSinkClient(brokerURI, topic, mqttClient);
-      reconnect();
-      handle(input);
+      // If the client shared by other sinks has the maximum inflight messages, the message is published later
+      if (e.getReasonCode() != MqttException.REASON_CODE_MAX_INFLIGHT) {
+        LOG.log(Level.SEVERE, "Reconnecting sink client of topic " + topic + ", uri: " + brokerURI, e);
+        startReconnect(client);
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Publish the kept messages after a message of the client is delivered.
+   * @param client the client that published the message
+   */
+  private synchronized void onDelivery(final Object client) {
+    if (client != mqttClient || reconnecting) {
+      // The inflight messages of the failed client are not counted any more
+      return;
     }
+    inflightNum -= 1;
+    flush();
+  }
+
+  private void scheduleRetry() {
+    if (retryFuture == null || retryFuture.isDone()) {
+      retryFuture = SCHEDULER.schedule(this::flush, PUBLISH_RETRY_DELAY, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void cancel(final ScheduledFuture<?> future) {
+    if (future != null) {
+      future.cancel(false);
+    }
+  }
+
+  /**
+   * Reconnect mqtt sink client on the scheduler. Should be called with the lock of the sink acquired.
+   * @param failedClient the failed client
+   */
+  private void startReconnect(final IMqttAsyncClient failedClient) {
+    if (closed || reconnecting || failedClient != mqttClient) {
+      return;
+    }
+    reconnecting = true;
+    inflightNum = 0;
+    cancel(retryFuture);
+    reconnectFuture = SCHEDULER.schedule(() -> {
+      resource.deleteMqttSinkClient(brokerURI, topic, failedClient);
+      reconnect(1);
+    }, 0, TimeUnit.MILLISECONDS);
   }
 
   /**
-   * Reconnect mqtt sink client.
+   * Get a new client, and schedule the next attempt with exponential backoff if it fails.
+   * @param attempt the number of the attempt
    */
-  private void reconnect() {
+  private void reconnect(final int attempt) {
+    IMqttAsyncClient client = null;
     try {
-      mqttClient = resource.getMqttSinkClient(brokerURI, topic);
-    } catch (MqttException e) {
-      try {
-        Thread.sleep(1000);
-      } catch (InterruptedException e1) {
-        e1.printStackTrace();
+      client = resource.getMqttSinkClient(brokerURI, topic);
+    } catch (final MqttException | IOException e) {
+      LOG.log(Level.SEVERE, "Failed to reconnect sink client of topic " + topic + ", uri: " + brokerURI, e);
+    }
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      if (client != null) {
+        mqttClient = client;
+        reconnecting = false;
+        flush();
+      } else if (attempt < MAX_RECONNECT_ATTEMPTS) {
+        reconnectFuture = SCHEDULER.schedule(() -> reconnect(attempt + 1),
+            RECONNECT_INITIAL_BACKOFF << (attempt - 1), TimeUnit.MILLISECONDS);
+      } else {
+        // The next message publishes with the failed client, which starts a new reconnection
+        LOG.log(Level.SEVERE, "Gave up reconnecting sink client of topic {0} after {1} attempts, "
+            + "and discarded {2} messages", new Object[]{topic, attempt, pendingMessages.size()});
+        pendingMessages.clear();
+        reconnecting = false;
+        notifyAll();
       }
-      reconnect();
-    } catch (IOException e) {
-      e.printStackTrace();
     }
   }
-}
 
+  /**
+   * The listener which publishes the kept messages on the scheduler when a message is delivered.
+   */
+  private final class DeliveryListener implements IMqttActionListener {
+    @Override
+    public void onSuccess(final IMqttToken token) {
+      SCHEDULER.execute(() -> onDelivery(token.getUserContext()));
+    }
+
+    @Override
+    public void onFailure(final IMqttToken token, final Throwable exception) {
+      // The failure of the client is handled when the next message is published
+      LOG.log(Level.WARNING, "Failed to deliver a message of topic " + topic + ", uri: " + brokerURI, exception);
+      SCHEDULER.execute(() -> onDelivery(token.getUserContext()));
+    }
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.shared.NettySharedResource;
+import edu.snu.mist.core.sinks.parameters.SinkBatchSize;
+import edu.snu.mist.core.sinks.parameters.SinkLingerTime;
+import edu.snu.mist.core.sources.parameters.SocketServerIp;
+import edu.snu.mist.core.sources.parameters.SocketServerPort;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class sends length-prefixed binary data stream via Netty.
+ * The input buffer can be shared by other sinks, so a retained duplicate of it is written,
+ * which has its own reader index and is released by netty after writing it.
+ * If the batch size is larger than 1, the outputs are written without flushing,
+ * and flushed when the number of written outputs reaches the batch size, when the linger time passes,
+ * or at the end of the batch of the event processor.
+ */
+public final class NettyBinarySink implements BufferedSink<ByteBuf> {
+
+  /**
+   * Output emitter.
+   */
+  private OutputEmitter outputEmitter;
+
+  /**
+   * Netty channel.
+   */
+  private final Channel channel;
+
+  /**
+   * The maximum number of outputs written before flushing.
+   */
+  private final int batchSize;
+
+  /**
+   * The maximum time (ms) that written outputs wait for flushing.
+   */
+  private final long lingerTime;
+
+  /**
+   * The number of written outputs which are not flushed.
+   */
+  private final AtomicInteger unflushedNum;
+
+  public NettyBinarySink(
+      final String serverAddress,
+      final int port,
+      final NettySharedResource sharedResource,
+      final StringIdentifierFactory identifierFactory) throws IOException {
+    this(serverAddress, port, 1, 0L, sharedResource, identifierFactory);
+  }
+
+  @Inject
+  public NettyBinarySink(
+      @Parameter(SocketServerIp.class) final String serverAddress,
+      @Parameter(SocketServerPort.class) final int port,
+      @Parameter(SinkBatchSize.class) final int batchSize,
+      @Parameter(SinkLingerTime.class) final long lingerTime,
+      final NettySharedResource sharedResource,
+      final StringIdentifierFactory identifierFactory) throws IOException {
+    final Bootstrap clientBootstrap = sharedResource.getBinaryClientBootstrap();
+    final ChannelFuture channelFuture = clientBootstrap.connect(serverAddress, port);
+    channelFuture.awaitUninterruptibly();
+    assert channelFuture.isDone();
+    if (!channelFuture.isSuccess()) {
+      final StringBuilder sb = new StringBuilder("A connection failed at Sink - ");
+      sb.append(channelFuture.cause());
+      throw new RuntimeException(sb.toString());
+    }
+    this.channel = channelFuture.channel();
+    this.batchSize = batchSize;
+    this.lingerTime = lingerTime;
+    this.unflushedNum = new AtomicInteger(0);
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (channel != null) {
+      flush();
+      channel.close();
+    }
+  }
+
+  @Override
+  public void handle(final ByteBuf input) {
+    final ByteBuf output = input.duplicate().retain();
+    if (batchSize <= 1) {
+      channel.writeAndFlush(output);
+      return;
+    }
+
+    channel.write(output);
+    final int num = unflushedNum.incrementAndGet();
+    if (num >= batchSize) {
+      flush();
+    } else if (num == 1) {
+      SinkBatchFlusher.register(this);
+      if (lingerTime > 0) {
+        channel.eventLoop().schedule(this::flush, lingerTime, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  @Override
+  public void flush() {
+    if (unflushedNum.getAndSet(0) > 0) {
+      channel.flush();
+    }
+  }
+}
@@ -17,6 +17,8 @@ package edu.snu.mist.core.sinks;
 
 import edu.snu.mist.core.OutputEmitter;
 import edu.snu.mist.core.shared.NettySharedResource;
+import edu.snu.mist.core.sinks.parameters.SinkBatchSize;
+import edu.snu.mist.core.sinks.parameters.SinkLingerTime;
 import edu.snu.mist.core.sources.parameters.SocketServerIp;
 import edu.snu.mist.core.sources.parameters.SocketServerPort;
 import io.netty.bootstrap.Bootstrap;
@@ -27,11 +29,16 @@ import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class receives text data stream via Netty.
+ * If the batch size is larger than 1, the outputs are written without flushing,
+ * and flushed when the number of written outputs reaches the batch size, when the linger time passes,
+ * or at the end of the batch of the event processor.
  */
-public final class NettyTextSink implements Sink<String> {
+public final class NettyTextSink implements BufferedSink<String> {
 
   /**
    * Output emitter.
@@ -48,10 +55,35 @@ public final class NettyTextSink implements Sink<String> {
    */
   private final String newline = System.getProperty("line.separator");
 
+  /**
+   * The maximum number of outputs written before flushing.
+   */
+  private final int batchSize;
+
+  /**
+   * The maximum time (ms) that written outputs wait for flushing.
+   */
+  private final long lingerTime;
+
+  /**
+   * The number of written outputs which are not flushed.
+   */
+  private final AtomicInteger unflushedNum;
+
+  public NettyTextSink(
+      final String serverAddress,
+      final int port,
+      final NettySharedResource sharedResource,
+      final StringIdentifierFactory identifierFactory) throws IOException {
+    this(serverAddress, port, 1, 0L, sharedResource, identifierFactory);
+  }
+
   @Inject
   public NettyTextSink(
       @Parameter(SocketServerIp.class) final String serverAddress,
       @Parameter(SocketServerPort.class) final int port,
+      @Parameter(SinkBatchSize.class) final int batchSize,
+      @Parameter(SinkLingerTime.class) final long lingerTime,
       final NettySharedResource sharedResource,
       final StringIdentifierFactory identifierFactory) throws IOException {
     final Bootstrap clientBootstrap = sharedResource.getClientBootstrap();
@@ -64,24 +96,53 @@ public final class NettyTextSink implements Sink<String> {
       throw new RuntimeException(sb.toString());
     }
     this.channel = channelFuture.channel();
+    this.batchSize = batchSize;
+    this.lingerTime = lingerTime;
+    this.unflushedNum = new AtomicInteger(0);
   }
 
   @Override
   public void close() throws Exception {
     if (channel != null) {
+      flush();
       channel.close();
     }
   }
 
   @Override
   public void handle(final String input) {
-    if (input.contains(newline)) {
-      channel.writeAndFlush(input);
-    } else {
-      final StringBuilder sb = new StringBuilder();
-      sb.append(input);
-      sb.append("\n");
-      channel.writeAndFlush(sb.toString());
+    if (batchSize <= 1) {
+      if (input.contains(newline)) {
+        channel.writeAndFlush(input);
+      } else {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(input);
+        sb.append("\n");
+        channel.writeAndFlush(sb.toString());
+      }
+      return;
+    }
+
+    // The delimiter is written separately, so the input is not copied
+    channel.write(input);
+    if (!input.contains(newline)) {
+      channel.write("\n");
+    }
+    final int num = unflushedNum.incrementAndGet();
+    if (num >= batchSize) {
+      flush();
+    } else if (num == 1) {
+      SinkBatchFlusher.register(this);
+      if (lingerTime > 0) {
+        channel.eventLoop().schedule(this::flush, lingerTime, TimeUnit.MILLISECONDS);
+      }
+    }
+  }
+
+  @Override
+  public void flush() {
+    if (unflushedNum.getAndSet(0) > 0) {
+      channel.flush();
     }
   }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class flushes the buffered sinks at the end of the batches of the event processors.
+ * An event processor enables the flusher for its thread, and the buffered sinks register themselves
+ * when they buffer outputs in the thread.
+ * The buffered sinks used by other threads rely on their own thresholds.
+ */
+public final class SinkBatchFlusher {
+
+  /**
+   * The buffered sinks having outputs to be flushed in the current thread.
+   * It is null if the flusher is not enabled for the thread.
+   */
+  private static final ThreadLocal<List<BufferedSink>> PENDING_SINKS = new ThreadLocal<>();
+
+  private SinkBatchFlusher() {
+    // empty constructor
+  }
+
+  /**
+   * Enable the flusher for the current thread.
+   */
+  public static void enable() {
+    if (PENDING_SINKS.get() == null) {
+      PENDING_SINKS.set(new ArrayList<>());
+    }
+  }
+
+  /**
+   * Register the sink which has buffered outputs.
+   * @param sink buffered sink
+   * @return true if the sink will be flushed at the end of the current batch
+   */
+  public static boolean register(final BufferedSink sink) {
+    final List<BufferedSink> pendingSinks = PENDING_SINKS.get();
+    if (pendingSinks == null) {
+      return false;
+    }
+    pendingSinks.add(sink);
+    return true;
+  }
+
+  /**
+   * Flush the registered sinks of the current thread.
+   */
+  public static void flushPendingSinks() {
+    final List<BufferedSink> pendingSinks = PENDING_SINKS.get();
+    if (pendingSinks != null && !pendingSinks.isEmpty()) {
+      for (final BufferedSink sink : pendingSinks) {
+        sink.flush();
+      }
+      pendingSinks.clear();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+/**
+ * This interface represents a listener of the checkpoints emitted by an event generator.
+ */
+public interface CheckpointListener {
+
+  /**
+   * Called right before a checkpoint event is emitted.
+   * The data which are emitted before this method is called precede the checkpoint event.
+   * @return the action which is run once the states covering the checkpoint are durably stored
+   */
+  Runnable onCheckpoint();
+}
@@ -31,6 +31,29 @@ public interface EventGenerator<T> extends OutputEmittable, AutoCloseable {
    */
   void emitData(T input);
 
+  /**
+   * Receives data from a partition of the data source, such as a kafka topic partition.
+   * The event generator can track the watermarks of the partitions separately.
+   * Only the punctuated event generator does so, as the periodic watermarks are derived from the clock.
+   * @param input the mist data event passed from data source
+   * @param partition the partition of the input
+   */
+  void emitData(T input, int partition);
+
+  /**
+   * Add a listener which is called right before a checkpoint event is emitted.
+   * @param listener checkpoint listener
+   */
+  void addCheckpointListener(CheckpointListener listener);
+
+  /**
+   * Notifies that the states of the downstream operators are durably stored.
+   * The stored states cover the data whose timestamps are not later than the checkpoint timestamp,
+   * so the actions of the checkpoints which precede only such data are run.
+   * @param checkpointTimestamp the timestamp of the stored checkpoint
+   */
+  void checkpointStored(long checkpointTimestamp);
+
   /**
    * Start the event generator.
    */
@@ -20,14 +20,22 @@ import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.OutputEmitter;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
+import edu.snu.mist.core.task.CachedClock;
+import edu.snu.mist.core.task.HashedTimerWheel;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -45,6 +53,23 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
    */
   private static final Logger LOG = Logger.getLogger(EventGeneratorImpl.class.getName());
 
+  /**
+   * The function which returns the next strictly increasing timestamp.
+   */
+  private static final LongBinaryOperator NEXT_MONOTONIC_TIMESTAMP =
+      (prevTimestamp, currentTime) -> currentTime > prevTimestamp ? currentTime : prevTimestamp + 1;
+
+  /**
+   * The minimum interval between the logs of late data in milliseconds.
+   */
+  private static final long LATE_DATA_LOG_INTERVAL = 10000L;
+
+  /**
+   * The maximum number of the checkpoints waiting to be stored.
+   * The oldest one is dropped when it is exceeded, as its actions are superseded by the later ones.
+   */
+  private static final int MAX_PENDING_CHECKPOINTS = 64;
+
   /**
    * Started to receive data stream.
    */
@@ -77,26 +102,115 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
   protected final TimeUnit timeUnit;
 
   /**
-   * The scheduler for periodic watermark emission.
+   * The timer wheel for periodic watermark and checkpoint emission, which is shared by the sources.
    */
-  protected final ScheduledExecutorService scheduler;
+  protected final HashedTimerWheel timerWheel;
 
   /**
-   * The result of the checkpoint service execution.
+   * The registration of the checkpoint emission.
    */
-  protected ScheduledFuture checkpointResult;
+  protected HashedTimerWheel.Registration checkpointRegistration;
+
+  /**
+   * The clock for the ingestion timestamps.
+   */
+  protected final CachedClock clock;
+
+  /**
+   * The latest ingestion timestamp, which is used for strictly increasing timestamps.
+   */
+  private final AtomicLong latestTimestamp;
+
+  /**
+   * The listeners which are called before a checkpoint event is emitted.
+   */
+  private final List<CheckpointListener> checkpointListeners;
+
+  /**
+   * The emitted checkpoints which are not stored yet.
+   * Each of them has the maximum timestamp of the data generated before it and the actions of the listeners.
+   */
+  private final Queue<Tuple<Long, List<Runnable>>> pendingCheckpoints;
+
+  /**
+   * The maximum timestamp of the generated data, which is tracked only if there is a checkpoint listener.
+   */
+  private final AtomicLong maxEventTimestamp;
+
+  /**
+   * The number of late data discarded by this generator.
+   */
+  private final AtomicLong numLateData;
+
+  /**
+   * The number of late data when the late data was logged last time.
+   */
+  private final AtomicLong loggedNumLateData;
+
+  /**
+   * The time when the late data was logged last time.
+   */
+  private final AtomicLong lateDataLogTime;
+
+  /**
+   * The interval of the events whose latencies are sampled, or 0 if the latencies are not sampled.
+   */
+  private int latencySampleInterval;
+
+  /**
+   * The number of events until the next sampled event.
+   * It is not synchronized, because the sampling does not need to be exact.
+   */
+  private int eventsToNextSample;
 
   @Inject
   public EventGeneratorImpl(final MISTFunction<I, Tuple<V, Long>> extractTimestampFunc,
                             @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
                             final TimeUnit timeUnit,
-                            final ScheduledExecutorService scheduler) {
+                            final HashedTimerWheel timerWheel,
+                            final CachedClock clock) {
     this.extractTimestampFunc = extractTimestampFunc;
     this.started = new AtomicBoolean(false);
     this.latestWatermarkTimestamp = 0L;
     this.checkpointPeriod = checkpointPeriod;
     this.timeUnit = timeUnit;
-    this.scheduler = scheduler;
+    this.timerWheel = timerWheel;
+    this.clock = clock;
+    this.latestTimestamp = new AtomicLong(0L);
+    this.checkpointListeners = new CopyOnWriteArrayList<>();
+    this.pendingCheckpoints = new ConcurrentLinkedQueue<>();
+    this.maxEventTimestamp = new AtomicLong(0L);
+    this.numLateData = new AtomicLong(0L);
+    this.loggedNumLateData = new AtomicLong(0L);
+    this.lateDataLogTime = new AtomicLong(0L);
+    this.latencySampleInterval = 0;
+    this.eventsToNextSample = 0;
+  }
+
+  /**
+   * Set the interval of the events whose latencies are sampled.
+   * @param interval one of this number of events is sampled, or 0 to disable the sampling
+   */
+  public void setLatencySampleInterval(final int interval) {
+    this.latencySampleInterval = interval;
+    this.eventsToNextSample = interval;
+  }
+
+  /**
+   * Tracks the timestamp of the event for the checkpoint listeners,
+   * and marks the ingestion time of the event if it is sampled.
+   * @param event the generated event
+   * @return the event
+   */
+  private MistDataEvent onEventGenerated(final MistDataEvent event) {
+    if (!checkpointListeners.isEmpty()) {
+      maxEventTimestamp.accumulateAndGet(event.getTimestamp(), Math::max);
+    }
+    if (latencySampleInterval > 0 && --eventsToNextSample <= 0) {
+      eventsToNextSample = latencySampleInterval;
+      event.setLatencyMarker(System.nanoTime());
+    }
+    return event;
   }
 
   @Override
@@ -120,18 +234,54 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
    */
   protected void startRemain() {
     if (checkpointPeriod != 0) {
-      checkpointResult = scheduler.scheduleAtFixedRate(new Runnable() {
+      checkpointRegistration = timerWheel.schedule(new Runnable() {
         public void run() {
+          if (!checkpointListeners.isEmpty()) {
+            final List<Runnable> actions = new ArrayList<>(checkpointListeners.size());
+            for (final CheckpointListener listener : checkpointListeners) {
+              actions.add(listener.onCheckpoint());
+            }
+            // The timestamp is read after the listeners, so it covers all the data they have seen
+            pendingCheckpoints.add(new Tuple<>(maxEventTimestamp.get(), actions));
+            if (pendingCheckpoints.size() > MAX_PENDING_CHECKPOINTS) {
+              pendingCheckpoints.poll();
+            }
+          }
           outputEmitter.emitCheckpoint(new MistCheckpointEvent());
         }
-      }, checkpointPeriod, checkpointPeriod, timeUnit);
+      }, checkpointPeriod, timeUnit);
+    }
+  }
+
+  /**
+   * The partitions are not distinguished by default.
+   */
+  @Override
+  public void emitData(final I input, final int partition) {
+    emitData(input);
+  }
+
+  @Override
+  public void addCheckpointListener(final CheckpointListener listener) {
+    checkpointListeners.add(listener);
+  }
+
+  @Override
+  public void checkpointStored(final long checkpointTimestamp) {
+    Tuple<Long, List<Runnable>> checkpoint = pendingCheckpoints.peek();
+    while (checkpoint != null && checkpoint.getKey() <= checkpointTimestamp) {
+      pendingCheckpoints.remove(checkpoint);
+      for (final Runnable action : checkpoint.getValue()) {
+        action.run();
+      }
+      checkpoint = pendingCheckpoints.peek();
     }
   }
 
   @Override
   public void close() {
-    if (checkpointResult != null) {
-      checkpointResult.cancel(true);
+    if (checkpointRegistration != null) {
+      checkpointRegistration.cancel();
     }
   }
 
@@ -146,8 +296,9 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
     if (extractTimestampFunc == null) {
       long currentTimestamp = getCurrentTimestamp();
       if (currentTimestamp > latestWatermarkTimestamp) {
-        return new MistDataEvent(input, currentTimestamp);
+        return onEventGenerated(new MistDataEvent(input, currentTimestamp));
       } else {
+        discardLateData(input);
         return null;
       }
     } else {
@@ -157,24 +308,57 @@ public abstract class EventGeneratorImpl<I, V> implements EventGenerator<I> {
           throw new IllegalArgumentException("Timestamp extraction from input data is failed. Data is " +
                   extractionResult.getKey().toString() + ", timestamp is " + extractionResult.getValue().toString());
         }
-        return new MistDataEvent(extractionResult.getKey(), extractionResult.getValue());
+        return onEventGenerated(new MistDataEvent(extractionResult.getKey(), extractionResult.getValue()));
       } else {
-        LOG.log(Level.INFO, "Late data: The data timestamp was later than the latest watermark timestamp.");
+        discardLateData(input);
         return null;
       }
     }
   }
 
+  /**
+   * Counts the discarded late data, and releases it if it is a zero-copy buffer.
+   * The late data are logged at most once in LATE_DATA_LOG_INTERVAL,
+   * because logging each late data slows down the source when the timestamps are skewed.
+   * @param input the discarded input
+   */
+  private void discardLateData(final I input) {
+    ReferenceCountUtil.release(input);
+    final long num = numLateData.incrementAndGet();
+    final long currentTime = clock.currentTimeMillis();
+    final long logTime = lateDataLogTime.get();
+    if (currentTime - logTime >= LATE_DATA_LOG_INTERVAL && lateDataLogTime.compareAndSet(logTime, currentTime)) {
+      final long loggedNum = loggedNumLateData.getAndSet(num);
+      LOG.log(Level.INFO, "Late data: {0} data were discarded since the last log, {1} in total. "
+          + "Their timestamps were not later than the latest watermark timestamp {2}.",
+          new Object[]{num - loggedNum, num, latestWatermarkTimestamp});
+    }
+  }
+
+  /**
+   * @return the number of late data discarded by this generator
+   */
+  public long getNumLateData() {
+    return numLateData.get();
+  }
+
   @Override
   public void setOutputEmitter(final OutputEmitter emitter) {
     this.outputEmitter = emitter;
   }
 
   /**
-   * Gets current time in synchronized block.
+   * Gets the ingestion timestamp of an event without locking.
+   * If the clock is monotonic, the timestamps of this source are strictly increasing,
+   * so they can run ahead of the clock when more than one event arrives in a millisecond.
    * @return the current time
    */
-  protected synchronized long getCurrentTimestamp() {
-    return System.currentTimeMillis();
+  protected long getCurrentTimestamp() {
+    final long currentTime = clock.currentTimeMillis();
+    if (clock.isMonotonic()) {
+      return latestTimestamp.accumulateAndGet(currentTime, NEXT_MONOTONIC_TIMESTAMP);
+    } else {
+      return currentTime;
+    }
   }
 }
@@ -20,20 +20,22 @@ import edu.snu.mist.core.shared.KafkaSharedResource;
 import edu.snu.mist.core.sources.parameters.KafkaTopic;
 import edu.snu.mist.core.sources.parameters.SerializedKafkaConfig;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.apache.kafka.clients.consumer.ConsumerRecords;
-import org.apache.kafka.clients.consumer.KafkaConsumer;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This class receives data stream via Kafka.
+ * The records are fetched by kafka consumers which are shared by the sources having the same consumer configuration.
+ * The partitions of the topic can be fetched by multiple consumers in parallel,
+ * and the event generator tracks the watermarks of the partitions separately.
+ * The offsets of the emitted records are checkpointed with the checkpoint events of the event generator.
  * @param <K> the type of kafka record's key
  * @param <V> the type of kafka record's value
  */
@@ -54,30 +56,25 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
    */
   private final String topic;
 
-  /**
-   * The timeout for consumer polling represented in milliseconds.
-   */
-  private final int pollTimeout;
-
   /**
    * The KafkaConsumer configuration.
    */
   private final Map<String, Object> kafkaConsumerConf;
 
   /**
-   * The actual KafkaConsumer which subscribes the target topic.
+   * The shared kafka resource which manages the kafka consumers.
    */
-  private KafkaConsumer<K, V> consumer;
+  private final KafkaSharedResource kafkaSharedResource;
 
   /**
-   * The executor service used to restrict the number of threads for kafka sources.
+   * Event generator which is the destination of fetched data.
    */
-  private final ExecutorService executorService;
+  private EventGenerator<ConsumerRecord<K, V>> eventGenerator;
 
   /**
-   * Event generator which is the destination of fetched data.
+   * The next offsets of the partitions after the emitted records.
    */
-  private EventGenerator<ConsumerRecord<K, V>> eventGenerator;
+  private final ConcurrentMap<Integer, Long> emittedOffsets;
 
   @Inject
   private KafkaDataGenerator(
@@ -97,53 +94,54 @@ public final class KafkaDataGenerator<K, V> implements DataGenerator<ConsumerRec
     this.closed = new AtomicBoolean(false);
     this.topic = topic;
     this.kafkaConsumerConf = kafkaConsumerConf;
-    this.executorService = kafkaSharedResource.getExecutorService();
-    this.pollTimeout = kafkaSharedResource.getPollTimeout();
+    this.kafkaSharedResource = kafkaSharedResource;
+    this.emittedOffsets = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Emit the given kafka record toward the EventGenerator.
+   * This function is called by KafkaSubscribeClient when it fetches a record of the topic.
+   * @param record the record to emit
+   */
+  void emitData(final ConsumerRecord<K, V> record) {
+    if (!closed.get()) {
+      eventGenerator.emitData(record, record.partition());
+      // The offset is updated after the record is emitted, so a checkpoint never covers a record not emitted yet
+      emittedOffsets.put(record.partition(), record.offset() + 1);
+    }
   }
 
   @Override
   public void start() {
     if (started.compareAndSet(false, true)) {
       if (eventGenerator != null) {
-        try {
-          // TODO: [MIST-355] support topic having multiple partitions in kafka source
-          consumer = new KafkaConsumer<>(kafkaConsumerConf);
-          final Collection<String> topicCollection = new LinkedList<>();
-          topicCollection.add(topic);
-          consumer.subscribe(topicCollection);
-
-          executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-              try {
-                while (!closed.get()) {
-                  final ConsumerRecords<K, V> consumerRecords = consumer.poll(pollTimeout);
-                  for (final ConsumerRecord<K, V> record : consumerRecords) {
-                    eventGenerator.emitData(record);
-                  }
-                }
-              } catch (final Exception e) {
-                e.printStackTrace();
-              } finally {
-                consumer.close();
+        eventGenerator.addCheckpointListener(new CheckpointListener() {
+          @Override
+          public Runnable onCheckpoint() {
+            // The offsets are committed only after the states covering them are stored
+            final Map<Integer, Long> offsets = new HashMap<>(emittedOffsets);
+            return new Runnable() {
+              @Override
+              public void run() {
+                kafkaSharedResource.checkpointOffsets(kafkaConsumerConf, topic, KafkaDataGenerator.this, offsets);
               }
-            }
-          });
-        } catch (final Exception e) {
-          e.printStackTrace();
-          throw new RuntimeException("Failed to construct kafka consumer", e);
-        }
+            };
+          }
+        });
+        kafkaSharedResource.subscribe(kafkaConsumerConf, topic, this);
       }
     }
   }
 
   @Override
   public void close() {
-    closed.compareAndSet(false, true);
+    if (closed.compareAndSet(false, true) && started.get() && eventGenerator != null) {
+      kafkaSharedResource.unsubscribe(kafkaConsumerConf, topic, this);
+    }
   }
 
   @Override
   public void setEventGenerator(final EventGenerator eventGenerator) {
     this.eventGenerator = eventGenerator;
   }
-}
\ No newline at end of file
+}
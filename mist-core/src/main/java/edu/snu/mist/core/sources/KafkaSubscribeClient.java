@@ -0,0 +1,332 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.AuthorizationException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class represents a kafka consumer shared by the kafka sources having the same consumer configuration.
+ * It subscribes the union of the topics of the sources and sends the fetched records
+ * toward the KafkaDataGenerators of the topic.
+ * The consumer does not occupy a thread: each run polls the records once and resubmits itself to the executor,
+ * so many consumers are multiplexed on a few kafka threads.
+ * A consumer that backs off or has no topic to poll is scheduled with a delay, so it does not hold a thread.
+ * The subscription is changed in the polling thread, because KafkaConsumer is not thread-safe.
+ * If the auto commit of the consumer is disabled, the consumer commits the offsets
+ * that are covered by the latest stored checkpoints of all the data generators,
+ * so a recovered consumer of the same group starts from the checkpointed offsets.
+ * The consumer is closed if it cannot be created or its subscription and authorization are invalid,
+ * and it retries the other failed polls with an exponential backoff.
+ * @param <K> the type of kafka record's key
+ * @param <V> the type of kafka record's value
+ */
+public final class KafkaSubscribeClient<K, V> implements Runnable {
+  private static final Logger LOG = Logger.getLogger(KafkaSubscribeClient.class.getName());
+
+  /**
+   * The initial backoff after a failed poll represented in milliseconds.
+   */
+  private static final long MIN_RETRY_BACKOFF = 100L;
+
+  /**
+   * The maximum backoff after consecutive failed polls represented in milliseconds.
+   */
+  private static final long MAX_RETRY_BACKOFF = 10000L;
+
+  /**
+   * The KafkaConsumer configuration.
+   */
+  private final Map<String, Object> kafkaConsumerConf;
+
+  /**
+   * The executor service where the consumer polls the records.
+   */
+  private final ScheduledExecutorService executorService;
+
+  /**
+   * The timeout for consumer polling represented in milliseconds.
+   */
+  private final int pollTimeout;
+
+  /**
+   * The map coupling kafka topic name and the data generators of the topic.
+   */
+  private final ConcurrentMap<String, Queue<KafkaDataGenerator<K, V>>> dataGeneratorListMap;
+
+  /**
+   * A flag which represents the topics are changed after the last subscription.
+   */
+  private final AtomicBoolean subscriptionChanged;
+
+  /**
+   * A flag for start.
+   */
+  private final AtomicBoolean started;
+
+  /**
+   * A flag for close.
+   */
+  private final AtomicBoolean closed;
+
+  /**
+   * True if the offsets are committed when the data generators are checkpointed.
+   */
+  private final boolean commitOnCheckpoint;
+
+  /**
+   * The offsets of the data generators at their latest stored checkpoints.
+   */
+  private final ConcurrentMap<KafkaDataGenerator<K, V>, Map<TopicPartition, Long>> checkpointedOffsets;
+
+  /**
+   * A flag which represents the checkpointed offsets are changed after the last commit.
+   */
+  private final AtomicBoolean commitRequested;
+
+  /**
+   * The actual KafkaConsumer, which is created in the polling thread.
+   */
+  private KafkaConsumer<K, V> consumer;
+
+  /**
+   * The current backoff after the failed polls, or 0 if the last poll succeeded.
+   * It is accessed only in the polling thread.
+   */
+  private long retryBackoff;
+
+  public KafkaSubscribeClient(final Map<String, Object> kafkaConsumerConf,
+                              final ScheduledExecutorService executorService,
+                              final int pollTimeout) {
+    this.kafkaConsumerConf = kafkaConsumerConf;
+    this.executorService = executorService;
+    this.pollTimeout = pollTimeout;
+    this.dataGeneratorListMap = new ConcurrentHashMap<>();
+    this.subscriptionChanged = new AtomicBoolean(false);
+    this.started = new AtomicBoolean(false);
+    this.closed = new AtomicBoolean(false);
+    this.commitOnCheckpoint = "false".equals(String.valueOf(kafkaConsumerConf.get("enable.auto.commit")));
+    this.checkpointedOffsets = new ConcurrentHashMap<>();
+    this.commitRequested = new AtomicBoolean(false);
+    this.retryBackoff = 0L;
+  }
+
+  /**
+   * Start to send the records of the topic to the data generator.
+   * @param topic kafka topic
+   * @param dataGenerator data generator
+   */
+  public void subscribe(final String topic, final KafkaDataGenerator<K, V> dataGenerator) {
+    Queue<KafkaDataGenerator<K, V>> dataGeneratorList = dataGeneratorListMap.get(topic);
+    if (dataGeneratorList == null) {
+      dataGeneratorListMap.putIfAbsent(topic, new ConcurrentLinkedQueue<>());
+      dataGeneratorList = dataGeneratorListMap.get(topic);
+      subscriptionChanged.set(true);
+    }
+    dataGeneratorList.add(dataGenerator);
+    if (started.compareAndSet(false, true)) {
+      executorService.submit(this);
+    }
+  }
+
+  /**
+   * Stop sending the records of the topic to the data generator.
+   * @param topic kafka topic
+   * @param dataGenerator data generator
+   */
+  public void unsubscribe(final String topic, final KafkaDataGenerator<K, V> dataGenerator) {
+    final Queue<KafkaDataGenerator<K, V>> dataGeneratorList = dataGeneratorListMap.get(topic);
+    if (dataGeneratorList != null) {
+      dataGeneratorList.remove(dataGenerator);
+      if (dataGeneratorList.isEmpty()) {
+        dataGeneratorListMap.remove(topic);
+        subscriptionChanged.set(true);
+      }
+    }
+    checkpointedOffsets.remove(dataGenerator);
+  }
+
+  /**
+   * Record the offsets of the data generator at its checkpoint, after the checkpoint is durably stored.
+   * The offsets are committed in the polling thread.
+   * @param topic kafka topic
+   * @param dataGenerator data generator
+   * @param offsets the next offsets of the partitions after the emitted records
+   */
+  public void checkpointOffsets(final String topic,
+                                final KafkaDataGenerator<K, V> dataGenerator,
+                                final Map<Integer, Long> offsets) {
+    if (!commitOnCheckpoint || offsets.isEmpty()) {
+      return;
+    }
+    final Map<TopicPartition, Long> topicOffsets = new HashMap<>();
+    for (final Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+      topicOffsets.put(new TopicPartition(topic, entry.getKey()), entry.getValue());
+    }
+    checkpointedOffsets.put(dataGenerator, topicOffsets);
+    commitRequested.set(true);
+  }
+
+  /**
+   * Commit the minimum checkpointed offsets of the data generators for the partitions assigned to this consumer.
+   */
+  private void commitCheckpointedOffsets() {
+    final Set<TopicPartition> assignment = consumer.assignment();
+    final Map<TopicPartition, OffsetAndMetadata> commitOffsets = new HashMap<>();
+    for (final Map<TopicPartition, Long> offsets : checkpointedOffsets.values()) {
+      for (final Map.Entry<TopicPartition, Long> entry : offsets.entrySet()) {
+        if (assignment.contains(entry.getKey())) {
+          final OffsetAndMetadata prev = commitOffsets.get(entry.getKey());
+          if (prev == null || prev.offset() > entry.getValue()) {
+            commitOffsets.put(entry.getKey(), new OffsetAndMetadata(entry.getValue()));
+          }
+        }
+      }
+    }
+    if (!commitOffsets.isEmpty()) {
+      consumer.commitAsync(commitOffsets, null);
+    }
+  }
+
+  /**
+   * @return the number of the topics which this consumer subscribes
+   */
+  public int getTopicNum() {
+    return dataGeneratorListMap.size();
+  }
+
+  /**
+   * @param topic kafka topic
+   * @return true if this consumer subscribes the topic
+   */
+  public boolean hasTopic(final String topic) {
+    return dataGeneratorListMap.containsKey(topic);
+  }
+
+  /**
+   * Close the consumer. It is closed in the polling thread after the current poll.
+   */
+  public void close() {
+    closed.set(true);
+  }
+
+  @Override
+  public void run() {
+    if (closed.get()) {
+      closeConsumer();
+      return;
+    }
+    // The delay before the next poll
+    long delay = 0L;
+    try {
+      if (consumer == null) {
+        consumer = new KafkaConsumer<>(kafkaConsumerConf);
+      }
+      if (subscriptionChanged.getAndSet(false)) {
+        final Set<String> topics = new HashSet<>(dataGeneratorListMap.keySet());
+        if (topics.isEmpty()) {
+          consumer.unsubscribe();
+        } else {
+          consumer.subscribe(topics);
+        }
+      }
+      if (consumer.subscription().isEmpty()) {
+        // Nothing to poll until a new topic is subscribed
+        delay = pollTimeout;
+      } else {
+        final ConsumerRecords<K, V> consumerRecords = consumer.poll(pollTimeout);
+        retryBackoff = 0L;
+        for (final ConsumerRecord<K, V> record : consumerRecords) {
+          final Queue<KafkaDataGenerator<K, V>> dataGeneratorList = dataGeneratorListMap.get(record.topic());
+          if (dataGeneratorList != null) {
+            for (final KafkaDataGenerator<K, V> dataGenerator : dataGeneratorList) {
+              dataGenerator.emitData(record);
+            }
+          }
+        }
+        if (commitRequested.getAndSet(false)) {
+          commitCheckpointedOffsets();
+        }
+      }
+    } catch (final IllegalArgumentException | IllegalStateException | AuthorizationException e) {
+      LOG.log(Level.SEVERE, "Kafka consumer is closed because of the invalid subscription or authorization", e);
+      closed.set(true);
+    } catch (final KafkaException e) {
+      if (consumer == null) {
+        // The configuration is invalid, so creating the consumer again does not succeed
+        LOG.log(Level.SEVERE, "Failed to create a kafka consumer", e);
+        closed.set(true);
+      } else {
+        delay = backOff(e);
+      }
+    } catch (final Exception e) {
+      delay = backOff(e);
+    }
+
+    if (closed.get()) {
+      closeConsumer();
+    } else {
+      try {
+        if (delay > 0L) {
+          executorService.schedule(this, delay, TimeUnit.MILLISECONDS);
+        } else {
+          executorService.submit(this);
+        }
+      } catch (final RejectedExecutionException e) {
+        // The executor is shut down
+        closeConsumer();
+      }
+    }
+  }
+
+  /**
+   * Doubles the backoff up to the maximum after a failed poll.
+   * @param e the cause of the failure
+   * @return the backoff before the next poll
+   */
+  private long backOff(final Exception e) {
+    retryBackoff = retryBackoff == 0L ? MIN_RETRY_BACKOFF : Math.min(retryBackoff * 2, MAX_RETRY_BACKOFF);
+    LOG.log(Level.WARNING, "Failed to poll kafka records, retrying in " + retryBackoff + " ms", e);
+    return retryBackoff;
+  }
+
+  private void closeConsumer() {
+    if (consumer != null) {
+      consumer.close();
+      consumer = null;
+    }
+  }
+}
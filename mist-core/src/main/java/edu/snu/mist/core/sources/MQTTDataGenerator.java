@@ -43,8 +43,9 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
 
   /**
    * The MQTT client subscribing a broker.
+   * It is changed when the topic is migrated to another client.
    */
-  private final MQTTSubscribeClient subClient;
+  private volatile MQTTSubscribeClient subClient;
 
   /**
    * Event generator which is the destination of fetched data.
@@ -70,6 +71,21 @@ public final class MQTTDataGenerator implements DataGenerator<MqttMessage> {
     }
   }
 
+  /**
+   * @return true if the data generator is started
+   */
+  boolean isStarted() {
+    return started.get();
+  }
+
+  /**
+   * Set the client which subscribes the topic for this data generator.
+   * @param subscribeClient subscribe client
+   */
+  void setSubscribeClient(final MQTTSubscribeClient subscribeClient) {
+    this.subClient = subscribeClient;
+  }
+
   @Override
   public void start() {
     if (started.compareAndSet(false, true)) {
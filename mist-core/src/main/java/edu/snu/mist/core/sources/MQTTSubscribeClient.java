@@ -15,20 +15,30 @@
  */
 package edu.snu.mist.core.sources;
 
+import org.apache.reef.io.Tuple;
 import org.eclipse.paho.client.mqttv3.*;
 
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Queue;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * This class represents MQTT clients implemented with eclipse Paho.
  * It will subscribe a MQTT broker and send the received data toward appropriate DataGenerator.
+ * The DataGenerators are indexed by their topic filters in a topic trie, so the filters with wildcards
+ * receive the messages of all matching topics, and the DataGenerators with the same filter share a subscription.
+ * The received messages are handed off to a bounded queue and dispatched by a separate thread,
+ * so the Paho callback thread does not run the queries.
+ * If the queue is full, the callback thread waits until the dispatch thread takes the messages.
+ * The client counts the received messages in total and per topic filter,
+ * so that the shared resource can migrate the topic filters between clients according to the load.
  */
 public final class MQTTSubscribeClient implements MqttCallback {
   private static final Logger LOG = Logger.getLogger(MQTTSubscribeClient.class.getName());
@@ -50,9 +60,33 @@ public final class MQTTSubscribeClient implements MqttCallback {
    */
   private String clientId;
   /**
-   * The map coupling MQTT topic name and list of MQTTDataGenerators.
+   * The trie coupling MQTT topic filters and their subscriptions.
    */
-  private final ConcurrentMap<String, Queue<MQTTDataGenerator>> dataGeneratorListMap;
+  private final MQTTTopicTrie<TopicSubscription> topicTrie;
+  /**
+   * The map of topic filters and their subscriptions.
+   */
+  private final ConcurrentMap<String, TopicSubscription> subscriptionMap;
+  /**
+   * The number of received messages.
+   */
+  private final LongAdder receivedMessageNum;
+  /**
+   * The queue of the received messages and their topics, or null if the messages are dispatched directly.
+   */
+  private final BlockingQueue<Tuple<String, MqttMessage>> dispatchQueue;
+  /**
+   * The factory of the dispatch thread.
+   */
+  private final ThreadFactory dispatchThreadFactory;
+  /**
+   * The thread which dispatches the received messages to the MQTTDataGenerators.
+   */
+  private Thread dispatchThread;
+  /**
+   * A flag for close.
+   */
+  private volatile boolean closed;
   /**
    * The lock used when a DataGenerator want to start subscription.
    */
@@ -68,20 +102,36 @@ public final class MQTTSubscribeClient implements MqttCallback {
    */
   private final List<String> topics;
 
+  /**
+   * Subscribed topics, which are not subscribed again by other DataGenerators.
+   */
+  private final Set<String> subscribedTopics;
+
   /**
    * Construct a client connected with target MQTT broker.
    * @param brokerURI the URI of broker to connect
+   * @param dispatchQueueCapacity the capacity of the dispatch queue,
+   *                              or a non-positive value to dispatch messages on the callback thread
+   * @param dispatchThreadFactory the factory of the dispatch thread
    */
   public MQTTSubscribeClient(final String brokerURI,
                              final String clientId,
-                             final int mqttSourceKeepAliveSec) {
+                             final int mqttSourceKeepAliveSec,
+                             final int dispatchQueueCapacity,
+                             final ThreadFactory dispatchThreadFactory) {
     this.started = false;
+    this.closed = false;
     this.brokerURI = brokerURI;
     this.clientId = clientId;
-    this.dataGeneratorListMap = new ConcurrentHashMap<>();
+    this.topicTrie = new MQTTTopicTrie<>();
+    this.subscriptionMap = new ConcurrentHashMap<>();
+    this.receivedMessageNum = new LongAdder();
+    this.dispatchQueue = dispatchQueueCapacity > 0 ? new ArrayBlockingQueue<>(dispatchQueueCapacity) : null;
+    this.dispatchThreadFactory = dispatchThreadFactory;
     this.subscribeLock = new Object();
     this.mqttSourceKeepAliveSec = mqttSourceKeepAliveSec;
     this.topics = new LinkedList<>();
+    this.subscribedTopics = new HashSet<>();
   }
 
   /**
@@ -89,20 +139,85 @@ public final class MQTTSubscribeClient implements MqttCallback {
    * When the start() method of the DataGenerator is called, the client will start to subscribe the requested topic.
    * If a DataGenerator having topic of connected broker is requested multiple-time,
    * already constructed DataGenerator will be returned.
-   * @param topic the topic of connected broker to subscribe
+   * @param topic the topic of connected broker to subscribe, which can contain wildcards
    * @return requested MQTTDataGenerator connected with the target broker and topic
    */
   public MQTTDataGenerator connectToTopic(final String topic) {
-    Queue<MQTTDataGenerator> dataGeneratorList = dataGeneratorListMap.get(topic);
-    if (dataGeneratorList == null) {
-      dataGeneratorList = new ConcurrentLinkedQueue<>();
-      dataGeneratorListMap.putIfAbsent(topic, dataGeneratorList);
-    }
     final MQTTDataGenerator dataGenerator = new MQTTDataGenerator(this, topic);
-    dataGeneratorListMap.get(topic).add(dataGenerator);
+    getSubscription(topic).dataGenerators.add(dataGenerator);
     return dataGenerator;
   }
 
+  private TopicSubscription getSubscription(final String topic) {
+    return subscriptionMap.computeIfAbsent(topic, t -> {
+      final TopicSubscription subscription = new TopicSubscription();
+      topicTrie.add(t, subscription);
+      return subscription;
+    });
+  }
+
+  /**
+   * Detach the topic from this client, and unsubscribe it if it was subscribed.
+   * The messages of the topic that arrive after detaching are not emitted to the data generators.
+   * @param topic topic filter
+   * @return the data generators of the topic
+   */
+  public Collection<MQTTDataGenerator> detachTopic(final String topic) {
+    synchronized (subscribeLock) {
+      final TopicSubscription subscription = subscriptionMap.remove(topic);
+      if (subscription == null) {
+        return Collections.emptyList();
+      }
+      topicTrie.remove(topic, subscription);
+      unsubscribe(topic);
+      return subscription.dataGenerators;
+    }
+  }
+
+  /**
+   * Attach the data generators of the topic, which are detached from another client.
+   * The topic is subscribed if one of the data generators is started.
+   * @param topic topic filter
+   * @param dataGenerators data generators
+   */
+  public void attachTopic(final String topic, final Collection<MQTTDataGenerator> dataGenerators) {
+    boolean anyStarted = false;
+    final TopicSubscription subscription = getSubscription(topic);
+    for (final MQTTDataGenerator dataGenerator : dataGenerators) {
+      dataGenerator.setSubscribeClient(this);
+      subscription.dataGenerators.add(dataGenerator);
+      anyStarted = anyStarted || dataGenerator.isStarted();
+    }
+    if (anyStarted) {
+      subscribe(topic);
+    }
+  }
+
+  /**
+   * @return the number of received messages
+   */
+  public long getReceivedMessageNum() {
+    return receivedMessageNum.sum();
+  }
+
+  /**
+   * @return the number of received messages of each topic filter
+   */
+  public Map<String, Long> getReceivedMessageNumPerTopic() {
+    final Map<String, Long> result = new HashMap<>();
+    for (final Map.Entry<String, TopicSubscription> entry : subscriptionMap.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().receivedMessageNum.sum());
+    }
+    return result;
+  }
+
+  /**
+   * @return the topic filters of this client
+   */
+  public Set<String> getTopics() {
+    return new HashSet<>(subscriptionMap.keySet());
+  }
+
   /**
    * Connect to client.
    */
@@ -139,9 +254,14 @@ public final class MQTTSubscribeClient implements MqttCallback {
   void subscribe(final String topic) {
     synchronized (subscribeLock) {
       if (!started) {
+        startDispatchThread();
         connect();
         started = true;
       }
+      if (!subscribedTopics.add(topic)) {
+        // The topic is already subscribed by another DataGenerator
+        return;
+      }
 
       try {
         topics.add(topic);
@@ -165,6 +285,47 @@ public final class MQTTSubscribeClient implements MqttCallback {
     }
   }
 
+  /**
+   * Start the thread which dispatches the queued messages.
+   */
+  private void startDispatchThread() {
+    if (dispatchQueue == null) {
+      return;
+    }
+    dispatchThread = dispatchThreadFactory.newThread(() -> {
+      while (!closed) {
+        final Tuple<String, MqttMessage> arrival;
+        try {
+          arrival = dispatchQueue.take();
+        } catch (final InterruptedException e) {
+          return;
+        }
+        try {
+          dispatch(arrival.getKey(), arrival.getValue());
+        } catch (final RuntimeException e) {
+          LOG.log(Level.SEVERE, "Failed to dispatch a message of topic {0} in {1}... {2}",
+              new Object[] {arrival.getKey(), clientId, e});
+        }
+      }
+    });
+    dispatchThread.setName("MQTTSubscribeClient-Dispatcher-" + clientId);
+    dispatchThread.setDaemon(true);
+    dispatchThread.start();
+  }
+
+  /**
+   * Send the message to the DataGenerators whose topic filters match the topic.
+   * @param topic topic of the message
+   * @param message message
+   */
+  private void dispatch(final String topic, final MqttMessage message) {
+    receivedMessageNum.increment();
+    topicTrie.forEachMatch(topic, subscription -> {
+      subscription.receivedMessageNum.increment();
+      subscription.dataGenerators.forEach(dataGenerator -> dataGenerator.emitData(message));
+    });
+  }
+
   /**
    * Resubscribe topics.
    */
@@ -191,8 +352,20 @@ public final class MQTTSubscribeClient implements MqttCallback {
   /**
    * Unsubscribe a topic.
    */
-  void unsubscribe(final String topic) throws MqttException {
-    throw new UnsupportedOperationException("Unsubscribing is not supported now!");
+  private void unsubscribe(final String topic) {
+    synchronized (subscribeLock) {
+      if (!subscribedTopics.remove(topic)) {
+        return;
+      }
+      topics.remove(topic);
+      try {
+        client.unsubscribe(topic);
+      } catch (final MqttException e) {
+        // The broker keeps sending the messages of the topic, which are not matched anymore
+        LOG.log(Level.WARNING, "MQTT exception for unsubscribing {0}... {1}...{2}",
+            new Object[] {topic, e, clientId});
+      }
+    }
   }
 
   /**
@@ -200,6 +373,21 @@ public final class MQTTSubscribeClient implements MqttCallback {
    */
   public void disconnect() {
     // TODO: [MIST-489] Deal with close and connection problem in MQTT source
+    closed = true;
+    if (dispatchThread != null) {
+      dispatchThread.interrupt();
+    }
+    synchronized (subscribeLock) {
+      if (client != null) {
+        try {
+          client.disconnect().waitForCompletion();
+          client.close();
+        } catch (final MqttException e) {
+          LOG.log(Level.WARNING, "MQTT exception for disconnecting {0}... {1}",
+              new Object[] {clientId, e});
+        }
+      }
+    }
   }
 
   @Override
@@ -209,9 +397,14 @@ public final class MQTTSubscribeClient implements MqttCallback {
 
   @Override
   public void messageArrived(final String topic, final MqttMessage message) {
-    final Queue<MQTTDataGenerator> dataGeneratorList = dataGeneratorListMap.get(topic);
-    if (dataGeneratorList != null) {
-      dataGeneratorList.forEach(dataGenerator -> dataGenerator.emitData(message));
+    if (dispatchQueue == null) {
+      dispatch(topic, message);
+      return;
+    }
+    try {
+      dispatchQueue.put(new Tuple<>(topic, message));
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
   }
 
@@ -219,4 +412,12 @@ public final class MQTTSubscribeClient implements MqttCallback {
   public void deliveryComplete(final IMqttDeliveryToken token) {
     // do nothing because this class does not publish
   }
+
+  /**
+   * The data generators of a topic filter and the number of messages received for them.
+   */
+  private static final class TopicSubscription {
+    private final Queue<MQTTDataGenerator> dataGenerators = new ConcurrentLinkedQueue<>();
+    private final LongAdder receivedMessageNum = new LongAdder();
+  }
 }
\ No newline at end of file
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+/**
+ * A trie of MQTT topic filters, which finds the values of the filters that match a topic name.
+ * Each level of a filter is a node, and the single-level (+) and multi-level (#) wildcards are
+ * stored as children with the wildcard characters as keys, so matching a topic costs
+ * the number of levels times the number of matched wildcard branches, instead of the number of filters.
+ * As specified in MQTT, the topics that start with '$' are not matched by the filters
+ * that start with a wildcard.
+ * Filters can be added and removed concurrently with matching.
+ * @param <V> the type of the values
+ */
+public final class MQTTTopicTrie<V> {
+
+  private static final String LEVEL_SEPARATOR = "/";
+  private static final String SINGLE_LEVEL_WILDCARD = "+";
+  private static final String MULTI_LEVEL_WILDCARD = "#";
+
+  /**
+   * The root node.
+   */
+  private final Node<V> root;
+
+  public MQTTTopicTrie() {
+    this.root = new Node<>();
+  }
+
+  /**
+   * Add the value of the topic filter.
+   * @param topicFilter topic filter, which can contain wildcards
+   * @param value value
+   */
+  public void add(final String topicFilter, final V value) {
+    Node<V> node = root;
+    for (final String level : topicFilter.split(LEVEL_SEPARATOR, -1)) {
+      node = node.children.computeIfAbsent(level, key -> new Node<>());
+    }
+    node.values.add(value);
+  }
+
+  /**
+   * Remove the value of the topic filter.
+   * The nodes of the filter are kept, because they are likely to be reused by other queries.
+   * @param topicFilter topic filter
+   * @param value value
+   * @return true if the value was in the trie
+   */
+  public boolean remove(final String topicFilter, final V value) {
+    Node<V> node = root;
+    for (final String level : topicFilter.split(LEVEL_SEPARATOR, -1)) {
+      node = node.children.get(level);
+      if (node == null) {
+        return false;
+      }
+    }
+    return node.values.remove(value);
+  }
+
+  /**
+   * Apply the consumer to the values of all filters that match the topic.
+   * @param topic topic name, which does not contain wildcards
+   * @param consumer consumer of the matched values
+   */
+  public void forEachMatch(final String topic, final Consumer<V> consumer) {
+    final String[] levels = topic.split(LEVEL_SEPARATOR, -1);
+    match(root, levels, 0, !topic.startsWith("$"), consumer);
+  }
+
+  private static <V> void match(final Node<V> node,
+                                final String[] levels,
+                                final int index,
+                                final boolean matchWildcards,
+                                final Consumer<V> consumer) {
+    if (matchWildcards) {
+      // The multi-level wildcard also matches the parent level
+      final Node<V> multiLevel = node.children.get(MULTI_LEVEL_WILDCARD);
+      if (multiLevel != null) {
+        multiLevel.values.forEach(consumer);
+      }
+    }
+    if (index == levels.length) {
+      node.values.forEach(consumer);
+      return;
+    }
+    final Node<V> child = node.children.get(levels[index]);
+    if (child != null) {
+      match(child, levels, index + 1, true, consumer);
+    }
+    if (matchWildcards) {
+      final Node<V> singleLevel = node.children.get(SINGLE_LEVEL_WILDCARD);
+      if (singleLevel != null) {
+        match(singleLevel, levels, index + 1, true, consumer);
+      }
+    }
+  }
+
+  /**
+   * A level of the topic filters.
+   */
+  private static final class Node<V> {
+    private final ConcurrentMap<String, Node<V>> children = new ConcurrentHashMap<>();
+    private final Queue<V> values = new ConcurrentLinkedQueue<>();
+  }
+}
@@ -23,18 +23,24 @@ import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
 import edu.snu.mist.core.sources.parameters.PeriodicWatermarkDelay;
 import edu.snu.mist.core.sources.parameters.PeriodicWatermarkPeriod;
 import edu.snu.mist.core.sources.parameters.SerializedTimestampExtractUdf;
+import edu.snu.mist.core.task.CachedClock;
+import edu.snu.mist.core.task.HashedTimerWheel;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
  * This class represents the watermark source that emits watermark periodically.
+ * The watermarks are emitted by the timer wheel shared by the sources,
+ * and can be skipped if the source has received no data since the last watermark.
+ * The watermarks are derived from the clock rather than the timestamps of the data,
+ * so the partitions of the input are not tracked separately:
+ * the data of a partition which lags behind the others by more than the expected delay are late.
+ * Use punctuated watermarks to track the watermarks of the partitions.
  */
 public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V> {
 
@@ -51,9 +57,14 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
   private final long expectedDelay;
 
   /**
-   * The result of service execution.
+   * The registration of the watermark emission.
    */
-  private ScheduledFuture result;
+  private HashedTimerWheel.Registration registration;
+
+  /**
+   * True if the source has received data since the last watermark.
+   */
+  private volatile boolean receivedSinceWatermark;
 
   @Inject
   private PeriodicEventGenerator(
@@ -63,9 +74,10 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
       @Parameter(PeriodicWatermarkDelay.class) final long delay,
       final ClassLoader classLoader,
       final TimeUnit timeUnit,
-      final ScheduledExecutorService scheduler) throws IOException, ClassNotFoundException {
+      final HashedTimerWheel timerWheel,
+      final CachedClock clock) throws IOException, ClassNotFoundException {
     this(SerializeUtils.deserializeFromString(extractFuncObj, classLoader),
-        period, checkpointPeriod, delay, timeUnit, scheduler);
+        period, checkpointPeriod, delay, timeUnit, timerWheel, clock);
   }
 
   @Inject
@@ -73,8 +85,9 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
                                 @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
                                 @Parameter(PeriodicWatermarkDelay.class) final long expectedDelay,
                                 final TimeUnit timeUnit,
-                                final ScheduledExecutorService scheduler) {
-    this(null, period, checkpointPeriod, expectedDelay, timeUnit, scheduler);
+                                final HashedTimerWheel timerWheel,
+                                final CachedClock clock) {
+    this(null, period, checkpointPeriod, expectedDelay, timeUnit, timerWheel, clock);
   }
 
   @Inject
@@ -83,8 +96,9 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
                                 @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
                                 @Parameter(PeriodicWatermarkDelay.class) final long expectedDelay,
                                 final TimeUnit timeUnit,
-                                final ScheduledExecutorService scheduler) {
-    super(extractTimestampFunc, checkpointPeriod, timeUnit, scheduler);
+                                final HashedTimerWheel timerWheel,
+                                final CachedClock clock) {
+    super(extractTimestampFunc, checkpointPeriod, timeUnit, timerWheel, clock);
     if (period <= 0L || checkpointPeriod < 0L || expectedDelay < 0L) {
       throw new RuntimeException("The period " + period + " should be larger than 0," +
           " the checkpoint period " + checkpointPeriod + " should be larger than or equal to 0," +
@@ -96,23 +110,32 @@ public final class PeriodicEventGenerator<I, V> extends EventGeneratorImpl<I, V>
 
   @Override
   protected void startRemain() {
-    result = scheduler.scheduleAtFixedRate(new Runnable() {
+    registration = timerWheel.schedule(new HashedTimerWheel.IdleAwareTask() {
+      @Override
       public void run() {
-        latestWatermarkTimestamp = getCurrentTimestamp() - expectedDelay;
+        receivedSinceWatermark = false;
+        // The clock is read directly, so the watermark does not advance the timestamps of the events
+        latestWatermarkTimestamp = clock.currentTimeMillis() - expectedDelay;
         outputEmitter.emitWatermark(new MistWatermarkEvent(latestWatermarkTimestamp));
       }
-    }, period, period, timeUnit);
+
+      @Override
+      public boolean isIdle() {
+        return !receivedSinceWatermark;
+      }
+    }, period, timeUnit);
     super.startRemain();
   }
 
   @Override
   public void close() {
-    result.cancel(true);
+    registration.cancel();
     super.close();
   }
 
   @Override
   public void emitData(final I input) {
+    receivedSinceWatermark = true;
     MistDataEvent newInputEvent = generateEvent(input);
     if (newInputEvent != null) {
       outputEmitter.emitData(newInputEvent);
@@ -25,12 +25,16 @@ import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
 import edu.snu.mist.core.sources.parameters.SerializedTimestampExtractUdf;
 import edu.snu.mist.core.sources.parameters.SerializedTimestampParseUdf;
 import edu.snu.mist.core.sources.parameters.SerializedWatermarkPredicateUdf;
+import edu.snu.mist.core.task.CachedClock;
+import edu.snu.mist.core.task.HashedTimerWheel;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.IOException;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -50,6 +54,18 @@ public final class PunctuatedEventGenerator<I, V> extends EventGeneratorImpl<I,
    */
   private final WatermarkTimestampFunction<I> parseTimestamp;
 
+  /**
+   * The states of the partitions of the input, which are accessed with the lock of this generator acquired.
+   * A partition is tracked after its first input arrives, so the partitions without input
+   * do not hold back the watermark.
+   */
+  private final Map<Integer, PartitionState> partitionStates;
+
+  /**
+   * The time (ms) after which a silent partition is excluded from the watermark. 0 means no timeout.
+   */
+  private long partitionIdleTimeout;
+
   @Inject
   private PunctuatedEventGenerator(
       @Parameter(SerializedTimestampParseUdf.class) final String timestampParseObj,
@@ -57,10 +73,11 @@ public final class PunctuatedEventGenerator<I, V> extends EventGeneratorImpl<I,
       final ClassLoader classLoader,
       @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
       final TimeUnit timeUnit,
-      final ScheduledExecutorService scheduler) throws IOException, ClassNotFoundException {
+      final HashedTimerWheel timerWheel,
+      final CachedClock clock) throws IOException, ClassNotFoundException {
     this(SerializeUtils.deserializeFromString(isWatermarkObj, classLoader),
         SerializeUtils.deserializeFromString(timestampParseObj, classLoader),
-        checkpointPeriod, timeUnit, scheduler);
+        checkpointPeriod, timeUnit, timerWheel, clock);
   }
 
   @Inject
@@ -71,11 +88,12 @@ public final class PunctuatedEventGenerator<I, V> extends EventGeneratorImpl<I,
       final ClassLoader classLoader,
       @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
       final TimeUnit timeUnit,
-      final ScheduledExecutorService scheduler) throws IOException, ClassNotFoundException {
+      final HashedTimerWheel timerWheel,
+      final CachedClock clock) throws IOException, ClassNotFoundException {
     this((MISTFunction)SerializeUtils.deserializeFromString(timestampExtractObj, classLoader),
         (MISTPredicate)SerializeUtils.deserializeFromString(timestampParseObj, classLoader),
         (WatermarkTimestampFunction)SerializeUtils.deserializeFromString(isWatermarkObj, classLoader),
-        checkpointPeriod, timeUnit, scheduler);
+        checkpointPeriod, timeUnit, timerWheel, clock);
   }
 
   @Inject
@@ -84,9 +102,10 @@ public final class PunctuatedEventGenerator<I, V> extends EventGeneratorImpl<I,
       final WatermarkTimestampFunction<I> parseTimestamp,
       @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
       final TimeUnit timeUnit,
-      final ScheduledExecutorService scheduler) {
+      final HashedTimerWheel timerWheel,
+      final CachedClock clock) {
     this(null, isWatermark, parseTimestamp,
-        checkpointPeriod, timeUnit, scheduler);
+        checkpointPeriod, timeUnit, timerWheel, clock);
   }
 
   @Inject
@@ -96,16 +115,29 @@ public final class PunctuatedEventGenerator<I, V> extends EventGeneratorImpl<I,
       final WatermarkTimestampFunction<I> parseTimestamp,
       @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
       final TimeUnit timeUnit,
-      final ScheduledExecutorService scheduler) {
-    super(extractTimestampFunc, checkpointPeriod, timeUnit, scheduler);
+      final HashedTimerWheel timerWheel,
+      final CachedClock clock) {
+    super(extractTimestampFunc, checkpointPeriod, timeUnit, timerWheel, clock);
     this.isWatermark = isWatermark;
     this.parseTimestamp = parseTimestamp;
+    this.partitionStates = new HashMap<>();
+    this.partitionIdleTimeout = 0L;
+  }
+
+  /**
+   * Set the time after which a silent partition is excluded from the minimum watermark of the partitions.
+   * @param timeout the timeout in milliseconds, or 0 to keep the silent partitions
+   */
+  public void setPartitionIdleTimeout(final long timeout) {
+    this.partitionIdleTimeout = timeout;
   }
 
   @Override
   public void emitData(final I input) {
     if (isWatermark.test(input)) {
       latestWatermarkTimestamp = parseTimestamp.apply(input);
+      // The watermark input is not passed to the operators, so its zero-copy buffer is released here
+      ReferenceCountUtil.release(input);
       outputEmitter.emitWatermark(new MistWatermarkEvent(latestWatermarkTimestamp));
     } else {
       MistDataEvent newInputEvent = generateEvent(input);
@@ -114,4 +146,83 @@ public final class PunctuatedEventGenerator<I, V> extends EventGeneratorImpl<I,
       }
     }
   }
+
+  /**
+   * Emit the minimum watermark of the active partitions when the watermark of a partition arrives.
+   * The data and the watermarks of the partitions are checked and emitted under the same lock,
+   * so a watermark cannot be emitted between the late check of a data and its emission.
+   */
+  @Override
+  public void emitData(final I input, final int partition) {
+    if (isWatermark.test(input)) {
+      final long timestamp = parseTimestamp.apply(input);
+      // The watermark input is not passed to the operators, so its zero-copy buffer is released here
+      ReferenceCountUtil.release(input);
+      updatePartitionWatermark(partition, timestamp);
+    } else {
+      synchronized (this) {
+        activatePartition(partition, currentTime());
+        final MistDataEvent newInputEvent = generateEvent(input);
+        if (newInputEvent != null) {
+          outputEmitter.emitData(newInputEvent);
+        }
+      }
+    }
+  }
+
+  private synchronized void updatePartitionWatermark(final int partition, final long timestamp) {
+    final long now = currentTime();
+    final PartitionState state = activatePartition(partition, now);
+    state.watermark = Math.max(state.watermark, timestamp);
+    long minTimestamp = Long.MAX_VALUE;
+    for (final PartitionState partitionState : partitionStates.values()) {
+      if (!isIdle(partitionState, now)) {
+        minTimestamp = Math.min(minTimestamp, partitionState.watermark);
+      }
+    }
+    if (minTimestamp > latestWatermarkTimestamp) {
+      latestWatermarkTimestamp = minTimestamp;
+      outputEmitter.emitWatermark(new MistWatermarkEvent(latestWatermarkTimestamp));
+    }
+  }
+
+  /**
+   * Mark the partition as active. A new partition and an idle partition start from the current watermark,
+   * as the watermark may have passed them while they were not tracked.
+   * Should be called with the lock of this generator acquired.
+   * @param partition the partition
+   * @param now the current time
+   * @return the state of the partition
+   */
+  private PartitionState activatePartition(final int partition, final long now) {
+    PartitionState state = partitionStates.get(partition);
+    if (state == null) {
+      state = new PartitionState(latestWatermarkTimestamp);
+      partitionStates.put(partition, state);
+    } else if (isIdle(state, now)) {
+      state.watermark = Math.max(state.watermark, latestWatermarkTimestamp);
+    }
+    state.lastInputTime = now;
+    return state;
+  }
+
+  private boolean isIdle(final PartitionState state, final long now) {
+    return partitionIdleTimeout > 0L && now - state.lastInputTime >= partitionIdleTimeout;
+  }
+
+  private long currentTime() {
+    return partitionIdleTimeout > 0L ? clock.currentTimeMillis() : 0L;
+  }
+
+  /**
+   * The watermark and the time of the latest input of a partition.
+   */
+  private static final class PartitionState {
+    private long watermark;
+    private long lastInputTime;
+
+    PartitionState(final long watermark) {
+      this.watermark = watermark;
+    }
+  }
 }
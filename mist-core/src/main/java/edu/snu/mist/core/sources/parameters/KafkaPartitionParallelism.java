@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The number of kafka consumers which subscribe a topic together, so that the partitions of the topic
+ * are assigned to the consumers and fetched in parallel.
+ * It is bounded by the number of kafka consumers per consumer configuration.
+ */
+@NamedParameter(doc = "The number of kafka consumers that fetch the partitions of a topic in parallel",
+    short_name = "kafka_partition_parallelism", default_value = "1")
+public final class KafkaPartitionParallelism implements Name<Integer> {
+}
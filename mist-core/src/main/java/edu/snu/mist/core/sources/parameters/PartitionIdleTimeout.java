@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * A partition of a source that has no input for this time is excluded from the watermark of the source,
+ * so a silent partition does not hold back the watermark of the other partitions.
+ */
+@NamedParameter(doc = "The time (ms) after which a silent partition is excluded from the watermark. 0 disables it",
+    short_name = "partition_idle_timeout", default_value = "60000")
+public final class PartitionIdleTimeout implements Name<Long> {
+  // empty
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.core.parameters.MonotonicSourceTimestamp;
+import edu.snu.mist.core.parameters.SourceClockResolution;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A clock for the ingestion timestamps of the sources that do not extract timestamps from the inputs.
+ * If the resolution is larger than 0, the current time is cached and updated by a ticker at the resolution,
+ * so the sources read a volatile field instead of the system clock per event.
+ * The clock also tells whether the sources should assign strictly increasing timestamps.
+ */
+public final class CachedClock {
+
+  /**
+   * The resolution in milliseconds.
+   */
+  private final long resolution;
+
+  /**
+   * True if the timestamps of a source should be strictly increasing.
+   */
+  private final boolean monotonic;
+
+  /**
+   * The cached current time.
+   */
+  private volatile long cachedTime;
+
+  /**
+   * The result of the ticker execution.
+   */
+  private final ScheduledFuture tickerResult;
+
+  @Inject
+  private CachedClock(final ScheduledExecutorServiceWrapper schedulerWrapper,
+                      @Parameter(SourceClockResolution.class) final long resolution,
+                      @Parameter(MonotonicSourceTimestamp.class) final boolean monotonic) {
+    if (resolution < 0L) {
+      throw new IllegalArgumentException("The resolution " + resolution + " should be equal or larger than 0");
+    }
+    this.resolution = resolution;
+    this.monotonic = monotonic;
+    this.cachedTime = System.currentTimeMillis();
+    if (resolution > 0L) {
+      this.tickerResult = schedulerWrapper.getScheduler().scheduleAtFixedRate(
+          () -> cachedTime = System.currentTimeMillis(), resolution, resolution, TimeUnit.MILLISECONDS);
+    } else {
+      this.tickerResult = null;
+    }
+  }
+
+  /**
+   * @return the current time in milliseconds, which can be behind the system clock up to the resolution
+   */
+  public long currentTimeMillis() {
+    return resolution > 0L ? cachedTime : System.currentTimeMillis();
+  }
+
+  /**
+   * @return true if the timestamps of a source should be strictly increasing
+   */
+  public boolean isMonotonic() {
+    return monotonic;
+  }
+
+  /**
+   * Stop the ticker.
+   */
+  public void close() {
+    if (tickerResult != null) {
+      tickerResult.cancel(false);
+    }
+  }
+}
@@ -16,6 +16,8 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
 
 import java.util.Map;
 
@@ -29,11 +31,30 @@ public final class DefaultPhysicalOperatorImpl extends BasePhysicalVertex implem
    */
   private final Operator operator;
 
+  /**
+   * The latencies of the sampled events that arrive at the operator.
+   */
+  private final LatencyHistogram latencyHistogram;
+
+  /**
+   * The profile of the operator, or null if the operator is not profiled.
+   */
+  private final OperatorProfile profile;
+
   public DefaultPhysicalOperatorImpl(final String id,
                                      final Map<String, String> configuration,
                                      final Operator operator) {
+    this(id, configuration, operator, null);
+  }
+
+  public DefaultPhysicalOperatorImpl(final String id,
+                                     final Map<String, String> configuration,
+                                     final Operator operator,
+                                     final OperatorProfile profile) {
     super(id, configuration);
     this.operator = operator;
+    this.latencyHistogram = new LatencyHistogram();
+    this.profile = profile;
   }
 
   @Override
@@ -41,6 +62,16 @@ public final class DefaultPhysicalOperatorImpl extends BasePhysicalVertex implem
     return operator;
   }
 
+  @Override
+  public LatencyHistogram getLatencyHistogram() {
+    return latencyHistogram;
+  }
+
+  @Override
+  public OperatorProfile getProfile() {
+    return profile;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
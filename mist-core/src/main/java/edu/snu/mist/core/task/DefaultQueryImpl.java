@@ -16,11 +16,14 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
 
 import javax.inject.Inject;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -73,6 +76,21 @@ public final class DefaultQueryImpl implements Query {
    */
   private final AtomicReference<QueryStatus> queryStatus = new AtomicReference<>(QueryStatus.READY);
 
+  /**
+   * The replica queries of the parallel operators in this query.
+   */
+  private final List<Query> replicas = new CopyOnWriteArrayList<>();
+
+  /**
+   * The latencies of the sampled events that arrive at the sinks of this query.
+   */
+  private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+  /**
+   * The latency objective in milliseconds, or 0 if it is not set.
+   */
+  private volatile long latencySlo;
+
   @Inject
   public DefaultQueryImpl(final String identifier) {
     this.id = identifier;
@@ -137,6 +155,26 @@ public final class DefaultQueryImpl implements Query {
     return sum;
   }
 
+  @Override
+  public long getOldestEventTime() {
+    long oldestEventTime = Long.MAX_VALUE;
+    final Iterator<SourceOutputEmitter> iterator = activeSourceQueue.iterator();
+    while (iterator.hasNext()) {
+      oldestEventTime = Math.min(oldestEventTime, iterator.next().getOldestEventTime());
+    }
+    return oldestEventTime;
+  }
+
+  @Override
+  public void setLatencySlo(final long latencySlo) {
+    this.latencySlo = latencySlo;
+  }
+
+  @Override
+  public long getLatencySlo() {
+    return latencySlo;
+  }
+
   @Override
   public void setReady() {
     queryStatus.set(QueryStatus.READY);
@@ -171,4 +209,19 @@ public final class DefaultQueryImpl implements Query {
   public Group getGroup() {
     return group.get();
   }
-}
\ No newline at end of file
+
+  @Override
+  public void addReplica(final Query replica) {
+    replicas.add(replica);
+  }
+
+  @Override
+  public List<Query> getReplicas() {
+    return replicas;
+  }
+
+  @Override
+  public LatencyHistogram getLatencyHistogram() {
+    return latencyHistogram;
+  }
+}
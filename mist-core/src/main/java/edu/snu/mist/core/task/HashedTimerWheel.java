@@ -0,0 +1,247 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.core.parameters.SkipIdleSourceWatermark;
+import edu.snu.mist.core.parameters.TimerWheelTickDuration;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timer wheel which runs the periodic tasks of the sources, such as watermark and checkpoint emission.
+ * Only one task is scheduled on the scheduler, which advances the wheel every tick.
+ * The tasks having the same period are batched into a bucket, and the bucket is placed in the wheel once,
+ * so the cost of a tick is proportional to the number of the expired periods instead of the number of the tasks.
+ * The periods are rounded up to a multiple of the tick duration.
+ */
+public final class HashedTimerWheel {
+
+  private static final Logger LOG = Logger.getLogger(HashedTimerWheel.class.getName());
+
+  /**
+   * The number of slots in the wheel. It should be a power of two.
+   */
+  private static final int WHEEL_SIZE = 512;
+
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  /**
+   * The scheduler which runs the ticks.
+   */
+  private final ScheduledExecutorService scheduler;
+
+  /**
+   * The tick duration in milliseconds.
+   */
+  private final long tickDuration;
+
+  /**
+   * True if the idle tasks are skipped.
+   */
+  private final boolean skipIdleTasks;
+
+  /**
+   * The slots of the wheel. They are accessed only in the tick thread.
+   */
+  private final Queue<Bucket>[] wheel;
+
+  /**
+   * The buckets of the periods (in ticks).
+   */
+  private final ConcurrentMap<Long, Bucket> buckets;
+
+  /**
+   * The buckets which are not placed in the wheel yet.
+   */
+  private final Queue<Bucket> newBuckets;
+
+  /**
+   * The current tick, which is accessed only in the tick thread.
+   */
+  private long currentTick;
+
+  /**
+   * The result of the tick execution.
+   */
+  private ScheduledFuture tickResult;
+
+  @Inject
+  @SuppressWarnings("unchecked")
+  private HashedTimerWheel(final ScheduledExecutorServiceWrapper schedulerWrapper,
+                           @Parameter(TimerWheelTickDuration.class) final long tickDuration,
+                           @Parameter(SkipIdleSourceWatermark.class) final boolean skipIdleTasks) {
+    if (tickDuration <= 0L) {
+      throw new IllegalArgumentException("The tick duration " + tickDuration + " should be larger than 0");
+    }
+    this.scheduler = schedulerWrapper.getScheduler();
+    this.tickDuration = tickDuration;
+    this.skipIdleTasks = skipIdleTasks;
+    this.wheel = new Queue[WHEEL_SIZE];
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      wheel[i] = new ArrayDeque<>();
+    }
+    this.buckets = new ConcurrentHashMap<>();
+    this.newBuckets = new ConcurrentLinkedQueue<>();
+    this.currentTick = 0L;
+  }
+
+  /**
+   * Register a periodic task.
+   * The task runs in the tick thread, so it should not block.
+   * @param task periodic task
+   * @param period period
+   * @param timeUnit the unit of the period
+   * @return registration of the task, which is used for cancelling the task
+   */
+  public Registration schedule(final Runnable task, final long period, final TimeUnit timeUnit) {
+    if (period <= 0L) {
+      throw new IllegalArgumentException("The period " + period + " should be larger than 0");
+    }
+    final long periodTicks = Math.max(1L, (timeUnit.toMillis(period) + tickDuration - 1) / tickDuration);
+    final Bucket bucket;
+    synchronized (this) {
+      Bucket b = buckets.get(periodTicks);
+      if (b == null) {
+        b = new Bucket(periodTicks);
+        buckets.put(periodTicks, b);
+        newBuckets.add(b);
+      }
+      b.tasks.add(task);
+      bucket = b;
+      if (tickResult == null) {
+        tickResult = scheduler.scheduleAtFixedRate(this::tick, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+      }
+    }
+    return () -> bucket.tasks.remove(task);
+  }
+
+  /**
+   * Stop the wheel.
+   */
+  public synchronized void close() {
+    if (tickResult != null) {
+      tickResult.cancel(false);
+      tickResult = null;
+    }
+  }
+
+  /**
+   * Advance the wheel and run the tasks of the expired buckets.
+   */
+  private void tick() {
+    Bucket bucket;
+    while ((bucket = newBuckets.poll()) != null) {
+      bucket.deadline = currentTick + bucket.periodTicks;
+      place(bucket);
+    }
+
+    final Queue<Bucket> slot = wheel[(int) (currentTick & WHEEL_MASK)];
+    final List<Bucket> expiredBuckets = new ArrayList<>();
+    final int slotSize = slot.size();
+    for (int i = 0; i < slotSize; i++) {
+      bucket = slot.poll();
+      if (bucket.deadline <= currentTick) {
+        expiredBuckets.add(bucket);
+      } else {
+        // The bucket expires in a later round
+        slot.add(bucket);
+      }
+    }
+
+    for (final Bucket expired : expiredBuckets) {
+      runTasks(expired);
+      if (!removeIfEmpty(expired)) {
+        expired.deadline += expired.periodTicks;
+        place(expired);
+      }
+    }
+    currentTick += 1;
+  }
+
+  private void place(final Bucket bucket) {
+    wheel[(int) (bucket.deadline & WHEEL_MASK)].add(bucket);
+  }
+
+  private void runTasks(final Bucket bucket) {
+    for (final Runnable task : bucket.tasks) {
+      if (skipIdleTasks && task instanceof IdleAwareTask && ((IdleAwareTask) task).isIdle()) {
+        continue;
+      }
+      try {
+        task.run();
+      } catch (final RuntimeException e) {
+        // A failed task should not stop the other tasks
+        LOG.log(Level.WARNING, "Periodic task failed", e);
+      }
+    }
+  }
+
+  private synchronized boolean removeIfEmpty(final Bucket bucket) {
+    if (bucket.tasks.isEmpty()) {
+      buckets.remove(bucket.periodTicks);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * The tasks having the same period.
+   */
+  private static final class Bucket {
+    private final long periodTicks;
+    private final Set<Runnable> tasks;
+    private long deadline;
+
+    Bucket(final long periodTicks) {
+      this.periodTicks = periodTicks;
+      this.tasks = ConcurrentHashMap.newKeySet();
+    }
+  }
+
+  /**
+   * The registration of a periodic task.
+   */
+  public interface Registration {
+    /**
+     * Cancel the task.
+     */
+    void cancel();
+  }
+
+  /**
+   * A periodic task which can be skipped when it is idle.
+   */
+  public interface IdleAwareTask extends Runnable {
+    /**
+     * @return true if the task has nothing to do in this period
+     */
+    boolean isIdle();
+  }
+}
@@ -21,6 +21,8 @@ import edu.snu.mist.core.parameters.TaskId;
 import edu.snu.mist.core.parameters.TaskToMasterPort;
 import edu.snu.mist.core.rpc.AvroUtils;
 import edu.snu.mist.core.task.checkpointing.CheckpointManager;
+import edu.snu.mist.core.task.metrics.LatencyMonitor;
+import edu.snu.mist.core.task.metrics.OperatorProfiler;
 import edu.snu.mist.formats.avro.ClientToTaskMessage;
 import edu.snu.mist.formats.avro.MasterToTaskMessage;
 import edu.snu.mist.formats.avro.TaskInfo;
@@ -59,6 +61,16 @@ public final class MistTask implements Task {
   private final QueryManager queryManager;
   private final CheckpointManager checkpointManager;
 
+  /**
+   * The monitor that exposes the latencies of the sampled events via JMX.
+   */
+  private final LatencyMonitor latencyMonitor;
+
+  /**
+   * The profiler that periodically merges the operator profiles if the operator profiling is enabled.
+   */
+  private final OperatorProfiler operatorProfiler;
+
   /**
    * The avro server for master-to-task communication.
    */
@@ -82,7 +94,10 @@ public final class MistTask implements Task {
                    @Parameter(TaskToMasterPort.class) final int taskToMasterPort,
                    final MasterToTaskMessage masterToTaskMessage,
                    final ClientToTaskMessage clientToTaskMessage,
-                   final TcpPortProvider tcpPortProvider) throws InjectionException, IOException, InterruptedException {
+                   final TcpPortProvider tcpPortProvider,
+                   final LatencyMonitor latencyMonitor,
+                   final OperatorProfiler operatorProfiler)
+      throws InjectionException, IOException, InterruptedException {
     this.countDownLatch = new CountDownLatch(1);
     this.queryManager = queryManager;
 
@@ -104,6 +119,10 @@ public final class MistTask implements Task {
     t.start();
     t.join();
     this.checkpointManager = checkpointManager;
+    this.latencyMonitor = latencyMonitor;
+    latencyMonitor.register();
+    this.operatorProfiler = operatorProfiler;
+    operatorProfiler.start();
   }
 
   @Override
@@ -113,6 +132,8 @@ public final class MistTask implements Task {
     masterToTaskServer.close();
     clientToTaskServer.close();
     queryManager.close();
+    latencyMonitor.close();
+    operatorProfiler.close();
     return new byte[0];
   }
 
@@ -19,9 +19,16 @@ import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.MultiStreamOperator;
+import edu.snu.mist.core.operators.Operator;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
 import edu.snu.mist.formats.avro.Direction;
+import io.netty.util.ReferenceCountUtil;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
@@ -53,6 +60,22 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
    */
   private final Query query;
 
+  /**
+   * The time when the queue became non-empty, which approximates the enqueue time of the oldest event.
+   * The events are not stamped one by one, so the emitter reads the clock once for a burst of events.
+   */
+  private volatile long nonEmptyTime;
+
+  /**
+   * The index of the next operators, or null if few next operators are indexable filters.
+   * A new emitter is created when new operators are merged, so the index is built once for the operators.
+   */
+  private final PredicateIndex predicateIndex;
+
+  /**
+   * The buffer of the operators matched with a data event, which is reused across events.
+   */
+  private final List<Map.Entry<ExecutionVertex, MISTEdge>> matchedOperators;
 
   public NonBlockingQueueSourceOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
                                              final Query query) {
@@ -60,47 +83,93 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
     this.nextOperators = nextOperators;
     this.query = query;
     this.numEvents = new AtomicInteger();
+    this.predicateIndex = PredicateIndex.shouldIndex(nextOperators) ? new PredicateIndex(nextOperators) : null;
+    this.matchedOperators = new ArrayList<>();
   }
 
   @Override
   public int processAllEvent() {
     int numProcessedEvent = 0;
+    final Group group = query.getGroup();
+    if (group != null && numEvents.get() > 0) {
+      // The queueing delay is sampled once per batch with the oldest event
+      group.getQueueingDelayHistogram().recordSince(nonEmptyTime);
+    }
     MistEvent event = queue.poll();
     while (event != null) {
       numEvents.decrementAndGet();
 
-      for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
-        process(event, entry.getValue().getDirection(), (PhysicalOperator)entry.getKey());
+      // The operators can replace the value of the event, so the received value is kept to release it
+      final Object value = event.isData() ? ((MistDataEvent) event).getValue() : null;
+      if (predicateIndex != null && event.isData()) {
+        // Only the filters whose condition can be satisfied by the event test it
+        predicateIndex.collect(value, matchedOperators);
+        for (final Map.Entry<ExecutionVertex, MISTEdge> entry : matchedOperators) {
+          process(event, entry.getValue(), (PhysicalOperator)entry.getKey());
+        }
+        matchedOperators.clear();
+      } else {
+        for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
+          process(event, entry.getValue(), (PhysicalOperator)entry.getKey());
+        }
       }
+      // The zero-copy buffer is released after it is processed by all next operators,
+      // and the operators and sinks that keep it have their own copies or references
+      ReferenceCountUtil.release(value);
       numProcessedEvent += 1;
       event = queue.poll();
     }
     return numProcessedEvent;
   }
 
+  @Override
+  public long getOldestEventTime() {
+    return numEvents.get() == 0 ? Long.MAX_VALUE : nonEmptyTime;
+  }
+
   private void process(final MistEvent event,
-                       final Direction direction,
-                       final PhysicalOperator operator) {
+                       final MISTEdge edge,
+                       final PhysicalOperator physicalOperator) {
     try {
-      if (event.isData()) {
-        if (direction == Direction.LEFT) {
-          operator.getOperator().processLeftData((MistDataEvent) event);
+      if (event.isData() && ((MistDataEvent) event).hasLatencyMarker()) {
+        physicalOperator.getLatencyHistogram().recordSince(((MistDataEvent) event).getLatencyMarker());
+      }
+      final OperatorProfile profile = event.isData() ? physicalOperator.getProfile() : null;
+      final long profileToken = profile == null ? 0L : profile.begin();
+      final Operator operator = physicalOperator.getOperator();
+      if (operator instanceof MultiStreamOperator) {
+        final MultiStreamOperator multiStreamOperator = (MultiStreamOperator) operator;
+        if (event.isData()) {
+          multiStreamOperator.processData(edge.getIndex(),
+              OperatorOutputEmitter.toOperatorInput((MistDataEvent) event, operator));
+        } else if (event.isCheckpoint()) {
+          multiStreamOperator.processCheckpoint(edge.getIndex(), (MistCheckpointEvent) event);
+        } else {
+          multiStreamOperator.processWatermark(edge.getIndex(), (MistWatermarkEvent) event);
+        }
+      } else if (event.isData()) {
+        final MistDataEvent input = OperatorOutputEmitter.toOperatorInput((MistDataEvent) event, operator);
+        if (edge.getDirection() == Direction.LEFT) {
+          operator.processLeftData(input);
         } else {
-          operator.getOperator().processRightData((MistDataEvent) event);
+          operator.processRightData(input);
         }
       } else if (event.isCheckpoint()) {
-        if (direction == Direction.LEFT) {
-          operator.getOperator().processLeftCheckpoint((MistCheckpointEvent) event);
+        if (edge.getDirection() == Direction.LEFT) {
+          operator.processLeftCheckpoint((MistCheckpointEvent) event);
         } else {
-          operator.getOperator().processRightCheckpoint((MistCheckpointEvent) event);
+          operator.processRightCheckpoint((MistCheckpointEvent) event);
         }
       } else  {
-        if (direction == Direction.LEFT) {
-          operator.getOperator().processLeftWatermark((MistWatermarkEvent) event);
+        if (edge.getDirection() == Direction.LEFT) {
+          operator.processLeftWatermark((MistWatermarkEvent) event);
         } else {
-          operator.getOperator().processRightWatermark((MistWatermarkEvent) event);
+          operator.processRightWatermark((MistWatermarkEvent) event);
         }
       }
+      if (profile != null) {
+        profile.end(profileToken);
+      }
     } catch (final NullPointerException e) {
       throw new RuntimeException(e);
     }
@@ -124,6 +193,7 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
       queue.add(data);
       final int n = numEvents.getAndIncrement();
       if (n == 0) {
+        nonEmptyTime = System.nanoTime();
         query.insert(this);
       }
     } catch (final Exception e) {
@@ -140,6 +210,7 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
       final int n = numEvents.getAndIncrement();
 
       if (n == 0) {
+        nonEmptyTime = System.nanoTime();
         query.insert(this);
       }
     } catch (final Exception e) {
@@ -154,6 +225,7 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
       final int n = numEvents.getAndIncrement();
 
       if (n == 0) {
+        nonEmptyTime = System.nanoTime();
         query.insert(this);
       }
     } catch (final Exception e) {
@@ -168,10 +240,11 @@ public final class NonBlockingQueueSourceOutputEmitter<I> implements SourceOutpu
       final int n = numEvents.getAndIncrement();
 
       if (n == 0) {
+        nonEmptyTime = System.nanoTime();
         query.insert(this);
       }
     } catch (final Exception e) {
       throw new RuntimeException(e);
     }
   }
-}
\ No newline at end of file
+}
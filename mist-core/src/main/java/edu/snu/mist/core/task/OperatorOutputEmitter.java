@@ -19,8 +19,14 @@ import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.operators.MultiStreamOperator;
+import edu.snu.mist.core.operators.NonBufferingOperator;
+import edu.snu.mist.core.operators.Operator;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
 import edu.snu.mist.formats.avro.Direction;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
 import java.util.Map;
 
@@ -34,31 +40,59 @@ public final class OperatorOutputEmitter implements OutputEmitter {
    */
   private final Map<ExecutionVertex, MISTEdge> nextOperators;
 
+  /**
+   * The profile of the operator that emits the outputs, or null if the operator is not profiled.
+   */
+  private final OperatorProfile profile;
+
   public OperatorOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators) {
+    this(nextOperators, null);
+  }
+
+  public OperatorOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                               final OperatorProfile profile) {
     this.nextOperators = nextOperators;
+    this.profile = profile;
   }
 
   /**
    * Send data events to the next operator chain if the next vertex is an operator chain,
    * otherwise send the events to the sink.
    * @param output data output
-   * @param direction direction of upstream
+   * @param edge edge to the next vertex
    * @param nextVertex next vertex (operator chain or sink)
    */
-  private void sendData(final MistDataEvent output,
-                        final Direction direction,
-                        final ExecutionVertex nextVertex) {
+  static void sendData(final MistDataEvent output,
+                       final MISTEdge edge,
+                       final ExecutionVertex nextVertex) {
     switch (nextVertex.getType()) {
       case OPERATOR: {
-        if (direction == Direction.LEFT) {
-          ((PhysicalOperator) nextVertex).getOperator().processLeftData(output);
+        final PhysicalOperator physicalOperator = (PhysicalOperator) nextVertex;
+        if (output.hasLatencyMarker()) {
+          physicalOperator.getLatencyHistogram().recordSince(output.getLatencyMarker());
+        }
+        final OperatorProfile profile = physicalOperator.getProfile();
+        final long profileToken = profile == null ? 0L : profile.begin();
+        final Operator operator = physicalOperator.getOperator();
+        final MistDataEvent input = toOperatorInput(output, operator);
+        if (operator instanceof MultiStreamOperator) {
+          ((MultiStreamOperator) operator).processData(edge.getIndex(), input);
+        } else if (edge.getDirection() == Direction.LEFT) {
+          operator.processLeftData(input);
         } else {
-          ((PhysicalOperator) nextVertex).getOperator().processRightData(output);
+          operator.processRightData(input);
+        }
+        if (profile != null) {
+          profile.end(profileToken);
         }
         break;
       }
       case SINK: {
-        ((PhysicalSink)nextVertex).getSink().handle(output.getValue());
+        final PhysicalSink physicalSink = (PhysicalSink) nextVertex;
+        if (output.hasLatencyMarker()) {
+          physicalSink.getLatencyHistogram().recordSince(output.getLatencyMarker());
+        }
+        physicalSink.getSink().handle(output.getValue());
         break;
       }
       default:
@@ -66,21 +100,40 @@ public final class OperatorOutputEmitter implements OutputEmitter {
     }
   }
 
+  /**
+   * Get the data which is passed to the operator.
+   * The zero-copy buffers of the binary sources are released after the source event is processed,
+   * so the operators which may keep their inputs get heap copies of the buffers.
+   * @param data data event
+   * @param operator the operator which processes the data
+   * @return the data event itself, or a new event with the copied buffer
+   */
+  static MistDataEvent toOperatorInput(final MistDataEvent data, final Operator operator) {
+    if (!(data.getValue() instanceof ByteBuf) || operator instanceof NonBufferingOperator) {
+      return data;
+    }
+    return new MistDataEvent(Unpooled.copiedBuffer((ByteBuf) data.getValue()),
+        data.getTimestamp(), data.getLatencyMarker());
+  }
+
   /**
    * Send watermarks to the next operator chain if the next vertex is an operator chain.
    * @param watermark watermark
-   * @param direction direction of upstream
+   * @param edge edge to the next vertex
    * @param nextVertex next vertex (operator chain or sink)
    */
   private void sendWatermark(final MistWatermarkEvent watermark,
-                             final Direction direction,
+                             final MISTEdge edge,
                              final ExecutionVertex nextVertex) {
     switch (nextVertex.getType()) {
       case OPERATOR: {
-        if (direction == Direction.LEFT) {
-          ((PhysicalOperator) nextVertex).getOperator().processLeftWatermark(watermark);
+        final Operator operator = ((PhysicalOperator) nextVertex).getOperator();
+        if (operator instanceof MultiStreamOperator) {
+          ((MultiStreamOperator) operator).processWatermark(edge.getIndex(), watermark);
+        } else if (edge.getDirection() == Direction.LEFT) {
+          operator.processLeftWatermark(watermark);
         } else {
-          ((PhysicalOperator) nextVertex).getOperator().processRightWatermark(watermark);
+          operator.processRightWatermark(watermark);
         }
         break;
       }
@@ -96,18 +149,21 @@ public final class OperatorOutputEmitter implements OutputEmitter {
   /**
    * Send checkpoints to the next operator chain if the next vertex is an operator chain.
    * @param checkpoint checkpoint
-   * @param direction direction of upstream
+   * @param edge edge to the next vertex
    * @param nextVertex next vertex (operator chain or sink)
    */
   private void sendCheckpoint(final MistCheckpointEvent checkpoint,
-                              final Direction direction,
+                              final MISTEdge edge,
                               final ExecutionVertex nextVertex) {
     switch (nextVertex.getType()) {
       case OPERATOR: {
-        if (direction == Direction.LEFT) {
-          ((PhysicalOperator) nextVertex).getOperator().processLeftCheckpoint(checkpoint);
+        final Operator operator = ((PhysicalOperator) nextVertex).getOperator();
+        if (operator instanceof MultiStreamOperator) {
+          ((MultiStreamOperator) operator).processCheckpoint(edge.getIndex(), checkpoint);
+        } else if (edge.getDirection() == Direction.LEFT) {
+          operator.processLeftCheckpoint(checkpoint);
         } else {
-          ((PhysicalOperator) nextVertex).getOperator().processRightCheckpoint(checkpoint);
+          operator.processRightCheckpoint(checkpoint);
         }
         break;
       }
@@ -130,25 +186,30 @@ public final class OperatorOutputEmitter implements OutputEmitter {
    */
   @Override
   public void emitData(final MistDataEvent output) {
+    if (profile != null) {
+      profile.recordOutput();
+    }
     // Optimization: do not create new MistEvent and reuse it if it has one downstream operator chain.
     if (nextOperators.size() == 1) {
       for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
           nextOperators.entrySet()) {
-        final Direction direction = nextChain.getValue().getDirection();
-        sendData(output, direction, nextChain.getKey());
+        sendData(output, nextChain.getValue(), nextChain.getKey());
       }
     } else {
       for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
           nextOperators.entrySet()) {
-        final MistDataEvent event = new MistDataEvent(output.getValue(), output.getTimestamp());
-        final Direction direction = nextChain.getValue().getDirection();
-        sendData(event, direction, nextChain.getKey());
+        final MistDataEvent event =
+            new MistDataEvent(output.getValue(), output.getTimestamp(), output.getLatencyMarker());
+        sendData(event, nextChain.getValue(), nextChain.getKey());
       }
     }
   }
 
   @Override
   public void emitData(final MistDataEvent output, final int index) {
+    if (profile != null) {
+      profile.recordOutput();
+    }
     // Optimization: do not create new MistEvent and reuse it if it has one downstream operator chain.
     if (nextOperators.size() == 1) {
       for (final Map.Entry<ExecutionVertex, MISTEdge> nextChain :
@@ -157,7 +218,7 @@ public final class OperatorOutputEmitter implements OutputEmitter {
         final int edgeIndex = edge.getIndex();
         if (edgeIndex == index) {
           // send the data only if the index of this edge is equal to the target index
-          sendData(output, edge.getDirection(), nextChain.getKey());
+          sendData(output, edge, nextChain.getKey());
         }
       }
     } else {
@@ -167,8 +228,9 @@ public final class OperatorOutputEmitter implements OutputEmitter {
         final int edgeIndex = edge.getIndex();
         if (edgeIndex == index) {
           // send the data only if the index of this edge is equal to the target index
-          final MistDataEvent event = new MistDataEvent(output.getValue(), output.getTimestamp());
-          sendData(event, edge.getDirection(), nextChain.getKey());
+          final MistDataEvent event =
+              new MistDataEvent(output.getValue(), output.getTimestamp(), output.getLatencyMarker());
+          sendData(event, edge, nextChain.getKey());
         }
       }
     }
@@ -179,8 +241,7 @@ public final class OperatorOutputEmitter implements OutputEmitter {
     // Watermark is not changed, so we just forward watermark to next operator chains.
     for (final Map.Entry<ExecutionVertex, MISTEdge> nextQuery :
         nextOperators.entrySet()) {
-      final Direction direction = nextQuery.getValue().getDirection();
-      sendWatermark(output, direction, nextQuery.getKey());
+      sendWatermark(output, nextQuery.getValue(), nextQuery.getKey());
     }
   }
 
@@ -189,8 +250,7 @@ public final class OperatorOutputEmitter implements OutputEmitter {
     // Checkpoint is not changed, so we just forward it to the next operator chains.
     for (final Map.Entry<ExecutionVertex, MISTEdge> nextQuery :
         nextOperators.entrySet()) {
-      final Direction direction = nextQuery.getValue().getDirection();
-      sendCheckpoint(checkpoint, direction, nextQuery.getKey());
+      sendCheckpoint(checkpoint, nextQuery.getValue(), nextQuery.getKey());
     }
   }
 }
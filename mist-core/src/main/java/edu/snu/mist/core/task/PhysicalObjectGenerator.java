@@ -24,15 +24,22 @@ import edu.snu.mist.common.functions.MISTFunction;
 import edu.snu.mist.common.functions.MISTPredicate;
 import edu.snu.mist.common.functions.WatermarkTimestampFunction;
 import edu.snu.mist.core.operators.*;
+import edu.snu.mist.core.sources.parameters.PartitionIdleTimeout;
 import edu.snu.mist.core.sources.parameters.PeriodicCheckpointPeriod;
 import edu.snu.mist.core.operators.window.*;
 import edu.snu.mist.core.shared.KafkaSharedResource;
 import edu.snu.mist.core.shared.MQTTResource;
 import edu.snu.mist.core.shared.NettySharedResource;
 import edu.snu.mist.core.sinks.MqttSink;
+import edu.snu.mist.core.sinks.NettyBinarySink;
 import edu.snu.mist.core.sinks.NettyTextSink;
 import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.sinks.parameters.SinkBatchSize;
+import edu.snu.mist.core.sinks.parameters.SinkLingerTime;
+import edu.snu.mist.core.shared.parameters.MaxInflightMqttEventNum;
 import edu.snu.mist.core.sources.*;
+import edu.snu.mist.core.task.parallel.ParallelOperator;
+import edu.snu.mist.core.task.metrics.parameters.LatencySampleInterval;
 import edu.snu.mist.common.types.Tuple2;
 import org.apache.reef.io.network.util.StringIdentifierFactory;
 import org.apache.reef.tang.annotations.Parameter;
@@ -40,11 +47,12 @@ import org.eclipse.paho.client.mqttv3.MqttException;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -54,9 +62,14 @@ import java.util.concurrent.TimeUnit;
 public final class PhysicalObjectGenerator implements AutoCloseable {
 
   /**
-   * Scheduled executor for event generators.
+   * Timer wheel for the periodic events of event generators.
    */
-  private final ScheduledExecutorService scheduler;
+  private final HashedTimerWheel timerWheel;
+
+  /**
+   * Clock for the ingestion timestamps of event generators.
+   */
+  private final CachedClock clock;
 
   /**
    * Time unit for watermarks.
@@ -83,24 +96,57 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
    */
   private final long checkpointPeriod;
 
+  /**
+   * The batch size and the linger time of netty sinks.
+   */
+  private final int sinkBatchSize;
+  private final long sinkLingerTime;
+
+  /**
+   * The maximum number of inflight messages of mqtt sinks.
+   */
+  private final int maxInflightMqttEventNum;
+
   /**
    * Identifier factory.
    */
   private final StringIdentifierFactory identifierFactory;
 
+  /**
+   * The interval of the events whose latencies are sampled by the sources.
+   */
+  private final int latencySampleInterval;
+
+  /**
+   * The time after which a silent partition is excluded from the watermark of a source.
+   */
+  private final long partitionIdleTimeout;
+
   @Inject
-  private PhysicalObjectGenerator(final ScheduledExecutorServiceWrapper schedulerWrapper,
+  private PhysicalObjectGenerator(final HashedTimerWheel timerWheel,
+                                  final CachedClock clock,
                                   final KafkaSharedResource kafkaSharedResource,
                                   final NettySharedResource nettySharedResource,
                                   final MQTTResource mqttSharedResource,
                                   @Parameter(PeriodicCheckpointPeriod.class) final long checkpointPeriod,
-                                  final StringIdentifierFactory identifierFactory) {
-    this.scheduler = schedulerWrapper.getScheduler();
+                                  @Parameter(SinkBatchSize.class) final int sinkBatchSize,
+                                  @Parameter(SinkLingerTime.class) final long sinkLingerTime,
+                                  @Parameter(MaxInflightMqttEventNum.class) final int maxInflightMqttEventNum,
+                                  final StringIdentifierFactory identifierFactory,
+                                  @Parameter(LatencySampleInterval.class) final int latencySampleInterval,
+                                  @Parameter(PartitionIdleTimeout.class) final long partitionIdleTimeout) {
+    this.timerWheel = timerWheel;
+    this.clock = clock;
     this.kafkaSharedResource = kafkaSharedResource;
     this.nettySharedResource = nettySharedResource;
     this.mqttSharedResource = mqttSharedResource;
     this.checkpointPeriod = checkpointPeriod;
+    this.sinkBatchSize = sinkBatchSize;
+    this.sinkLingerTime = sinkLingerTime;
+    this.maxInflightMqttEventNum = maxInflightMqttEventNum;
     this.identifierFactory = identifierFactory;
+    this.latencySampleInterval = latencySampleInterval;
+    this.partitionIdleTimeout = partitionIdleTimeout;
   }
 
   /**
@@ -125,23 +171,28 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
           conf.get(ConfKeys.SourceConf.TIMESTAMP_EXTRACT_FUNC.name()), classLoader);
     }
 
+    final EventGeneratorImpl eventGenerator;
     if (type.equals(ConfValues.EventGeneratorType.PERIODIC_EVENT_GEN.name())) {
       // periodic event generator
       final long period = Long.valueOf(conf.get(ConfKeys.Watermark.PERIODIC_WATERMARK_PERIOD.name()));
       final long delay = Long.valueOf(conf.get(ConfKeys.Watermark.PERIODIC_WATERMARK_DELAY.name()));
-      return new PeriodicEventGenerator(
-          timestampExtractFunc, period, checkpointPeriod, delay, watermarkTimeUnit, scheduler);
+      eventGenerator = new PeriodicEventGenerator(
+          timestampExtractFunc, period, checkpointPeriod, delay, watermarkTimeUnit, timerWheel, clock);
     } else if (type.equals(ConfValues.EventGeneratorType.PUNCTUATED_EVENT_GEN.name())) {
       // punctuated event generator
       final MISTPredicate watermarkPredicate = SerializeUtils.deserializeFromString(
           conf.get(ConfKeys.Watermark.WATERMARK_PREDICATE.name()), classLoader);
       final WatermarkTimestampFunction tf = SerializeUtils.deserializeFromString(
           conf.get(ConfKeys.Watermark.TIMESTAMP_PARSE_OBJECT.name()), classLoader);
-      return new PunctuatedEventGenerator(
-          timestampExtractFunc, watermarkPredicate, tf, checkpointPeriod, watermarkTimeUnit, scheduler);
+      final PunctuatedEventGenerator punctuatedEventGenerator = new PunctuatedEventGenerator(
+          timestampExtractFunc, watermarkPredicate, tf, checkpointPeriod, watermarkTimeUnit, timerWheel, clock);
+      punctuatedEventGenerator.setPartitionIdleTimeout(partitionIdleTimeout);
+      eventGenerator = punctuatedEventGenerator;
     } else {
       throw new RuntimeException("Invalid event generator: " + type);
     }
+    eventGenerator.setLatencySampleInterval(latencySampleInterval);
+    return eventGenerator;
   }
 
   /**
@@ -167,6 +218,11 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
       final String addr = conf.get(ConfKeys.NettySourceConf.SOURCE_ADDR.name());
       final int port = Integer.valueOf(conf.get(ConfKeys.NettySourceConf.SOURCE_PORT.name()));
       return new NettyTextDataGenerator(addr, port, nettySharedResource);
+    } else if (type.equals(ConfValues.SourceType.NETTY_BINARY.name())) {
+      // netty binary source
+      final String addr = conf.get(ConfKeys.NettySourceConf.SOURCE_ADDR.name());
+      final int port = Integer.valueOf(conf.get(ConfKeys.NettySourceConf.SOURCE_PORT.name()));
+      return new NettyBinaryDataGenerator(addr, port, nettySharedResource);
     } else if (type.equals(ConfValues.SourceType.MQTT.name())) {
       // mqtt source
       final String brokerURI = conf.get(ConfKeys.MQTTSourceConf.MQTT_SRC_BROKER_URI.name());
@@ -189,7 +245,12 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
       final ClassLoader classLoader) throws IOException, ClassNotFoundException {
     final String type = conf.get(ConfKeys.OperatorConf.OP_TYPE.name());
 
-    if (type.equals(ConfValues.OperatorType.MAP.name())) {
+    if (conf.containsKey(ConfKeys.OperatorConf.PARALLELISM.name())
+        && Integer.valueOf(conf.get(ConfKeys.OperatorConf.PARALLELISM.name())) > 1) {
+      return newParallelOperator(conf, classLoader);
+    } else if (conf.containsKey(ConfKeys.KeyedOperator.KEY_SELECTOR.name())) {
+      return newKeyedOperator(conf, classLoader);
+    } else if (type.equals(ConfValues.OperatorType.MAP.name())) {
 
       return new MapOperator(getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader));
 
@@ -230,13 +291,22 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
 
     } else if (type.equals(ConfValues.OperatorType.UNION.name())) {
 
-      return new UnionOperator();
+      return new UnionOperator(getAllowedLateness(conf), hasLateOutput(conf));
+
+    } else if (type.equals(ConfValues.OperatorType.NARY_UNION.name())) {
+
+      final int numInputs = Integer.valueOf(conf.get(ConfKeys.UnionOperator.NUM_INPUTS.name()));
+      return new NaryUnionOperator(numInputs, getAllowedLateness(conf), hasLateOutput(conf));
+
+    } else if (type.equals(ConfValues.OperatorType.REORDER.name())) {
+
+      return new ReorderOperator(getAllowedLateness(conf), hasLateOutput(conf));
 
     } else if (type.equals(ConfValues.OperatorType.TIME_WINDOW.name())) {
 
       final int windowSize = Integer.valueOf(conf.get(ConfKeys.WindowOperator.WINDOW_SIZE.name()));
       final int windowInterval = Integer.valueOf(conf.get(ConfKeys.WindowOperator.WINDOW_INTERVAL.name()));
-      return new TimeWindowOperator(windowSize, windowInterval);
+      return new TimeWindowOperator(windowSize, windowInterval, getAllowedLateness(conf), hasLateOutput(conf));
 
     } else if (type.equals(ConfValues.OperatorType.COUNT_WINDOW.name())) {
 
@@ -261,11 +331,90 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
 
       return new ApplyStatefulWindowOperator(getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader));
 
+    } else if (type.equals(ConfValues.OperatorType.APPLY_STATEFUL_TIME_WINDOW.name())
+        || type.equals(ConfValues.OperatorType.APPLY_STATEFUL_COUNT_WINDOW.name())) {
+
+      final int windowSize = Integer.valueOf(conf.get(ConfKeys.WindowOperator.WINDOW_SIZE.name()));
+      final int windowInterval = Integer.valueOf(conf.get(ConfKeys.WindowOperator.WINDOW_INTERVAL.name()));
+      return new IncrementalApplyStatefulWindowOperator(
+          getObject(conf, ConfKeys.OperatorConf.UDF_STRING.name(), classLoader), windowSize, windowInterval,
+          type.equals(ConfValues.OperatorType.APPLY_STATEFUL_COUNT_WINDOW.name()));
+
     } else {
       throw new RuntimeException("Invalid operator: " + type);
     }
   }
 
+  /**
+   * Get a new keyed operator which creates the operator of the configuration for each key.
+   * @param conf configuration
+   * @param classLoader external class loader
+   * @return new keyed operator
+   */
+  private Operator newKeyedOperator(
+      final Map<String, String> conf,
+      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+    final MISTFunction keySelector = getObject(conf, ConfKeys.KeyedOperator.KEY_SELECTOR.name(), classLoader);
+    final long idleKeyTimeout = Long.valueOf(conf.get(ConfKeys.KeyedOperator.IDLE_KEY_TIMEOUT.name()));
+    final Map<String, String> keyConf = new HashMap<>(conf);
+    for (final ConfKeys.KeyedOperator keyedConf : ConfKeys.KeyedOperator.values()) {
+      keyConf.remove(keyedConf.name());
+    }
+
+    // Checks the configuration of the operators before creating the operator of each key
+    if (!(newOperator(keyConf, classLoader) instanceof OneStreamOperator)) {
+      throw new RuntimeException("Invalid keyed operator: " + conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+    }
+    final String type = keyConf.get(ConfKeys.OperatorConf.OP_TYPE.name());
+    final boolean forwardWatermarks = !type.equals(ConfValues.OperatorType.APPLY_STATEFUL.name())
+        && !type.equals(ConfValues.OperatorType.CEP.name());
+    return new KeyedOperator(keySelector, () -> {
+      try {
+        return (OneStreamOperator) newOperator(keyConf, classLoader);
+      } catch (final IOException | ClassNotFoundException e) {
+        throw new RuntimeException(e);
+      }
+    }, forwardWatermarks, idleKeyTimeout);
+  }
+
+  /**
+   * Get a new parallel operator that runs the replicas of the operator.
+   * The inputs of keyed replicas are partitioned by the key.
+   * @param conf configuration
+   * @param classLoader external class loader
+   * @return new parallel operator
+   */
+  private Operator newParallelOperator(
+      final Map<String, String> conf,
+      final ClassLoader classLoader) throws IOException, ClassNotFoundException {
+    final int parallelism = Integer.valueOf(conf.get(ConfKeys.OperatorConf.PARALLELISM.name()));
+    final Map<String, String> replicaConf = new HashMap<>(conf);
+    replicaConf.remove(ConfKeys.OperatorConf.PARALLELISM.name());
+    final List<OneStreamOperator> replicas = new ArrayList<>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      final Operator replica = newOperator(replicaConf, classLoader);
+      if (!(replica instanceof OneStreamOperator)) {
+        throw new RuntimeException("Invalid parallel operator: " + conf.get(ConfKeys.OperatorConf.OP_TYPE.name()));
+      }
+      replicas.add((OneStreamOperator) replica);
+    }
+    final MISTFunction keySelector;
+    if (conf.containsKey(ConfKeys.KeyedOperator.KEY_SELECTOR.name())) {
+      keySelector = getObject(conf, ConfKeys.KeyedOperator.KEY_SELECTOR.name(), classLoader);
+    } else {
+      keySelector = null;
+    }
+    return new ParallelOperator(replicas, keySelector);
+  }
+
+  private long getAllowedLateness(final Map<String, String> conf) {
+    return Long.valueOf(conf.getOrDefault(ConfKeys.ReorderOperator.ALLOWED_LATENESS.name(), "0"));
+  }
+
+  private boolean hasLateOutput(final Map<String, String> conf) {
+    return Boolean.valueOf(conf.getOrDefault(ConfKeys.ReorderOperator.LATE_OUTPUT.name(), "false"));
+  }
+
   private <V> V getObject(final Map<String, String> conf,
                           final String key,
                           final ClassLoader classLoader) throws IOException, ClassNotFoundException {
@@ -288,14 +437,22 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
 
       final String serverAddress = conf.get(ConfKeys.NettySink.SINK_ADDRESS.name());
       final int serverPort = Integer.valueOf(conf.get(ConfKeys.NettySink.SINK_PORT.name()));
-      return (Sink<T>)new NettyTextSink(serverAddress, serverPort, nettySharedResource, identifierFactory);
+      return (Sink<T>)new NettyTextSink(serverAddress, serverPort, sinkBatchSize, sinkLingerTime,
+          nettySharedResource, identifierFactory);
+
+    } else if (type.equals(ConfValues.SinkType.NETTY_BINARY.name())) {
+
+      final String serverAddress = conf.get(ConfKeys.NettySink.SINK_ADDRESS.name());
+      final int serverPort = Integer.valueOf(conf.get(ConfKeys.NettySink.SINK_PORT.name()));
+      return (Sink<T>)new NettyBinarySink(serverAddress, serverPort, sinkBatchSize, sinkLingerTime,
+          nettySharedResource, identifierFactory);
 
     } else if (type.equals(ConfValues.SinkType.MQTT.name())) {
 
       final String brokerURI = conf.get(ConfKeys.MqttSink.MQTT_SINK_BROKER_URI.name());
       final String topic = conf.get(ConfKeys.MqttSink.MQTT_SINK_TOPIC.name());
       try {
-        return (Sink<T>)new MqttSink(brokerURI, topic, mqttSharedResource);
+        return (Sink<T>)new MqttSink(brokerURI, topic, maxInflightMqttEventNum, mqttSharedResource);
       } catch (final MqttException e) {
         e.printStackTrace();
         throw new IOException(e);
@@ -308,6 +465,8 @@ public final class PhysicalObjectGenerator implements AutoCloseable {
 
   @Override
   public void close() throws Exception {
+    timerWheel.close();
+    clock.close();
     kafkaSharedResource.close();
     nettySharedResource.close();
     mqttSharedResource.close();
@@ -16,6 +16,8 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
 
 /**
  * This interface represents a physical operator that contains the actual object of the operator.
@@ -28,4 +30,16 @@ public interface PhysicalOperator extends PhysicalVertex, ExecutionVertex {
    * @return operator
    */
   Operator getOperator();
+
+  /**
+   * Get the histogram of the latencies from the ingestion of the sampled events to the arrival at this operator.
+   * @return latency histogram
+   */
+  LatencyHistogram getLatencyHistogram();
+
+  /**
+   * Get the profile of the input and output data and the processing time of this operator.
+   * @return operator profile, or null if the operator profiling is disabled
+   */
+  OperatorProfile getProfile();
 }
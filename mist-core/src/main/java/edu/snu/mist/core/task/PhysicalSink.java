@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
 
 /**
  * This is a physical sink interface that is used in MistTask.
@@ -27,4 +28,16 @@ public interface PhysicalSink<I> extends PhysicalVertex, ExecutionVertex {
    * @return sink
    */
   Sink<I> getSink();
+
+  /**
+   * Get the histogram of the latencies from the ingestion of the sampled events to the arrival at this sink.
+   * @return latency histogram
+   */
+  LatencyHistogram getLatencyHistogram();
+
+  /**
+   * Set the histogram of the latencies, which can be shared by the sinks of a query.
+   * @param latencyHistogram latency histogram
+   */
+  void setLatencyHistogram(LatencyHistogram latencyHistogram);
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
 
 import java.util.Map;
 
@@ -26,17 +27,33 @@ public final class PhysicalSinkImpl<I> extends BasePhysicalVertex implements Phy
 
   private final Sink<I> sink;
 
+  /**
+   * The latencies of the sampled events that arrive at the sink.
+   */
+  private volatile LatencyHistogram latencyHistogram;
+
   public PhysicalSinkImpl(final String sinkId,
                           final Map<String, String> configuration,
                           final Sink<I> sink) {
     super(sinkId, configuration);
     this.sink = sink;
+    this.latencyHistogram = new LatencyHistogram();
   }
 
   public Sink<I> getSink() {
     return sink;
   }
 
+  @Override
+  public LatencyHistogram getLatencyHistogram() {
+    return latencyHistogram;
+  }
+
+  @Override
+  public void setLatencyHistogram(final LatencyHistogram latencyHistogram) {
+    this.latencyHistogram = latencyHistogram;
+  }
+
   @Override
   public Type getType() {
     return Type.SINK;
@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.predicates.*;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.operators.Operator;
+
+import java.util.*;
+
+/**
+ * This class indexes the downstream filter operators of a vertex that is shared by many merged queries
+ * by the field, the type and the value of their rule-based comparison conditions:
+ * a hash index for EQ conditions, and sorted indices for GT, GE, LT and LE conditions.
+ * It finds the filters whose condition can be satisfied by an event,
+ * so the cost of an event is proportional to the number of matched queries
+ * instead of the number of merged queries.
+ * The matched filters test the event again with their full predicate,
+ * so filters whose predicate is an AND of conditions are indexed by one of the conditions.
+ * The other downstream vertices and filters that cannot be indexed match all events.
+ * It is used by a single thread at a time, like the emitter that owns it.
+ */
+final class PredicateIndex {
+
+  /**
+   * The minimum number of indexable filters to use the index.
+   */
+  static final int MIN_INDEXED_FILTER_NUM = 8;
+
+  /**
+   * Next vertices.
+   */
+  private final Map<ExecutionVertex, MISTEdge> nextOperators;
+
+  /**
+   * The number of next vertices when the index is built.
+   * Vertices are only removed from the next vertices while this index is used,
+   * because a new emitter is created when new vertices are merged.
+   */
+  private int indexedVertexNum;
+
+  /**
+   * The indices of the fields.
+   */
+  private Map<IndexKey, FieldIndex> fieldIndices;
+
+  /**
+   * The vertices that receive all events.
+   */
+  private List<Map.Entry<ExecutionVertex, MISTEdge>> unindexedVertices;
+
+  PredicateIndex(final Map<ExecutionVertex, MISTEdge> nextOperators) {
+    this.nextOperators = nextOperators;
+    buildIndex();
+  }
+
+  /**
+   * @param nextOperators next vertices
+   * @return true if the next vertices have enough indexable filters to use the index
+   */
+  static boolean shouldIndex(final Map<ExecutionVertex, MISTEdge> nextOperators) {
+    return countIndexableFilters(nextOperators) >= MIN_INDEXED_FILTER_NUM;
+  }
+
+  /**
+   * Count the downstream filters that can be indexed.
+   * @param nextOperators next vertices
+   * @return the number of indexable filters
+   */
+  static int countIndexableFilters(final Map<ExecutionVertex, MISTEdge> nextOperators) {
+    int count = 0;
+    for (final ExecutionVertex vertex : nextOperators.keySet()) {
+      if (getIndexedCondition(vertex) != null) {
+        count += 1;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Get the condition that is used for indexing the vertex.
+   * @param vertex next vertex
+   * @return comparison condition, or null if the vertex cannot be indexed
+   */
+  private static RuleBasedCCPredicate getIndexedCondition(final ExecutionVertex vertex) {
+    if (vertex.getType() != ExecutionVertex.Type.OPERATOR) {
+      return null;
+    }
+    final Operator operator = ((PhysicalOperator) vertex).getOperator();
+    if (!(operator instanceof FilterOperator)) {
+      return null;
+    }
+    final MISTPredicate predicate = ((FilterOperator) operator).getFilterFunc();
+    if (predicate instanceof RuleBasedANDPredicate) {
+      // Prefer EQ conditions, which are more selective than range conditions
+      RuleBasedCCPredicate rangeCondition = null;
+      for (final MISTPredicate<Map<String, Object>> child : ((RuleBasedANDPredicate) predicate).getPredicateList()) {
+        if (child instanceof RuleBasedEQPredicate) {
+          return (RuleBasedCCPredicate) child;
+        } else if (rangeCondition == null && isIndexable(child)) {
+          rangeCondition = (RuleBasedCCPredicate) child;
+        }
+      }
+      return rangeCondition;
+    } else if (isIndexable(predicate)) {
+      return (RuleBasedCCPredicate) predicate;
+    } else {
+      return null;
+    }
+  }
+
+  private static boolean isIndexable(final MISTPredicate predicate) {
+    return (predicate instanceof RuleBasedEQPredicate
+        || predicate instanceof RuleBasedGTPredicate
+        || predicate instanceof RuleBasedGEPredicate
+        || predicate instanceof RuleBasedLTPredicate
+        || predicate instanceof RuleBasedLEPredicate)
+        && ((RuleBasedCCPredicate) predicate).getValue() instanceof Comparable;
+  }
+
+  /**
+   * Build the index from the current next vertices.
+   */
+  private void buildIndex() {
+    fieldIndices = new HashMap<>();
+    unindexedVertices = new ArrayList<>();
+    for (final Map.Entry<ExecutionVertex, MISTEdge> entry : nextOperators.entrySet()) {
+      final RuleBasedCCPredicate condition = getIndexedCondition(entry.getKey());
+      if (condition == null) {
+        unindexedVertices.add(entry);
+      } else {
+        final IndexKey key = new IndexKey(condition.getField(), condition.getValue().getClass());
+        FieldIndex fieldIndex = fieldIndices.get(key);
+        if (fieldIndex == null) {
+          fieldIndex = new FieldIndex(key);
+          fieldIndices.put(key, fieldIndex);
+        }
+        fieldIndex.add(condition, entry);
+      }
+    }
+    indexedVertexNum = nextOperators.size();
+  }
+
+  /**
+   * Collect the next vertices that can be matched with the event.
+   * @param value the value of the event
+   * @param result the list where the matched vertices are added
+   */
+  void collect(final Object value, final List<Map.Entry<ExecutionVertex, MISTEdge>> result) {
+    if (nextOperators.size() != indexedVertexNum) {
+      buildIndex();
+    }
+    result.addAll(unindexedVertices);
+    for (final FieldIndex fieldIndex : fieldIndices.values()) {
+      if (value instanceof Map) {
+        fieldIndex.collect((Map<String, Object>) value, result);
+      } else {
+        // The filters will handle the wrong input as before
+        result.addAll(fieldIndex.all);
+      }
+    }
+  }
+
+  /**
+   * The key of a field index, which consists of the field name and the type of the compared values.
+   */
+  private static final class IndexKey {
+    private final String field;
+    private final Class<?> valueType;
+
+    IndexKey(final String field, final Class<?> valueType) {
+      this.field = field;
+      this.valueType = valueType;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final IndexKey that = (IndexKey) o;
+      return field.equals(that.field) && valueType.equals(that.valueType);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * field.hashCode() + valueType.hashCode();
+    }
+  }
+
+  /**
+   * The index of the conditions on a field that compare the field with values of the same type.
+   */
+  private static final class FieldIndex {
+    private final IndexKey key;
+
+    /**
+     * All vertices in this index.
+     */
+    private final List<Map.Entry<ExecutionVertex, MISTEdge>> all = new ArrayList<>();
+
+    /**
+     * Indices of the conditions. The key is the compared value of the conditions.
+     */
+    private final Map<Object, List<Map.Entry<ExecutionVertex, MISTEdge>>> eqIndex = new HashMap<>();
+    private final NavigableMap<Object, List<Map.Entry<ExecutionVertex, MISTEdge>>> gtIndex = new TreeMap<>();
+    private final NavigableMap<Object, List<Map.Entry<ExecutionVertex, MISTEdge>>> geIndex = new TreeMap<>();
+    private final NavigableMap<Object, List<Map.Entry<ExecutionVertex, MISTEdge>>> ltIndex = new TreeMap<>();
+    private final NavigableMap<Object, List<Map.Entry<ExecutionVertex, MISTEdge>>> leIndex = new TreeMap<>();
+
+    FieldIndex(final IndexKey key) {
+      this.key = key;
+    }
+
+    void add(final RuleBasedCCPredicate condition, final Map.Entry<ExecutionVertex, MISTEdge> vertex) {
+      final Map<Object, List<Map.Entry<ExecutionVertex, MISTEdge>>> index;
+      if (condition instanceof RuleBasedEQPredicate) {
+        index = eqIndex;
+      } else if (condition instanceof RuleBasedGTPredicate) {
+        index = gtIndex;
+      } else if (condition instanceof RuleBasedGEPredicate) {
+        index = geIndex;
+      } else if (condition instanceof RuleBasedLTPredicate) {
+        index = ltIndex;
+      } else {
+        index = leIndex;
+      }
+      List<Map.Entry<ExecutionVertex, MISTEdge>> vertices = index.get(condition.getValue());
+      if (vertices == null) {
+        vertices = new ArrayList<>();
+        index.put(condition.getValue(), vertices);
+      }
+      vertices.add(vertex);
+      all.add(vertex);
+    }
+
+    /**
+     * Collect the vertices whose indexed condition is satisfied by the event.
+     * @param event event
+     * @param result the list where the matched vertices are added
+     */
+    void collect(final Map<String, Object> event,
+                 final List<Map.Entry<ExecutionVertex, MISTEdge>> result) {
+      final Object value = event.get(key.field);
+      if (value == null || value.getClass() != key.valueType) {
+        // The filters will handle the missing field or the type mismatch as before
+        result.addAll(all);
+        return;
+      }
+      addAll(eqIndex.get(value), result);
+      // value > v
+      addAll(gtIndex.headMap(value, false), result);
+      // value >= v
+      addAll(geIndex.headMap(value, true), result);
+      // value < v
+      addAll(ltIndex.tailMap(value, false), result);
+      // value <= v
+      addAll(leIndex.tailMap(value, true), result);
+    }
+
+    private static void addAll(final List<Map.Entry<ExecutionVertex, MISTEdge>> vertices,
+                               final List<Map.Entry<ExecutionVertex, MISTEdge>> result) {
+      if (vertices != null) {
+        result.addAll(vertices);
+      }
+    }
+
+    private static void addAll(final Map<Object, List<Map.Entry<ExecutionVertex, MISTEdge>>> index,
+                               final List<Map.Entry<ExecutionVertex, MISTEdge>> result) {
+      if (!index.isEmpty()) {
+        for (final List<Map.Entry<ExecutionVertex, MISTEdge>> vertices : index.values()) {
+          result.addAll(vertices);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
+
+import java.util.*;
+
+/**
+ * This emitter forwards the outputs of an operator that is shared by many merged queries
+ * which filter the outputs with rule-based comparison conditions.
+ * An event is forwarded only to the filters whose condition can be satisfied by the event,
+ * which are found by the predicate index of the downstream filters (see PredicateIndex).
+ */
+public final class PredicateIndexOutputEmitter implements OutputEmitter {
+
+  /**
+   * The emitter for watermarks, checkpoints and indexed data events.
+   */
+  private final OperatorOutputEmitter operatorOutputEmitter;
+
+  /**
+   * The index of the next vertices.
+   */
+  private final PredicateIndex predicateIndex;
+
+  /**
+   * The buffer of the matched vertices, which is reused across events.
+   */
+  private final List<Map.Entry<ExecutionVertex, MISTEdge>> matchedVertices;
+
+  /**
+   * The profile of the operator that emits the outputs, or null if the operator is not profiled.
+   */
+  private final OperatorProfile profile;
+
+  public PredicateIndexOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators) {
+    this(nextOperators, null);
+  }
+
+  public PredicateIndexOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                     final OperatorProfile profile) {
+    this.operatorOutputEmitter = new OperatorOutputEmitter(nextOperators, profile);
+    this.predicateIndex = new PredicateIndex(nextOperators);
+    this.profile = profile;
+    this.matchedVertices = new ArrayList<>();
+  }
+
+  @Override
+  public void emitData(final MistDataEvent output) {
+    if (profile != null) {
+      profile.recordOutput();
+    }
+
+    matchedVertices.clear();
+    predicateIndex.collect(output.getValue(), matchedVertices);
+
+    if (matchedVertices.size() == 1) {
+      final Map.Entry<ExecutionVertex, MISTEdge> nextVertex = matchedVertices.get(0);
+      OperatorOutputEmitter.sendData(output, nextVertex.getValue(), nextVertex.getKey());
+    } else {
+      for (final Map.Entry<ExecutionVertex, MISTEdge> nextVertex : matchedVertices) {
+        final MistDataEvent event =
+            new MistDataEvent(output.getValue(), output.getTimestamp(), output.getLatencyMarker());
+        OperatorOutputEmitter.sendData(event, nextVertex.getValue(), nextVertex.getKey());
+      }
+    }
+    matchedVertices.clear();
+  }
+
+  @Override
+  public void emitData(final MistDataEvent output, final int index) {
+    operatorOutputEmitter.emitData(output, index);
+  }
+
+  @Override
+  public void emitWatermark(final MistWatermarkEvent output) {
+    operatorOutputEmitter.emitWatermark(output);
+  }
+
+  @Override
+  public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+    operatorOutputEmitter.emitCheckpoint(checkpoint);
+  }
+}
@@ -16,8 +16,10 @@
 package edu.snu.mist.core.task;
 
 import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -83,6 +85,24 @@ public interface Query {
    */
   long numberOfRemainingEvents();
 
+  /**
+   * Get the enqueue time of the oldest event in the active sources.
+   * @return the time from System.nanoTime(), or Long.MAX_VALUE if there is no remaining event
+   */
+  long getOldestEventTime();
+
+  /**
+   * Set the latency objective of the query.
+   * @param latencySlo the latency objective in milliseconds, or 0 if it is not set
+   */
+  void setLatencySlo(long latencySlo);
+
+  /**
+   * Get the latency objective of the query.
+   * @return the latency objective in milliseconds, or 0 if it is not set
+   */
+  long getLatencySlo();
+
   /**
    * Change the query status to ready.
    */
@@ -93,4 +113,22 @@ public interface Query {
    * @return true if the status sets to ready.
    */
   boolean setProcessingFromReady();
+
+  /**
+   * Add a replica query that processes the replicas of a parallel operator in this query.
+   * @param replica replica query
+   */
+  void addReplica(Query replica);
+
+  /**
+   * Get the replica queries of this query.
+   * @return replica queries
+   */
+  List<Query> getReplicas();
+
+  /**
+   * Get the histogram of the latencies from the ingestion of the sampled events to the sinks of this query.
+   * @return latency histogram
+   */
+  LatencyHistogram getLatencyHistogram();
 }
\ No newline at end of file
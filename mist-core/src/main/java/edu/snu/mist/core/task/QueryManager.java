@@ -54,10 +54,13 @@ public interface QueryManager extends AutoCloseable {
    * Create a query (this is for checkpointing).
    * @param queryId query id
    * @param applicationInfo app info
+   * @param configDag the configuration dag of the query
+   * @param latencySlo the latency objective of the query in milliseconds, or 0 if it is not set
    */
   Query createAndStartQuery(String queryId,
                             ApplicationInfo applicationInfo,
-                            DAG<ConfigVertex, MISTEdge> configDag)
+                            DAG<ConfigVertex, MISTEdge> configDag,
+                            long latencySlo)
       throws IOException, InjectionException, ClassNotFoundException;
 
   /**
@@ -18,6 +18,9 @@ package edu.snu.mist.core.task;
 import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
+import edu.snu.mist.core.task.parallel.ParallelOperator;
 
 import java.util.Iterator;
 import java.util.Map;
@@ -33,6 +36,8 @@ public final class QueryStarterUtils {
 
   /**
    * Sets the OutputEmitters of the sources, operators and sinks.
+   * The replica queries of the parallel operators are added to the query,
+   * and the sinks record the latencies of the sampled events to the histogram of the query.
    * @param submittedExecutionDag the dag of the submitted query
    */
   public static void setUpOutputEmitters(final ExecutionDag submittedExecutionDag,
@@ -54,10 +59,12 @@ public final class QueryStarterUtils {
           final Map<ExecutionVertex, MISTEdge> edges =
               dag.getEdges(operator);
           // Sets output emitters and operator chain manager for operator.
-          operator.getOperator().setOutputEmitter(new OperatorOutputEmitter(edges));
+          operator.getOperator().setOutputEmitter(newOperatorOutputEmitter(edges, operator.getProfile()));
+          setUpReplicas(operator, query);
           break;
         }
         case SINK: {
+          ((PhysicalSink) executionVertex).setLatencyHistogram(query.getLatencyHistogram());
           break;
         }
         default:
@@ -65,4 +72,35 @@ public final class QueryStarterUtils {
       }
     }
   }
+
+  /**
+   * Sets up the replica queries if the operator is a parallel operator, and adds them to the query.
+   * The replica queries are assigned to their own groups by the query manager after the query is started.
+   * @param operator the operator
+   * @param query the query that contains the operator
+   */
+  public static void setUpReplicas(final PhysicalOperator operator, final Query query) {
+    if (operator.getOperator() instanceof ParallelOperator) {
+      for (final Query replica : ((ParallelOperator) operator.getOperator()).setUpReplicas(query)) {
+        replica.setLatencySlo(query.getLatencySlo());
+        query.addReplica(replica);
+      }
+    }
+  }
+
+  /**
+   * Creates the output emitter of an operator.
+   * If many merged queries filter the outputs of the operator with rule-based conditions,
+   * it creates an emitter that indexes the conditions.
+   * @param nextOperators next vertices of the operator
+   * @param profile profile of the operator, or null if the operator is not profiled
+   * @return output emitter
+   */
+  public static OutputEmitter newOperatorOutputEmitter(final Map<ExecutionVertex, MISTEdge> nextOperators,
+                                                       final OperatorProfile profile) {
+    if (PredicateIndex.shouldIndex(nextOperators)) {
+      return new PredicateIndexOutputEmitter(nextOperators, profile);
+    }
+    return new OperatorOutputEmitter(nextOperators, profile);
+  }
 }
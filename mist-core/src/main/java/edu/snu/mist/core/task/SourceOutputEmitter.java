@@ -34,6 +34,13 @@ public interface SourceOutputEmitter extends OutputEmitter {
    */
   int numberOfEvents();
 
+  /**
+   * Get the enqueue time of the oldest event in the queue.
+   * It can be approximated by the time when the queue became non-empty.
+   * @return the time from System.nanoTime(), or Long.MAX_VALUE if the queue is empty
+   */
+  long getOldestEventTime();
+
   /**
    * Get the query that holds this source.
    */
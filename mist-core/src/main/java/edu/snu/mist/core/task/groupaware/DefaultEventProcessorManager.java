@@ -144,7 +144,7 @@ public final class DefaultEventProcessorManager implements EventProcessorManager
   private void initialize(final long rebalancingPeriod, final long isolationPeriod) {
     groupAssigner.initialize();
 
-    // Group isolation thread
+    // Group isolation thread, which also releases the isolated groups that are not overloaded anymore
     groupIsolationService.scheduleAtFixedRate(() -> {
       groupAllocationTableModifier.addEvent(
           new WritingEvent(WritingEvent.EventType.ISOLATION, System.currentTimeMillis()));
@@ -152,8 +152,6 @@ public final class DefaultEventProcessorManager implements EventProcessorManager
 
     // Create a rebalancer thread
     groupRebalancerService.scheduleAtFixedRate(() -> {
-      // TODO[MIST-870] Remove isolated threads when the isolated groups are not overloaded
-
       // Add a rebalancing event
       groupAllocationTableModifier.addEvent(
           new WritingEvent(WritingEvent.EventType.REBALANCE, System.currentTimeMillis()));
@@ -24,6 +24,8 @@ import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
 import edu.snu.mist.core.task.merging.ConfigExecutionVertexMap;
 import edu.snu.mist.core.task.merging.QueryIdConfigDagMap;
+import edu.snu.mist.core.task.metrics.EWMA;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
 import edu.snu.mist.formats.avro.GroupCheckpoint;
 import edu.snu.mist.formats.avro.QueryCheckpoint;
 import edu.snu.mist.formats.avro.StateWithTimestamp;
@@ -32,6 +34,7 @@ import org.apache.reef.tang.annotations.Parameter;
 import javax.inject.Inject;
 import java.util.*;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -45,6 +48,11 @@ final class DefaultGroupImpl implements Group {
 
   private static final Logger LOG = Logger.getLogger(DefaultGroupImpl.class.getName());
 
+  /**
+   * The decaying rate of the processing cost per event.
+   */
+  private static final double EVENT_COST_ALPHA = 0.3;
+
   /**
    * Group status.
    */
@@ -97,6 +105,23 @@ final class DefaultGroupImpl implements Group {
    */
   private final ConfigExecutionVertexMap configExecutionVertexMap;
 
+  /**
+   * The time that the events wait in the source queues of this group.
+   */
+  private final LatencyHistogram queueingDelayHistogram;
+
+  /**
+   * The number of events that the group can process in the current time slice (deficit round robin).
+   * It is negative if the group processed more events than its quantum, and is paid back in the next slices.
+   * It is only accessed by the event processor that is processing the group.
+   */
+  private long deficit;
+
+  /**
+   * The average processing time of an event in nanoseconds, which sizes the quantum of the group.
+   */
+  private final EWMA eventCost;
+
   @Inject
   private DefaultGroupImpl(@Parameter(GroupId.class) final String groupId,
                            final ExecutionDags executionDags,
@@ -110,6 +135,9 @@ final class DefaultGroupImpl implements Group {
     this.executionDags = executionDags;
     this.queryIdConfigDagMap = queryIdConfigDagMap;
     this.configExecutionVertexMap = configExecutionVertexMap;
+    this.queueingDelayHistogram = new LatencyHistogram();
+    this.deficit = 0;
+    this.eventCost = new EWMA(EVENT_COST_ALPHA);
   }
 
   @Override
@@ -216,15 +244,33 @@ final class DefaultGroupImpl implements Group {
     return processAllEvent(Long.MAX_VALUE);
   }
 
-  private long elapsedTime(final long startTime) {
-    return System.currentTimeMillis() - startTime;
+  /**
+   * Get the number of events that can be processed within the timeout.
+   * It is one event until the processing cost is measured.
+   */
+  private long getQuantum(final long timeout) {
+    final double cost = eventCost.getCurrentEwma();
+    if (cost <= 0) {
+      return 1;
+    }
+    return Math.max(1, (long) (TimeUnit.MILLISECONDS.toNanos(timeout) / cost));
   }
 
+  /**
+   * Process the events of the active queries until the event budget of the time slice is exhausted.
+   * The budget is a quantum sized from the timeout and the measured processing cost per event,
+   * plus the deficit left from the previous slices.
+   * The clock is read only at the start and the end of the slice.
+   */
   @Override
   public int processAllEvent(final long timeout) {
+    final boolean budgeted = timeout != Long.MAX_VALUE;
+    if (budgeted) {
+      deficit += getQuantum(timeout);
+    }
     int numProcessedEvent = 0;
-    Query query = activeQueryQueue.poll();
-    final long startTime = System.currentTimeMillis();
+    Query query = deficit > 0 || !budgeted ? activeQueryQueue.poll() : null;
+    final long startTime = System.nanoTime();
 
     while (query != null) {
 
@@ -241,17 +287,28 @@ final class DefaultGroupImpl implements Group {
         query.setReady();
       }
 
-      // Reschedule this group if it still has events to process
-      if (elapsedTime(startTime) > timeout) {
+      if (budgeted && deficit <= numProcessedEvent) {
+        break;
+      }
+      query = activeQueryQueue.poll();
+    }
+
+    if (budgeted) {
+      if (numProcessedEvent > 0) {
+        eventCost.updateAndTick((double) (System.nanoTime() - startTime) / numProcessedEvent);
+      }
+      if (activeQueryQueue.isEmpty()) {
+        // The group does not keep the unused budget if it has no backlog, but it still pays back the overrun
+        deficit = Math.min(0, deficit - numProcessedEvent);
+      } else {
+        deficit -= numProcessedEvent;
+        // Reschedule this group if it still has events to process
         final EventProcessor ep = eventProcessor.get();
         // This could be null when the group merger merges the group
         if (ep != null) {
           ep.addActiveGroup(this);
         }
-        break;
       }
-
-      query = activeQueryQueue.poll();
     }
 
     return numProcessedEvent;
@@ -273,6 +330,36 @@ final class DefaultGroupImpl implements Group {
     return sum;
   }
 
+  @Override
+  public long getOldestEventTime() {
+    long oldestEventTime = Long.MAX_VALUE;
+    final Iterator<Query> iterator = activeQueryQueue.iterator();
+    while (iterator.hasNext()) {
+      oldestEventTime = Math.min(oldestEventTime, iterator.next().getOldestEventTime());
+    }
+    return oldestEventTime;
+  }
+
+  @Override
+  public long getEarliestDeadline(final long defaultLatencySlo) {
+    long earliestDeadline = Long.MAX_VALUE;
+    final Iterator<Query> iterator = activeQueryQueue.iterator();
+    while (iterator.hasNext()) {
+      final Query query = iterator.next();
+      final long oldestEventTime = query.getOldestEventTime();
+      if (oldestEventTime != Long.MAX_VALUE) {
+        final long latencySlo = query.getLatencySlo() > 0 ? query.getLatencySlo() : defaultLatencySlo;
+        earliestDeadline = Math.min(earliestDeadline, oldestEventTime + TimeUnit.MILLISECONDS.toNanos(latencySlo));
+      }
+    }
+    return earliestDeadline;
+  }
+
+  @Override
+  public LatencyHistogram getQueueingDelayHistogram() {
+    return queueingDelayHistogram;
+  }
+
   @Override
   public long getLatestMovedTime() {
     return latestMovedTime;
@@ -19,8 +19,16 @@ import edu.snu.mist.core.parameters.MasterHostname;
 import edu.snu.mist.core.parameters.TaskId;
 import edu.snu.mist.core.parameters.TaskToMasterPort;
 import edu.snu.mist.core.rpc.AvroUtils;
+import edu.snu.mist.core.task.ExecutionDag;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.core.task.Query;
 import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import edu.snu.mist.core.task.metrics.LatencySnapshot;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
 import edu.snu.mist.formats.avro.GroupStats;
+import edu.snu.mist.formats.avro.LatencyStats;
+import edu.snu.mist.formats.avro.OperatorStats;
 import edu.snu.mist.formats.avro.TaskStats;
 import edu.snu.mist.formats.avro.TaskToMasterMessage;
 import org.apache.avro.AvroRemoteException;
@@ -79,6 +87,9 @@ public final class DefaultTaskStatsUpdater implements TaskStatsUpdater {
               .setAppId(group.getApplicationInfo().getApplicationId())
               .setGroupQueryNum(group.getQueries().size())
               .setGroupId(group.getGroupId())
+              .setQueryLatencyMap(getQueryLatencyMap(group))
+              .setOperatorStatsMap(getOperatorStatsMap(group))
+              .setQueueingDelay(getQueueingDelay(group))
               .build());
       totalLoad += group.getLoad();
     }
@@ -89,4 +100,61 @@ public final class DefaultTaskStatsUpdater implements TaskStatsUpdater {
             .setGroupStatsMap(groupStatsMap)
             .build());
   }
+
+  /**
+   * Get the latencies of the queries in the group which have the sampled events in this reporting interval.
+   * The histograms of the queries are reset, so each report only covers the latencies since the previous one.
+   */
+  private Map<String, LatencyStats> getQueryLatencyMap(final Group group) {
+    final Map<String, LatencyStats> queryLatencyMap = new HashMap<>();
+    for (final Query query : group.getQueries()) {
+      final LatencySnapshot snapshot = query.getLatencyHistogram().merge();
+      if (snapshot.getCount() > 0) {
+        queryLatencyMap.put(query.getId(), toLatencyStats(snapshot));
+      }
+    }
+    return queryLatencyMap;
+  }
+
+  /**
+   * Get the queueing delay of the group in this reporting interval, and reset the histogram of the delays.
+   * @return the queueing delay, or null if there is no sampled delay
+   */
+  private LatencyStats getQueueingDelay(final Group group) {
+    final LatencySnapshot snapshot = group.getQueueingDelayHistogram().merge();
+    return snapshot.getCount() > 0 ? toLatencyStats(snapshot) : null;
+  }
+
+  private static LatencyStats toLatencyStats(final LatencySnapshot snapshot) {
+    return LatencyStats.newBuilder()
+        .setCount(snapshot.getCount())
+        .setMean(snapshot.getMean())
+        .setP50(snapshot.getP50())
+        .setP99(snapshot.getP99())
+        .setMax(snapshot.getMax())
+        .build();
+  }
+
+  /**
+   * Get the profiles of the operators in the group in the last metric tracking interval.
+   * It is empty if the operator profiling is disabled.
+   */
+  private Map<String, OperatorStats> getOperatorStatsMap(final Group group) {
+    final Map<String, OperatorStats> operatorStatsMap = new HashMap<>();
+    for (final ExecutionDag executionDag : group.getExecutionDags().values()) {
+      for (final ExecutionVertex vertex : executionDag.getDag().getVertices()) {
+        if (vertex.getType() == ExecutionVertex.Type.OPERATOR) {
+          final OperatorProfile profile = ((PhysicalOperator) vertex).getProfile();
+          if (profile != null) {
+            operatorStatsMap.put(vertex.getIdentifier(), OperatorStats.newBuilder()
+                .setInputs(profile.getInputs())
+                .setOutputs(profile.getOutputs())
+                .setProcessingTime(profile.getProcessingTime())
+                .build());
+          }
+        }
+      }
+    }
+    return operatorStatsMap;
+  }
 }
@@ -20,6 +20,7 @@ import edu.snu.mist.core.task.Query;
 import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
 import edu.snu.mist.core.task.merging.ConfigExecutionVertexMap;
 import edu.snu.mist.core.task.merging.QueryIdConfigDagMap;
+import edu.snu.mist.core.task.metrics.LatencyHistogram;
 import edu.snu.mist.formats.avro.GroupCheckpoint;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 
@@ -123,7 +124,10 @@ public interface Group extends AutoCloseable {
   int processAllEvent();
 
   /**
-   * Process all events in the group within the timeout.
+   * Process the events in the group for a time slice.
+   * The number of events in the slice is sized from the timeout and the processing cost of the events,
+   * and the group is rescheduled if it still has events to process after the slice.
+   * @param timeout the target length of the time slice in milliseconds
    * @return the number of processed events
    */
   int processAllEvent(long timeout);
@@ -149,6 +153,27 @@ public interface Group extends AutoCloseable {
    */
   long numberOfRemainingEvents();
 
+  /**
+   * Get the enqueue time of the oldest event in the active queries.
+   * @return the time from System.nanoTime(), or Long.MAX_VALUE if there is no remaining event
+   */
+  long getOldestEventTime();
+
+  /**
+   * Get the earliest deadline of the oldest events in the active queries.
+   * The deadline of a query is the enqueue time of its oldest event plus its latency objective.
+   * @param defaultLatencySlo the latency objective in milliseconds of the queries that do not set the objective
+   * @return the deadline in the time of System.nanoTime(), or Long.MAX_VALUE if there is no remaining event
+   */
+  long getEarliestDeadline(long defaultLatencySlo);
+
+  /**
+   * Get the histogram of the time that the events of this group wait in the source queues.
+   * It is sampled with the oldest event whenever a source queue is processed.
+   * @return queueing delay histogram
+   */
+  LatencyHistogram getQueueingDelayHistogram();
+
   /**
    * The number of active queries.
    */
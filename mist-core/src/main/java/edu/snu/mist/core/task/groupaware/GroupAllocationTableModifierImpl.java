@@ -156,6 +156,13 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
     }
   }
 
+  private void removeGroup(final Group group) {
+    final ApplicationInfo applicationInfo = group.getApplicationInfo();
+    groupMap.remove(group.getGroupId());
+    applicationInfo.removeGroup(group);
+    removeGroupInWriterThread(group);
+  }
+
   /**
    * Add an event that modifies the group allocation table.
    */
@@ -199,12 +206,26 @@ public final class GroupAllocationTableModifierImpl implements GroupAllocationTa
               minGroup.addQuery(query);
               break;
             }
+            case REPLICA_ADD: {
+              // The replica query is added to its own group to be processed by another event processor
+              final Tuple<Group, Query> tuple = (Tuple<Group, Query>) event.getValue();
+              final Group group = tuple.getKey();
+              final Query replica = tuple.getValue();
+              replica.setGroup(group);
+              group.addQuery(replica);
+              break;
+            }
+            case REPLICA_REMOVE: {
+              // The group of the replica query is removed with the parallel operator
+              final Query replica = (Query) event.getValue();
+              final Group group = replica.getGroup();
+              if (group != null) {
+                removeGroup(group);
+              }
+              break;
+            }
             case GROUP_REMOVE: {
-              final Group group = (Group) event.getValue();
-              final ApplicationInfo applicationInfo = group.getApplicationInfo();
-              groupMap.remove(group.getGroupId());
-              applicationInfo.removeGroup(group);
-              removeGroupInWriterThread(group);
+              removeGroup((Group) event.getValue());
               break;
             }
             case GROUP_REMOVE_ALL: {
@@ -209,7 +209,7 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
         configDag = configDagGenerator.generateWithCheckpointedStates(avroDag, checkpointedState);
       }
 
-      final Query query = createAndStartQuery(queryId, applicationInfo, configDag);
+      final Query query = createAndStartQuery(queryId, applicationInfo, configDag, avroDag.getLatencySlo());
       // Waiting for the query is assigned to a group
       while (query.getGroup() == null) {
         Thread.sleep(100);
@@ -234,13 +234,23 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
   @Override
   public Query createAndStartQuery(final String queryId,
                                    final ApplicationInfo applicationInfo,
-                                   final DAG<ConfigVertex, MISTEdge> configDag)
-      throws ClassNotFoundException, IOException {
+                                   final DAG<ConfigVertex, MISTEdge> configDag,
+                                   final long latencySlo)
+      throws ClassNotFoundException, IOException, InjectionException {
     final Query query = new DefaultQueryImpl(queryId);
+    // The objective is set before the query is started, so that its replicas inherit it
+    query.setLatencySlo(latencySlo);
     groupAllocationTableModifier.addEvent(new WritingEvent(WritingEvent.EventType.QUERY_ADD,
         new Tuple<>(applicationInfo, query)));
     // Start the submitted dag
     applicationInfo.getQueryStarter().start(queryId, query, configDag, applicationInfo.getJarFilePath());
+    // Each replica query of the parallel operators gets a new group, which is assigned to an event processor
+    // by the group assigner. Until then, the replicas are processed by the thread of the query.
+    for (final Query replica : query.getReplicas()) {
+      final Group group = createGroup(applicationInfo);
+      groupAllocationTableModifier.addEvent(new WritingEvent(WritingEvent.EventType.REPLICA_ADD,
+          new Tuple<>(group, replica)));
+    }
     return query;
   }
 
@@ -258,6 +268,7 @@ public final class GroupAwareQueryManagerImpl implements QueryManager {
     injector.bindVolatileInstance(KafkaSharedResource.class, kafkaSharedResource);
     injector.bindVolatileInstance(NettySharedResource.class, nettySharedResource);
     injector.bindVolatileInstance(QueryInfoStore.class, planStore);
+    injector.bindVolatileInstance(GroupAllocationTableModifier.class, groupAllocationTableModifier);
 
     final ApplicationInfo applicationInfo = injector.getInstance(ApplicationInfo.class);
 
@@ -31,6 +31,8 @@ public final class WritingEvent<V> {
     EP_REMOVE,
     REBALANCE,
     ISOLATION,
+    REPLICA_ADD,
+    REPLICA_REMOVE,
   }
 
   private final EventType eventType;
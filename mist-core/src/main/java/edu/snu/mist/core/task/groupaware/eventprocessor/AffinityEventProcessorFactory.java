@@ -16,7 +16,6 @@
 package edu.snu.mist.core.task.groupaware.eventprocessor;
 
 import edu.snu.mist.core.task.groupaware.parameters.ProcessingTimeout;
-import net.openhft.affinity.AffinityThreadFactory;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
@@ -40,9 +39,9 @@ public final class AffinityEventProcessorFactory implements EventProcessorFactor
   private final AtomicInteger id = new AtomicInteger(0);
 
   /**
-   * Affinity thread factory.
+   * Cpu affinity manager that pins the event processors.
    */
-  private final AffinityThreadFactory affinityThreadFactory;
+  private final CpuAffinityManager cpuAffinityManager;
 
   /**
    * Processing timeout.
@@ -50,18 +49,23 @@ public final class AffinityEventProcessorFactory implements EventProcessorFactor
   private final long timeout;
   @Inject
   private AffinityEventProcessorFactory(final NextGroupSelectorFactory nextGroupSelectorFactory,
-                                        @Parameter(ProcessingTimeout.class) final long timeout) {
+                                        @Parameter(ProcessingTimeout.class) final long timeout,
+                                        final CpuAffinityManager cpuAffinityManager) {
     this.nextGroupSelectorFactory = nextGroupSelectorFactory;
     this.timeout = timeout;
-    this.affinityThreadFactory = new AffinityThreadFactory("Afnty");
+    this.cpuAffinityManager = cpuAffinityManager;
     LOG.info("AffinityEventProcessorFactory start");
   }
 
   @Override
   public EventProcessor newEventProcessor() {
     final NextGroupSelector nextGroupSelector = nextGroupSelectorFactory.newInstance();
-    final AffinityRunnable runnable = new AffinityRunnable(nextGroupSelector, timeout);
-    final Thread thread = affinityThreadFactory.newThread(runnable);
-    return new AffinityEventProcessor(id.getAndIncrement(), thread, runnable);
+    final AffinityRunnable runnable = new AffinityRunnable(nextGroupSelector, timeout, cpuAffinityManager);
+    final int eventProcessorId = id.getAndIncrement();
+    final Thread thread = new Thread(runnable, "Afnty-" + eventProcessorId);
+    thread.setDaemon(true);
+    final AffinityEventProcessor eventProcessor = new AffinityEventProcessor(eventProcessorId, thread, runnable);
+    cpuAffinityManager.assignEventProcessor(eventProcessor);
+    return eventProcessor;
   }
 }
\ No newline at end of file
@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.task.groupaware.eventprocessor;
 
+import edu.snu.mist.core.sinks.SinkBatchFlusher;
 import edu.snu.mist.core.task.groupaware.Group;
 
 import java.util.logging.Logger;
@@ -46,10 +47,16 @@ public final class AffinityRunnable implements Runnable {
    */
   private boolean runningIsolatedGroup;
 
+  /**
+   * The currently processed group.
+   */
+  private volatile Group currProcessedGroup;
+
   /**
    * The start processing time of the current group.
+   * It is written before the current group, so the start time read after the group belongs to the group.
    */
-  private long currProcessedGroupStartTime;
+  private volatile long currProcessedGroupStartTime;
 
   /**
    * The number of processed events in the current processed group.
@@ -66,19 +73,27 @@ public final class AffinityRunnable implements Runnable {
    */
   private final long timeout;
 
+  /**
+   * Cpu affinity manager that pins the thread.
+   */
+  private final CpuAffinityManager cpuAffinityManager;
+
   public AffinityRunnable(final NextGroupSelector nextGroupSelector,
-                          final long timeout) {
+                          final long timeout,
+                          final CpuAffinityManager cpuAffinityManager) {
     this.nextGroupSelector = nextGroupSelector;
     this.load = 0.0;
     this.currProcessedGroupStartTime = System.currentTimeMillis();
     this.numProcessedEvents = 0;
     this.runningIsolatedGroup = false;
     this.timeout = timeout;
+    this.cpuAffinityManager = cpuAffinityManager;
   }
 
   public void close() throws Exception {
     closed = true;
     nextGroupSelector.close();
+    cpuAffinityManager.releaseEventProcessor(ep);
   }
 
   /**
@@ -86,6 +101,8 @@ public final class AffinityRunnable implements Runnable {
    */
   @Override
   public void run() {
+    cpuAffinityManager.bindEventProcessorThread(ep);
+    SinkBatchFlusher.enable();
     try {
       while (!Thread.currentThread().isInterrupted() && !closed) {
         // Pick an active group
@@ -93,7 +110,12 @@ public final class AffinityRunnable implements Runnable {
         //LOG.info("Select group: " + groupInfo.getGroupId());
         if (groupInfo.getEventProcessor() == ep) {
           final long startTime = System.nanoTime();
+          currProcessedGroupStartTime = System.currentTimeMillis();
+          currProcessedGroup = groupInfo;
           numProcessedEvents = groupInfo.processAllEvent(timeout);
+          currProcessedGroup = null;
+          // Send the outputs buffered by the sinks during the batch
+          SinkBatchFlusher.flushPendingSinks();
           final long endTime = System.nanoTime();
           groupInfo.getProcessingEvent().addAndGet(numProcessedEvents);
           groupInfo.getProcessingTime().getAndAdd(endTime - startTime);
@@ -127,7 +149,8 @@ public final class AffinityRunnable implements Runnable {
   }
 
   public RuntimeProcessingInfo getCurrentRuntimeInfo() {
-    return new RuntimeProcessingInfo(currProcessedGroupStartTime, numProcessedEvents);
+    final Group currGroup = currProcessedGroup;
+    return new RuntimeProcessingInfo(currGroup, currProcessedGroupStartTime, numProcessedEvents);
   }
 
   public void setRunningIsolatedGroup(final boolean val) {
@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import edu.snu.mist.core.parameters.Pinning;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.NumIoCores;
+import net.openhft.affinity.Affinity;
+import net.openhft.affinity.AffinityLock;
+import net.openhft.affinity.CpuLayout;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class places the event processors and the I/O threads on the cpus of the machine.
+ * The cpus are ordered by (hyper-thread, socket, core), so the first cpus are distinct physical cores
+ * and the cores of a socket are used before the next socket.
+ * The first NumIoCores cpus are reserved for the I/O threads of netty, kafka and mqtt,
+ * and each event processor is pinned to one of the other cpus exclusively.
+ * If there are more event processors than the cpus, the extra event processors are bound
+ * to the event processor cpus of a socket (NUMA node) in a round-robin manner.
+ * The socket of an event processor is used by the group assigner and the rebalancer
+ * to keep the groups of an application on the same NUMA node.
+ */
+public final class CpuAffinityManager {
+  private static final Logger LOG = Logger.getLogger(CpuAffinityManager.class.getName());
+
+  /**
+   * True if the threads are pinned.
+   */
+  private final boolean pinning;
+
+  /**
+   * The cpu layout of the machine.
+   */
+  private final CpuLayout cpuLayout;
+
+  /**
+   * The cpus reserved for the I/O threads.
+   */
+  private final BitSet ioCpus;
+
+  /**
+   * The cpus for the event processors, in the order of assignment.
+   */
+  private final List<Integer> eventProcessorCpus;
+
+  /**
+   * The event processor cpus of each socket.
+   */
+  private final Map<Integer, BitSet> socketCpus;
+
+  /**
+   * The sockets of the event processor cpus, in the order of the first appearance.
+   */
+  private final List<Integer> sockets;
+
+  /**
+   * Whether the event processor cpu of the index is used exclusively by an event processor.
+   */
+  private final boolean[] usedCpus;
+
+  /**
+   * The number of event processors which do not have an exclusive cpu.
+   */
+  private int sharedPlacementNum;
+
+  /**
+   * True if an event processor is pinned.
+   * The I/O threads are pinned only if the event processors are pinned.
+   */
+  private volatile boolean eventProcessorPinned;
+
+  /**
+   * The placements of the event processors.
+   */
+  private final Map<EventProcessor, Placement> placementMap;
+
+  @Inject
+  private CpuAffinityManager(@Parameter(Pinning.class) final boolean pinning,
+                             @Parameter(NumIoCores.class) final int numIoCores) {
+    this(AffinityLock.cpuLayout(), pinning, numIoCores);
+  }
+
+  CpuAffinityManager(final CpuLayout cpuLayout,
+                     final boolean pinning,
+                     final int numIoCores) {
+    this.cpuLayout = cpuLayout;
+    this.ioCpus = new BitSet();
+    this.eventProcessorCpus = new ArrayList<>();
+    this.socketCpus = new ConcurrentHashMap<>();
+    this.sockets = new ArrayList<>();
+    this.placementMap = new ConcurrentHashMap<>();
+
+    final List<Integer> cpus = new ArrayList<>(cpuLayout.cpus());
+    for (int cpu = 0; cpu < cpuLayout.cpus(); cpu++) {
+      cpus.add(cpu);
+    }
+    Collections.sort(cpus, Comparator.<Integer>comparingInt(cpuLayout::threadId)
+        .thenComparingInt(cpuLayout::socketId)
+        .thenComparingInt(cpuLayout::coreId)
+        .thenComparingInt(Integer::intValue));
+
+    // Keep at least one cpu for the event processors
+    final int ioCpuNum = Math.max(0, Math.min(numIoCores, cpus.size() - 1));
+    for (int i = 0; i < cpus.size(); i++) {
+      final int cpu = cpus.get(i);
+      if (i < ioCpuNum) {
+        ioCpus.set(cpu);
+      } else {
+        eventProcessorCpus.add(cpu);
+        final int socket = cpuLayout.socketId(cpu);
+        if (!socketCpus.containsKey(socket)) {
+          socketCpus.put(socket, new BitSet());
+          sockets.add(socket);
+        }
+        socketCpus.get(socket).set(cpu);
+      }
+    }
+    this.usedCpus = new boolean[eventProcessorCpus.size()];
+    this.pinning = pinning && !eventProcessorCpus.isEmpty();
+    if (this.pinning) {
+      LOG.log(Level.INFO, "Cpu layout: {0} sockets, {1} cores per socket, {2} threads per core. "
+          + "I/O cpus: {3}, event processor cpus: {4}",
+          new Object[]{cpuLayout.sockets(), cpuLayout.coresPerSocket(), cpuLayout.threadsPerCore(),
+              ioCpus, eventProcessorCpus});
+    }
+  }
+
+  /**
+   * Assign cpus to the new event processor.
+   * The event processor takes the first cpu that is not used by other event processors,
+   * or it shares the event processor cpus of a socket if all the cpus are used.
+   * @param eventProcessor event processor
+   */
+  public synchronized void assignEventProcessor(final EventProcessor eventProcessor) {
+    if (!pinning) {
+      return;
+    }
+    eventProcessorPinned = true;
+    for (int i = 0; i < usedCpus.length; i++) {
+      if (!usedCpus[i]) {
+        usedCpus[i] = true;
+        final int cpu = eventProcessorCpus.get(i);
+        final BitSet mask = new BitSet();
+        mask.set(cpu);
+        placementMap.put(eventProcessor, new Placement(i, cpu, cpuLayout.socketId(cpu), mask));
+        return;
+      }
+    }
+    final int socket = sockets.get(sharedPlacementNum % sockets.size());
+    sharedPlacementNum += 1;
+    placementMap.put(eventProcessor, new Placement(-1, -1, socket, socketCpus.get(socket)));
+  }
+
+  /**
+   * Release the cpus of the event processor.
+   * @param eventProcessor event processor
+   */
+  public synchronized void releaseEventProcessor(final EventProcessor eventProcessor) {
+    final Placement placement = placementMap.remove(eventProcessor);
+    if (placement != null && placement.index >= 0) {
+      usedCpus[placement.index] = false;
+    }
+  }
+
+  /**
+   * Bind the current thread to the cpus of the event processor.
+   * It should be called by the thread of the event processor.
+   * @param eventProcessor event processor
+   */
+  public void bindEventProcessorThread(final EventProcessor eventProcessor) {
+    final Placement placement = placementMap.get(eventProcessor);
+    if (placement != null) {
+      bind(placement.cpus);
+    }
+  }
+
+  /**
+   * Bind the current thread to the I/O cpus.
+   * The I/O threads are not bound if the event processors are not pinned.
+   */
+  public void bindIoThread() {
+    if (eventProcessorPinned && !ioCpus.isEmpty()) {
+      bind(ioCpus);
+    }
+  }
+
+  /**
+   * Create a thread factory whose threads are bound to the I/O cpus when they start.
+   * @param threadFactory the thread factory that creates the threads
+   * @return thread factory for I/O threads
+   */
+  public ThreadFactory newIoThreadFactory(final ThreadFactory threadFactory) {
+    return runnable -> threadFactory.newThread(() -> {
+      bindIoThread();
+      runnable.run();
+    });
+  }
+
+  /**
+   * Get the cpu that is used exclusively by the event processor.
+   * @param eventProcessor event processor
+   * @return cpu id, or -1 if the event processor does not have an exclusive cpu
+   */
+  public int getCpu(final EventProcessor eventProcessor) {
+    final Placement placement = placementMap.get(eventProcessor);
+    if (placement == null) {
+      return -1;
+    }
+    return placement.cpu;
+  }
+
+  /**
+   * Get the socket (NUMA node) where the event processor runs.
+   * @param eventProcessor event processor
+   * @return socket id, or -1 if the event processor is not pinned
+   */
+  public int getNumaNode(final EventProcessor eventProcessor) {
+    final Placement placement = placementMap.get(eventProcessor);
+    if (placement == null) {
+      return -1;
+    }
+    return placement.socket;
+  }
+
+  /**
+   * Check whether the two event processors run on the same NUMA node.
+   * @param ep1 event processor
+   * @param ep2 event processor
+   * @return true if both event processors are pinned on the same socket
+   */
+  public boolean isSameNumaNode(final EventProcessor ep1, final EventProcessor ep2) {
+    final int node = getNumaNode(ep1);
+    return node >= 0 && node == getNumaNode(ep2);
+  }
+
+  private void bind(final BitSet cpus) {
+    try {
+      Affinity.setAffinity(cpus);
+    } catch (final RuntimeException | LinkageError e) {
+      // Native affinity is not available in this platform
+      LOG.log(Level.WARNING, "Failed to set the affinity of {0} to {1}: {2}",
+          new Object[]{Thread.currentThread().getName(), cpus, e});
+    }
+  }
+
+  /**
+   * The cpus assigned to an event processor.
+   */
+  private static final class Placement {
+    /**
+     * The index of the exclusive cpu in the event processor cpus, or -1 if the cpus are shared.
+     */
+    private final int index;
+    private final int cpu;
+    private final int socket;
+    private final BitSet cpus;
+
+    Placement(final int index, final int cpu, final int socket, final BitSet cpus) {
+      this.index = index;
+      this.cpu = cpu;
+      this.socket = socket;
+      this.cpus = cpus;
+    }
+  }
+}
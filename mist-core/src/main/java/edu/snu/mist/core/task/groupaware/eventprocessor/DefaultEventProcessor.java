@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.task.groupaware.eventprocessor;
 
+import edu.snu.mist.core.sinks.SinkBatchFlusher;
 import edu.snu.mist.core.task.groupaware.Group;
 
 import java.util.logging.Logger;
@@ -45,20 +46,22 @@ public final class DefaultEventProcessor extends Thread implements EventProcesso
    */
   private double load;
 
-  /**
-   * The currently processed group.
-   */
-  //private volatile SubGroup currProcessedGroup;
 
   /**
    * True if it is running an isolated group.
    */
   private boolean runningIsolatedGroup;
 
+  /**
+   * The currently processed group.
+   */
+  private volatile Group currProcessedGroup;
+
   /**
    * The start processing time of the current group.
+   * It is written before the current group, so the start time read after the group belongs to the group.
    */
-  private long currProcessedGroupStartTime;
+  private volatile long currProcessedGroupStartTime;
 
   /**
    * The number of processed events in the current processed group.
@@ -87,12 +90,18 @@ public final class DefaultEventProcessor extends Thread implements EventProcesso
    */
   @Override
   public void run() {
+    SinkBatchFlusher.enable();
     try {
       while (!Thread.currentThread().isInterrupted() && !closed) {
         // Pick an active group
         final Group groupInfo = nextGroupSelector.getNextExecutableGroup();
         final long startTime = System.nanoTime();
+        currProcessedGroupStartTime = System.currentTimeMillis();
+        currProcessedGroup = groupInfo;
         numProcessedEvents = groupInfo.processAllEvent(timeout);
+        currProcessedGroup = null;
+        // Send the outputs buffered by the sinks during the batch
+        SinkBatchFlusher.flushPendingSinks();
         final long endTime = System.nanoTime();
         groupInfo.getProcessingEvent().addAndGet(numProcessedEvents);
         groupInfo.getProcessingTime().getAndAdd(endTime - startTime);
@@ -138,7 +147,8 @@ public final class DefaultEventProcessor extends Thread implements EventProcesso
 
   @Override
   public RuntimeProcessingInfo getCurrentRuntimeInfo() {
-    return new RuntimeProcessingInfo(currProcessedGroupStartTime, numProcessedEvents);
+    final Group currGroup = currProcessedGroup;
+    return new RuntimeProcessingInfo(currGroup, currProcessedGroupStartTime, numProcessedEvents);
   }
 
   @Override
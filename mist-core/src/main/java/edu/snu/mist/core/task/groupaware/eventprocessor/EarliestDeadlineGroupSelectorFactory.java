@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultLatencySlo;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * The factory of the group selectors which select the group that has the earliest deadline first.
+ * The deadline of a query is the enqueue time of its oldest event plus its latency objective,
+ * so the groups are selected in the order of their oldest events if no query sets the objective.
+ */
+public final class EarliestDeadlineGroupSelectorFactory implements NextGroupSelectorFactory {
+
+  /**
+   * The latency objective of the queries that do not set the objective.
+   */
+  private final long defaultLatencySlo;
+
+  @Inject
+  private EarliestDeadlineGroupSelectorFactory(@Parameter(DefaultLatencySlo.class) final long defaultLatencySlo) {
+    this.defaultLatencySlo = defaultLatencySlo;
+  }
+
+  @Override
+  public NextGroupSelector newInstance() {
+    return new PriorityGroupSelector(group -> group.getEarliestDeadline(defaultLatencySlo));
+  }
+}
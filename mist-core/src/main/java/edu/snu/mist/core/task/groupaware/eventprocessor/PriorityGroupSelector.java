@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupEvent;
+
+import java.util.Collection;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * This schedules groups by their priorities, such as the enqueue time of the oldest event
+ * or the deadline derived from the latency objectives of the queries.
+ * The group with the smallest priority value is selected first, and groups with the same value are selected in FIFO.
+ * The priority of a group is calculated when the group is added to the selector,
+ * which is when the group becomes active or when it is rescheduled after its time slice.
+ */
+public final class PriorityGroupSelector implements NextGroupSelector {
+
+  /**
+   * The queue of the groups ordered by their priorities.
+   */
+  private final PriorityBlockingQueue<PrioritizedGroup> queue;
+
+  /**
+   * The function that calculates the priority value of a group.
+   */
+  private final ToLongFunction<Group> priorityFunction;
+
+  /**
+   * The sequence number of the added groups to break ties.
+   */
+  private final AtomicLong sequence;
+
+  PriorityGroupSelector(final ToLongFunction<Group> priorityFunction) {
+    this.queue = new PriorityBlockingQueue<>();
+    this.priorityFunction = priorityFunction;
+    this.sequence = new AtomicLong();
+  }
+
+  private void add(final Group group) {
+    queue.add(new PrioritizedGroup(group, priorityFunction.applyAsLong(group), sequence.getAndIncrement()));
+  }
+
+  @Override
+  public Group getNextExecutableGroup() {
+    try {
+      while (true) {
+        final PrioritizedGroup prioritizedGroup = queue.take();
+        if (prioritizedGroup.group.setProcessingFromReady()) {
+          return prioritizedGroup.group;
+        } else {
+          add(prioritizedGroup.group);
+        }
+      }
+    } catch (final InterruptedException e) {
+      e.printStackTrace();
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Reschedule the group if it is not miss.
+   */
+  @Override
+  public void reschedule(final Group groupInfo, final boolean miss) {
+    if (!miss) {
+      add(groupInfo);
+    }
+  }
+
+  @Override
+  public boolean removeDispatchedGroup(final Group group) {
+    return queue.removeIf(prioritizedGroup -> prioritizedGroup.group == group);
+  }
+
+  @Override
+  public void reschedule(final Collection<Group> groupInfos) {
+    throw new RuntimeException("not supported");
+  }
+
+  @Override
+  public void onNext(final GroupEvent groupEvent) {
+  }
+
+  @Override
+  public void close() throws Exception {
+  }
+
+  /**
+   * A group with its priority value.
+   */
+  private static final class PrioritizedGroup implements Comparable<PrioritizedGroup> {
+    private final Group group;
+    private final long priority;
+    private final long sequence;
+
+    PrioritizedGroup(final Group group, final long priority, final long sequence) {
+      this.group = group;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(final PrioritizedGroup o) {
+      final int result = Long.compare(priority, o.priority);
+      return result != 0 ? result : Long.compare(sequence, o.sequence);
+    }
+  }
+}
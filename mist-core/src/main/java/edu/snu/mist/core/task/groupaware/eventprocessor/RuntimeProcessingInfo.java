@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.task.groupaware.eventprocessor;
 
+import edu.snu.mist.core.task.groupaware.Group;
 
 /**
  * This class is for the group isolator.
@@ -22,9 +23,9 @@ package edu.snu.mist.core.task.groupaware.eventprocessor;
 public final class RuntimeProcessingInfo {
 
   /**
-   * The currently processed group.
+   * The currently processed group, or null if the event processor does not process a group.
    */
-  //private final SubGroup currGroup;
+  private final Group currGroup;
 
   /**
    * The start time of the group.
@@ -36,19 +37,17 @@ public final class RuntimeProcessingInfo {
    */
   private final long numProcessedEvents;
 
-  public RuntimeProcessingInfo(//final SubGroup currGroup,
+  public RuntimeProcessingInfo(final Group currGroup,
                                final long startTime,
                                final long numProcessedEvents) {
-    //this.currGroup = currGroup;
+    this.currGroup = currGroup;
     this.startTime = startTime;
     this.numProcessedEvents = numProcessedEvents;
   }
 
-  /*
-  public SubGroup getCurrGroup() {
+  public Group getCurrGroup() {
     return currGroup;
   }
-  */
 
   public long getStartTime() {
     return startTime;
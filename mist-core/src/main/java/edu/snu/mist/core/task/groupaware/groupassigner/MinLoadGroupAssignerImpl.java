@@ -15,6 +15,7 @@
  */
 package edu.snu.mist.core.task.groupaware.groupassigner;
 
+import edu.snu.mist.core.task.groupaware.eventprocessor.CpuAffinityManager;
 import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
 import edu.snu.mist.core.task.groupaware.GroupAllocationTable;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupBalancerGracePeriod;
@@ -24,12 +25,16 @@ import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * A group assigner that assigns a new group to the event processor that has the minimum load.
  * Among multiple underloaded event processors, it selects an underloaded event processor randomly.
+ * If the other groups of the application run on pinned event processors,
+ * the underloaded event processors on the same NUMA nodes are preferred to keep the data of the application local.
  */
 public final class MinLoadGroupAssignerImpl implements GroupAssigner {
 
@@ -46,13 +51,20 @@ public final class MinLoadGroupAssignerImpl implements GroupAssigner {
 
   private final double underloadedThreshold;
 
+  /**
+   * Cpu affinity manager that has the NUMA nodes of the event processors.
+   */
+  private final CpuAffinityManager cpuAffinityManager;
+
   @Inject
   private MinLoadGroupAssignerImpl(@Parameter(GroupBalancerGracePeriod.class) final long gracePeriod,
                                    final GroupAllocationTable groupAllocationTable,
-                                   @Parameter(UnderloadedThreshold.class) final double underloadedThreshold) {
+                                   @Parameter(UnderloadedThreshold.class) final double underloadedThreshold,
+                                   final CpuAffinityManager cpuAffinityManager) {
     this.gracePeriod = gracePeriod;
     this.groupAllocationTable = groupAllocationTable;
     this.underloadedThreshold = underloadedThreshold;
+    this.cpuAffinityManager = cpuAffinityManager;
   }
 
   /**
@@ -89,13 +101,54 @@ public final class MinLoadGroupAssignerImpl implements GroupAssigner {
     return under;
   }
 
+  /**
+   * Select the event processors that run on the NUMA nodes of the other groups of the application.
+   * @param groupInfo new group
+   * @param eventProcessors candidate event processors
+   * @return the event processors on the same NUMA nodes
+   */
+  private List<EventProcessor> localThreads(final Group groupInfo,
+                                            final List<EventProcessor> eventProcessors) {
+    final List<EventProcessor> local = new ArrayList<>();
+    if (groupInfo.getApplicationInfo() == null) {
+      return local;
+    }
+    final Set<Integer> numaNodes = new HashSet<>();
+    final List<Group> groups = groupInfo.getApplicationInfo().getGroups();
+    synchronized (groups) {
+      for (final Group group : groups) {
+        if (group != groupInfo && group.getEventProcessor() != null) {
+          final int numaNode = cpuAffinityManager.getNumaNode(group.getEventProcessor());
+          if (numaNode >= 0) {
+            numaNodes.add(numaNode);
+          }
+        }
+      }
+    }
+    if (!numaNodes.isEmpty()) {
+      for (final EventProcessor eventProcessor : eventProcessors) {
+        if (numaNodes.contains(cpuAffinityManager.getNumaNode(eventProcessor))) {
+          local.add(eventProcessor);
+        }
+      }
+    }
+    return local;
+  }
+
   /**
    * Assign the new group to the event processor.
    * @param groupInfo new group
    */
   @Override
   public void assignGroup(final Group groupInfo) {
-    final List<EventProcessor> uThreads = underloadedThreads();
+    final List<EventProcessor> underloaded = underloadedThreads();
+    final List<EventProcessor> localUnderloaded = localThreads(groupInfo, underloaded);
+    final List<EventProcessor> uThreads;
+    if (localUnderloaded.isEmpty()) {
+      uThreads = underloaded;
+    } else {
+      uThreads = localUnderloaded;
+    }
 
     if (uThreads.size() > 0) {
       final int index = random.nextInt(uThreads.size());
@@ -15,13 +15,26 @@
  */
 package edu.snu.mist.core.task.groupaware.rebalancer;
 
-import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessorFactory;
-import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.IsolationTriggerPeriod;
+import edu.snu.mist.core.task.groupaware.Group;
 import edu.snu.mist.core.task.groupaware.GroupAllocationTable;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessorFactory;
 import edu.snu.mist.core.task.groupaware.eventprocessor.RuntimeProcessingInfo;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.EventProcessorUpperBound;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.IsolationReleasePeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.IsolationTriggerPeriod;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.UnderloadedThreshold;
+import edu.snu.mist.core.task.groupaware.groupassigner.GroupAssigner;
+import edu.snu.mist.core.task.groupaware.parameters.ProcessingTimeout;
 import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -34,6 +47,13 @@ import java.util.logging.Logger;
  * 2) When processing a group is not finished because of adversarial operations,
  * such as sleep(10000) and while (true) {}, it isolates the group in the current thread
  * and moves all groups except for the isolated group to a new thread.
+ *
+ * The group is preemptible if it has been processed shorter than the processing timeout,
+ * because the group checks the timeout between the queries and yields the event processor.
+ * An isolated group is merged back to the normal event processors and the new thread is closed,
+ * if the group is not processed longer than the isolation trigger period during the isolation release period
+ * and its load is less than the underloaded threshold.
+ * All the methods are called by the single writer thread of the group allocation table.
  */
 public final class DefaultGroupIsolatorImpl implements GroupIsolator {
   private static final Logger LOG = Logger.getLogger(DefaultGroupIsolatorImpl.class.getName());
@@ -42,80 +62,253 @@ public final class DefaultGroupIsolatorImpl implements GroupIsolator {
   private final EventProcessorFactory eventProcessorFactory;
   private final long isolationTriggerPeriod;
 
+  /**
+   * Group assigner that assigns the released group to a normal event processor.
+   */
+  private final GroupAssigner groupAssigner;
+
+  /**
+   * The period during which an isolated group should not be overloaded to be released.
+   */
+  private final long isolationReleasePeriod;
+
+  /**
+   * The processing timeout of a group.
+   */
+  private final long processingTimeout;
+
+  /**
+   * The maximum number of event processors.
+   */
+  private final int eventProcessorUpperBound;
+
+  /**
+   * The maximum load of an isolated group to be released.
+   */
+  private final double underloadedThreshold;
+
+  /**
+   * The current isolations.
+   */
+  private final List<Isolation> isolations;
+
   @Inject
   private DefaultGroupIsolatorImpl(final GroupAllocationTable groupAllocationTable,
                                    final EventProcessorFactory eventProcessorFactory,
-                                   @Parameter(IsolationTriggerPeriod.class) final long isolationTriggerPeriod) {
+                                   final GroupAssigner groupAssigner,
+                                   @Parameter(IsolationTriggerPeriod.class) final long isolationTriggerPeriod,
+                                   @Parameter(IsolationReleasePeriod.class) final long isolationReleasePeriod,
+                                   @Parameter(ProcessingTimeout.class) final long processingTimeout,
+                                   @Parameter(EventProcessorUpperBound.class) final int eventProcessorUpperBound,
+                                   @Parameter(UnderloadedThreshold.class) final double underloadedThreshold) {
     this.groupAllocationTable = groupAllocationTable;
     this.eventProcessorFactory = eventProcessorFactory;
+    this.groupAssigner = groupAssigner;
     this.isolationTriggerPeriod = isolationTriggerPeriod;
+    this.isolationReleasePeriod = isolationReleasePeriod;
+    this.processingTimeout = processingTimeout;
+    this.eventProcessorUpperBound = eventProcessorUpperBound;
+    this.underloadedThreshold = underloadedThreshold;
+    this.isolations = new LinkedList<>();
   }
 
   /**
    * Check whether the group is preemptible.
-   * We decide the group is preemtible if the number of processed events > 0.
+   * We decide the group is preemptible if it is processed shorter than the processing timeout,
+   * which means that the group will yield the event processor after the timeout.
    * @param runtimeProcessingInfo runtime processing info
+   * @param currTime current time
    * @return True if it is preemptible
    */
-  private boolean isPreemptible(final RuntimeProcessingInfo runtimeProcessingInfo) {
-    final long numProcessedEvents = runtimeProcessingInfo.getNumProcessedEvents();
-    return numProcessedEvents > 0;
+  private boolean isPreemptible(final RuntimeProcessingInfo runtimeProcessingInfo, final long currTime) {
+    return currTime - runtimeProcessingInfo.getStartTime() <= processingTimeout;
+  }
+
+  /**
+   * Check whether the event processor is processing the group longer than the isolation trigger period.
+   */
+  private boolean isOverloaded(final RuntimeProcessingInfo runtimeProcessingInfo,
+                               final Group group,
+                               final long currTime) {
+    return runtimeProcessingInfo.getCurrGroup() == group
+        && currTime - runtimeProcessingInfo.getStartTime() >= isolationTriggerPeriod;
+  }
+
+  /**
+   * Move the group to the event processor.
+   */
+  private void moveGroup(final Group group,
+                         final EventProcessor src,
+                         final EventProcessor dest) {
+    groupAllocationTable.getValue(src).remove(group);
+    groupAllocationTable.getValue(dest).add(group);
+    group.setEventProcessor(dest);
+    // The group is rescheduled to the destination if it is waiting in the source.
+    // Otherwise, the group is rescheduled to the destination when it becomes active or yields the source.
+    if (src.removeActiveGroup(group)) {
+      dest.addActiveGroup(group);
+    }
   }
 
   @Override
   public void triggerIsolation() {
-    /* TODO: re-implement this method
-    final List<EventProcessor> eventProcessors = groupAllocationTable.getKeys();
-    for (final EventProcessor eventProcessor : eventProcessors) {
-      if (!eventProcessor.isRunningIsolatedGroup()) {
-        final RuntimeProcessingInfo runtimeProcessingInfo = eventProcessor.getCurrentRuntimeInfo();
-        final SubGroup groupInfo = runtimeProcessingInfo.getCurrGroup();
-        final long startTime = runtimeProcessingInfo.getStartTime();
-        final long elapsedTime = System.currentTimeMillis() - startTime;
-
-        if (groupInfo != null && elapsedTime >= isolationTriggerPeriod && groupInfo.setIsolated()) {
-          LOG.log(Level.INFO, "Creating a new thread for isolation: {0}",
-              new Object[]{groupInfo});
-
-          // create a new thread
-          final EventProcessor newEP = eventProcessorFactory.newEventProcessor();
-          newEP.start();
-          groupAllocationTable.put(newEP);
-          final Collection<SubGroup> destGroups = groupAllocationTable.getValue(newEP);
-
-          // Groups of the current event processor
-          final Collection<SubGroup> srcGroups = groupAllocationTable.getValue(eventProcessor);
-
-          if (isPreemptible(runtimeProcessingInfo)) {
-            // The new thread runs an isolated group
-            newEP.setRunningIsolatedGroup(true);
-
-            // Move the preemptible group to the new thread
-            // Add the group to the new thread
-            destGroups.add(groupInfo);
-            // Remove the group from the previous thread
-            srcGroups.remove(groupInfo);
-            eventProcessor.removeActiveGroup(groupInfo);
-
-          } else {
-            // The new thread is a normal, but the current thread should be run an isolated group
-            eventProcessor.setRunningIsolatedGroup(true);
-            newEP.setRunningIsolatedGroup(false);
-
-            // Move remaining groups to the new thread and isolate the current group in the current thread
-            final Iterator<SubGroup> iterator = srcGroups.iterator();
-            while (iterator.hasNext()) {
-              final SubGroup groupToMove = iterator.next();
-              if (!groupToMove.equals(groupInfo)) {
-                destGroups.add(groupToMove);
-                iterator.remove();
-                eventProcessor.removeActiveGroup(groupToMove);
-              }
-            }
+    final long currTime = System.currentTimeMillis();
+    releaseIsolations(currTime);
+    isolateOverloadedGroups(currTime);
+  }
+
+  /**
+   * Isolate the groups which are processed longer than the isolation trigger period.
+   */
+  private void isolateOverloadedGroups(final long currTime) {
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      if (eventProcessor.isRunningIsolatedGroup()) {
+        continue;
+      }
+
+      final RuntimeProcessingInfo runtimeProcessingInfo = eventProcessor.getCurrentRuntimeInfo();
+      final Group groupInfo = runtimeProcessingInfo.getCurrGroup();
+      final Collection<Group> srcGroups = groupAllocationTable.getValue(eventProcessor);
+      // Isolation does not help other groups if the group is the only group of the event processor
+      if (groupInfo == null || srcGroups == null || srcGroups.size() <= 1
+          || groupInfo.getEventProcessor() != eventProcessor
+          || !isOverloaded(runtimeProcessingInfo, groupInfo, currTime)) {
+        continue;
+      }
+
+      if (groupAllocationTable.size() >= eventProcessorUpperBound) {
+        LOG.log(Level.WARNING, "Cannot isolate {0} because the number of event processors reaches {1}",
+            new Object[]{groupInfo, eventProcessorUpperBound});
+        return;
+      }
+
+      // create a new thread
+      final EventProcessor newEP = eventProcessorFactory.newEventProcessor();
+      groupAllocationTable.put(newEP);
+
+      if (isPreemptible(runtimeProcessingInfo, currTime)) {
+        // The new thread runs an isolated group
+        newEP.setRunningIsolatedGroup(true);
+        newEP.start();
+        // Move the preemptible group to the new thread
+        moveGroup(groupInfo, eventProcessor, newEP);
+        eventProcessor.setLoad(Math.max(0, eventProcessor.getLoad() - groupInfo.getLoad()));
+        newEP.setLoad(groupInfo.getLoad());
+        isolations.add(new Isolation(groupInfo, newEP, newEP, currTime));
+      } else {
+        // The new thread is a normal, but the current thread should be run an isolated group
+        eventProcessor.setRunningIsolatedGroup(true);
+        newEP.start();
+        // Move remaining groups to the new thread and isolate the current group in the current thread
+        for (final Group groupToMove : new ArrayList<>(srcGroups)) {
+          if (groupToMove != groupInfo) {
+            moveGroup(groupToMove, eventProcessor, newEP);
           }
         }
+        newEP.setLoad(Math.max(0, eventProcessor.getLoad() - groupInfo.getLoad()));
+        eventProcessor.setLoad(groupInfo.getLoad());
+        isolations.add(new Isolation(groupInfo, eventProcessor, newEP, currTime));
+      }
+
+      LOG.log(Level.INFO, "Isolate {0} in {1} (preemptible: {2})",
+          new Object[]{groupInfo, groupInfo.getEventProcessor(), newEP.isRunningIsolatedGroup()});
+    }
+  }
+
+  /**
+   * Release the isolated groups that are not overloaded anymore, and close the event processors created for them.
+   */
+  private void releaseIsolations(final long currTime) {
+    final Iterator<Isolation> iterator = isolations.iterator();
+    while (iterator.hasNext()) {
+      final Isolation isolation = iterator.next();
+      final Collection<Group> isolatedGroups = groupAllocationTable.getValue(isolation.isolatedEventProcessor);
+      if (isolatedGroups == null) {
+        // The event processor is already removed
+        iterator.remove();
+        continue;
       }
+
+      final RuntimeProcessingInfo runtimeProcessingInfo = isolation.isolatedEventProcessor.getCurrentRuntimeInfo();
+      if (isOverloaded(runtimeProcessingInfo, isolation.group, currTime)) {
+        isolation.latestOverloadedTime = currTime;
+      } else if (currTime - isolation.latestOverloadedTime >= isolationReleasePeriod
+          && isolation.group.getLoad() < underloadedThreshold) {
+        release(isolation, isolatedGroups);
+        iterator.remove();
+      }
+    }
+  }
+
+  private void release(final Isolation isolation, final Collection<Group> isolatedGroups) {
+    final EventProcessor isolatedEP = isolation.isolatedEventProcessor;
+    final EventProcessor newEP = isolation.newEventProcessor;
+    final EventProcessor closedEP;
+
+    if (isolatedEP == newEP) {
+      // The group was moved to the new thread: assign it to a normal thread
+      groupAllocationTable.remove(newEP);
+      if (isolatedGroups.contains(isolation.group)) {
+        groupAssigner.assignGroup(isolation.group);
+        if (newEP.removeActiveGroup(isolation.group)) {
+          isolation.group.getEventProcessor().addActiveGroup(isolation.group);
+        }
+      }
+      closedEP = newEP;
+    } else {
+      // The other groups were moved to the new thread: move them back to the current thread
+      final Collection<Group> movedGroups = groupAllocationTable.getValue(newEP);
+      if (movedGroups != null) {
+        for (final Group group : new ArrayList<>(movedGroups)) {
+          moveGroup(group, newEP, isolatedEP);
+        }
+        isolatedEP.setLoad(isolatedEP.getLoad() + newEP.getLoad());
+        groupAllocationTable.remove(newEP);
+      }
+      isolatedEP.setRunningIsolatedGroup(false);
+      closedEP = newEP;
+    }
+
+    try {
+      closedEP.close();
+    } catch (final Exception e) {
+      LOG.log(Level.WARNING, "Failed to close {0}: {1}", new Object[]{closedEP, e});
+    }
+    LOG.log(Level.INFO, "Release the isolation of {0} and close {1}", new Object[]{isolation.group, closedEP});
+  }
+
+  /**
+   * An isolated group and the event processors used for the isolation.
+   */
+  private static final class Isolation {
+    /**
+     * The isolated group.
+     */
+    private final Group group;
+
+    /**
+     * The event processor that runs the isolated group only.
+     */
+    private final EventProcessor isolatedEventProcessor;
+
+    /**
+     * The event processor created for the isolation, which is closed when the isolation is released.
+     */
+    private final EventProcessor newEventProcessor;
+
+    /**
+     * The latest time when the group was processed longer than the isolation trigger period.
+     */
+    private long latestOverloadedTime;
+
+    Isolation(final Group group,
+              final EventProcessor isolatedEventProcessor,
+              final EventProcessor newEventProcessor,
+              final long latestOverloadedTime) {
+      this.group = group;
+      this.isolatedEventProcessor = isolatedEventProcessor;
+      this.newEventProcessor = newEventProcessor;
+      this.latestOverloadedTime = latestOverloadedTime;
     }
-    */
   }
-}
\ No newline at end of file
+}
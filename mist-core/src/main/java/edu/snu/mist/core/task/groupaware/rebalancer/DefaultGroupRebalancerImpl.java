@@ -18,6 +18,7 @@ package edu.snu.mist.core.task.groupaware.rebalancer;
 import edu.snu.mist.core.task.Query;
 import edu.snu.mist.core.task.groupaware.Group;
 import edu.snu.mist.core.task.groupaware.GroupAllocationTable;
+import edu.snu.mist.core.task.groupaware.eventprocessor.CpuAffinityManager;
 import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.GroupRebalancingPeriod;
 import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.OverloadedThreshold;
@@ -39,6 +40,8 @@ import java.util.logging.Logger;
  *
  * After finding the overloaded and underloaded threads, it moves the groups
  * assiged to the overloaded threads to the underloaded threads.
+ * Among the underloaded threads that can receive a group, the threads on the same NUMA node
+ * as the overloaded thread are preferred, so that the state of the group stays in the local memory.
  */
 public final class DefaultGroupRebalancerImpl implements GroupRebalancer {
   private static final Logger LOG = Logger.getLogger(DefaultGroupRebalancerImpl.class.getName());
@@ -73,19 +76,26 @@ public final class DefaultGroupRebalancerImpl implements GroupRebalancer {
    */
   private final long groupPinningTime;
 
+  /**
+   * Cpu affinity manager that has the NUMA nodes of the event processors.
+   */
+  private final CpuAffinityManager cpuAffinityManager;
+
   @Inject
   private DefaultGroupRebalancerImpl(final GroupAllocationTable groupAllocationTable,
                                      @Parameter(GroupRebalancingPeriod.class) final long rebalancingPeriod,
                                      @Parameter(GroupPinningTime.class) final long groupPinningTime,
                                      @Parameter(DefaultGroupLoad.class) final double defaultGroupLoad,
                                      @Parameter(OverloadedThreshold.class) final double beta,
-                                     @Parameter(UnderloadedThreshold.class) final double alpha) {
+                                     @Parameter(UnderloadedThreshold.class) final double alpha,
+                                     final CpuAffinityManager cpuAffinityManager) {
     this.groupAllocationTable = groupAllocationTable;
     this.rebalancingPeriod = rebalancingPeriod;
     this.defaultGroupLoad = defaultGroupLoad;
     this.alpha = alpha;
     this.beta = beta;
     this.groupPinningTime = groupPinningTime;
+    this.cpuAffinityManager = cpuAffinityManager;
   }
 
   /**
@@ -175,6 +185,35 @@ public final class DefaultGroupRebalancerImpl implements GroupRebalancer {
     return g;
   }
 
+  /**
+   * Select the underloaded thread which receives the group of the overloaded thread, and remove it from the queue.
+   * The thread with the minimum load on the same NUMA node is selected if it can receive the group.
+   * Otherwise, the thread with the minimum load is selected.
+   * @return the selected thread, or null if no thread can receive the group
+   */
+  private EventProcessor pollLowLoadThread(final EventProcessor highLoadThread,
+                                           final double groupLoad,
+                                           final double targetLoad,
+                                           final PriorityQueue<EventProcessor> underloadedThreads) {
+    EventProcessor local = null;
+    for (final EventProcessor eventProcessor : underloadedThreads) {
+      if (eventProcessor.getLoad() + groupLoad <= targetLoad
+          && cpuAffinityManager.isSameNumaNode(highLoadThread, eventProcessor)
+          && (local == null || eventProcessor.getLoad() < local.getLoad())) {
+        local = eventProcessor;
+      }
+    }
+    if (local != null) {
+      underloadedThreads.remove(local);
+      return local;
+    }
+    final EventProcessor peek = underloadedThreads.peek();
+    if (peek != null && peek.getLoad() + groupLoad <= targetLoad) {
+      return underloadedThreads.poll();
+    }
+    return null;
+  }
+
   private void moveGroup(final Group highLoadGroup,
                          final Collection<Group> highLoadGroups,
                          final EventProcessor highLoadThread,
@@ -275,9 +314,9 @@ public final class DefaultGroupRebalancerImpl implements GroupRebalancer {
               // Just rebalance
               if (!highLoadGroup.isSplited()) {
                 if (highLoadThread.getLoad() - groupLoad >= targetLoad) {
-                  final EventProcessor peek = underloadedThreads.peek();
-                  if (peek.getLoad() + groupLoad <= targetLoad) {
-                    final EventProcessor lowLoadThread = underloadedThreads.poll();
+                  final EventProcessor lowLoadThread =
+                      pollLowLoadThread(highLoadThread, groupLoad, targetLoad, underloadedThreads);
+                  if (lowLoadThread != null) {
                     moveGroup(highLoadGroup, highLoadGroups, highLoadThread, lowLoadThread, underloadedThreads);
                     rebNum += 1;
                     highLoadGroup.setLatestMovedTime(System.currentTimeMillis());
@@ -19,6 +19,9 @@ import edu.snu.mist.core.operators.StateHandler;
 import edu.snu.mist.core.sources.DataGenerator;
 import edu.snu.mist.core.sources.EventGenerator;
 import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.metrics.OperatorProfile;
+import edu.snu.mist.core.task.metrics.parameters.OperatorProfiling;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.formats.AvroConfigurationSerializer;
 
 import javax.inject.Inject;
@@ -38,11 +41,18 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
   private final PhysicalObjectGenerator physicalObjectGenerator;
   private final AvroConfigurationSerializer avroConfigurationSerializer;
 
+  /**
+   * True if the operators are profiled.
+   */
+  private final boolean operatorProfiling;
+
   @Inject
   private DefaultExecutionVertexGeneratorImpl(final IdGenerator idGenerator,
                                               final AvroConfigurationSerializer avroConfigurationSerializer,
-                                              final PhysicalObjectGenerator physicalObjectGenerator) {
+                                              final PhysicalObjectGenerator physicalObjectGenerator,
+                                              @Parameter(OperatorProfiling.class) final boolean operatorProfiling) {
     this.idGenerator = idGenerator;
+    this.operatorProfiling = operatorProfiling;
     this.avroConfigurationSerializer = avroConfigurationSerializer;
     this.physicalObjectGenerator = physicalObjectGenerator;
   }
@@ -67,7 +77,8 @@ final class DefaultExecutionVertexGeneratorImpl implements ExecutionVertexGenera
         final String operatorId = idGenerator.generateOperatorId();
         final Map<String, String> conf = configVertex.getConfiguration();
         final PhysicalOperator operator = new DefaultPhysicalOperatorImpl(operatorId, conf,
-            physicalObjectGenerator.newOperator(conf, classLoader));
+            physicalObjectGenerator.newOperator(conf, classLoader),
+            operatorProfiling ? new OperatorProfile() : null);
         if (configVertex.getState().size() != 0) {
           ((StateHandler) operator.getOperator()).setState(
               StateSerializer.deserializeStateMap(configVertex.getState(), classLoader));
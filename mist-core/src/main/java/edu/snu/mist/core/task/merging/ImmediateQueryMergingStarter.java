@@ -200,7 +200,7 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
 
         for (final Map.Entry<ConfigVertex, MISTEdge> child : submittedDag.getEdges(source).entrySet()) {
           dfsMerge(subDagMap, visited, executionVertex,
-              child.getValue(), child.getKey(), sharableExecutionDag, submittedDag, urls, classLoader);
+              child.getValue(), child.getKey(), sharableExecutionDag, submittedDag, query, urls, classLoader);
         }
       }
 
@@ -282,6 +282,7 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
    * @param currentVertex current (config) vertex
    * @param executionDag execution dag that merges the submitted dag
    * @param submittedDag submitted dag
+   * @param query the submitted query
    * @param urls urls for creating execution vertices
    * @param classLoader classLoader for creating execution vertices
    */
@@ -292,6 +293,7 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
                         final ConfigVertex currentVertex,
                         final ExecutionDag executionDag,
                         final DAG<ConfigVertex, MISTEdge> submittedDag,
+                        final Query query,
                         final URL[] urls,
                         final ClassLoader classLoader) throws IOException, ClassNotFoundException {
     if (visited.contains(currentVertex)) {
@@ -311,6 +313,10 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
       executionDag.getDag().addVertex(correspondingVertex);
       executionVertexCountMap.put(correspondingVertex, 1);
       executionVertexDagMap.put(correspondingVertex, executionDag);
+      if (correspondingVertex.getType() == ExecutionVertex.Type.OPERATOR) {
+        // The replicas of a new parallel operator are processed by the submitted query
+        QueryStarterUtils.setUpReplicas((PhysicalOperator) correspondingVertex, query);
+      }
     } else {
       // It is shared, so increase the reference count
       executionVertexCountMap.put(correspondingVertex, executionVertexCountMap.get(correspondingVertex) + 1);
@@ -326,7 +332,7 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
         outputEmitterUpdateNeeded = true;
       }
       dfsMerge(subDagMap, visited, correspondingVertex, neighbor.getValue(),
-        child, executionDag, submittedDag, urls, classLoader);
+        child, executionDag, submittedDag, query, urls, classLoader);
     }
 
     // [TODO:MIST-527] Integrate ExecutionVertex and PhysicalVertex
@@ -339,8 +345,9 @@ public final class ImmediateQueryMergingStarter implements QueryStarter {
         s.setOutputEmitter(new NonBlockingQueueSourceOutputEmitter<>(
             executionDag.getDag().getEdges(correspondingVertex), sourceOutputEmitter.getQuery()));
       } else if (correspondingVertex.getType() == ExecutionVertex.Type.OPERATOR) {
-        ((PhysicalOperator)correspondingVertex).getOperator().setOutputEmitter(
-            new OperatorOutputEmitter(executionDag.getDag().getEdges(correspondingVertex)));
+        final PhysicalOperator physicalOperator = (PhysicalOperator) correspondingVertex;
+        physicalOperator.getOperator().setOutputEmitter(QueryStarterUtils.newOperatorOutputEmitter(
+            executionDag.getDag().getEdges(correspondingVertex), physicalOperator.getProfile()));
       }
     }
 
@@ -19,6 +19,9 @@ import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.core.task.*;
 import edu.snu.mist.core.task.QueryRemover;
+import edu.snu.mist.core.task.groupaware.GroupAllocationTableModifier;
+import edu.snu.mist.core.task.groupaware.WritingEvent;
+import edu.snu.mist.core.task.parallel.ParallelOperator;
 
 import javax.inject.Inject;
 import java.util.Collection;
@@ -63,19 +66,26 @@ public final class MergeAwareQueryRemover implements QueryRemover {
    */
   private final ExecutionVertexDagMap executionVertexDagMap;
 
+  /**
+   * The modifier of the group allocation table, which removes the groups of the replica queries.
+   */
+  private final GroupAllocationTableModifier groupAllocationTableModifier;
+
   @Inject
   private MergeAwareQueryRemover(final QueryIdConfigDagMap queryIdConfigDagMap,
                                  final SrcAndDagMap<Map<String, String>> srcAndDagMap,
                                  final ExecutionDags executionDags,
                                  final ExecutionVertexCountMap executionVertexCountMap,
                                  final ConfigExecutionVertexMap configExecutionVertexMap,
-                                 final ExecutionVertexDagMap executionVertexDagMap) {
+                                 final ExecutionVertexDagMap executionVertexDagMap,
+                                 final GroupAllocationTableModifier groupAllocationTableModifier) {
     this.srcAndDagMap = srcAndDagMap;
     this.queryIdConfigDagMap = queryIdConfigDagMap;
     this.configExecutionVertexMap = configExecutionVertexMap;
     this.executionVertexCountMap = executionVertexCountMap;
     this.executionDags = executionDags;
     this.executionVertexDagMap = executionVertexDagMap;
+    this.groupAllocationTableModifier = groupAllocationTableModifier;
   }
 
   /**
@@ -109,6 +119,14 @@ public final class MergeAwareQueryRemover implements QueryRemover {
             } catch (Exception e) {
               e.printStackTrace();
             }
+          } else if (executionVertex.getType() == ExecutionVertex.Type.OPERATOR
+              && ((PhysicalOperator) executionVertex).getOperator() instanceof ParallelOperator) {
+            // Remove the groups of the replica queries
+            for (final Query replica
+                : ((ParallelOperator) ((PhysicalOperator) executionVertex).getOperator()).getReplicaQueries()) {
+              groupAllocationTableModifier.addEvent(
+                  new WritingEvent(WritingEvent.EventType.REPLICA_REMOVE, replica));
+            }
           }
 
           // Remove the executionDag if the size is 0
@@ -16,6 +16,9 @@
 package edu.snu.mist.core.task.merging;
 
 import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.groupaware.GroupAllocationTableModifier;
+import edu.snu.mist.core.task.groupaware.WritingEvent;
+import edu.snu.mist.core.task.parallel.ParallelOperator;
 
 import javax.inject.Inject;
 
@@ -29,10 +32,17 @@ public final class NoMergingAwareQueryRemover implements QueryRemover {
    * The map that has the query id as a key and its execution dag as a value.
    */
   private final ExecutionPlanDagMap executionPlanDagMap;
-  
+
+  /**
+   * The modifier of the group allocation table, which removes the groups of the replica queries.
+   */
+  private final GroupAllocationTableModifier groupAllocationTableModifier;
+
   @Inject
-  private NoMergingAwareQueryRemover(final ExecutionPlanDagMap executionPlanDagMap) {
+  private NoMergingAwareQueryRemover(final ExecutionPlanDagMap executionPlanDagMap,
+                                     final GroupAllocationTableModifier groupAllocationTableModifier) {
     this.executionPlanDagMap = executionPlanDagMap;
+    this.groupAllocationTableModifier = groupAllocationTableModifier;
   }
 
   /**
@@ -50,6 +60,15 @@ public final class NoMergingAwareQueryRemover implements QueryRemover {
         e.printStackTrace();
       }
     }
+    // Remove the groups of the replica queries
+    for (final ExecutionVertex vertex : executionDag.getDag().getVertices()) {
+      if (vertex.getType() == ExecutionVertex.Type.OPERATOR
+          && ((PhysicalOperator) vertex).getOperator() instanceof ParallelOperator) {
+        for (final Query replica : ((ParallelOperator) ((PhysicalOperator) vertex).getOperator()).getReplicaQueries()) {
+          groupAllocationTableModifier.addEvent(new WritingEvent(WritingEvent.EventType.REPLICA_REMOVE, replica));
+        }
+      }
+    }
   }
 
   @Override
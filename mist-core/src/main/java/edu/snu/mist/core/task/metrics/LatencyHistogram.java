@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of the latencies in nanoseconds, which is recorded concurrently by the event processors.
+ * Like HdrHistogram, each power of two range of the values is divided into SUB_BUCKET_NUM linear buckets,
+ * so the relative error of the recorded values is lower than 1 / SUB_BUCKET_NUM.
+ * The buckets are allocated when the first value is recorded,
+ * so a histogram that does not get any sampled latency uses little memory.
+ * The recorded values are accumulated until merge() is called periodically,
+ * which moves them into the snapshot of the last interval and resets the buckets.
+ */
+public final class LatencyHistogram {
+
+  /**
+   * The number of bits of the linear buckets in a power of two range.
+   */
+  private static final int SUB_BUCKET_BITS = 4;
+
+  /**
+   * The number of linear buckets in a power of two range.
+   */
+  private static final int SUB_BUCKET_NUM = 1 << SUB_BUCKET_BITS;
+
+  /**
+   * The number of buckets that cover the positive long values.
+   */
+  private static final int BUCKET_NUM = (Long.SIZE - 2 - SUB_BUCKET_BITS) * SUB_BUCKET_NUM + 2 * SUB_BUCKET_NUM;
+
+  /**
+   * The snapshot of a histogram without any recorded value.
+   */
+  private static final LatencySnapshot EMPTY_SNAPSHOT = new LatencySnapshot(0L, 0.0, 0L, 0L, 0L, 0L);
+
+  /**
+   * The recorded values, which are created on the first record.
+   */
+  private volatile Buckets buckets;
+
+  /**
+   * The snapshot of the values recorded in the last interval.
+   */
+  private volatile LatencySnapshot lastIntervalSnapshot;
+
+  public LatencyHistogram() {
+    this.buckets = null;
+    this.lastIntervalSnapshot = EMPTY_SNAPSHOT;
+  }
+
+  /**
+   * Get the index of the bucket that contains the value.
+   * @param value non-negative value
+   * @return bucket index
+   */
+  static int getBucketIndex(final long value) {
+    final int shift = Math.max(0, Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+    return shift * SUB_BUCKET_NUM + (int) (value >>> shift);
+  }
+
+  /**
+   * Get the largest value of the bucket.
+   * @param index bucket index
+   * @return the largest value which is counted in the bucket
+   */
+  static long getBucketUpperBound(final int index) {
+    if (index < 2 * SUB_BUCKET_NUM) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKET_NUM - 1;
+    final long subBucket = index - shift * SUB_BUCKET_NUM;
+    return ((subBucket + 1) << shift) - 1;
+  }
+
+  private Buckets getOrCreateBuckets() {
+    Buckets current = buckets;
+    if (current == null) {
+      synchronized (this) {
+        current = buckets;
+        if (current == null) {
+          current = new Buckets();
+          buckets = current;
+        }
+      }
+    }
+    return current;
+  }
+
+  /**
+   * Record a latency.
+   * @param latency latency in nanoseconds
+   */
+  public void record(final long latency) {
+    final long value = Math.max(0L, latency);
+    final Buckets current = getOrCreateBuckets();
+    current.counts.incrementAndGet(getBucketIndex(value));
+    current.totalCount.incrementAndGet();
+    current.totalValue.addAndGet(value);
+    current.maxValue.accumulateAndGet(value, Math::max);
+  }
+
+  /**
+   * Record the latency from the given time.
+   * @param startNanoTime the start time from System.nanoTime()
+   */
+  public void recordSince(final long startNanoTime) {
+    record(System.nanoTime() - startNanoTime);
+  }
+
+  /**
+   * Add the recorded values of the other histogram to this histogram.
+   * @param other other histogram
+   */
+  public void add(final LatencyHistogram other) {
+    final Buckets otherBuckets = other.buckets;
+    if (otherBuckets == null) {
+      return;
+    }
+    final Buckets current = getOrCreateBuckets();
+    for (int i = 0; i < BUCKET_NUM; i++) {
+      final long count = otherBuckets.counts.get(i);
+      if (count != 0L) {
+        current.counts.addAndGet(i, count);
+      }
+    }
+    current.totalCount.addAndGet(otherBuckets.totalCount.get());
+    current.totalValue.addAndGet(otherBuckets.totalValue.get());
+    current.maxValue.accumulateAndGet(otherBuckets.maxValue.get(), Math::max);
+  }
+
+  /**
+   * @return the number of recorded values
+   */
+  public long getCount() {
+    final Buckets current = buckets;
+    return current == null ? 0L : current.totalCount.get();
+  }
+
+  /**
+   * Get the value at the percentile.
+   * The value is the largest value that is counted in the same bucket as the exact value.
+   * @param percentile percentile between 0 and 100
+   * @return the value at the percentile, or 0 if there is no recorded value
+   */
+  public long getValueAtPercentile(final double percentile) {
+    return getValueAtPercentile(buckets, percentile);
+  }
+
+  private static long getValueAtPercentile(final Buckets current, final double percentile) {
+    if (current == null) {
+      return 0L;
+    }
+    long totalCount = 0L;
+    final long[] counts = new long[BUCKET_NUM];
+    for (int i = 0; i < BUCKET_NUM; i++) {
+      counts[i] = current.counts.get(i);
+      totalCount += counts[i];
+    }
+    final long targetCount = Math.max(1L, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * totalCount));
+    long accumulatedCount = 0L;
+    for (int i = 0; i < BUCKET_NUM; i++) {
+      accumulatedCount += counts[i];
+      if (accumulatedCount >= targetCount) {
+        return Math.min(getBucketUpperBound(i), current.maxValue.get());
+      }
+    }
+    return 0L;
+  }
+
+  /**
+   * @return a snapshot of the values recorded since the last merge
+   */
+  public LatencySnapshot getSnapshot() {
+    return getSnapshot(buckets);
+  }
+
+  private static LatencySnapshot getSnapshot(final Buckets current) {
+    if (current == null) {
+      return EMPTY_SNAPSHOT;
+    }
+    final long count = current.totalCount.get();
+    final double mean = count == 0L ? 0.0 : (double) current.totalValue.get() / count;
+    return new LatencySnapshot(count, mean, getValueAtPercentile(current, 50.0),
+        getValueAtPercentile(current, 99.0), getValueAtPercentile(current, 99.9), current.maxValue.get());
+  }
+
+  /**
+   * Merge the values recorded since the last merge into the snapshot of the last interval, and reset them.
+   * A value which is being recorded concurrently with the merge may not be counted in any interval.
+   * @return the snapshot of the last interval
+   */
+  public synchronized LatencySnapshot merge() {
+    final Buckets current = buckets;
+    buckets = null;
+    lastIntervalSnapshot = getSnapshot(current);
+    return lastIntervalSnapshot;
+  }
+
+  /**
+   * @return the snapshot of the values recorded in the last interval
+   */
+  public LatencySnapshot getLastIntervalSnapshot() {
+    return lastIntervalSnapshot;
+  }
+
+  /**
+   * The counts of the buckets and the summaries of the recorded values.
+   */
+  private static final class Buckets {
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_NUM);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalValue = new AtomicLong();
+    private final AtomicLong maxValue = new AtomicLong();
+  }
+}
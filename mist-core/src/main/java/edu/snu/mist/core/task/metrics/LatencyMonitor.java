@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.common.graph.DAG;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.task.ExecutionDag;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupAllocationTable;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+
+import javax.inject.Inject;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * This class exposes the latency histograms of the queries and the operators in this task via JMX.
+ * The latencies are recorded only for the events sampled by the sources (see LatencySampleInterval),
+ * and the queries and operators without sampled events are not exposed.
+ * The latencies of the queries and the queueing delays of the groups are those of the last interval
+ * reported to the master, while the latencies of the operators are accumulated since they are created.
+ */
+public final class LatencyMonitor implements LatencyMonitorMXBean, AutoCloseable {
+  private static final Logger LOG = Logger.getLogger(LatencyMonitor.class.getName());
+
+  /**
+   * The JMX object name of the monitor.
+   */
+  public static final String OBJECT_NAME = "edu.snu.mist:type=LatencyMonitor";
+
+  /**
+   * The group allocation table which contains the queries of this task.
+   */
+  private final GroupAllocationTable groupAllocationTable;
+
+  /**
+   * The registered object name, or null if it is not registered.
+   */
+  private ObjectName registeredName;
+
+  @Inject
+  private LatencyMonitor(final GroupAllocationTable groupAllocationTable) {
+    this.groupAllocationTable = groupAllocationTable;
+  }
+
+  /**
+   * Register the monitor to the platform MBean server.
+   */
+  public synchronized void register() {
+    try {
+      final ObjectName name = new ObjectName(OBJECT_NAME);
+      final MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+      if (!mbs.isRegistered(name)) {
+        mbs.registerMBean(this, name);
+        registeredName = name;
+      }
+    } catch (final JMException e) {
+      LOG.log(Level.WARNING, "Failed to register the latency monitor: {0}", e);
+    }
+  }
+
+  @Override
+  public Map<String, LatencySnapshot> getQueryLatencies() {
+    final Map<String, LatencySnapshot> latencies = new HashMap<>();
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      for (final Group group : groupAllocationTable.getValue(eventProcessor)) {
+        for (final Query query : group.getQueries()) {
+          final LatencySnapshot snapshot = query.getLatencyHistogram().getLastIntervalSnapshot();
+          if (snapshot.getCount() > 0) {
+            latencies.put(query.getId(), snapshot);
+          }
+        }
+      }
+    }
+    return latencies;
+  }
+
+  @Override
+  public Map<String, LatencySnapshot> getOperatorLatencies() {
+    final Map<String, LatencySnapshot> latencies = new HashMap<>();
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      for (final Group group : groupAllocationTable.getValue(eventProcessor)) {
+        for (final ExecutionDag executionDag : group.getExecutionDags().values()) {
+          final DAG<ExecutionVertex, MISTEdge> dag = executionDag.getDag();
+          for (final ExecutionVertex vertex : dag.getVertices()) {
+            if (vertex.getType() == ExecutionVertex.Type.OPERATOR
+                && ((PhysicalOperator) vertex).getLatencyHistogram().getCount() > 0) {
+              latencies.put(vertex.getIdentifier(), ((PhysicalOperator) vertex).getLatencyHistogram().getSnapshot());
+            }
+          }
+        }
+      }
+    }
+    return latencies;
+  }
+
+  @Override
+  public Map<String, LatencySnapshot> getGroupQueueingDelays() {
+    final Map<String, LatencySnapshot> delays = new HashMap<>();
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      for (final Group group : groupAllocationTable.getValue(eventProcessor)) {
+        final LatencySnapshot snapshot = group.getQueueingDelayHistogram().getLastIntervalSnapshot();
+        if (snapshot.getCount() > 0) {
+          delays.put(group.getGroupId(), snapshot);
+        }
+      }
+    }
+    return delays;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (registeredName != null) {
+      try {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+      } catch (final JMException e) {
+        LOG.log(Level.WARNING, "Failed to unregister the latency monitor: {0}", e);
+      }
+      registeredName = null;
+    }
+  }
+}
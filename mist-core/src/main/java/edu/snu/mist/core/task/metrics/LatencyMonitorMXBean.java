@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX interface of the latencies of the sampled events.
+ */
+public interface LatencyMonitorMXBean {
+
+  /**
+   * Get the latencies from the ingestion of the sampled events to the sinks of each query in the last interval.
+   * @return the map of query id and latency snapshot
+   */
+  Map<String, LatencySnapshot> getQueryLatencies();
+
+  /**
+   * Get the latencies from the ingestion of the sampled events to the arrival at each operator.
+   * @return the map of operator id and latency snapshot
+   */
+  Map<String, LatencySnapshot> getOperatorLatencies();
+
+  /**
+   * Get the time that the events wait in the source queues of the groups in the last interval.
+   * @return the map of the group id and the queueing delays in nanoseconds
+   */
+  Map<String, LatencySnapshot> getGroupQueueingDelays();
+}
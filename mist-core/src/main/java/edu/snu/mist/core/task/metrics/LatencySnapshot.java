@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A summary of the latencies in a LatencyHistogram.
+ * The latencies are expressed in nanoseconds.
+ */
+public final class LatencySnapshot {
+
+  private final long count;
+  private final double mean;
+  private final long p50;
+  private final long p99;
+  private final long p999;
+  private final long max;
+
+  @ConstructorProperties({"count", "mean", "p50", "p99", "p999", "max"})
+  public LatencySnapshot(final long count,
+                         final double mean,
+                         final long p50,
+                         final long p99,
+                         final long p999,
+                         final long max) {
+    this.count = count;
+    this.mean = mean;
+    this.p50 = p50;
+    this.p99 = p99;
+    this.p999 = p999;
+    this.max = max;
+  }
+
+  /**
+   * @return the number of sampled latencies
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * @return the mean latency
+   */
+  public double getMean() {
+    return mean;
+  }
+
+  /**
+   * @return the median latency
+   */
+  public long getP50() {
+    return p50;
+  }
+
+  /**
+   * @return the 99th percentile latency
+   */
+  public long getP99() {
+    return p99;
+  }
+
+  /**
+   * @return the 99.9th percentile latency
+   */
+  public long getP999() {
+    return p999;
+  }
+
+  /**
+   * @return the maximum latency
+   */
+  public long getMax() {
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return new StringBuilder("count: ").append(count)
+        .append(", mean: ").append(mean)
+        .append(", p50: ").append(p50)
+        .append(", p99: ").append(p99)
+        .append(", p99.9: ").append(p999)
+        .append(", max: ").append(max)
+        .toString();
+  }
+}
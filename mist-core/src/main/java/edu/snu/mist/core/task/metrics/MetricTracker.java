@@ -63,14 +63,28 @@ public final class MetricTracker implements AutoCloseable {
    * Start the group metric tracker.
    */
   public void start() {
+    schedule(true);
+  }
+
+  /**
+   * Start the metric tracker which only publishes the metric track events,
+   * without notifying the metric update to the event processor number assigner.
+   */
+  public void startTrackEvents() {
+    schedule(false);
+  }
+
+  private void schedule(final boolean notifyMetricUpdate) {
     // Schedule a periodic group tracking job
     result = executorService.scheduleWithFixedDelay(new Runnable() {
       public void run() {
         try {
           // Publish the metric track events to subscriber
           metricPubSubEventHandler.getPubSubEventHandler().onNext(new MetricTrackEvent());
-          // Notify the metric update to event processor number assigner
-          metricPubSubEventHandler.getPubSubEventHandler().onNext(new MetricUpdateEvent());
+          if (notifyMetricUpdate) {
+            // Notify the metric update to event processor number assigner
+            metricPubSubEventHandler.getPubSubEventHandler().onNext(new MetricUpdateEvent());
+          }
         } catch (final Exception e) {
           e.printStackTrace();
         }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The profile of an operator which counts the input and output data and measures the processing time.
+ * The counters are updated by the event processors without contention,
+ * and merged into the values of the last interval when merge() is called periodically.
+ * The processing time of an operator excludes the time spent by the downstream operators
+ * which are invoked synchronously in its output emitter.
+ */
+public final class OperatorProfile {
+
+  /**
+   * The processing time of the current thread which is already attributed to an operator.
+   * The difference from System.nanoTime() only increases while no operator is being profiled,
+   * so the exclusive processing time of an operator can be calculated from the start value of the difference.
+   */
+  private static final ThreadLocal<long[]> ATTRIBUTED_TIME = ThreadLocal.withInitial(() -> new long[1]);
+
+  /**
+   * The number of processed input data.
+   */
+  private final LongAdder inputCounter;
+
+  /**
+   * The number of emitted output data.
+   */
+  private final LongAdder outputCounter;
+
+  /**
+   * The processing time in nanoseconds.
+   */
+  private final LongAdder processingTimeCounter;
+
+  /**
+   * The values of the last interval.
+   */
+  private volatile long inputs;
+  private volatile long outputs;
+  private volatile long processingTime;
+
+  public OperatorProfile() {
+    this.inputCounter = new LongAdder();
+    this.outputCounter = new LongAdder();
+    this.processingTimeCounter = new LongAdder();
+  }
+
+  /**
+   * Start profiling the processing of an input data.
+   * @return the token which should be passed to end()
+   */
+  public long begin() {
+    return System.nanoTime() - ATTRIBUTED_TIME.get()[0];
+  }
+
+  /**
+   * Finish profiling the processing of an input data.
+   * @param token the value returned by begin()
+   */
+  public void end(final long token) {
+    final long[] attributedTime = ATTRIBUTED_TIME.get();
+    final long exclusiveTime = System.nanoTime() - attributedTime[0] - token;
+    attributedTime[0] += exclusiveTime;
+    inputCounter.increment();
+    processingTimeCounter.add(exclusiveTime);
+  }
+
+  /**
+   * Count an output data.
+   */
+  public void recordOutput() {
+    outputCounter.increment();
+  }
+
+  /**
+   * Merge the counters into the values of the last interval, and reset the counters.
+   */
+  public void merge() {
+    inputs = inputCounter.sumThenReset();
+    outputs = outputCounter.sumThenReset();
+    processingTime = processingTimeCounter.sumThenReset();
+  }
+
+  /**
+   * @return the number of processed input data in the last interval
+   */
+  public long getInputs() {
+    return inputs;
+  }
+
+  /**
+   * @return the number of emitted output data in the last interval
+   */
+  public long getOutputs() {
+    return outputs;
+  }
+
+  /**
+   * @return the processing time in nanoseconds in the last interval
+   */
+  public long getProcessingTime() {
+    return processingTime;
+  }
+
+  /**
+   * @return the ratio of the outputs to the inputs in the last interval, or 0 if there is no input
+   */
+  public double getSelectivity() {
+    final long numInputs = inputs;
+    return numInputs == 0 ? 0.0 : (double) outputs / numInputs;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.core.task.ExecutionDag;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.MistPubSubEventHandler;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.task.groupaware.GroupAllocationTable;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import edu.snu.mist.core.task.metrics.parameters.OperatorProfiling;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+
+/**
+ * A class handles the metric event about the operator profiles.
+ * When the operator profiling is enabled, it starts the metric tracker to publish the metric track events
+ * and merges the counters of the operator profiles into the values of the last interval on each metric event.
+ * The tracker does not publish the metric update events, so the event processor number is not adjusted
+ * by enabling the profiling.
+ */
+public final class OperatorProfiler implements MetricTrackEventHandler, AutoCloseable {
+
+  /**
+   * True if the operator invocations are profiled.
+   */
+  private final boolean operatorProfiling;
+
+  /**
+   * The group allocation table which contains the operators of this task.
+   */
+  private final GroupAllocationTable groupAllocationTable;
+
+  /**
+   * The metric tracker which periodically publishes the metric events.
+   */
+  private final MetricTracker metricTracker;
+
+  /**
+   * True if the metric tracker is started.
+   */
+  private boolean started;
+
+  @Inject
+  private OperatorProfiler(@Parameter(OperatorProfiling.class) final boolean operatorProfiling,
+                           final GroupAllocationTable groupAllocationTable,
+                           final MetricTracker metricTracker,
+                           final MistPubSubEventHandler pubSubEventHandler) {
+    this.operatorProfiling = operatorProfiling;
+    this.groupAllocationTable = groupAllocationTable;
+    this.metricTracker = metricTracker;
+    this.started = false;
+    pubSubEventHandler.getPubSubEventHandler().subscribe(MetricTrackEvent.class, this);
+  }
+
+  /**
+   * Start the metric tracker if the operator profiling is enabled.
+   */
+  public synchronized void start() {
+    if (operatorProfiling && !started) {
+      metricTracker.startTrackEvents();
+      started = true;
+    }
+  }
+
+  @Override
+  public void onNext(final MetricTrackEvent metricTrackEvent) {
+    for (final EventProcessor eventProcessor : groupAllocationTable.getKeys()) {
+      for (final Group group : groupAllocationTable.getValue(eventProcessor)) {
+        for (final ExecutionDag executionDag : group.getExecutionDags().values()) {
+          for (final ExecutionVertex vertex : executionDag.getDag().getVertices()) {
+            if (vertex.getType() == ExecutionVertex.Type.OPERATOR) {
+              final OperatorProfile profile = ((PhysicalOperator) vertex).getProfile();
+              if (profile != null) {
+                profile.merge();
+              }
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() throws Exception {
+    if (started) {
+      metricTracker.close();
+      started = false;
+    }
+  }
+}
@@ -0,0 +1,579 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.parallel;
+
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.OneStreamOperator;
+import edu.snu.mist.core.operators.OneStreamStateHandlerOperator;
+import edu.snu.mist.core.operators.StateHandler;
+import edu.snu.mist.core.task.DefaultQueryImpl;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.SourceOutputEmitter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This operator runs the replicas of a stateless or keyed operator in parallel.
+ * Each replica is processed by a replica query, which is placed in a separate group
+ * and thus can be executed by another event processor.
+ * The data is partitioned by the hash of its key if the replicas are keyed, or in a round-robin manner if not,
+ * and the watermarks and checkpoints are broadcast to the keyed replicas.
+ * The outputs of the replicas are merged by the query of this operator in the order of the inputs,
+ * so the next operators receive the same sequence of events as the operator without the replicas.
+ * Before the replica query is assigned to a group, the replica is processed by the thread of this operator.
+ * The replicas capture their states when they process a broadcast checkpoint,
+ * and the states are stored in the checkpoint map of this operator when all replicas have processed the checkpoint,
+ * so the states of the replicas are never read by other threads.
+ */
+public final class ParallelOperator extends OneStreamStateHandlerOperator {
+
+  /**
+   * The replicas of the operator.
+   */
+  private final List<OneStreamOperator> replicaOperators;
+
+  /**
+   * The key selector of the keyed replicas, or null if the replicas are stateless.
+   */
+  private final MISTFunction<Object, Object> keySelector;
+
+  /**
+   * True if the replicas have states.
+   */
+  private final boolean stateful;
+
+  /**
+   * The replica workers.
+   */
+  private final List<Replica> replicas;
+
+  /**
+   * The merger of the replica outputs.
+   */
+  private Merger merger;
+
+  /**
+   * The sequence number of the next input.
+   */
+  private long nextSequence;
+
+  /**
+   * The index of the replica for the next stateless input.
+   */
+  private int roundRobinIndex;
+
+  /**
+   * @param replicaOperators the replicas of the operator
+   * @param keySelector the key selector of the keyed replicas, or null if the replicas are stateless
+   */
+  @SuppressWarnings("unchecked")
+  public ParallelOperator(final List<? extends OneStreamOperator> replicaOperators,
+                          final MISTFunction<?, ?> keySelector) {
+    this.replicaOperators = new ArrayList<>(replicaOperators);
+    this.keySelector = (MISTFunction<Object, Object>) keySelector;
+    this.stateful = replicaOperators.stream().anyMatch(operator -> operator instanceof StateHandler);
+    this.replicas = new ArrayList<>(replicaOperators.size());
+    this.nextSequence = 0L;
+    this.roundRobinIndex = 0;
+  }
+
+  /**
+   * Create the replica queries that process the replicas.
+   * The replica queries should be added to the groups to be processed by other event processors.
+   * @param query the query that contains this operator
+   * @return the replica queries
+   */
+  public List<Query> setUpReplicas(final Query query) {
+    merger = new Merger(query);
+    final List<Query> replicaQueries = new ArrayList<>(replicaOperators.size());
+    for (int i = 0; i < replicaOperators.size(); i++) {
+      final Query replicaQuery = new DefaultQueryImpl(query.getId() + "-replica-" + i);
+      final Replica replica = new Replica(i, replicaOperators.get(i), replicaQuery);
+      replicaOperators.get(i).setOutputEmitter(replica);
+      replicas.add(replica);
+      replicaQueries.add(replicaQuery);
+    }
+    return replicaQueries;
+  }
+
+  /**
+   * @return the replica queries, or an empty list if the replicas are not set up
+   */
+  public List<Query> getReplicaQueries() {
+    final List<Query> replicaQueries = new ArrayList<>(replicas.size());
+    for (final Replica replica : replicas) {
+      replicaQueries.add(replica.replicaQuery);
+    }
+    return replicaQueries;
+  }
+
+  /**
+   * @return the number of replicas
+   */
+  public int getParallelism() {
+    return replicaOperators.size();
+  }
+
+  @Override
+  public void processLeftData(final MistDataEvent input) {
+    final int index;
+    if (keySelector != null) {
+      index = Math.floorMod(keySelector.apply(input.getValue()).hashCode(), replicas.size());
+    } else {
+      index = roundRobinIndex;
+      roundRobinIndex = (roundRobinIndex + 1) % replicas.size();
+    }
+    final long sequence = nextSequence++;
+    merger.expect(sequence, 1);
+    replicas.get(index).submit(new Task(sequence, input));
+    updateLatestEventTimestamp(input.getTimestamp());
+  }
+
+  @Override
+  public void processLeftWatermark(final MistWatermarkEvent input) {
+    broadcast(input);
+    updateLatestEventTimestamp(input.getTimestamp());
+  }
+
+  /**
+   * The checkpoint is broadcast to the replicas as a barrier.
+   * The states of the replicas are stored with the latest timestamp before the checkpoint
+   * when all replicas have processed the checkpoint.
+   */
+  @Override
+  public void processLeftCheckpoint(final MistCheckpointEvent input) {
+    if (stateful) {
+      merger.expectCheckpoint(nextSequence, latestTimestampBeforeCheckpoint);
+    }
+    broadcast(input);
+  }
+
+  /**
+   * Send the event to all keyed replicas, as the states of the replicas depend on the event.
+   * The stateless replicas do not need the event, so it is merged directly.
+   */
+  private void broadcast(final MistEvent input) {
+    final long sequence = nextSequence++;
+    if (keySelector == null) {
+      merger.expect(sequence, 1);
+      final List<Output> outputs = new ArrayList<>(1);
+      outputs.add(new Output(input, -1));
+      merger.mergeInline(new Completion(sequence, outputs, null, -1));
+    } else {
+      merger.expect(sequence, replicas.size());
+      for (final Replica replica : replicas) {
+        replica.submit(new Task(sequence, input));
+      }
+    }
+  }
+
+  /**
+   * Get the states of the replicas at the latest checkpoint.
+   * The current states of the replicas are not read, as they are updated by the threads of the replicas.
+   */
+  @Override
+  public Map<String, Object> getStateSnapshot() {
+    final Map.Entry<Long, Map<String, Object>> latestCheckpoint = checkpointMap.lastEntry();
+    return latestCheckpoint == null ? new HashMap<>() : latestCheckpoint.getValue();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setState(final Map<String, Object> loadedState) {
+    for (int i = 0; i < replicaOperators.size(); i++) {
+      final Object replicaState = loadedState.get("replica-" + i);
+      if (replicaOperators.get(i) instanceof StateHandler && replicaState != null) {
+        ((StateHandler) replicaOperators.get(i)).setState((Map<String, Object>) replicaState);
+      }
+    }
+  }
+
+  @Override
+  public void setRecoveredTimestamp(final long recoveredTimestamp) {
+    super.setRecoveredTimestamp(recoveredTimestamp);
+    for (final OneStreamOperator replicaOperator : replicaOperators) {
+      if (replicaOperator instanceof StateHandler) {
+        ((StateHandler) replicaOperator).setRecoveredTimestamp(recoveredTimestamp);
+      }
+    }
+  }
+
+  /**
+   * The stateless replicas do not need to be replayed.
+   */
+  @Override
+  public long getLatestTimestampBeforeCheckpoint() {
+    return stateful ? latestTimestampBeforeCheckpoint : Long.MAX_VALUE;
+  }
+
+  /**
+   * An input of a replica with its sequence number.
+   */
+  private static final class Task {
+    private final long sequence;
+    private final MistEvent event;
+
+    Task(final long sequence, final MistEvent event) {
+      this.sequence = sequence;
+      this.event = event;
+    }
+  }
+
+  /**
+   * An output of a replica with the index of the edge, or -1 if the output is sent to all edges.
+   */
+  private static final class Output {
+    private final MistEvent event;
+    private final int index;
+
+    Output(final MistEvent event, final int index) {
+      this.event = event;
+      this.index = index;
+    }
+  }
+
+  /**
+   * The outputs of a replica for an input.
+   * If the input is a checkpoint, it also has the state of the replica captured when the checkpoint is processed.
+   */
+  private static final class Completion {
+    private final long sequence;
+    private final List<Output> outputs;
+    private final Map<String, Object> state;
+    private final int replicaIndex;
+
+    Completion(final long sequence,
+               final List<Output> outputs,
+               final Map<String, Object> state,
+               final int replicaIndex) {
+      this.sequence = sequence;
+      this.outputs = outputs;
+      this.state = state;
+      this.replicaIndex = replicaIndex;
+    }
+  }
+
+  /**
+   * The worker of a replica, which is processed as an active source of the replica query.
+   * It is also the output emitter of the replica, which collects the outputs of the current input.
+   */
+  private final class Replica implements SourceOutputEmitter {
+    private final int index;
+    private final OneStreamOperator operator;
+    private final Query replicaQuery;
+    private final Queue<Task> queue;
+    private final AtomicInteger numEvents;
+    private List<Output> currentOutputs;
+
+    /**
+     * The time when the queue becomes non-empty, which approximates the enqueue time of the oldest task.
+     */
+    private volatile long activeSince;
+
+    Replica(final int index, final OneStreamOperator operator, final Query replicaQuery) {
+      this.index = index;
+      this.operator = operator;
+      this.replicaQuery = replicaQuery;
+      this.queue = new ConcurrentLinkedQueue<>();
+      this.numEvents = new AtomicInteger();
+    }
+
+    /**
+     * Submit the input to the replica.
+     * The input is processed immediately if the replica query is not assigned to a group yet.
+     */
+    void submit(final Task task) {
+      if (replicaQuery.getGroup() == null) {
+        merger.mergeInline(process(task));
+      } else {
+        queue.add(task);
+        if (numEvents.getAndIncrement() == 0) {
+          activeSince = System.nanoTime();
+          replicaQuery.insert(this);
+        }
+      }
+    }
+
+    private Completion process(final Task task) {
+      currentOutputs = new ArrayList<>(1);
+      final MistEvent event = task.event;
+      Map<String, Object> state = null;
+      if (event.isData()) {
+        operator.processLeftData((MistDataEvent) event);
+      } else if (event.isCheckpoint()) {
+        operator.processLeftCheckpoint((MistCheckpointEvent) event);
+        if (operator instanceof StateHandler) {
+          // The checkpoint states are kept by the parallel operator instead of the replica
+          final StateHandler stateHandler = (StateHandler) operator;
+          state = stateHandler.getStateSnapshot();
+          stateHandler.removeOldStates(Long.MAX_VALUE);
+        }
+      } else {
+        operator.processLeftWatermark((MistWatermarkEvent) event);
+      }
+      return new Completion(task.sequence, currentOutputs, state, index);
+    }
+
+    @Override
+    public int processAllEvent() {
+      int numProcessedEvent = 0;
+      Task task = queue.poll();
+      while (task != null) {
+        numEvents.decrementAndGet();
+        merger.complete(process(task));
+        numProcessedEvent += 1;
+        task = queue.poll();
+      }
+      return numProcessedEvent;
+    }
+
+    @Override
+    public int numberOfEvents() {
+      return numEvents.get();
+    }
+
+    @Override
+    public long getOldestEventTime() {
+      return numEvents.get() == 0 ? Long.MAX_VALUE : activeSince;
+    }
+
+    @Override
+    public Query getQuery() {
+      return replicaQuery;
+    }
+
+    @Override
+    public void emitData(final MistDataEvent data) {
+      currentOutputs.add(new Output(data, -1));
+    }
+
+    @Override
+    public void emitData(final MistDataEvent data, final int edgeIndex) {
+      currentOutputs.add(new Output(data, edgeIndex));
+    }
+
+    @Override
+    public void emitWatermark(final MistWatermarkEvent watermark) {
+      currentOutputs.add(new Output(watermark, -1));
+    }
+
+    @Override
+    public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+      currentOutputs.add(new Output(checkpoint, -1));
+    }
+  }
+
+  /**
+   * The merger of the replica outputs, which is processed as an active source of the query of this operator.
+   * It emits the outputs in the order of the inputs.
+   * The outputs of a broadcast event are emitted after all replicas process the event,
+   * and the watermarks and checkpoints from the replicas are emitted only once.
+   */
+  private final class Merger implements SourceOutputEmitter {
+    private final Query query;
+    private final Queue<Completion> completions;
+    private final AtomicInteger numEvents;
+
+    /**
+     * The time when the queue becomes non-empty, which approximates the enqueue time of the oldest completion.
+     */
+    private volatile long activeSince;
+
+    /**
+     * The number of the remaining completions of each pending sequence.
+     */
+    private final Map<Long, Integer> remainingCompletions;
+
+    /**
+     * The outputs of each pending sequence.
+     */
+    private final Map<Long, List<Output>> pendingOutputs;
+
+    /**
+     * The latest timestamp before each pending checkpoint sequence.
+     */
+    private final Map<Long, Long> checkpointTimestamps;
+
+    /**
+     * The states of the replicas captured at each pending checkpoint sequence.
+     */
+    private final Map<Long, Map<String, Object>> pendingStates;
+
+    /**
+     * The sequence number to be emitted next.
+     */
+    private long nextEmitSequence;
+
+    /**
+     * The timestamp of the latest emitted watermark.
+     */
+    private long latestWatermarkTimestamp;
+
+    Merger(final Query query) {
+      this.query = query;
+      this.completions = new ConcurrentLinkedQueue<>();
+      this.numEvents = new AtomicInteger();
+      this.remainingCompletions = new HashMap<>();
+      this.pendingOutputs = new HashMap<>();
+      this.checkpointTimestamps = new HashMap<>();
+      this.pendingStates = new HashMap<>();
+      this.nextEmitSequence = 0L;
+      this.latestWatermarkTimestamp = Long.MIN_VALUE;
+    }
+
+    /**
+     * Register the number of completions of the sequence.
+     * It is called by the thread of this operator before submitting the sequence.
+     */
+    void expect(final long sequence, final int completionNum) {
+      remainingCompletions.put(sequence, completionNum);
+    }
+
+    /**
+     * Register the latest timestamp before the checkpoint sequence, which is the key of the replica states.
+     * It is called by the thread of this operator before submitting the sequence.
+     */
+    void expectCheckpoint(final long sequence, final long timestamp) {
+      checkpointTimestamps.put(sequence, timestamp);
+    }
+
+    /**
+     * Add the completion of a replica.
+     * It is called by the threads of the replicas.
+     */
+    void complete(final Completion completion) {
+      completions.add(completion);
+      if (numEvents.getAndIncrement() == 0) {
+        activeSince = System.nanoTime();
+        query.insert(this);
+      }
+    }
+
+    @Override
+    public int processAllEvent() {
+      int numProcessedEvent = 0;
+      Completion completion = completions.poll();
+      while (completion != null) {
+        numEvents.decrementAndGet();
+        add(completion);
+        numProcessedEvent += 1;
+        completion = completions.poll();
+      }
+      emitCompletedSequences();
+      return numProcessedEvent;
+    }
+
+    /**
+     * Merge the completion of a replica processed by the thread of this operator.
+     */
+    void mergeInline(final Completion completion) {
+      add(completion);
+      emitCompletedSequences();
+    }
+
+    private void add(final Completion completion) {
+      final List<Output> outputs = pendingOutputs.get(completion.sequence);
+      if (outputs == null) {
+        pendingOutputs.put(completion.sequence, completion.outputs);
+      } else {
+        outputs.addAll(completion.outputs);
+      }
+      if (completion.state != null) {
+        pendingStates.computeIfAbsent(completion.sequence, sequence -> new HashMap<>())
+            .put("replica-" + completion.replicaIndex, completion.state);
+      }
+      remainingCompletions.put(completion.sequence, remainingCompletions.get(completion.sequence) - 1);
+    }
+
+    private void emitCompletedSequences() {
+      while (remainingCompletions.containsKey(nextEmitSequence)
+          && remainingCompletions.get(nextEmitSequence) == 0) {
+        remainingCompletions.remove(nextEmitSequence);
+        final Long checkpointTimestamp = checkpointTimestamps.remove(nextEmitSequence);
+        if (checkpointTimestamp != null) {
+          // All replicas have processed the checkpoint
+          final Map<String, Object> states = pendingStates.remove(nextEmitSequence);
+          checkpointMap.put(checkpointTimestamp, states == null ? new HashMap<>() : states);
+        }
+        boolean checkpointEmitted = false;
+        for (final Output indexedOutput : pendingOutputs.remove(nextEmitSequence)) {
+          final MistEvent output = indexedOutput.event;
+          if (output.isData()) {
+            if (indexedOutput.index < 0) {
+              outputEmitter.emitData((MistDataEvent) output);
+            } else {
+              outputEmitter.emitData((MistDataEvent) output, indexedOutput.index);
+            }
+          } else if (output.isCheckpoint()) {
+            if (!checkpointEmitted) {
+              checkpointEmitted = true;
+              outputEmitter.emitCheckpoint((MistCheckpointEvent) output);
+            }
+          } else if (output.getTimestamp() > latestWatermarkTimestamp) {
+            latestWatermarkTimestamp = output.getTimestamp();
+            outputEmitter.emitWatermark((MistWatermarkEvent) output);
+          }
+        }
+        nextEmitSequence += 1;
+      }
+    }
+
+    @Override
+    public int numberOfEvents() {
+      return numEvents.get();
+    }
+
+    @Override
+    public long getOldestEventTime() {
+      return numEvents.get() == 0 ? Long.MAX_VALUE : activeSince;
+    }
+
+    @Override
+    public Query getQuery() {
+      return query;
+    }
+
+    @Override
+    public void emitData(final MistDataEvent data) {
+      throw new RuntimeException("The merger of the replica outputs does not receive events");
+    }
+
+    @Override
+    public void emitData(final MistDataEvent data, final int index) {
+      throw new RuntimeException("The merger of the replica outputs does not receive events");
+    }
+
+    @Override
+    public void emitWatermark(final MistWatermarkEvent watermark) {
+      throw new RuntimeException("The merger of the replica outputs does not receive events");
+    }
+
+    @Override
+    public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+      throw new RuntimeException("The merger of the replica outputs does not receive events");
+    }
+  }
+}
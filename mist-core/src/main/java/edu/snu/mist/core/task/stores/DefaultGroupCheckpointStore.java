@@ -21,6 +21,7 @@ import edu.snu.mist.core.parameters.SharedStorePath;
 import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
 import edu.snu.mist.core.task.ExecutionDag;
 import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.PhysicalSource;
 import edu.snu.mist.core.task.groupaware.Group;
 import edu.snu.mist.formats.avro.AvroDag;
 import edu.snu.mist.formats.avro.CheckpointResult;
@@ -157,7 +158,8 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
           .setPathToCheckpoint("")
           .build();
     }
-    // Delete all the unnecessary states within the stateMaps of stateful operators.
+    // Delete all the unnecessary states within the stateMaps of stateful operators,
+    // and notify the sources that the checkpoint is stored.
     for (final ExecutionDag ed : group.getExecutionDags().values()) {
       for (final ExecutionVertex ev : ed.getDag().getVertices()) {
         if (ev.getType() == ExecutionVertex.Type.OPERATOR) {
@@ -166,6 +168,8 @@ public final class DefaultGroupCheckpointStore implements GroupCheckpointStore {
             final StateHandler stateHandler = (StateHandler) op;
             stateHandler.removeOldStates(checkpoint.getCheckpointTimestamp());
           }
+        } else if (ev.getType() == ExecutionVertex.Type.SOURCE) {
+          ((PhysicalSource) ev).getEventGenerator().checkpointStored(checkpoint.getCheckpointTimestamp());
         }
       }
     }
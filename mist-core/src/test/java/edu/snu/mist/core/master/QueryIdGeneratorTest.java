@@ -18,6 +18,7 @@ package edu.snu.mist.core.master;
 import edu.snu.mist.core.parameters.MasterIndex;
 import edu.snu.mist.core.parameters.QueryIdPrefix;
 import edu.snu.mist.formats.avro.AvroDag;
+import edu.snu.mist.formats.avro.QueryIdRange;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
@@ -45,4 +46,23 @@ public final class QueryIdGeneratorTest {
       submittedQueryNum++;
     }
   }
+
+  /**
+   * Test whether the query id ranges do not overlap with the generated query ids.
+   * @throws InjectionException
+   */
+  @Test
+  public void testQueryIdRangeGenerate() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    final QueryIdGenerator queryIdGenerator = injector.getInstance(QueryIdGenerator.class);
+    final String prefix = injector.getNamedInstance(QueryIdPrefix.class);
+    final int masterIndex = injector.getNamedInstance(MasterIndex.class);
+
+    Assert.assertEquals(prefix + masterIndex + "-0", queryIdGenerator.generate());
+    final QueryIdRange range = queryIdGenerator.generateRange(100);
+    Assert.assertEquals(prefix + masterIndex + "-", range.getPrefix());
+    Assert.assertEquals(1L, (long) range.getStart());
+    Assert.assertEquals(100, (int) range.getNum());
+    Assert.assertEquals(prefix + masterIndex + "-101", queryIdGenerator.generate());
+  }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.master;
+
+import edu.snu.mist.formats.avro.TaskStats;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The class for testing task stats map.
+ */
+public final class TaskStatsMapTest {
+
+  private TaskStats createTaskStats(final double load) {
+    return TaskStats.newBuilder()
+        .setTaskLoad(load)
+        .setGroupStatsMap(new HashMap<>())
+        .build();
+  }
+
+  /**
+   * Test whether the task stats map publishes a new snapshot when the stats are changed,
+   * and the published snapshots are not changed.
+   */
+  @Test
+  public void testTaskStatsSnapshot() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    final TaskStatsMap taskStatsMap = injector.getInstance(TaskStatsMap.class);
+    final TaskInfoRWLock taskInfoRWLock = injector.getInstance(TaskInfoRWLock.class);
+
+    taskInfoRWLock.writeLock().lock();
+    taskStatsMap.addTask("task1");
+    taskStatsMap.addTask("task2");
+    taskStatsMap.addTask("task3");
+    taskInfoRWLock.writeLock().unlock();
+    taskStatsMap.updateTaskStats("task1", createTaskStats(0.9));
+    taskStatsMap.updateTaskStats("task2", createTaskStats(0.1));
+    taskStatsMap.updateTaskStats("task3", createTaskStats(0.5));
+
+    final TaskStatsSnapshot snapshot = taskStatsMap.getSnapshot();
+    Assert.assertEquals(6L, snapshot.getVersion());
+    Assert.assertEquals(Arrays.asList("task1", "task2", "task3"), snapshot.getTaskList());
+    Assert.assertEquals("task2", snapshot.getMinLoadTask());
+    Assert.assertEquals(1, snapshot.getNumTasksOverLoad(0.5));
+    Assert.assertEquals(2, snapshot.getNumTasksUnderLoad(0.5));
+    Assert.assertEquals(0, snapshot.getNumTasksOverLoad(0.9));
+    Assert.assertEquals(3, snapshot.getNumTasksUnderLoad(1.0));
+
+    // The stats of an unknown task are ignored
+    taskStatsMap.updateTaskStats("task4", createTaskStats(0.0));
+    Assert.assertSame(snapshot, taskStatsMap.getSnapshot());
+
+    taskStatsMap.updateTaskStats("task1", createTaskStats(0.0));
+    taskInfoRWLock.writeLock().lock();
+    taskStatsMap.removeTask("task2");
+    taskInfoRWLock.writeLock().unlock();
+    final TaskStatsSnapshot newSnapshot = taskStatsMap.getSnapshot();
+    Assert.assertEquals(8L, newSnapshot.getVersion());
+    Assert.assertEquals(Arrays.asList("task1", "task3"), newSnapshot.getTaskList());
+    Assert.assertEquals("task1", newSnapshot.getMinLoadTask());
+    Assert.assertNull(newSnapshot.getTaskStats("task2"));
+
+    // The previous snapshot is not changed
+    Assert.assertEquals("task2", snapshot.getMinLoadTask());
+    Assert.assertEquals(0.9, snapshot.getTaskStats("task1").getTaskLoad(), 0.0);
+  }
+}
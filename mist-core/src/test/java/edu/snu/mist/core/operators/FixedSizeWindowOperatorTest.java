@@ -22,8 +22,10 @@ import edu.snu.mist.core.operators.window.CountWindowOperator;
 import edu.snu.mist.core.operators.window.TimeWindowOperator;
 import edu.snu.mist.core.operators.window.Window;
 import edu.snu.mist.core.operators.window.WindowImpl;
+import edu.snu.mist.core.utils.IndexOutputEmitter;
 import edu.snu.mist.core.utils.OperatorTestUtils;
 import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.apache.reef.io.Tuple;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -450,4 +452,60 @@ public final class FixedSizeWindowOperatorTest {
         result.get(2), expectedResult2, emissionInterval + 1L, windowSize, d8.getTimestamp());
     Assert.assertEquals(w3, result.get(3));
   }
+
+  /**
+   * Test whether TimeWindowOperator keeps the emitted windows for the allowed lateness,
+   * emits the windows updated by the late data, and emits the data later than the allowed lateness
+   * to the late output.
+   */
+  @Test
+  public void testTimeWindowOperatorLateness() {
+    final int windowSize = 500;
+    final TimeWindowOperator<Integer> timeWindowOperator =
+        new TimeWindowOperator<>(windowSize, windowSize, 600L, true);
+    final List<Tuple<MistEvent, Integer>> result = new LinkedList<>();
+    timeWindowOperator.setOutputEmitter(new IndexOutputEmitter(result));
+
+    // (1000)Window1-----(1499):
+    //                   (1500)Window2-----(1999):
+    //                                     (2000)Window3-----(2499):
+    timeWindowOperator.processLeftData(d1);
+    timeWindowOperator.processLeftData(d5);
+    Assert.assertEquals(1, result.size());
+    OperatorTestUtils.checkWindowData(
+        result.get(0).getKey(), Arrays.asList(1), d1.getTimestamp(), windowSize, d1.getTimestamp());
+
+    // d3 is out of order, but Window2 is not emitted yet
+    timeWindowOperator.processLeftData(d3);
+    Assert.assertEquals(1, result.size());
+
+    // d2 updates Window1, which is emitted again
+    timeWindowOperator.processLeftData(d2);
+    Assert.assertEquals(2, result.size());
+    OperatorTestUtils.checkWindowData(
+        result.get(1).getKey(), Arrays.asList(1, 2), d1.getTimestamp(), windowSize, d2.getTimestamp());
+    Assert.assertEquals(0, (int) result.get(1).getValue());
+
+    // Window1 is discarded because the watermark exceeds its end by the allowed lateness
+    timeWindowOperator.processLeftWatermark(w4);
+    Assert.assertEquals(3, result.size());
+    OperatorTestUtils.checkWindowData(
+        result.get(2).getKey(), Arrays.asList(3), 1500L, windowSize, d3.getTimestamp());
+
+    final MistDataEvent lateData = new MistDataEvent(11, 1200L);
+    timeWindowOperator.processLeftData(lateData);
+    Assert.assertEquals(4, result.size());
+    Assert.assertEquals(new Tuple<>(lateData, 1), result.get(3));
+    Assert.assertEquals(1, timeWindowOperator.getNumLateEvents());
+
+    // d4 updates Window2, which is kept yet
+    timeWindowOperator.processLeftData(d4);
+    Assert.assertEquals(5, result.size());
+    OperatorTestUtils.checkWindowData(
+        result.get(4).getKey(), Arrays.asList(3, 4), 1500L, windowSize, d4.getTimestamp());
+
+    // The emitted windows are not changed by the updates
+    OperatorTestUtils.checkWindowData(
+        result.get(0).getKey(), Arrays.asList(1), d1.getTimestamp(), windowSize, d1.getTimestamp());
+  }
 }
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.window.ApplyStatefulWindowOperator;
+import edu.snu.mist.core.operators.window.CountWindowOperator;
+import edu.snu.mist.core.operators.window.IncrementalApplyStatefulWindowOperator;
+import edu.snu.mist.core.operators.window.TimeWindowOperator;
+import edu.snu.mist.core.utils.FindMaxIntFunction;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public final class IncrementalApplyStatefulWindowOperatorTest {
+
+  /**
+   * The input events which contain data and watermarks.
+   */
+  private final List<MistEvent> inputs = createInputs();
+
+  private static List<MistEvent> createInputs() {
+    final List<MistEvent> events = new ArrayList<>();
+    final int[] values = {3, 7, 1, 9, 4, 2, 8, 5, 6, 10, 0, 11};
+    long timestamp = 1000L;
+    for (int i = 0; i < values.length; i++) {
+      events.add(new MistDataEvent(values[i], timestamp));
+      timestamp += 130L * (i % 3 + 1);
+      if (i % 4 == 3) {
+        events.add(new MistWatermarkEvent(timestamp - 10L));
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Process the events with the operator.
+   */
+  private static void process(final Operator operator, final List<MistEvent> events) {
+    for (final MistEvent event : events) {
+      if (event.isData()) {
+        operator.processLeftData((MistDataEvent) event);
+      } else {
+        operator.processLeftWatermark((MistWatermarkEvent) event);
+      }
+    }
+  }
+
+  /**
+   * Check whether the two event lists have the same data and watermarks.
+   */
+  private static void assertSameEvents(final List<MistEvent> expected, final List<MistEvent> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).isData(), actual.get(i).isData());
+      Assert.assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+      if (expected.get(i).isData()) {
+        Assert.assertEquals(((MistDataEvent) expected.get(i)).getValue(),
+            ((MistDataEvent) actual.get(i)).getValue());
+      }
+    }
+  }
+
+  /**
+   * Get the results of the window operator followed by ApplyStatefulWindowOperator.
+   */
+  private List<MistEvent> getUnfusedResult(final Operator windowOperator) {
+    final List<MistEvent> windows = new LinkedList<>();
+    windowOperator.setOutputEmitter(new OutputBufferEmitter(windows));
+    process(windowOperator, inputs);
+
+    final ApplyStatefulWindowOperator<Integer, Integer> applyStatefulWindowOperator =
+        new ApplyStatefulWindowOperator<>(new FindMaxIntFunction());
+    final List<MistEvent> result = new LinkedList<>();
+    applyStatefulWindowOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    process(applyStatefulWindowOperator, windows);
+    return result;
+  }
+
+  /**
+   * Test whether the fused operator generates the same results as
+   * TimeWindowOperator followed by ApplyStatefulWindowOperator for sliding and tumbling windows.
+   */
+  @Test
+  public void testIncrementalTimeWindow() {
+    final int[][] windowConfs = {{500, 250}, {400, 400}, {300, 500}};
+    for (final int[] windowConf : windowConfs) {
+      final List<MistEvent> expected = getUnfusedResult(new TimeWindowOperator<>(windowConf[0], windowConf[1]));
+      Assert.assertFalse(expected.isEmpty());
+
+      final IncrementalApplyStatefulWindowOperator<Integer, Integer> operator =
+          new IncrementalApplyStatefulWindowOperator<>(new FindMaxIntFunction(), windowConf[0], windowConf[1], false);
+      final List<MistEvent> result = new LinkedList<>();
+      operator.setOutputEmitter(new OutputBufferEmitter(result));
+      process(operator, inputs);
+      assertSameEvents(expected, result);
+    }
+  }
+
+  /**
+   * Test whether the fused operator generates the same results as
+   * CountWindowOperator followed by ApplyStatefulWindowOperator.
+   */
+  @Test
+  public void testIncrementalCountWindow() {
+    final int[][] windowConfs = {{3, 2}, {4, 4}, {2, 3}};
+    for (final int[] windowConf : windowConfs) {
+      final List<MistEvent> expected = getUnfusedResult(new CountWindowOperator<>(windowConf[0], windowConf[1]));
+      Assert.assertFalse(expected.isEmpty());
+
+      final IncrementalApplyStatefulWindowOperator<Integer, Integer> operator =
+          new IncrementalApplyStatefulWindowOperator<>(new FindMaxIntFunction(), windowConf[0], windowConf[1], true);
+      final List<MistEvent> result = new LinkedList<>();
+      operator.setOutputEmitter(new OutputBufferEmitter(result));
+      process(operator, inputs);
+      assertSameEvents(expected, result);
+    }
+  }
+
+  /**
+   * Test whether the states of the open windows are restored from the snapshot.
+   */
+  @Test
+  public void testIncrementalWindowState() {
+    final List<MistEvent> expected = getUnfusedResult(new TimeWindowOperator<>(500, 250));
+    final int splitIndex = inputs.size() / 2;
+
+    final IncrementalApplyStatefulWindowOperator<Integer, Integer> operator =
+        new IncrementalApplyStatefulWindowOperator<>(new FindMaxIntFunction(), 500, 250, false);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+    process(operator, inputs.subList(0, splitIndex));
+    final Map<String, Object> state = operator.getStateSnapshot();
+
+    final IncrementalApplyStatefulWindowOperator<Integer, Integer> restoredOperator =
+        new IncrementalApplyStatefulWindowOperator<>(new FindMaxIntFunction(), 500, 250, false);
+    restoredOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    restoredOperator.setState(state);
+    process(restoredOperator, inputs.subList(splitIndex, inputs.size()));
+    assertSameEvents(expected, result);
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.common.windows.WindowData;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.operators.window.CountWindowOperator;
+import edu.snu.mist.core.operators.window.TimeWindowOperator;
+import edu.snu.mist.core.utils.FindMaxIntFunction;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+public final class KeyedOperatorTest {
+
+  /**
+   * Create a keyed operator that finds the maximum value of the odd and even numbers separately.
+   */
+  private KeyedOperator<Integer, Integer> newKeyedMaxOperator(final long idleKeyTimeout) {
+    return new KeyedOperator<>(x -> x % 2,
+        () -> new ApplyStatefulOperator<>(new FindMaxIntFunction()), false, idleKeyTimeout);
+  }
+
+  private static Object getValue(final MistEvent event) {
+    return ((MistDataEvent) event).getValue();
+  }
+
+  /**
+   * Test whether the keyed applyStateful operator keeps the state of each key separately.
+   */
+  @Test
+  public void testKeyedApplyStateful() {
+    final KeyedOperator<Integer, Integer> operator = newKeyedMaxOperator(0L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    final int[] inputs = {4, 3, 2, 9, 6, 1};
+    final int[] expected = {4, 3, 4, 9, 6, 9};
+    for (int i = 0; i < inputs.length; i++) {
+      operator.processLeftData(new MistDataEvent(inputs[i], i));
+      Assert.assertEquals(expected[i], getValue(result.get(i)));
+    }
+    Assert.assertEquals(2, operator.getNumKeys());
+
+    // The watermark is emitted once
+    operator.processLeftWatermark(new MistWatermarkEvent(10L));
+    Assert.assertEquals(inputs.length + 1, result.size());
+    Assert.assertTrue(result.get(inputs.length) instanceof MistWatermarkEvent);
+  }
+
+  /**
+   * Test whether the keyed window operator creates the windows of each key.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testKeyedCountWindow() {
+    final KeyedOperator<Integer, Integer> operator =
+        new KeyedOperator<>(x -> x % 2, () -> new CountWindowOperator<>(2, 2), true, 0L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(1, 1L));
+    operator.processLeftData(new MistDataEvent(2, 2L));
+    operator.processLeftData(new MistDataEvent(4, 3L));
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(Arrays.asList(2, 4), ((WindowData<Integer>) getValue(result.get(0))).getDataCollection());
+    operator.processLeftData(new MistDataEvent(3, 4L));
+    Assert.assertEquals(2, result.size());
+    Assert.assertEquals(Arrays.asList(1, 3), ((WindowData<Integer>) getValue(result.get(1))).getDataCollection());
+  }
+
+  /**
+   * Test whether the idle keys are removed and created again with a new state.
+   */
+  @Test
+  public void testIdleKeyEviction() {
+    final KeyedOperator<Integer, Integer> operator = newKeyedMaxOperator(100L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(9, 10L));
+    operator.processLeftData(new MistDataEvent(8, 50L));
+    Assert.assertEquals(2, operator.getNumKeys());
+
+    // The key of odd numbers is idle after 110
+    operator.processLeftWatermark(new MistWatermarkEvent(120L));
+    Assert.assertEquals(1, operator.getNumKeys());
+    operator.processLeftData(new MistDataEvent(1, 130L));
+    Assert.assertEquals(1, getValue(result.get(result.size() - 1)));
+    Assert.assertEquals(2, operator.getNumKeys());
+  }
+
+  /**
+   * Test whether the open windows of an idle key are emitted before the key is removed.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testIdleKeyWindowFlush() {
+    final KeyedOperator<Integer, Integer> operator =
+        new KeyedOperator<>(x -> x % 2, () -> new TimeWindowOperator<>(1000, 1000), true, 100L);
+    final List<MistEvent> result = new LinkedList<>();
+    operator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    operator.processLeftData(new MistDataEvent(1, 10L));
+    operator.processLeftData(new MistDataEvent(3, 20L));
+    operator.processLeftData(new MistDataEvent(2, 50L));
+    operator.processLeftWatermark(new MistWatermarkEvent(100L));
+    Assert.assertEquals(0, result.size());
+
+    // The key of odd numbers is idle after 120, and its window is emitted before the end of the window
+    // without the watermark in the window, as the window of the other key is still open
+    operator.processLeftData(new MistDataEvent(4, 130L));
+    Assert.assertEquals(1, operator.getNumKeys());
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(Arrays.asList(1, 3), ((WindowData<Integer>) getValue(result.get(0))).getDataCollection());
+  }
+
+  /**
+   * Test whether the idle keys are removed in the order of the last access time,
+   * even if the events of the keys are out of order.
+   */
+  @Test
+  public void testOutOfOrderIdleKeyEviction() {
+    final KeyedOperator<Integer, Integer> operator = new KeyedOperator<>(x -> x % 3,
+        () -> new ApplyStatefulOperator<>(new FindMaxIntFunction()), false, 100L);
+    operator.setOutputEmitter(new OutputBufferEmitter(new LinkedList<>()));
+
+    operator.processLeftData(new MistDataEvent(0, 50L));
+    operator.processLeftData(new MistDataEvent(1, 10L));
+    operator.processLeftData(new MistDataEvent(2, 30L));
+    // The late event does not make the key of 0 idle earlier
+    operator.processLeftData(new MistDataEvent(3, 5L));
+    Assert.assertEquals(3, operator.getNumKeys());
+
+    operator.processLeftWatermark(new MistWatermarkEvent(110L));
+    Assert.assertEquals(2, operator.getNumKeys());
+    operator.processLeftWatermark(new MistWatermarkEvent(130L));
+    Assert.assertEquals(1, operator.getNumKeys());
+    operator.processLeftWatermark(new MistWatermarkEvent(150L));
+    Assert.assertEquals(0, operator.getNumKeys());
+  }
+
+  /**
+   * Test whether the snapshot copies the updated keys only, and the states are restored from the snapshot.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testKeyedStateSnapshot() {
+    final KeyedOperator<Integer, Integer> operator = newKeyedMaxOperator(0L);
+    operator.setOutputEmitter(new OutputBufferEmitter(new LinkedList<>()));
+    operator.processLeftData(new MistDataEvent(9, 1L));
+    operator.processLeftData(new MistDataEvent(8, 2L));
+    final Map<Object, Map<String, Object>> snapshot1 =
+        (Map<Object, Map<String, Object>>) operator.getStateSnapshot().get("keyedStates");
+    Assert.assertEquals(2, snapshot1.size());
+
+    operator.processLeftData(new MistDataEvent(10, 3L));
+    final Map<String, Object> state = operator.getStateSnapshot();
+    final Map<Object, Map<String, Object>> snapshot2 = (Map<Object, Map<String, Object>>) state.get("keyedStates");
+    // The snapshot of the odd key is reused
+    Assert.assertSame(snapshot1.get(1), snapshot2.get(1));
+    Assert.assertNotSame(snapshot1.get(0), snapshot2.get(0));
+
+    final KeyedOperator<Integer, Integer> restoredOperator = newKeyedMaxOperator(0L);
+    final List<MistEvent> result = new LinkedList<>();
+    restoredOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    restoredOperator.setState(state);
+    restoredOperator.processLeftData(new MistDataEvent(7, 4L));
+    restoredOperator.processLeftData(new MistDataEvent(2, 5L));
+    Assert.assertEquals(9, getValue(result.get(0)));
+    Assert.assertEquals(10, getValue(result.get(1)));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.OperatorOutputEmitter;
+import edu.snu.mist.core.utils.IndexOutputEmitter;
+import edu.snu.mist.formats.avro.Direction;
+import org.apache.reef.io.Tuple;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public final class NaryUnionOperatorTest {
+
+  private static void assertEvent(final Tuple<MistEvent, Integer> expected, final Tuple<MistEvent, Integer> actual) {
+    Assert.assertEquals(expected.getKey().getClass(), actual.getKey().getClass());
+    Assert.assertEquals(expected.getKey().getTimestamp(), actual.getKey().getTimestamp());
+    Assert.assertEquals(expected.getValue(), actual.getValue());
+  }
+
+  /**
+   * Test whether the n-ary union operator merges the inputs in the order of timestamp,
+   * emits the combined watermarks, and emits the late events to the late output.
+   */
+  @Test
+  public void testNaryUnionOperator() {
+    final MistDataEvent a = new MistDataEvent("a", 1L);
+    final MistDataEvent b = new MistDataEvent("b", 2L);
+    final MistDataEvent c = new MistDataEvent("c", 3L);
+    final MistDataEvent d = new MistDataEvent("d", 5L);
+    final MistDataEvent e = new MistDataEvent("e", 4L);
+    final MistDataEvent f = new MistDataEvent("f", 6L);
+
+    final NaryUnionOperator unionOperator = new NaryUnionOperator(3, 0L, true);
+    final List<Tuple<MistEvent, Integer>> result = new LinkedList<>();
+    unionOperator.setOutputEmitter(new IndexOutputEmitter(result));
+
+    unionOperator.processData(0, a);
+    unionOperator.processData(1, b);
+    Assert.assertEquals(0, result.size());
+    unionOperator.processData(2, c);
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(new Tuple<>(a, 0), result.get(0));
+
+    unionOperator.processData(1, d);
+    Assert.assertEquals(1, result.size());
+    unionOperator.processData(0, e);
+    Assert.assertEquals(3, result.size());
+    Assert.assertEquals(new Tuple<>(b, 0), result.get(1));
+    Assert.assertEquals(new Tuple<>(c, 0), result.get(2));
+
+    // The watermark is bounded by the minimum frontier of the inputs
+    unionOperator.processWatermark(0, new MistWatermarkEvent(10L));
+    Assert.assertEquals(4, result.size());
+    assertEvent(new Tuple<>(new MistWatermarkEvent(3L), 0), result.get(3));
+
+    unionOperator.processWatermark(2, new MistWatermarkEvent(8L));
+    Assert.assertEquals(7, result.size());
+    Assert.assertEquals(new Tuple<>(e, 0), result.get(4));
+    Assert.assertEquals(new Tuple<>(d, 0), result.get(5));
+    assertEvent(new Tuple<>(new MistWatermarkEvent(5L), 0), result.get(6));
+
+    unionOperator.processWatermark(1, new MistWatermarkEvent(12L));
+    Assert.assertEquals(8, result.size());
+    assertEvent(new Tuple<>(new MistWatermarkEvent(8L), 0), result.get(7));
+
+    unionOperator.processData(2, f);
+    Assert.assertEquals(9, result.size());
+    Assert.assertEquals(new Tuple<>(f, 1), result.get(8));
+    Assert.assertEquals(1, unionOperator.getNumLateEvents());
+  }
+
+  /**
+   * Test whether the n-ary union operator emits a checkpoint after the events which were buffered before it.
+   */
+  @Test
+  public void testCheckpointAfterBufferedEvents() {
+    final MistDataEvent a = new MistDataEvent("a", 5L);
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(10L);
+    final MistCheckpointEvent checkpoint = new MistCheckpointEvent();
+
+    final NaryUnionOperator unionOperator = new NaryUnionOperator(2, 0L, false);
+    final OutputEmitter outputEmitter = mock(OutputEmitter.class);
+    unionOperator.setOutputEmitter(outputEmitter);
+
+    unionOperator.processData(0, a);
+    unionOperator.processCheckpoint(0, checkpoint);
+    verify(outputEmitter, never()).emitCheckpoint(checkpoint);
+
+    unionOperator.processWatermark(1, watermark);
+    final InOrder inOrder = inOrder(outputEmitter);
+    inOrder.verify(outputEmitter).emitData(a);
+    inOrder.verify(outputEmitter).emitCheckpoint(checkpoint);
+  }
+
+  /**
+   * Test whether the output emitter sends the events to the input of the index of the edge.
+   */
+  @Test
+  public void testMultiStreamInput() {
+    final MultiStreamOperator operator = mock(MultiStreamOperator.class);
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new HashMap<>();
+    nextOperators.put(new DefaultPhysicalOperatorImpl("union", new HashMap<>(), operator),
+        new MISTEdge(Direction.LEFT, 2));
+    final OperatorOutputEmitter outputEmitter = new OperatorOutputEmitter(nextOperators);
+
+    final MistDataEvent data = new MistDataEvent("a", 1L);
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(2L);
+    outputEmitter.emitData(data);
+    outputEmitter.emitWatermark(watermark);
+    verify(operator).processData(2, data);
+    verify(operator).processWatermark(2, watermark);
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.operators;
+
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.utils.IndexOutputEmitter;
+import org.apache.reef.io.Tuple;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedList;
+import java.util.List;
+
+public final class ReorderOperatorTest {
+
+  /**
+   * Test whether the reorder operator sorts the out-of-order events within the allowed lateness
+   * and emits the late events to the late output.
+   */
+  @Test
+  public void testReorderOperator() {
+    final MistDataEvent a = new MistDataEvent("a", 5L);
+    final MistDataEvent b = new MistDataEvent("b", 3L);
+    final MistDataEvent c = new MistDataEvent("c", 12L);
+    final MistDataEvent d = new MistDataEvent("d", 8L);
+    final MistDataEvent e = new MistDataEvent("e", 20L);
+    final MistWatermarkEvent w = new MistWatermarkEvent(25L);
+    final MistDataEvent f = new MistDataEvent("f", 15L);
+
+    final ReorderOperator reorderOperator = new ReorderOperator(10L, true);
+    final List<Tuple<MistEvent, Integer>> result = new LinkedList<>();
+    reorderOperator.setOutputEmitter(new IndexOutputEmitter(result));
+
+    reorderOperator.processLeftData(a);
+    reorderOperator.processLeftData(b);
+    reorderOperator.processLeftData(c);
+    reorderOperator.processLeftData(d);
+    Assert.assertEquals(0, result.size());
+
+    // The upstream does not send events earlier than 10 anymore
+    reorderOperator.processLeftData(e);
+    Assert.assertEquals(3, result.size());
+    Assert.assertEquals(new Tuple<>(b, 0), result.get(0));
+    Assert.assertEquals(new Tuple<>(a, 0), result.get(1));
+    Assert.assertEquals(new Tuple<>(d, 0), result.get(2));
+
+    reorderOperator.processLeftWatermark(w);
+    Assert.assertEquals(6, result.size());
+    Assert.assertEquals(new Tuple<>(c, 0), result.get(3));
+    Assert.assertEquals(new Tuple<>(e, 0), result.get(4));
+    Assert.assertEquals(new Tuple<>(w, 0), result.get(5));
+
+    // f is earlier than the watermark
+    reorderOperator.processLeftData(f);
+    Assert.assertEquals(7, result.size());
+    Assert.assertEquals(new Tuple<>(f, 1), result.get(6));
+    Assert.assertEquals(1, reorderOperator.getNumLateEvents());
+  }
+}
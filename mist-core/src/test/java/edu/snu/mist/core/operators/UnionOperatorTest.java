@@ -15,17 +15,27 @@
  */
 package edu.snu.mist.core.operators;
 
+import edu.snu.mist.core.MistCheckpointEvent;
 import edu.snu.mist.core.MistDataEvent;
 import edu.snu.mist.core.MistEvent;
 import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.utils.IndexOutputEmitter;
 import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.InOrder;
 
 import java.util.LinkedList;
 import java.util.List;
 
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
 public final class UnionOperatorTest {
 
   /**
@@ -96,4 +106,108 @@ public final class UnionOperatorTest {
     Assert.assertEquals(9, result.size());
     Assert.assertEquals(lw2, result.get(8));
   }
+
+  /**
+   * Test whether the union operator sorts the out-of-order events within the allowed lateness
+   * and emits the late events to the late output.
+   */
+  @Test
+  public void testOutOfOrderUnion() {
+    final MistDataEvent a = new MistDataEvent("a", 10L);
+    final MistDataEvent b = new MistDataEvent("b", 12L);
+    final MistDataEvent c = new MistDataEvent("c", 8L);
+    final MistDataEvent d = new MistDataEvent("d", 20L);
+    final MistDataEvent e = new MistDataEvent("e", 18L);
+    final MistDataEvent f = new MistDataEvent("f", 9L);
+    final MistWatermarkEvent lw = new MistWatermarkEvent(30L);
+    final MistWatermarkEvent rw = new MistWatermarkEvent(25L);
+
+    final UnionOperator unionOperator = new UnionOperator(5L, true);
+    final List<Tuple<MistEvent, Integer>> result = new LinkedList<>();
+    unionOperator.setOutputEmitter(new IndexOutputEmitter(result));
+
+    unionOperator.processLeftData(a);
+    unionOperator.processRightData(b);
+    // c arrives out of order
+    unionOperator.processLeftData(c);
+    unionOperator.processRightData(d);
+    Assert.assertEquals(0, result.size());
+
+    // Both upstreams do not send events earlier than 13 anymore
+    unionOperator.processLeftData(e);
+    Assert.assertEquals(3, result.size());
+    Assert.assertEquals(new Tuple<>(c, 0), result.get(0));
+    Assert.assertEquals(new Tuple<>(a, 0), result.get(1));
+    Assert.assertEquals(new Tuple<>(b, 0), result.get(2));
+
+    // f is later than the allowed lateness
+    unionOperator.processRightData(f);
+    Assert.assertEquals(4, result.size());
+    Assert.assertEquals(new Tuple<>(f, 1), result.get(3));
+    Assert.assertEquals(1, unionOperator.getNumLateEvents());
+
+    unionOperator.processLeftWatermark(lw);
+    Assert.assertEquals(4, result.size());
+    unionOperator.processRightWatermark(rw);
+    Assert.assertEquals(7, result.size());
+    Assert.assertEquals(new Tuple<>(e, 0), result.get(4));
+    Assert.assertEquals(new Tuple<>(d, 0), result.get(5));
+    Assert.assertEquals(new Tuple<>(rw, 0), result.get(6));
+  }
+
+  /**
+   * Test whether the union operator drains the earliest event when the buffers are full.
+   */
+  @Test
+  public void testUnionBufferCapacity() {
+    final MistDataEvent a = new MistDataEvent("a", 5L);
+    final MistDataEvent b = new MistDataEvent("b", 6L);
+    final MistDataEvent c = new MistDataEvent("c", 7L);
+    final MistDataEvent d = new MistDataEvent("d", 4L);
+
+    final UnionOperator unionOperator = new UnionOperator(0L, 2, false);
+    final List<MistEvent> result = new LinkedList<>();
+    unionOperator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    unionOperator.processLeftData(a);
+    unionOperator.processLeftData(b);
+    Assert.assertEquals(0, result.size());
+    unionOperator.processLeftData(c);
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(a, result.get(0));
+
+    // d is dropped because it is earlier than the drained event
+    unionOperator.processRightData(d);
+    Assert.assertEquals(1, result.size());
+    Assert.assertEquals(1, unionOperator.getNumLateEvents());
+  }
+
+  /**
+   * Test whether the union operator emits a checkpoint after the events which were buffered before it.
+   */
+  @Test
+  public void testCheckpointAfterBufferedEvents() {
+    final MistDataEvent a = new MistDataEvent("a", 5L);
+    final MistDataEvent b = new MistDataEvent("b", 3L);
+    final MistWatermarkEvent rw = new MistWatermarkEvent(10L);
+    final MistCheckpointEvent checkpoint = new MistCheckpointEvent();
+
+    final UnionOperator unionOperator = new UnionOperator();
+    final OutputEmitter outputEmitter = mock(OutputEmitter.class);
+    unionOperator.setOutputEmitter(outputEmitter);
+
+    unionOperator.processLeftData(a);
+    unionOperator.processLeftCheckpoint(checkpoint);
+    verify(outputEmitter, never()).emitCheckpoint(checkpoint);
+
+    // a is still buffered after b is drained
+    unionOperator.processRightData(b);
+    verify(outputEmitter, never()).emitCheckpoint(checkpoint);
+
+    unionOperator.processRightWatermark(rw);
+    final InOrder inOrder = inOrder(outputEmitter);
+    inOrder.verify(outputEmitter).emitData(b);
+    inOrder.verify(outputEmitter).emitData(a);
+    inOrder.verify(outputEmitter).emitCheckpoint(checkpoint);
+  }
 }
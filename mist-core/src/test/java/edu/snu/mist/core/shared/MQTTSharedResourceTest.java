@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.shared;
+
+import edu.snu.mist.core.parameters.TaskHostname;
+import edu.snu.mist.core.shared.parameters.MqttClientRebalancingPeriod;
+import edu.snu.mist.core.shared.parameters.MqttSourceClientMaxMessageRate;
+import edu.snu.mist.core.shared.parameters.MqttSourceClientNumPerBroker;
+import edu.snu.mist.core.shared.parameters.MqttSourceDispatchQueueCapacity;
+import edu.snu.mist.core.shared.parameters.MqttSourceMinClientNumPerBroker;
+import edu.snu.mist.core.sources.MQTTSubscribeClient;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Test the pool of the mqtt source clients.
+ * The clients are not connected to a broker, as the data generators are not started,
+ * and the messages are fed through the callbacks of the clients.
+ */
+public final class MQTTSharedResourceTest {
+
+  private static final String BROKER_URI = "tcp://localhost:1";
+
+  /**
+   * The maximum message rate of a client, which is far below the rates of the fed messages.
+   */
+  private static final int MAX_RATE = 1000;
+
+  private MQTTSharedResource resource;
+
+  @After
+  public void tearDown() throws Exception {
+    if (resource != null) {
+      resource.close();
+    }
+  }
+
+  private MQTTSharedResource newResource(final int minClientNum,
+                                         final int maxClientNum) throws InjectionException {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(TaskHostname.class, "127.0.0.1");
+    jcb.bindNamedParameter(MqttSourceMinClientNumPerBroker.class, Integer.toString(minClientNum));
+    jcb.bindNamedParameter(MqttSourceClientNumPerBroker.class, Integer.toString(maxClientNum));
+    jcb.bindNamedParameter(MqttSourceClientMaxMessageRate.class, Integer.toString(MAX_RATE));
+    // The rebalancing is triggered by the tests
+    jcb.bindNamedParameter(MqttClientRebalancingPeriod.class, "0");
+    // The messages are dispatched on the callback thread
+    jcb.bindNamedParameter(MqttSourceDispatchQueueCapacity.class, "0");
+    return Tang.Factory.getTang().newInjector(jcb.build()).getInstance(MQTTSharedResource.class);
+  }
+
+  private void feed(final MQTTSubscribeClient client, final String topic, final int num) {
+    for (int i = 0; i < num; i++) {
+      client.messageArrived(topic, new MqttMessage(new byte[0]));
+    }
+  }
+
+  /**
+   * Test whether the pool grows when the client is overloaded,
+   * and the idle clients are merged into one client.
+   */
+  @Test
+  public void testGrowthAndMerge() throws InjectionException {
+    resource = newResource(1, 2);
+    resource.getDataGenerator(BROKER_URI, "A");
+    final List<MQTTSubscribeClient> initialClients = resource.getSubscribeClients(BROKER_URI);
+    Assert.assertEquals(1, initialClients.size());
+    final MQTTSubscribeClient client = initialClients.get(0);
+
+    // The overloaded client cannot give its only topic, but a new client is added for the next topics
+    feed(client, "A", 10 * MAX_RATE);
+    resource.rebalance();
+    final List<MQTTSubscribeClient> clients = resource.getSubscribeClients(BROKER_URI);
+    Assert.assertEquals(2, clients.size());
+    final MQTTSubscribeClient newClient = clients.get(1);
+    resource.getDataGenerator(BROKER_URI, "B");
+    Assert.assertEquals(Collections.singleton("A"), client.getTopics());
+    Assert.assertEquals(Collections.singleton("B"), newClient.getTopics());
+
+    // Both clients are idle, so the topics are merged into one client
+    resource.rebalance();
+    Assert.assertEquals(Collections.singletonList(newClient), resource.getSubscribeClients(BROKER_URI));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("A", "B")), newClient.getTopics());
+    Assert.assertTrue(client.getTopics().isEmpty());
+  }
+
+  /**
+   * Test whether the hot topic of an overloaded client is migrated to the least loaded client.
+   */
+  @Test
+  public void testHotTopicMigration() throws InjectionException {
+    resource = newResource(2, 2);
+    resource.getDataGenerator(BROKER_URI, "A");
+    resource.getDataGenerator(BROKER_URI, "B");
+    final List<MQTTSubscribeClient> clients = resource.getSubscribeClients(BROKER_URI);
+    Assert.assertEquals(2, clients.size());
+    final MQTTSubscribeClient hotClient = clients.get(0);
+    final MQTTSubscribeClient idleClient = clients.get(1);
+    Assert.assertEquals(new HashSet<>(Arrays.asList("A", "B")), hotClient.getTopics());
+
+    feed(hotClient, "A", 6 * MAX_RATE);
+    feed(hotClient, "B", 3 * MAX_RATE);
+    resource.rebalance();
+    // The hottest topic is migrated, and the other topic stays, as migrating it does not reduce the imbalance
+    Assert.assertEquals(Collections.singleton("B"), hotClient.getTopics());
+    Assert.assertEquals(Collections.singleton("A"), idleClient.getTopics());
+
+    // The messages of the migrated topic are counted by the new client
+    feed(idleClient, "A", 1);
+    Assert.assertEquals(1L, idleClient.getReceivedMessageNum());
+  }
+}
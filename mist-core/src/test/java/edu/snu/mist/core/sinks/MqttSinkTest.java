@@ -16,6 +16,7 @@
 package edu.snu.mist.core.sinks;
 
 import edu.snu.mist.core.parameters.TaskHostname;
+import edu.snu.mist.core.shared.MQTTResource;
 import edu.snu.mist.core.shared.MQTTSharedResource;
 import edu.snu.mist.core.utils.MqttUtils;
 import io.moquette.server.Server;
@@ -35,7 +36,16 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public final class MqttSinkTest {
 
@@ -93,7 +103,7 @@ public final class MqttSinkTest {
     // Create sinks
     final List<Sink<MqttMessage>> sinks = new LinkedList<>();
     for (int i = 0; i < numSinks; i++) {
-      final Sink<MqttMessage> publisher = new MqttSink(MqttUtils.BROKER_URI, topic + i, mqttSharedResource);
+      final Sink<MqttMessage> publisher = new MqttSink(MqttUtils.BROKER_URI, topic + i, 10000, mqttSharedResource);
       topicListMap.put(topic + i, new LinkedList<>());
       sinks.add(publisher);
       subscriber.subscribe(topic + i);
@@ -117,6 +127,96 @@ public final class MqttSinkTest {
     }
   }
 
+  /**
+   * Test whether the sink keeps the messages while the inflight window is full,
+   * and publishes them when the delivery callbacks of the inflight messages arrive.
+   */
+  @Test(timeout = 4000L)
+  public void testFullInflightWindow() throws Exception {
+    final IMqttAsyncClient client = mock(IMqttAsyncClient.class);
+    final MQTTResource resource = mock(MQTTResource.class);
+    when(resource.getMqttSinkClient(anyString(), anyString())).thenReturn(client);
+    final IMqttDeliveryToken token = mock(IMqttDeliveryToken.class);
+    when(token.getUserContext()).thenReturn(client);
+    final List<IMqttActionListener> listeners = new CopyOnWriteArrayList<>();
+    when(client.publish(anyString(), any(MqttMessage.class), any(), any(IMqttActionListener.class)))
+        .thenAnswer(invocation -> {
+          listeners.add((IMqttActionListener) invocation.getArguments()[3]);
+          return token;
+        });
+
+    final Sink<MqttMessage> sink = new MqttSink("tcp://localhost:1", "topic", 1, resource);
+    final MqttMessage message1 = new MqttMessage("1".getBytes());
+    final MqttMessage message2 = new MqttMessage("2".getBytes());
+    sink.handle(message1);
+    // The second message is kept, as the first message is not delivered
+    sink.handle(message2);
+    verify(client, times(1)).publish(anyString(), any(MqttMessage.class), any(), any(IMqttActionListener.class));
+
+    listeners.get(0).onSuccess(token);
+    while (listeners.size() < 2) {
+      Thread.sleep(10);
+    }
+    verify(client).publish("topic", message2, client, listeners.get(1));
+    sink.close();
+  }
+
+  /**
+   * Test whether the sink blocks the upstream while it keeps the maximum number of messages,
+   * and releases it when the messages are published or the sink is closed.
+   */
+  @Test(timeout = 4000L)
+  public void testBlockingUpstream() throws Exception {
+    final IMqttAsyncClient client = mock(IMqttAsyncClient.class);
+    final MQTTResource resource = mock(MQTTResource.class);
+    when(resource.getMqttSinkClient(anyString(), anyString())).thenReturn(client);
+    final IMqttDeliveryToken token = mock(IMqttDeliveryToken.class);
+    when(token.getUserContext()).thenReturn(client);
+    final List<IMqttActionListener> listeners = new CopyOnWriteArrayList<>();
+    when(client.publish(anyString(), any(MqttMessage.class), any(), any(IMqttActionListener.class)))
+        .thenAnswer(invocation -> {
+          listeners.add((IMqttActionListener) invocation.getArguments()[3]);
+          return token;
+        });
+
+    final Sink<MqttMessage> sink = new MqttSink("tcp://localhost:1", "topic", 1, resource);
+    // The first message is inflight, and the second one is kept
+    sink.handle(new MqttMessage("1".getBytes()));
+    sink.handle(new MqttMessage("2".getBytes()));
+
+    final CountDownLatch handled = new CountDownLatch(1);
+    final Thread upstream = new Thread(() -> {
+      sink.handle(new MqttMessage("3".getBytes()));
+      handled.countDown();
+    });
+    upstream.start();
+    Assert.assertFalse(handled.await(100, TimeUnit.MILLISECONDS));
+
+    // The delivery of the first message publishes the second one, which makes room for the third one
+    listeners.get(0).onSuccess(token);
+    handled.await();
+
+    // The fourth message is blocked until the sink is closed
+    final CountDownLatch closed = new CountDownLatch(1);
+    final Thread blocked = new Thread(() -> {
+      sink.handle(new MqttMessage("4".getBytes()));
+      closed.countDown();
+    });
+    blocked.start();
+    Assert.assertFalse(closed.await(100, TimeUnit.MILLISECONDS));
+    sink.close();
+    closed.await();
+    verify(client, times(2)).publish(anyString(), any(MqttMessage.class), any(), any(IMqttActionListener.class));
+  }
+
+  /**
+   * Test whether the creation of a sink fails after the bounded retries when the broker is unreachable.
+   */
+  @Test(timeout = 10000L, expected = MqttException.class)
+  public void testUnreachableBroker() throws Exception {
+    new MqttSink("tcp://localhost:1", "topic", 10000, mqttSharedResource);
+  }
+
   /**
    * Mqtt subscriber that is used in the sink test.
    */
@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sinks;
+
+import edu.snu.mist.common.stream.NettyChannelHandler;
+import edu.snu.mist.common.stream.binarymessage.NettyBinaryMessageOutputReceiver;
+import edu.snu.mist.core.shared.NettySharedResource;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import junit.framework.Assert;
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+public final class NettyBinarySinkTest {
+
+  private static final String SERVER_ADDR = "localhost";
+  private static final int SERVER_PORT = 12113;
+
+  private NettySharedResource nettySharedResource;
+  private StringIdentifierFactory stringIdentifierFactory;
+
+  @Before
+  public void setUp() throws InjectionException {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    nettySharedResource = injector.getInstance(NettySharedResource.class);
+    stringIdentifierFactory = injector.getInstance(StringIdentifierFactory.class);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    nettySharedResource.close();
+  }
+
+  /**
+   * Test whether the binary sinks send length-prefixed frames correctly to the output receiver,
+   * and the sinks do not consume the buffers which are shared by them.
+   * @throws Exception
+   */
+  @Test(timeout = 10000L)
+  public void testNettyBinarySink() throws Exception {
+    final List<String> outputStream = new LinkedList<>();
+    for (int i = 0; i < 10; i++) {
+      outputStream.add("binary-output-" + i);
+    }
+    final CountDownLatch countDownLatch = new CountDownLatch(2 * outputStream.size());
+    final CountDownLatch channelCountDown = new CountDownLatch(2);
+    final Map<Channel, List<String>> channelListMap = new ConcurrentHashMap<>();
+    final NettyChannelHandler channelHandler = new TestReceiverChannelHandler(channelCountDown,
+        countDownLatch, channelListMap);
+
+    try (final NettyBinaryMessageOutputReceiver outputReceiver =
+             new NettyBinaryMessageOutputReceiver(SERVER_ADDR, SERVER_PORT, channelHandler)) {
+      final Sink<ByteBuf> sink = new NettyBinarySink(SERVER_ADDR, SERVER_PORT,
+          nettySharedResource, stringIdentifierFactory);
+      final Sink<ByteBuf> batchedSink = new NettyBinarySink(SERVER_ADDR, SERVER_PORT, 4, 50L,
+          nettySharedResource, stringIdentifierFactory);
+      channelCountDown.await();
+
+      final List<ByteBuf> buffers = new ArrayList<>();
+      for (final String output : outputStream) {
+        final ByteBuf buffer = Unpooled.copiedBuffer(output, StandardCharsets.UTF_8);
+        // The buffer is shared by two sinks
+        buffers.add(buffer);
+        sink.handle(buffer);
+        batchedSink.handle(buffer);
+      }
+
+      countDownLatch.await();
+      for (final List<String> received : channelListMap.values()) {
+        Assert.assertEquals(outputStream, received);
+      }
+      sink.close();
+      batchedSink.close();
+      for (final ByteBuf buffer : buffers) {
+        Assert.assertEquals(0, buffer.readerIndex());
+      }
+    }
+  }
+
+  /**
+   * A helper class for output receiver.
+   */
+  final class TestReceiverChannelHandler implements NettyChannelHandler {
+    private final CountDownLatch channelCountDown;
+    private final CountDownLatch countDownLatch;
+    private final Map<Channel, List<String>> channelListMap;
+
+    public TestReceiverChannelHandler(final CountDownLatch channelCountDown,
+                                      final CountDownLatch countDownLatch,
+                                      final Map<Channel, List<String>> channelListMap) {
+      this.channelCountDown = channelCountDown;
+      this.countDownLatch = countDownLatch;
+      this.channelListMap = channelListMap;
+    }
+
+    @Override
+    public void channelActive(final ChannelHandlerContext ctx) throws Exception {
+      channelCountDown.countDown();
+    }
+
+    @Override
+    public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
+      List<String> received = channelListMap.get(ctx.channel());
+      if (received == null) {
+        received = new LinkedList<>();
+        channelListMap.put(ctx.channel(), received);
+      }
+      final ByteBuf buffer = (ByteBuf) msg;
+      received.add(buffer.toString(StandardCharsets.UTF_8));
+      buffer.release();
+      countDownLatch.countDown();
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+      // do nothing
+    }
+
+    @Override
+    public void exceptionCaught(final ChannelHandlerContext ctx, final Throwable cause) throws Exception {
+      // do nothing
+    }
+  }
+}
@@ -109,6 +109,49 @@ public final class NettyTextSinkTest {
     }
   }
 
+  /**
+   * Test whether the batched sinks send all outputs when they reach the batch size,
+   * when the linger time passes, and when the batch of the thread ends.
+   * @throws Exception
+   */
+  @Test(timeout = 10000L)
+  public void testBatchedNettyTextSink() throws Exception {
+    final List<String> outputStream = new LinkedList<>();
+    for (int i = 0; i < 10; i++) {
+      outputStream.add("output-" + i);
+    }
+    final CountDownLatch countDownLatch = new CountDownLatch(2 * outputStream.size());
+    final CountDownLatch channelCountDown = new CountDownLatch(2);
+    final Map<Channel, List<String>> channelListMap = new ConcurrentHashMap<>();
+    final NettyChannelHandler channelHandler = new TestReceiverChannelHandler(channelCountDown,
+        countDownLatch, channelListMap);
+
+    try (final NettyTextMessageOutputReceiver outputReceiver =
+             new NettyTextMessageOutputReceiver(SERVER_ADDR, SERVER_PORT, channelHandler)) {
+      // The remainders of the batches are flushed by the linger time
+      final Sink<String> lingerSink = new NettyTextSink(SERVER_ADDR, SERVER_PORT, 4, 50L,
+          nettySharedResource, stringIdentifierFactory);
+      // The outputs are flushed at the end of the batch only
+      final Sink<String> batchEndSink = new NettyTextSink(SERVER_ADDR, SERVER_PORT, 100, 0L,
+          nettySharedResource, stringIdentifierFactory);
+      channelCountDown.await();
+
+      SinkBatchFlusher.enable();
+      outputStream.forEach((output) -> {
+        lingerSink.handle(output);
+        batchEndSink.handle(output);
+      });
+      SinkBatchFlusher.flushPendingSinks();
+
+      countDownLatch.await();
+      for (final List<String> received : channelListMap.values()) {
+        Assert.assertEquals(outputStream, received);
+      }
+      lingerSink.close();
+      batchEndSink.close();
+    }
+  }
+
   /**
    * A helper class for output receiver.
    */
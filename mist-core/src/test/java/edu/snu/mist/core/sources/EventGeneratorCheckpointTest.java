@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.task.CachedClock;
+import edu.snu.mist.core.task.HashedTimerWheel;
+import edu.snu.mist.core.task.ScheduledExecutorServiceWrapper;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.apache.reef.io.Tuple;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class EventGeneratorCheckpointTest {
+
+  private ScheduledExecutorServiceWrapper schedulerWrapper;
+  private HashedTimerWheel timerWheel;
+  private CachedClock clock;
+
+  @Before
+  public void setUp() throws Exception {
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    schedulerWrapper = injector.getInstance(ScheduledExecutorServiceWrapper.class);
+    timerWheel = injector.getInstance(HashedTimerWheel.class);
+    clock = injector.getInstance(CachedClock.class);
+  }
+
+  @After
+  public void tearDown() {
+    timerWheel.close();
+    clock.close();
+    schedulerWrapper.getScheduler().shutdown();
+  }
+
+  /**
+   * Test whether the action of a checkpoint runs only after a checkpoint covering its data is stored.
+   */
+  @Test(timeout = 10000L)
+  public void testCheckpointStored() throws Exception {
+    final EventGenerator<String> eventGenerator = new PunctuatedEventGenerator<String, String>(
+        input -> new Tuple<>(input, Long.parseLong(input)), input -> false, null,
+        10, TimeUnit.MILLISECONDS, timerWheel, clock);
+    eventGenerator.setOutputEmitter(new OutputBufferEmitter(new ArrayList<MistEvent>()));
+    // The first checkpoint is pending when the listener is called for the second checkpoint
+    final CountDownLatch checkpointLatch = new CountDownLatch(2);
+    final AtomicInteger numStored = new AtomicInteger(0);
+    eventGenerator.addCheckpointListener(new CheckpointListener() {
+      @Override
+      public Runnable onCheckpoint() {
+        checkpointLatch.countDown();
+        return new Runnable() {
+          @Override
+          public void run() {
+            numStored.incrementAndGet();
+          }
+        };
+      }
+    });
+
+    eventGenerator.emitData("100");
+    eventGenerator.start();
+    checkpointLatch.await();
+    eventGenerator.close();
+
+    // The stored checkpoint does not cover the data emitted before the checkpoint
+    eventGenerator.checkpointStored(99L);
+    Assert.assertEquals(0, numStored.get());
+    eventGenerator.checkpointStored(100L);
+    final int numCheckpoints = numStored.get();
+    Assert.assertTrue(numCheckpoints > 0);
+    // The actions run only once
+    eventGenerator.checkpointStored(100L);
+    Assert.assertEquals(numCheckpoints, numStored.get());
+  }
+}
@@ -15,15 +15,26 @@
  */
 package edu.snu.mist.core.sources;
 
+import edu.snu.mist.common.functions.MISTFunction;
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.functions.WatermarkTimestampFunction;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
 import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.parameters.SourceClockResolution;
 import edu.snu.mist.core.shared.KafkaSharedResource;
+import edu.snu.mist.core.sources.parameters.NumKafkaThreads;
+import edu.snu.mist.core.task.CachedClock;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
 import junit.framework.Assert;
 import kafka.server.KafkaConfig;
 import kafka.server.KafkaServerStartable;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.reef.io.Tuple;
 import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.zookeeper.server.NIOServerCnxnFactory;
@@ -35,12 +46,20 @@ import org.junit.Test;
 
 import java.io.File;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.Thread.sleep;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public final class KafkaSourceTest {
   /**
@@ -146,6 +165,70 @@ public final class KafkaSourceTest {
     Assert.assertEquals(inputStream, result);
   }
 
+  /**
+   * Test whether the kafka sources more than the kafka threads fetch the data,
+   * and the sources of the same topic and configuration share a consumer.
+   * @throws Exception
+   */
+  @Test(timeout = 60000L)
+  public void testKafkaSourcesMoreThanThreads() throws Exception {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(NumKafkaThreads.class, "1");
+    final KafkaSharedResource singleThreadResource =
+        Tang.Factory.getTang().newInjector(jcb.build()).getInstance(KafkaSharedResource.class);
+
+    final KafkaLocalBroker kafkaLocalBroker = new KafkaLocalBroker(KAFKA_PORT, KAFKA_ADDRESS, ZK_PORT, ZK_ADDRESS);
+    kafkaLocalBroker.start();
+
+    // The first two sources share the configuration and the topic, and the others have their own consumers.
+    final int sourceNum = 4;
+    final List<String> topics = new ArrayList<>();
+    final List<KafkaDataGenerator<String, String>> dataGenerators = new ArrayList<>();
+    final List<Map<String, String>> results = new ArrayList<>();
+    final CountDownLatch dataCountDownLatch = new CountDownLatch(sourceNum);
+    for (int i = 0; i < sourceNum; i++) {
+      final int index = Math.max(i - 1, 0);
+      final String topic = KAFKA_TOPIC + "-" + index;
+      final HashMap<String, Object> kafkaConsumerConf = new HashMap<>();
+      kafkaConsumerConf.put("bootstrap.servers", kafkaLocalBroker.getLocalhostBroker());
+      kafkaConsumerConf.put("group.id", "SourceTestGroup-" + index);
+      kafkaConsumerConf.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+      kafkaConsumerConf.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+      kafkaConsumerConf.put("auto.offset.reset", "earliest");
+
+      final Map<String, String> result = new HashMap<>();
+      final KafkaDataGenerator<String, String> kafkaDataGenerator =
+          new KafkaDataGenerator<>(topic, kafkaConsumerConf, singleThreadResource);
+      kafkaDataGenerator.setEventGenerator(new SourceTestEventGenerator<>(result, dataCountDownLatch));
+      kafkaDataGenerator.start();
+      topics.add(topic);
+      dataGenerators.add(kafkaDataGenerator);
+      results.add(result);
+    }
+
+    final HashMap<String, Object> kafkaProducerConf = new HashMap<>();
+    kafkaProducerConf.put("bootstrap.servers", kafkaLocalBroker.getLocalhostBroker());
+    kafkaProducerConf.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+    kafkaProducerConf.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
+    final KafkaProducer<String, String> producer = new KafkaProducer<>(kafkaProducerConf);
+    for (int i = 1; i < sourceNum; i++) {
+      producer.send(new ProducerRecord<>(topics.get(i), "key", topics.get(i)));
+    }
+    producer.close();
+
+    dataCountDownLatch.await();
+    for (final KafkaDataGenerator<String, String> kafkaDataGenerator : dataGenerators) {
+      kafkaDataGenerator.close();
+    }
+    singleThreadResource.close();
+    sleep(1000);
+    kafkaLocalBroker.stop();
+
+    for (int i = 0; i < sourceNum; i++) {
+      Assert.assertEquals(topics.get(i), results.get(i).get("key"));
+    }
+  }
+
   /**
    * Local Kafka broker for testing KafkaSourceTest.
    * TODO: [MIST-368] Change the logging way of kafka server and zookeeper in `KafkaLocalBroker`
@@ -255,6 +338,134 @@ public final class KafkaSourceTest {
     }
   }
 
+  /**
+   * Test whether the punctuated event generator emits the minimum watermark of the partitions.
+   */
+  @Test
+  public void testPartitionWatermarks() {
+    final MISTFunction<String, Tuple<String, Long>> extractFunc = (input) ->
+        new Tuple<>(input.split(":")[0], Long.parseLong(input.split(":")[1]));
+    final MISTPredicate<String> isWatermark = (input) -> input.split(":")[0].equals("Watermark");
+    final WatermarkTimestampFunction<String> parseTsFunc = (input) -> Long.parseLong(input.split(":")[1]);
+    final EventGenerator<String> eventGenerator =
+        new PunctuatedEventGenerator<>(extractFunc, isWatermark, parseTsFunc, 0, null, null, null);
+    final List<MistEvent> result = new ArrayList<>();
+    eventGenerator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    eventGenerator.emitData("a:1", 0);
+    eventGenerator.emitData("b:2", 1);
+    // Partition 1 holds back the watermark
+    eventGenerator.emitData("Watermark:10", 0);
+    eventGenerator.emitData("Watermark:5", 1);
+    eventGenerator.emitData("Watermark:20", 1);
+    // The watermark of a partition does not go back
+    eventGenerator.emitData("Watermark:3", 0);
+    eventGenerator.emitData("Watermark:30", 0);
+
+    final List<Long> watermarks = new ArrayList<>();
+    int dataNum = 0;
+    for (final MistEvent event : result) {
+      if (event instanceof MistWatermarkEvent) {
+        watermarks.add(event.getTimestamp());
+      } else {
+        dataNum += 1;
+      }
+    }
+    Assert.assertEquals(2, dataNum);
+    Assert.assertEquals(Arrays.asList(5L, 10L, 20L), watermarks);
+  }
+
+  /**
+   * Test whether a silent partition is excluded from the watermark after the idle timeout,
+   * and joins it again from the current watermark when its input arrives.
+   */
+  @Test
+  public void testIdlePartitionWatermarks() throws InjectionException, InterruptedException {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(SourceClockResolution.class, "0");
+    final CachedClock clock = Tang.Factory.getTang().newInjector(jcb.build()).getInstance(CachedClock.class);
+    final MISTFunction<String, Tuple<String, Long>> extractFunc = (input) ->
+        new Tuple<>(input.split(":")[0], Long.parseLong(input.split(":")[1]));
+    final MISTPredicate<String> isWatermark = (input) -> input.split(":")[0].equals("Watermark");
+    final WatermarkTimestampFunction<String> parseTsFunc = (input) -> Long.parseLong(input.split(":")[1]);
+    final PunctuatedEventGenerator<String, String> eventGenerator =
+        new PunctuatedEventGenerator<>(extractFunc, isWatermark, parseTsFunc, 0, null, null, clock);
+    eventGenerator.setPartitionIdleTimeout(100);
+    final List<MistEvent> result = new ArrayList<>();
+    eventGenerator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    eventGenerator.emitData("a:1", 0);
+    eventGenerator.emitData("b:2", 1);
+    eventGenerator.emitData("Watermark:5", 1);
+    // Partition 0 holds back the watermark until it becomes idle
+    eventGenerator.emitData("Watermark:10", 1);
+    sleep(200);
+    eventGenerator.emitData("Watermark:20", 1);
+    // The data of partition 0 is late after the watermark passes it
+    eventGenerator.emitData("c:15", 0);
+    eventGenerator.emitData("d:25", 0);
+    // Partition 0 is active again, so it holds back the watermark
+    eventGenerator.emitData("Watermark:30", 1);
+    eventGenerator.emitData("Watermark:40", 0);
+    clock.close();
+
+    final List<Long> watermarks = new ArrayList<>();
+    final List<Long> dataTimestamps = new ArrayList<>();
+    for (final MistEvent event : result) {
+      if (event instanceof MistWatermarkEvent) {
+        watermarks.add(event.getTimestamp());
+      } else {
+        dataTimestamps.add(event.getTimestamp());
+      }
+    }
+    Assert.assertEquals(Arrays.asList(1L, 2L, 25L), dataTimestamps);
+    Assert.assertEquals(Arrays.asList(20L, 30L), watermarks);
+  }
+
+  /**
+   * Test whether the kafka consumer is closed without polling again if it cannot be created.
+   */
+  @Test
+  public void testInvalidConsumerConfig() {
+    final ScheduledExecutorService executorService = mock(ScheduledExecutorService.class);
+    // The bootstrap servers are missing
+    final Map<String, Object> kafkaConsumerConf = new HashMap<>();
+    kafkaConsumerConf.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+    kafkaConsumerConf.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+    final KafkaSubscribeClient<String, String> consumer =
+        new KafkaSubscribeClient<>(kafkaConsumerConf, executorService, 100);
+
+    consumer.subscribe(KAFKA_TOPIC, new KafkaDataGenerator<>(KAFKA_TOPIC, kafkaConsumerConf, kafkaSharedResource));
+    verify(executorService, times(1)).submit(consumer);
+    consumer.run();
+    verify(executorService, times(1)).submit(consumer);
+  }
+
+  /**
+   * Test whether the kafka consumer without topics is scheduled with a delay instead of occupying a thread.
+   */
+  @Test
+  public void testEmptySubscription() {
+    final ScheduledExecutorService executorService = mock(ScheduledExecutorService.class);
+    final Map<String, Object> kafkaConsumerConf = new HashMap<>();
+    kafkaConsumerConf.put("bootstrap.servers", KAFKA_ADDRESS + ":" + KAFKA_PORT);
+    kafkaConsumerConf.put("group.id", "SourceTestGroup");
+    kafkaConsumerConf.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+    kafkaConsumerConf.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+    final KafkaSubscribeClient<String, String> consumer =
+        new KafkaSubscribeClient<>(kafkaConsumerConf, executorService, 100);
+
+    final KafkaDataGenerator<String, String> dataGenerator =
+        new KafkaDataGenerator<>(KAFKA_TOPIC, kafkaConsumerConf, kafkaSharedResource);
+    consumer.subscribe(KAFKA_TOPIC, dataGenerator);
+    consumer.unsubscribe(KAFKA_TOPIC, dataGenerator);
+    consumer.run();
+    verify(executorService, times(1)).submit(consumer);
+    verify(executorService, times(1)).schedule(consumer, 100, TimeUnit.MILLISECONDS);
+    consumer.close();
+    consumer.run();
+  }
+
   /**
    * Event Generator for source test.
    * It stores the data which are sent from kafka data generator.
@@ -277,6 +488,21 @@ public final class KafkaSourceTest {
       dataCountDownLatch.countDown();
     }
 
+    @Override
+    public void emitData(final ConsumerRecord<K, V> input, final int partition) {
+      emitData(input);
+    }
+
+    @Override
+    public void addCheckpointListener(final CheckpointListener listener) {
+      // do nothing
+    }
+
+    @Override
+    public void checkpointStored(final long checkpointTimestamp) {
+      // do nothing
+    }
+
     @Override
     public void start() {
       // do nothing
@@ -190,6 +190,21 @@ public final class MQTTSourceTest {
       dataCountDownLatch.countDown();
     }
 
+    @Override
+    public void emitData(final MqttMessage input, final int partition) {
+      emitData(input);
+    }
+
+    @Override
+    public void addCheckpointListener(final CheckpointListener listener) {
+      // do nothing
+    }
+
+    @Override
+    public void checkpointStored(final long checkpointTimestamp) {
+      // do nothing
+    }
+
     @Override
     public void start() {
       // do nothing
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.sources;
+
+import junit.framework.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public final class MQTTTopicTrieTest {
+
+  /**
+   * Get the values of the filters that match the topic.
+   */
+  private Set<String> match(final MQTTTopicTrie<String> trie, final String topic) {
+    final Set<String> result = new HashSet<>();
+    trie.forEachMatch(topic, result::add);
+    return result;
+  }
+
+  /**
+   * Test whether the trie matches the topics with exact and wildcard filters.
+   */
+  @Test
+  public void testWildcardMatching() {
+    final MQTTTopicTrie<String> trie = new MQTTTopicTrie<>();
+    for (final String filter : Arrays.asList("sport/tennis/player1", "sport/tennis/+", "sport/+/player1",
+        "sport/#", "#", "+/+", "+", "/finance", "$SYS/#")) {
+      trie.add(filter, filter);
+    }
+
+    Assert.assertEquals(new HashSet<>(Arrays.asList(
+        "sport/tennis/player1", "sport/tennis/+", "sport/+/player1", "sport/#", "#")),
+        match(trie, "sport/tennis/player1"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("sport/tennis/+", "sport/#", "#")),
+        match(trie, "sport/tennis/player2"));
+    // The multi-level wildcard matches the parent level
+    Assert.assertEquals(new HashSet<>(Arrays.asList("sport/#", "#", "+")),
+        match(trie, "sport"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("sport/#", "#", "+/+")),
+        match(trie, "sport/"));
+    // Empty levels are matched by the filters
+    Assert.assertEquals(new HashSet<>(Arrays.asList("/finance", "#", "+/+")),
+        match(trie, "/finance"));
+    // Topics that start with $ are not matched by the filters that start with a wildcard
+    Assert.assertEquals(new HashSet<>(Arrays.asList("$SYS/#")),
+        match(trie, "$SYS/broker/load"));
+  }
+
+  /**
+   * Test whether the values of the same filter are all matched, and the removed values are not matched.
+   */
+  @Test
+  public void testSharedFilter() {
+    final MQTTTopicTrie<String> trie = new MQTTTopicTrie<>();
+    trie.add("home/+/temperature", "query1");
+    trie.add("home/+/temperature", "query2");
+    Assert.assertEquals(new HashSet<>(Arrays.asList("query1", "query2")),
+        match(trie, "home/kitchen/temperature"));
+    Assert.assertTrue(match(trie, "home/kitchen/humidity").isEmpty());
+
+    // The removed value is not matched anymore
+    Assert.assertTrue(trie.remove("home/+/temperature", "query1"));
+    Assert.assertFalse(trie.remove("home/+/humidity", "query1"));
+    Assert.assertEquals(new HashSet<>(Arrays.asList("query2")),
+        match(trie, "home/kitchen/temperature"));
+  }
+}
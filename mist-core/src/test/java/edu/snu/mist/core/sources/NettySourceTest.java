@@ -25,6 +25,9 @@ import edu.snu.mist.common.functions.WatermarkTimestampFunction;
 import edu.snu.mist.core.shared.NettySharedResource;
 import edu.snu.mist.common.stream.NettyChannelHandler;
 import edu.snu.mist.common.stream.textmessage.NettyTextMessageStreamGenerator;
+import edu.snu.mist.core.task.CachedClock;
+import edu.snu.mist.core.task.HashedTimerWheel;
+import edu.snu.mist.core.task.ScheduledExecutorServiceWrapper;
 import io.netty.channel.ChannelHandlerContext;
 import junit.framework.Assert;
 import org.apache.reef.io.Tuple;
@@ -40,8 +43,6 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -54,20 +55,26 @@ public final class NettySourceTest {
 
   private NettySharedResource nettySharedResource;
   private StringIdentifierFactory identifierFactory;
-  private ScheduledExecutorService scheduler;
+  private ScheduledExecutorServiceWrapper schedulerWrapper;
+  private HashedTimerWheel timerWheel;
+  private CachedClock clock;
 
   @Before
   public void setUp() throws InjectionException {
     final Injector injector = Tang.Factory.getTang().newInjector();
     nettySharedResource = injector.getInstance(NettySharedResource.class);
     identifierFactory = injector.getInstance(StringIdentifierFactory.class);
-    scheduler = Executors.newScheduledThreadPool(1);
+    schedulerWrapper = injector.getInstance(ScheduledExecutorServiceWrapper.class);
+    timerWheel = injector.getInstance(HashedTimerWheel.class);
+    clock = injector.getInstance(CachedClock.class);
   }
 
   @After
   public void tearDown() throws Exception {
     nettySharedResource.close();
-    scheduler.shutdown();
+    timerWheel.close();
+    clock.close();
+    schedulerWrapper.getScheduler().shutdown();
   }
 
   /**
@@ -120,7 +127,7 @@ public final class NettySourceTest {
         final WatermarkTimestampFunction<String> parseTsFunc =
             (input) -> Long.parseLong(input.toString().split(":")[1]);
         final EventGenerator<String> eventGenerator =
-            new PunctuatedEventGenerator<>(extractFunc, isWatermark, parseTsFunc, 0, null, null);
+            new PunctuatedEventGenerator<>(extractFunc, isWatermark, parseTsFunc, 0, null, null, clock);
         sources.add(new Tuple<>(dataGenerator, eventGenerator));
         dataGenerator.setEventGenerator(eventGenerator);
 
@@ -190,7 +197,7 @@ public final class NettySourceTest {
       final DataGenerator<String> dataGenerator =
           new NettyTextDataGenerator(SERVER_ADDR, SERVER_PORT, nettySharedResource);
       final EventGenerator<String> eventGenerator =
-          new PeriodicEventGenerator<>(null, period, 0, period, TimeUnit.MILLISECONDS, scheduler);
+          new PeriodicEventGenerator<>(null, period, 0, period, TimeUnit.MILLISECONDS, timerWheel, clock);
       dataGenerator.setEventGenerator(eventGenerator);
 
       final List<String> periodicReceivedData = new LinkedList<>();
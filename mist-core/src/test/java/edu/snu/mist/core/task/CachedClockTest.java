@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.parameters.MonotonicSourceTimestamp;
+import edu.snu.mist.core.parameters.SourceClockResolution;
+import edu.snu.mist.core.sources.EventGenerator;
+import edu.snu.mist.core.sources.PunctuatedEventGenerator;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.logging.Logger;
+
+public final class CachedClockTest {
+  private static final Logger LOG = Logger.getLogger(CachedClockTest.class.getName());
+
+  private ScheduledExecutorServiceWrapper schedulerWrapper;
+  private CachedClock clock;
+
+  @Before
+  public void setUp() throws Exception {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(SourceClockResolution.class, "1");
+    jcb.bindNamedParameter(MonotonicSourceTimestamp.class, "true");
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    schedulerWrapper = injector.getInstance(ScheduledExecutorServiceWrapper.class);
+    clock = injector.getInstance(CachedClock.class);
+  }
+
+  @After
+  public void tearDown() {
+    clock.close();
+    schedulerWrapper.getScheduler().shutdown();
+  }
+
+  /**
+   * Test whether the cached clock follows the system clock.
+   */
+  @Test(timeout = 10000L)
+  public void testCachedClock() throws InterruptedException {
+    final long startTime = System.currentTimeMillis();
+    Thread.sleep(100);
+    Assert.assertTrue(clock.currentTimeMillis() > startTime);
+    Assert.assertTrue(clock.currentTimeMillis() <= System.currentTimeMillis());
+  }
+
+  /**
+   * Test whether the events ingested by multiple threads have strictly increasing timestamps.
+   */
+  @Test(timeout = 10000L)
+  public void testMonotonicTimestamps() throws InterruptedException {
+    final int numThreads = 4;
+    final int numEvents = 10000;
+    final EventGenerator<String> eventGenerator =
+        new PunctuatedEventGenerator<>(null, input -> false, null, 0, null, null, clock);
+    final List<MistEvent> result = Collections.synchronizedList(new ArrayList<>());
+    eventGenerator.setOutputEmitter(new OutputBufferEmitter(result));
+
+    final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      executorService.submit(() -> {
+        for (int j = 0; j < numEvents; j++) {
+          eventGenerator.emitData("data");
+        }
+      });
+    }
+    executorService.shutdown();
+    Assert.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+    final Set<Long> timestamps = new HashSet<>();
+    for (final MistEvent event : result) {
+      timestamps.add(event.getTimestamp());
+    }
+    Assert.assertEquals(numThreads * numEvents, result.size());
+    Assert.assertEquals(numThreads * numEvents, timestamps.size());
+  }
+
+  /**
+   * Compare the throughput of the cached clock and the system clock read by multiple threads.
+   * This only logs the results, because the timing depends on the test machine.
+   */
+  @Test(timeout = 60000L)
+  public void benchmarkClockThroughput() throws InterruptedException {
+    final int numThreads = 4;
+    final int numReads = 5000000;
+
+    // Warm up
+    readClock(clock::currentTimeMillis, numThreads, numReads);
+    readClock(System::currentTimeMillis, numThreads, numReads);
+
+    final long systemTime = readClock(System::currentTimeMillis, numThreads, numReads);
+    final long cachedTime = readClock(clock::currentTimeMillis, numThreads, numReads);
+    final long readNum = (long) numThreads * numReads;
+    LOG.info(String.format("%d threads, system clock: %.1f ns/read, cached clock: %.1f ns/read",
+        numThreads, (double) systemTime / readNum, (double) cachedTime / readNum));
+  }
+
+  /**
+   * Read the clock in the threads at the same time.
+   * @return the elapsed time in nanoseconds
+   */
+  private long readClock(final LongSupplier currentTime,
+                         final int numThreads,
+                         final int numReads) throws InterruptedException {
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    final AtomicLong checksum = new AtomicLong(0);
+    final ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      executorService.submit(() -> {
+        startLatch.await();
+        long sum = 0;
+        for (int j = 0; j < numReads; j++) {
+          sum += currentTime.getAsLong();
+        }
+        // Keep the reads from being optimized away
+        checksum.addAndGet(sum);
+        return null;
+      });
+    }
+    final long start = System.nanoTime();
+    startLatch.countDown();
+    executorService.shutdown();
+    Assert.assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+    final long elapsed = System.nanoTime() - start;
+    Assert.assertTrue(checksum.get() != 0);
+    return elapsed;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.core.parameters.SkipIdleSourceWatermark;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public final class HashedTimerWheelTest {
+
+  private ScheduledExecutorServiceWrapper schedulerWrapper;
+  private HashedTimerWheel timerWheel;
+
+  @Before
+  public void setUp() throws Exception {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(SkipIdleSourceWatermark.class, "true");
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    schedulerWrapper = injector.getInstance(ScheduledExecutorServiceWrapper.class);
+    timerWheel = injector.getInstance(HashedTimerWheel.class);
+  }
+
+  @After
+  public void tearDown() {
+    timerWheel.close();
+    schedulerWrapper.getScheduler().shutdown();
+  }
+
+  /**
+   * Test whether the tasks having different periods run at their own periods.
+   */
+  @Test(timeout = 10000L)
+  public void testPeriodicTasks() throws InterruptedException {
+    final int numTasks = 100;
+    final CountDownLatch latch = new CountDownLatch(numTasks);
+    final List<AtomicInteger> fastCounts = new ArrayList<>();
+    final List<AtomicInteger> slowCounts = new ArrayList<>();
+    for (int i = 0; i < numTasks; i++) {
+      final AtomicInteger fastCount = new AtomicInteger(0);
+      final AtomicInteger slowCount = new AtomicInteger(0);
+      fastCounts.add(fastCount);
+      slowCounts.add(slowCount);
+      timerWheel.schedule(() -> {
+        if (fastCount.incrementAndGet() == 10) {
+          latch.countDown();
+        }
+      }, 20, TimeUnit.MILLISECONDS);
+      timerWheel.schedule(slowCount::incrementAndGet, 1, TimeUnit.SECONDS);
+    }
+    latch.await();
+    for (int i = 0; i < numTasks; i++) {
+      Assert.assertTrue(fastCounts.get(i).get() >= 10);
+      // The slow tasks have run at most once while the fast tasks run 10 times
+      Assert.assertTrue(slowCounts.get(i).get() <= 1);
+    }
+  }
+
+  /**
+   * Test whether the cancelled tasks and the idle tasks do not run.
+   */
+  @Test(timeout = 10000L)
+  public void testCancelAndIdleTasks() throws InterruptedException {
+    final AtomicInteger cancelledCount = new AtomicInteger(0);
+    final AtomicInteger idleCount = new AtomicInteger(0);
+    final CountDownLatch latch = new CountDownLatch(5);
+    final HashedTimerWheel.Registration registration =
+        timerWheel.schedule(cancelledCount::incrementAndGet, 10, TimeUnit.MILLISECONDS);
+    registration.cancel();
+    timerWheel.schedule(new HashedTimerWheel.IdleAwareTask() {
+      @Override
+      public boolean isIdle() {
+        return true;
+      }
+
+      @Override
+      public void run() {
+        idleCount.incrementAndGet();
+      }
+    }, 10, TimeUnit.MILLISECONDS);
+    timerWheel.schedule(latch::countDown, 10, TimeUnit.MILLISECONDS);
+    latch.await();
+    Assert.assertEquals(0, cancelledCount.get());
+    Assert.assertEquals(0, idleCount.get());
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.windows.WindowData;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.operators.window.CountWindowOperator;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import edu.snu.mist.formats.avro.Direction;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.mock;
+
+public final class NonBlockingQueueSourceOutputEmitterTest {
+
+  /**
+   * Test whether the source output emitter releases the received buffers after the events are processed,
+   * and the buffering operators keep the copies of the buffers.
+   */
+  @Test
+  public void testBufferRelease() {
+    // source -> filter -> count window
+    final CountWindowOperator<ByteBuf> windowOperator = new CountWindowOperator<>(2, 2);
+    final List<MistEvent> result = new LinkedList<>();
+    windowOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    final Map<ExecutionVertex, MISTEdge> windowEdges = new ConcurrentHashMap<>();
+    windowEdges.put(new DefaultPhysicalOperatorImpl("window", new HashMap<>(), windowOperator),
+        new MISTEdge(Direction.LEFT));
+
+    final FilterOperator<ByteBuf> filterOperator = new FilterOperator<>(buf -> buf.readableBytes() > 1);
+    filterOperator.setOutputEmitter(new OperatorOutputEmitter(windowEdges));
+    final Map<ExecutionVertex, MISTEdge> filterEdges = new ConcurrentHashMap<>();
+    filterEdges.put(new DefaultPhysicalOperatorImpl("filter", new HashMap<>(), filterOperator),
+        new MISTEdge(Direction.LEFT));
+
+    final NonBlockingQueueSourceOutputEmitter<ByteBuf> emitter =
+        new NonBlockingQueueSourceOutputEmitter<>(filterEdges, mock(Query.class));
+    final List<ByteBuf> inputs = Arrays.asList(
+        Unpooled.copiedBuffer("ab", CharsetUtil.UTF_8),
+        Unpooled.copiedBuffer("c", CharsetUtil.UTF_8),
+        Unpooled.copiedBuffer("de", CharsetUtil.UTF_8));
+    for (int i = 0; i < inputs.size(); i++) {
+      emitter.emitData(new MistDataEvent(inputs.get(i), i));
+    }
+    Assert.assertEquals(inputs.size(), emitter.processAllEvent());
+
+    // Both the forwarded and the dropped buffers are released
+    for (final ByteBuf input : inputs) {
+      Assert.assertEquals(0, input.refCnt());
+    }
+
+    // The window holds the copies of the forwarded buffers
+    Assert.assertEquals(1, result.size());
+    final List<String> windowed = new ArrayList<>();
+    for (final Object buf : ((WindowData) ((MistDataEvent) result.get(0)).getValue()).getDataCollection()) {
+      Assert.assertEquals(1, ((ByteBuf) buf).refCnt());
+      windowed.add(((ByteBuf) buf).toString(CharsetUtil.UTF_8));
+    }
+    Assert.assertEquals(Arrays.asList("ab", "de"), windowed);
+  }
+}
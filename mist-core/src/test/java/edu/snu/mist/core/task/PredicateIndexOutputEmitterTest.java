@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task;
+
+import edu.snu.mist.common.functions.MISTPredicate;
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.common.predicates.*;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import edu.snu.mist.formats.avro.Direction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.mock;
+
+public final class PredicateIndexOutputEmitterTest {
+
+  private static final String[] IDS = {"HelloMIST", "HelloWorld", "MIST", "Hello"};
+
+  /**
+   * Create a predicate of a merged query.
+   */
+  private MISTPredicate<Map<String, Object>> createPredicate(final int i) {
+    final String id = IDS[i % IDS.length];
+    final int temp = (i * 7) % 100;
+    switch (i % 8) {
+      case 0:
+        return new RuleBasedEQPredicate("ID", id);
+      case 1:
+        return new RuleBasedGTPredicate("Temp", temp);
+      case 2:
+        return new RuleBasedGEPredicate("Temp", temp);
+      case 3:
+        return new RuleBasedLTPredicate("Temp", temp);
+      case 4:
+        return new RuleBasedLEPredicate("Humidity", (double) temp);
+      case 5:
+        return new RuleBasedANDPredicate(Arrays.asList(
+            new RuleBasedGTPredicate("Temp", temp), new RuleBasedEQPredicate("ID", id)));
+      case 6:
+        // Not indexable
+        return new RuleBasedORPredicate(Arrays.asList(
+            new RuleBasedGTPredicate("Temp", temp), new RuleBasedEQPredicate("ID", id)));
+      default:
+        // Not indexable
+        return new RuleBasedNEQPredicate("ID", id);
+    }
+  }
+
+  /**
+   * Test whether the emitter forwards the events to the filters that are matched with the events only.
+   */
+  @Test
+  public void testPredicateIndexOutputEmitter() {
+    final int queryNum = 80;
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    final List<MISTPredicate<Map<String, Object>>> predicates = new ArrayList<>();
+    final List<List<MistEvent>> results = new ArrayList<>();
+    final List<ExecutionVertex> vertices = new ArrayList<>();
+    for (int i = 0; i < queryNum; i++) {
+      final MISTPredicate<Map<String, Object>> predicate = createPredicate(i);
+      final FilterOperator<Map<String, Object>> filterOperator = new FilterOperator<>(predicate);
+      final List<MistEvent> result = new LinkedList<>();
+      filterOperator.setOutputEmitter(new OutputBufferEmitter(result));
+      final ExecutionVertex vertex =
+          new DefaultPhysicalOperatorImpl("filter-" + i, new HashMap<>(), filterOperator);
+      nextOperators.put(vertex, new MISTEdge(Direction.LEFT));
+      predicates.add(predicate);
+      results.add(result);
+      vertices.add(vertex);
+    }
+
+    final OutputEmitter emitter = QueryStarterUtils.newOperatorOutputEmitter(nextOperators, null);
+    Assert.assertTrue(emitter instanceof PredicateIndexOutputEmitter);
+
+    final Random random = new Random(0);
+    final List<Map<String, Object>> events = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      final Map<String, Object> event = new HashMap<>();
+      event.put("ID", IDS[random.nextInt(IDS.length)]);
+      event.put("Temp", random.nextInt(100));
+      event.put("Humidity", random.nextDouble() * 100);
+      events.add(event);
+      emitter.emitData(new MistDataEvent(event, i));
+    }
+
+    for (int i = 0; i < queryNum; i++) {
+      final List<Object> expected = new ArrayList<>();
+      for (final Map<String, Object> event : events) {
+        if (predicates.get(i).test(event)) {
+          expected.add(event);
+        }
+      }
+      final List<Object> actual = new ArrayList<>();
+      for (final MistEvent event : results.get(i)) {
+        actual.add(((MistDataEvent) event).getValue());
+      }
+      Assert.assertEquals(expected, actual);
+      results.get(i).clear();
+    }
+
+    // Remove the half of the queries
+    for (int i = 0; i < queryNum; i += 2) {
+      nextOperators.remove(vertices.get(i));
+    }
+    for (final Map<String, Object> event : events) {
+      emitter.emitData(new MistDataEvent(event, 1000));
+    }
+    for (int i = 0; i < queryNum; i++) {
+      if (i % 2 == 0) {
+        Assert.assertTrue(results.get(i).isEmpty());
+      } else {
+        int expectedNum = 0;
+        for (final Map<String, Object> event : events) {
+          if (predicates.get(i).test(event)) {
+            expectedNum += 1;
+          }
+        }
+        Assert.assertEquals(expectedNum, results.get(i).size());
+      }
+    }
+  }
+
+  /**
+   * Test whether the source output emitter forwards the events to the filters that are matched with the events only.
+   */
+  @Test
+  public void testSourceOutputEmitter() {
+    final int queryNum = 80;
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    final List<MISTPredicate<Map<String, Object>>> predicates = new ArrayList<>();
+    final List<List<MistEvent>> results = new ArrayList<>();
+    final List<ExecutionVertex> vertices = new ArrayList<>();
+    for (int i = 0; i < queryNum; i++) {
+      final MISTPredicate<Map<String, Object>> predicate = createPredicate(i);
+      final FilterOperator<Map<String, Object>> filterOperator = new FilterOperator<>(predicate);
+      final List<MistEvent> result = new LinkedList<>();
+      filterOperator.setOutputEmitter(new OutputBufferEmitter(result));
+      final ExecutionVertex vertex =
+          new DefaultPhysicalOperatorImpl("filter-" + i, new HashMap<>(), filterOperator);
+      nextOperators.put(vertex, new MISTEdge(Direction.LEFT));
+      predicates.add(predicate);
+      results.add(result);
+      vertices.add(vertex);
+    }
+    final NonBlockingQueueSourceOutputEmitter<Map<String, Object>> emitter =
+        new NonBlockingQueueSourceOutputEmitter<>(nextOperators, mock(Query.class));
+
+    // Remove a query before the events are processed
+    nextOperators.remove(vertices.get(0));
+    final Random random = new Random(0);
+    final List<Map<String, Object>> events = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      final Map<String, Object> event = new HashMap<>();
+      event.put("ID", IDS[random.nextInt(IDS.length)]);
+      event.put("Temp", random.nextInt(100));
+      event.put("Humidity", random.nextDouble() * 100);
+      events.add(event);
+      emitter.emitData(new MistDataEvent(event, i));
+    }
+    final MistWatermarkEvent watermark = new MistWatermarkEvent(1000);
+    emitter.emitWatermark(watermark);
+    Assert.assertEquals(events.size() + 1, emitter.processAllEvent());
+
+    Assert.assertTrue(results.get(0).isEmpty());
+    for (int i = 1; i < queryNum; i++) {
+      final List<Object> expected = new ArrayList<>();
+      for (final Map<String, Object> event : events) {
+        if (predicates.get(i).test(event)) {
+          expected.add(event);
+        }
+      }
+      // Watermarks are forwarded to all filters
+      expected.add(watermark);
+      final List<Object> actual = new ArrayList<>();
+      for (final MistEvent event : results.get(i)) {
+        actual.add(event.isData() ? ((MistDataEvent) event).getValue() : event);
+      }
+      Assert.assertEquals(expected, actual);
+    }
+  }
+
+  /**
+   * Test whether a few filters use the default operator output emitter.
+   */
+  @Test
+  public void testFewFilters() {
+    final Map<ExecutionVertex, MISTEdge> nextOperators = new ConcurrentHashMap<>();
+    nextOperators.put(new DefaultPhysicalOperatorImpl("filter", new HashMap<>(),
+        new FilterOperator<>(createPredicate(0))), new MISTEdge(Direction.LEFT));
+    Assert.assertTrue(QueryStarterUtils.newOperatorOutputEmitter(nextOperators, null) instanceof OperatorOutputEmitter);
+  }
+}
@@ -119,15 +119,15 @@ public final class QueryManagerTest {
     // Create the execution DAG of the query
     final ExecutionDag executionDag = new ExecutionDag(new AdjacentListDAG<>());
 
+    final Injector injector = Tang.Factory.getTang().newInjector(conf);
+
     // Create source
     final TestDataGenerator dataGenerator = new TestDataGenerator(inputs);
-    final EventGenerator eventGenerator =
-        new PunctuatedEventGenerator(null, input -> false, null, 0, null, null);
+    final EventGenerator eventGenerator = new PunctuatedEventGenerator(null, input -> false, null, 0, null, null,
+        injector.getInstance(CachedClock.class));
     final PhysicalSource src = new PhysicalSourceImpl("testSource",
         new HashMap<>(), dataGenerator, eventGenerator);
 
-    final Injector injector = Tang.Factory.getTang().newInjector(conf);
-
     // Create sinks
     final List<String> sink1Result = new LinkedList<>();
     final List<Integer> sink2Result = new LinkedList<>();
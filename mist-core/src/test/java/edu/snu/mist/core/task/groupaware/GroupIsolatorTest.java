@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware;
+
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessorFactory;
+import edu.snu.mist.core.task.groupaware.eventprocessor.RuntimeProcessingInfo;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.DefaultNumEventProcessors;
+import edu.snu.mist.core.task.groupaware.eventprocessor.parameters.IsolationReleasePeriod;
+import edu.snu.mist.core.task.groupaware.rebalancer.DefaultGroupIsolatorImpl;
+import edu.snu.mist.core.task.groupaware.rebalancer.GroupIsolator;
+import junit.framework.Assert;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class GroupIsolatorTest {
+
+  private GroupAllocationTable groupAllocationTable;
+  private GroupIsolator groupIsolator;
+  private TestEventProcessor ep;
+  private Group group1;
+  private Group group2;
+
+  @Before
+  public void setUp() throws InjectionException {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(DefaultNumEventProcessors.class, "0");
+    jcb.bindNamedParameter(IsolationReleasePeriod.class, "0");
+    jcb.bindImplementation(EventProcessorFactory.class, TestEventProcessorFactory.class);
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    groupAllocationTable = injector.getInstance(GroupAllocationTable.class);
+    groupIsolator = injector.getInstance(DefaultGroupIsolatorImpl.class);
+
+    ep = new TestEventProcessor();
+    groupAllocationTable.put(ep);
+    group1 = mockGroup();
+    group2 = mockGroup();
+    for (final Group group : new Group[]{group1, group2}) {
+      group.setEventProcessor(ep);
+      groupAllocationTable.getValue(ep).add(group);
+    }
+  }
+
+  /**
+   * Test whether a preemptible group that is processed longer than the trigger period is moved to a new thread,
+   * and merged back when it is not overloaded.
+   */
+  @Test
+  public void testPreemptibleGroupIsolation() {
+    ep.runtimeInfo = new RuntimeProcessingInfo(group1, System.currentTimeMillis() - 600, 0);
+    groupIsolator.triggerIsolation();
+
+    Assert.assertEquals(2, groupAllocationTable.size());
+    final EventProcessor newEP = groupAllocationTable.getKeys().get(1);
+    Assert.assertTrue(newEP.isRunningIsolatedGroup());
+    Assert.assertFalse(ep.isRunningIsolatedGroup());
+    Assert.assertTrue(groupAllocationTable.getValue(newEP).contains(group1));
+    Assert.assertFalse(groupAllocationTable.getValue(ep).contains(group1));
+    Assert.assertEquals(newEP, group1.getEventProcessor());
+
+    // The group is not overloaded anymore
+    ep.runtimeInfo = new RuntimeProcessingInfo(null, System.currentTimeMillis(), 0);
+    groupIsolator.triggerIsolation();
+
+    Assert.assertEquals(1, groupAllocationTable.size());
+    Assert.assertTrue(((TestEventProcessor) newEP).closed);
+    Assert.assertTrue(groupAllocationTable.getValue(ep).contains(group1));
+    Assert.assertEquals(ep, group1.getEventProcessor());
+  }
+
+  /**
+   * Test whether a non-preemptible group is isolated in the current thread
+   * and the other groups are moved to a new thread, and moved back when the group is not overloaded.
+   */
+  @Test
+  public void testNonPreemptibleGroupIsolation() {
+    ep.runtimeInfo = new RuntimeProcessingInfo(group1, System.currentTimeMillis() - 1500, 0);
+    groupIsolator.triggerIsolation();
+
+    Assert.assertEquals(2, groupAllocationTable.size());
+    final EventProcessor newEP = groupAllocationTable.getKeys().get(1);
+    Assert.assertTrue(ep.isRunningIsolatedGroup());
+    Assert.assertFalse(newEP.isRunningIsolatedGroup());
+    Assert.assertEquals(1, groupAllocationTable.getValue(ep).size());
+    Assert.assertTrue(groupAllocationTable.getValue(ep).contains(group1));
+    Assert.assertTrue(groupAllocationTable.getValue(newEP).contains(group2));
+    Assert.assertEquals(newEP, group2.getEventProcessor());
+
+    // The isolated thread is still running the group
+    groupIsolator.triggerIsolation();
+    Assert.assertEquals(2, groupAllocationTable.size());
+
+    ep.runtimeInfo = new RuntimeProcessingInfo(null, System.currentTimeMillis(), 0);
+    groupIsolator.triggerIsolation();
+
+    Assert.assertEquals(1, groupAllocationTable.size());
+    Assert.assertTrue(((TestEventProcessor) newEP).closed);
+    Assert.assertFalse(ep.isRunningIsolatedGroup());
+    Assert.assertEquals(2, groupAllocationTable.getValue(ep).size());
+    Assert.assertEquals(ep, group2.getEventProcessor());
+  }
+
+  /**
+   * Test whether the group is not isolated if it is the only group of the event processor.
+   */
+  @Test
+  public void testSingleGroupNotIsolated() {
+    groupAllocationTable.getValue(ep).remove(group2);
+    ep.runtimeInfo = new RuntimeProcessingInfo(group1, System.currentTimeMillis() - 600, 0);
+    groupIsolator.triggerIsolation();
+    Assert.assertEquals(1, groupAllocationTable.size());
+    Assert.assertFalse(ep.isRunningIsolatedGroup());
+  }
+
+  /**
+   * Create a mock group that keeps its event processor.
+   */
+  private Group mockGroup() {
+    final Group group = mock(Group.class);
+    final AtomicReference<EventProcessor> eventProcessor = new AtomicReference<>();
+    doAnswer(invocation -> {
+      eventProcessor.set((EventProcessor) invocation.getArguments()[0]);
+      return null;
+    }).when(group).setEventProcessor(any(EventProcessor.class));
+    when(group.getEventProcessor()).thenAnswer(invocation -> eventProcessor.get());
+    return group;
+  }
+
+  /**
+   * An event processor that returns the given runtime processing info.
+   */
+  static final class TestEventProcessor implements EventProcessor {
+    private final Set<Group> activeGroups = new HashSet<>();
+    private RuntimeProcessingInfo runtimeInfo = new RuntimeProcessingInfo(null, System.currentTimeMillis(), 0);
+    private double load;
+    private boolean isolated;
+    private boolean closed;
+
+    @Override
+    public void start() {
+      // do nothing
+    }
+
+    @Override
+    public double getLoad() {
+      return load;
+    }
+
+    @Override
+    public void setLoad(final double l) {
+      load = l;
+    }
+
+    @Override
+    public void addActiveGroup(final Group group) {
+      activeGroups.add(group);
+    }
+
+    @Override
+    public boolean removeActiveGroup(final Group group) {
+      return activeGroups.remove(group);
+    }
+
+    @Override
+    public RuntimeProcessingInfo getCurrentRuntimeInfo() {
+      return runtimeInfo;
+    }
+
+    @Override
+    public void setRunningIsolatedGroup(final boolean val) {
+      isolated = val;
+    }
+
+    @Override
+    public boolean isRunningIsolatedGroup() {
+      return isolated;
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  /**
+   * An event processor factory that creates test event processors.
+   */
+  static final class TestEventProcessorFactory implements EventProcessorFactory {
+
+    @Inject
+    private TestEventProcessorFactory() {
+      // empty
+    }
+
+    @Override
+    public EventProcessor newEventProcessor() {
+      return new TestEventProcessor();
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware;
+
+import edu.snu.mist.core.parameters.GroupId;
+import edu.snu.mist.core.task.DefaultQueryImpl;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.SourceOutputEmitter;
+import edu.snu.mist.core.task.groupaware.eventprocessor.EventProcessor;
+import junit.framework.Assert;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.JavaConfigurationBuilder;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class GroupTimeSliceTest {
+
+  private Group group;
+  private EventProcessor eventProcessor;
+
+  @Before
+  public void setUp() throws InjectionException {
+    final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
+    jcb.bindNamedParameter(GroupId.class, "group");
+    final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    group = injector.getInstance(Group.class);
+    eventProcessor = mock(EventProcessor.class);
+    group.setEventProcessor(eventProcessor);
+  }
+
+  /**
+   * Create a source output emitter that emits the number of events in each processing.
+   */
+  private SourceOutputEmitter createEmitter(final int numEvents, final long sleepMs) {
+    final SourceOutputEmitter emitter = mock(SourceOutputEmitter.class);
+    when(emitter.processAllEvent()).thenAnswer(invocation -> {
+      Thread.sleep(sleepMs);
+      return numEvents;
+    });
+    return emitter;
+  }
+
+  /**
+   * Add an active query whose source emits the number of events in each processing.
+   */
+  private void addActiveQuery(final String queryId, final int numEvents, final long sleepMs) {
+    final Query query = new DefaultQueryImpl(queryId);
+    query.setGroup(group);
+    query.insert(createEmitter(numEvents, sleepMs));
+  }
+
+  /**
+   * Test whether a group that processed more events than its quantum skips its time slices
+   * until the deficit is paid back.
+   */
+  @Test
+  public void testDeficitPayback() {
+    for (int i = 0; i < 3; i++) {
+      addActiveQuery("q" + i, 100, 0);
+    }
+    verify(eventProcessor, times(1)).addActiveGroup(group);
+
+    // The quantum is one event, so the group can process one query in the first slice
+    Assert.assertEquals(100, group.processAllEvent(0));
+    verify(eventProcessor, times(2)).addActiveGroup(group);
+    for (int i = 0; i < 99; i++) {
+      Assert.assertEquals(0, group.processAllEvent(0));
+    }
+    Assert.assertEquals(100, group.processAllEvent(0));
+    verify(eventProcessor, times(102)).addActiveGroup(group);
+
+    // The group is not rescheduled if all events are processed
+    Assert.assertEquals(100, group.processAllEvent());
+    Assert.assertFalse(group.isActive());
+    verify(eventProcessor, times(102)).addActiveGroup(group);
+  }
+
+  /**
+   * Test whether a group pays back the overrun of a single heavy query
+   * even if the query has no more events at the end of the slice.
+   */
+  @Test
+  public void testDeficitPaybackOfSingleQuery() {
+    final Query query = new DefaultQueryImpl("q");
+    query.setGroup(group);
+    final SourceOutputEmitter emitter = createEmitter(100, 0);
+    query.insert(emitter);
+
+    // The quantum is one event, but the query processes all of its events at once
+    Assert.assertEquals(100, group.processAllEvent(0));
+    Assert.assertFalse(group.isActive());
+    verify(eventProcessor, times(1)).addActiveGroup(group);
+
+    // The next events of the query wait until the overrun is paid back
+    query.insert(emitter);
+    verify(eventProcessor, times(2)).addActiveGroup(group);
+    for (int i = 0; i < 99; i++) {
+      Assert.assertEquals(0, group.processAllEvent(0));
+    }
+    Assert.assertEquals(100, group.processAllEvent(0));
+  }
+
+  /**
+   * Test whether the quantum is sized from the measured processing cost of the events.
+   */
+  @Test
+  public void testQuantumFromEventCost() {
+    for (int i = 0; i < 3; i++) {
+      addActiveQuery("q" + i, 10, 1);
+    }
+
+    // The processing cost is not measured before the first slice
+    Assert.assertEquals(10, group.processAllEvent(1000));
+    verify(eventProcessor, times(2)).addActiveGroup(group);
+    // The events of the remaining queries take much less than the timeout
+    Assert.assertEquals(20, group.processAllEvent(1000));
+    Assert.assertFalse(group.isActive());
+    verify(eventProcessor, times(2)).addActiveGroup(group);
+  }
+}
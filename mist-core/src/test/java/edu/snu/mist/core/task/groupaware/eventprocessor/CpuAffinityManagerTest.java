@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import junit.framework.Assert;
+import net.openhft.affinity.CpuLayout;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+
+public final class CpuAffinityManagerTest {
+
+  /**
+   * A layout of 2 sockets, 2 cores per socket, and 2 hyper-threads per core.
+   * Cpu 0-3 are the first hyper-threads of (socket 0, core 0), (0, 1), (1, 0), (1, 1),
+   * and cpu 4-7 are the second hyper-threads of the cores.
+   */
+  private static final class TestCpuLayout implements CpuLayout {
+    @Override
+    public int cpus() {
+      return 8;
+    }
+
+    @Override
+    public int sockets() {
+      return 2;
+    }
+
+    @Override
+    public int coresPerSocket() {
+      return 2;
+    }
+
+    @Override
+    public int threadsPerCore() {
+      return 2;
+    }
+
+    @Override
+    public int socketId(final int cpuId) {
+      return (cpuId % 4) / 2;
+    }
+
+    @Override
+    public int coreId(final int cpuId) {
+      return cpuId % 2;
+    }
+
+    @Override
+    public int threadId(final int cpuId) {
+      return cpuId / 4;
+    }
+  }
+
+  /**
+   * Test whether the event processors are assigned to distinct physical cores before the hyper-threads,
+   * and the cpus reserved for the I/O threads are not assigned.
+   */
+  @Test
+  public void testEventProcessorPlacement() {
+    final CpuAffinityManager manager = new CpuAffinityManager(new TestCpuLayout(), true, 1);
+    final List<EventProcessor> eventProcessors = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      final EventProcessor eventProcessor = mock(EventProcessor.class);
+      manager.assignEventProcessor(eventProcessor);
+      eventProcessors.add(eventProcessor);
+    }
+
+    // Cpu 0 is reserved for the I/O threads
+    final int[] expectedCpus = {1, 2, 3, 4, 5, 6, 7, -1};
+    final int[] expectedNodes = {0, 1, 1, 0, 0, 1, 1, 0};
+    for (int i = 0; i < 8; i++) {
+      Assert.assertEquals(expectedCpus[i], manager.getCpu(eventProcessors.get(i)));
+      Assert.assertEquals(expectedNodes[i], manager.getNumaNode(eventProcessors.get(i)));
+    }
+    Assert.assertTrue(manager.isSameNumaNode(eventProcessors.get(1), eventProcessors.get(2)));
+    Assert.assertFalse(manager.isSameNumaNode(eventProcessors.get(0), eventProcessors.get(1)));
+
+    // The released cpu is reused by a new event processor
+    manager.releaseEventProcessor(eventProcessors.get(0));
+    Assert.assertEquals(-1, manager.getNumaNode(eventProcessors.get(0)));
+    final EventProcessor newEventProcessor = mock(EventProcessor.class);
+    manager.assignEventProcessor(newEventProcessor);
+    Assert.assertEquals(1, manager.getCpu(newEventProcessor));
+  }
+
+  /**
+   * Test whether the event processors are not placed if the pinning is disabled.
+   */
+  @Test
+  public void testNoPinning() {
+    final CpuAffinityManager manager = new CpuAffinityManager(new TestCpuLayout(), false, 1);
+    final EventProcessor eventProcessor = mock(EventProcessor.class);
+    manager.assignEventProcessor(eventProcessor);
+    Assert.assertEquals(-1, manager.getCpu(eventProcessor));
+    Assert.assertEquals(-1, manager.getNumaNode(eventProcessor));
+    Assert.assertFalse(manager.isSameNumaNode(eventProcessor, eventProcessor));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.groupaware.eventprocessor;
+
+import edu.snu.mist.core.task.groupaware.Group;
+import junit.framework.Assert;
+import org.junit.Test;
+
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class PriorityGroupSelectorTest {
+
+  /**
+   * Create a mock group that has the oldest event time and the deadline.
+   */
+  private Group mockGroup(final long oldestEventTime, final long deadline) {
+    final Group group = mock(Group.class);
+    when(group.getOldestEventTime()).thenReturn(oldestEventTime);
+    when(group.getEarliestDeadline(anyLong())).thenReturn(deadline);
+    when(group.setProcessingFromReady()).thenReturn(true);
+    return group;
+  }
+
+  /**
+   * Test whether the group with the oldest event is selected first.
+   */
+  @Test
+  public void testOldestEventFirst() {
+    final NextGroupSelector selector = new PriorityGroupSelector(Group::getOldestEventTime);
+    final Group group1 = mockGroup(300L, 0L);
+    final Group group2 = mockGroup(100L, 0L);
+    final Group group3 = mockGroup(200L, 0L);
+    selector.reschedule(group1, false);
+    selector.reschedule(group2, false);
+    selector.reschedule(group3, false);
+
+    Assert.assertEquals(group2, selector.getNextExecutableGroup());
+    Assert.assertEquals(group3, selector.getNextExecutableGroup());
+    Assert.assertEquals(group1, selector.getNextExecutableGroup());
+  }
+
+  /**
+   * Test whether the group with the earliest deadline is selected first,
+   * the groups with the same deadline are selected in FIFO, and the removed group is not selected.
+   */
+  @Test
+  public void testEarliestDeadlineFirst() {
+    final NextGroupSelector selector = new PriorityGroupSelector(group -> group.getEarliestDeadline(1000L));
+    // The group with the older event has the later deadline because of its larger latency objective
+    final Group group1 = mockGroup(100L, 5100L);
+    final Group group2 = mockGroup(200L, 1200L);
+    final Group group3 = mockGroup(300L, 1200L);
+    final Group group4 = mockGroup(50L, 50L);
+    selector.reschedule(group1, false);
+    selector.reschedule(group2, false);
+    selector.reschedule(group3, false);
+    selector.reschedule(group4, false);
+    // Missed groups are not rescheduled
+    selector.reschedule(mockGroup(0L, 0L), true);
+
+    Assert.assertTrue(selector.removeDispatchedGroup(group4));
+    Assert.assertFalse(selector.removeDispatchedGroup(group4));
+    Assert.assertEquals(group2, selector.getNextExecutableGroup());
+    Assert.assertEquals(group3, selector.getNextExecutableGroup());
+    Assert.assertEquals(group1, selector.getNextExecutableGroup());
+  }
+}
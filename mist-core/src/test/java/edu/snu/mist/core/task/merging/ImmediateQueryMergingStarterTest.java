@@ -22,9 +22,11 @@ import edu.snu.mist.common.graph.DAG;
 import edu.snu.mist.common.graph.GraphUtils;
 import edu.snu.mist.common.graph.MISTEdge;
 import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.operators.OneStreamOperator;
 import edu.snu.mist.core.sinks.Sink;
 import edu.snu.mist.core.sources.EventGenerator;
 import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.parallel.ParallelOperator;
 import edu.snu.mist.core.task.utils.IdAndConfGenerator;
 import edu.snu.mist.formats.avro.Direction;
 import org.apache.reef.io.Tuple;
@@ -44,6 +46,8 @@ import java.util.concurrent.atomic.AtomicLong;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -167,6 +171,7 @@ public final class ImmediateQueryMergingStarterTest {
    * Case 6. Two queries have two sources, one same source, one different source
    * Case 7. Three queries - two execution Dags and one submitted Dag
    *  - The submitted query has two same sources with the two execution dags
+   * Case 8. Two queries have one same source, but different parallel operators
    */
 
   /**
@@ -642,6 +647,71 @@ public final class ImmediateQueryMergingStarterTest {
     Assert.assertEquals(1, (int)executionVertexCountMap.get(sink2));
   }
 
+  /**
+   * Get a parallel operator that runs the replicas of a filter operator.
+   * @param conf configuration of the operator
+   * @param predicate the predicate of the filter
+   * @return parallel operator
+   */
+  private PhysicalOperator generateParallelFilterOperator(final Map<String, String> conf,
+                                                         final MISTPredicate<String> predicate) {
+    final List<OneStreamOperator> replicas = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      replicas.add(new FilterOperator<>(predicate));
+    }
+    return new DefaultPhysicalOperatorImpl(idAndConfGenerator.generateId(),
+        conf, new ParallelOperator(replicas, null));
+  }
+
+  /**
+   * Case 8: Merging two dags that have same source but different parallel operators.
+   * The replicas of the parallel operator of the second query should be set up in the merging path.
+   */
+  @Test
+  public void mergingParallelOperatorQueriesTest()
+      throws InjectionException, IOException, ClassNotFoundException {
+    final Map<String, String> sourceConf = idAndConfGenerator.generateConf();
+    final List<List<String>> results = new ArrayList<>();
+    final List<TestSource> sources = new ArrayList<>();
+    final List<Query> queries = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      // src -> parallel filter -> sink
+      final List<String> result = new LinkedList<>();
+      final Map<String, String> ocConf = idAndConfGenerator.generateConf();
+      final Map<String, String> sinkConf = idAndConfGenerator.generateConf();
+      final TestSource src = generateSource(sourceConf);
+      final String prefix = i == 0 ? "H" : "";
+      final PhysicalOperator physicalOp = generateParallelFilterOperator(ocConf, s -> s.startsWith(prefix));
+      final PhysicalSink<String> sink = generateSink(sinkConf, result);
+
+      final ConfigVertex srcVertex = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+          ExecutionVertex.Type.SOURCE, sourceConf);
+      final ConfigVertex ocVertex = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+          ExecutionVertex.Type.OPERATOR, ocConf);
+      final ConfigVertex sinkVertex = new ConfigVertex(Long.toString(configVertexId.getAndIncrement()),
+          ExecutionVertex.Type.SINK, sinkConf);
+      final Tuple<DAG<ConfigVertex, MISTEdge>, ExecutionDag> dagTuple =
+          generateSimpleDag(src, physicalOp, sink, srcVertex, ocVertex, sinkVertex);
+
+      final Query query = mock(Query.class);
+      queryStarter.start("q" + i, query, dagTuple.getKey(), mock(List.class));
+      results.add(result);
+      sources.add(src);
+      queries.add(query);
+    }
+
+    // The replica queries of both parallel operators are added to their queries
+    verify(queries.get(0), times(2)).addReplica(any(Query.class));
+    verify(queries.get(1), times(2)).addReplica(any(Query.class));
+
+    // The replicas are processed by the thread of the query before they are assigned to groups
+    sources.get(0).send("Hello");
+    sources.get(0).send("World");
+    Assert.assertEquals(2, sources.get(0).getSourceOutputEmitter().processAllEvent());
+    Assert.assertEquals(Arrays.asList("Hello"), results.get(0));
+    Assert.assertEquals(Arrays.asList("Hello", "World"), results.get(1));
+  }
+
   /**
    * Test source that sends data to next operator chains.
    */
@@ -26,6 +26,7 @@ import edu.snu.mist.core.operators.FilterOperator;
 import edu.snu.mist.core.sinks.Sink;
 import edu.snu.mist.core.sources.EventGenerator;
 import edu.snu.mist.core.task.*;
+import edu.snu.mist.core.task.groupaware.GroupAllocationTableModifier;
 import edu.snu.mist.core.task.utils.IdAndConfGenerator;
 import edu.snu.mist.formats.avro.Direction;
 import org.apache.reef.io.Tuple;
@@ -102,6 +103,7 @@ public final class MergeAwareQueryRemoverTest {
     final JavaConfigurationBuilder jcb = Tang.Factory.getTang().newConfigurationBuilder();
     jcb.bindImplementation(ExecutionDags.class, MergingExecutionDags.class);
     final Injector injector = Tang.Factory.getTang().newInjector(jcb.build());
+    injector.bindVolatileInstance(GroupAllocationTableModifier.class, mock(GroupAllocationTableModifier.class));
     queryRemover = injector.getInstance(MergeAwareQueryRemover.class);
     srcAndDagMap = injector.getInstance(SrcAndDagMap.class);
     executionVertexCountMap = injector.getInstance(ExecutionVertexCountMap.class);
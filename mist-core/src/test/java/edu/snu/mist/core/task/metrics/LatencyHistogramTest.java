@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.Operator;
+import edu.snu.mist.core.sinks.Sink;
+import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.OperatorOutputEmitter;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.core.task.PhysicalSink;
+import edu.snu.mist.core.task.PhysicalSinkImpl;
+import edu.snu.mist.formats.avro.Direction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A test class for LatencyHistogram.
+ */
+public final class LatencyHistogramTest {
+
+  /**
+   * Test whether the values at the percentiles are within the relative error of the buckets.
+   */
+  @Test
+  public void testPercentiles() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0L, histogram.getCount());
+    Assert.assertEquals(0L, histogram.getValueAtPercentile(99.0));
+
+    for (long i = 1; i <= 10000; i++) {
+      histogram.record(i * 1000L);
+    }
+    Assert.assertEquals(10000L, histogram.getCount());
+    assertNear(5000000L, histogram.getValueAtPercentile(50.0));
+    assertNear(9900000L, histogram.getValueAtPercentile(99.0));
+    Assert.assertEquals(10000000L, histogram.getValueAtPercentile(100.0));
+
+    final LatencySnapshot snapshot = histogram.getSnapshot();
+    Assert.assertEquals(10000L, snapshot.getCount());
+    Assert.assertEquals(5000500.0, snapshot.getMean(), 0.0001);
+    Assert.assertEquals(10000000L, snapshot.getMax());
+  }
+
+  /**
+   * Test whether each value is counted in the bucket whose bounds contain the value.
+   */
+  @Test
+  public void testBucketBounds() {
+    final long[] values = {0L, 1L, 15L, 16L, 31L, 32L, 33L, 1000L, 123456789L, Long.MAX_VALUE};
+    for (final long value : values) {
+      final int index = LatencyHistogram.getBucketIndex(value);
+      Assert.assertTrue(value <= LatencyHistogram.getBucketUpperBound(index));
+      if (index > 0) {
+        Assert.assertTrue(value > LatencyHistogram.getBucketUpperBound(index - 1));
+      }
+    }
+  }
+
+  /**
+   * Test whether the histograms are merged.
+   */
+  @Test
+  public void testAdd() {
+    final LatencyHistogram histogram1 = new LatencyHistogram();
+    final LatencyHistogram histogram2 = new LatencyHistogram();
+    histogram1.record(100L);
+    histogram2.record(300L);
+    histogram2.record(500L);
+
+    final LatencyHistogram merged = new LatencyHistogram();
+    merged.add(histogram1);
+    merged.add(histogram2);
+    merged.add(new LatencyHistogram());
+    Assert.assertEquals(3L, merged.getCount());
+    Assert.assertEquals(300.0, merged.getSnapshot().getMean(), 0.0001);
+    Assert.assertEquals(500L, merged.getSnapshot().getMax());
+  }
+
+  /**
+   * Test whether merge() moves the recorded values into the snapshot of the last interval and resets them.
+   */
+  @Test
+  public void testMerge() {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(100L);
+    histogram.record(300L);
+    Assert.assertEquals(0L, histogram.getLastIntervalSnapshot().getCount());
+
+    final LatencySnapshot firstInterval = histogram.merge();
+    Assert.assertEquals(2L, firstInterval.getCount());
+    Assert.assertEquals(200.0, firstInterval.getMean(), 0.0001);
+    Assert.assertEquals(300L, firstInterval.getMax());
+    Assert.assertEquals(0L, histogram.getCount());
+    Assert.assertEquals(2L, histogram.getLastIntervalSnapshot().getCount());
+
+    // The values of the previous interval do not affect the next interval
+    histogram.record(50L);
+    final LatencySnapshot secondInterval = histogram.merge();
+    Assert.assertEquals(1L, secondInterval.getCount());
+    Assert.assertEquals(50L, secondInterval.getMax());
+    Assert.assertEquals(0L, histogram.merge().getCount());
+  }
+
+  /**
+   * Test whether the latencies of the marked events are recorded by the operators and the sinks,
+   * and the events without markers are not recorded.
+   */
+  @Test
+  public void testRecordMarkedEvents() {
+    final PhysicalOperator physicalOperator =
+        new DefaultPhysicalOperatorImpl("op", new HashMap<>(), mock(Operator.class));
+    final PhysicalSink<Integer> physicalSink = new PhysicalSinkImpl<>("sink", new HashMap<>(), mock(Sink.class));
+    final LatencyHistogram queryHistogram = new LatencyHistogram();
+    physicalSink.setLatencyHistogram(queryHistogram);
+
+    final Map<ExecutionVertex, MISTEdge> nextVertices = new HashMap<>();
+    nextVertices.put(physicalOperator, new MISTEdge(Direction.LEFT));
+    nextVertices.put(physicalSink, new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter emitter = new OperatorOutputEmitter(nextVertices);
+
+    emitter.emitData(new MistDataEvent(1, 1L));
+    Assert.assertEquals(0L, physicalOperator.getLatencyHistogram().getCount());
+    Assert.assertEquals(0L, queryHistogram.getCount());
+
+    emitter.emitData(new MistDataEvent(2, 2L, System.nanoTime()));
+    Assert.assertEquals(1L, physicalOperator.getLatencyHistogram().getCount());
+    Assert.assertEquals(1L, queryHistogram.getCount());
+  }
+
+  /**
+   * Check whether the value is within the relative error of the buckets.
+   */
+  private static void assertNear(final long expected, final long actual) {
+    Assert.assertEquals(expected, actual, expected / 16.0);
+  }
+}
@@ -21,6 +21,7 @@ import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -67,19 +68,34 @@ public final class MetricTrackerTest {
     assigner.waitForTracking();
   }
 
+  /**
+   * Test that a metric tracker started for the track events does not notify the metric update to the assigner.
+   */
+  @Test(timeout = 1000L)
+  public void testTrackEventsOnly() throws InjectionException {
+    tracker.startTrackEvents();
+
+    // Wait tracker to publish MetricTrackEvent
+    handler.waitForTracking();
+    Assert.assertEquals(0, assigner.getNumUpdates());
+  }
+
   /**
    * This is a simple implementation of EventProcessorNumAssigner for callback.
    */
   private final class TestEventProcessorNumAssigner implements EventProcessorNumAssigner {
 
     private CountDownLatch latch;
+    private volatile int numUpdates;
 
     private TestEventProcessorNumAssigner() {
       latch = null;
+      numUpdates = 0;
     }
 
     @Override
     public void onNext(final MetricUpdateEvent event) {
+      numUpdates++;
       if (latch != null) {
         latch.countDown();
       }
@@ -92,6 +108,13 @@ public final class MetricTrackerTest {
       this.latch = latch;
     }
 
+    /**
+     * @return the number of the received metric update events
+     */
+    private int getNumUpdates() {
+      return numUpdates;
+    }
+
     /**
      * Wait tracker to conduct the tracking.
      */
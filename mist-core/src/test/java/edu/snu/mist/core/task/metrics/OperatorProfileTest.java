@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.metrics;
+
+import edu.snu.mist.common.graph.MISTEdge;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.operators.FilterOperator;
+import edu.snu.mist.core.operators.MapOperator;
+import edu.snu.mist.core.task.DefaultPhysicalOperatorImpl;
+import edu.snu.mist.core.task.ExecutionVertex;
+import edu.snu.mist.core.task.OperatorOutputEmitter;
+import edu.snu.mist.core.task.PhysicalOperator;
+import edu.snu.mist.formats.avro.Direction;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A test class for OperatorProfile.
+ */
+public final class OperatorProfileTest {
+
+  /**
+   * The processing time of the map function.
+   * It is long enough that the filter stays below it on a loaded machine,
+   * while an inclusive filter time would be five times of it.
+   */
+  private static final long MAP_TIME = TimeUnit.MILLISECONDS.toNanos(10);
+
+  /**
+   * Test whether the inputs, outputs and the exclusive processing time of the operators are profiled
+   * when a filter operator emits the outputs to a slow map operator.
+   */
+  @Test
+  public void testOperatorProfile() {
+    final FilterOperator<Integer> filterOperator = new FilterOperator<>(i -> i % 2 == 0);
+    final MapOperator<Integer, Integer> mapOperator = new MapOperator<>(i -> {
+      final long start = System.nanoTime();
+      while (System.nanoTime() - start < MAP_TIME) {
+        // busy waiting
+      }
+      return i;
+    });
+    final PhysicalOperator filter =
+        new DefaultPhysicalOperatorImpl("filter", new HashMap<>(), filterOperator, new OperatorProfile());
+    final PhysicalOperator map =
+        new DefaultPhysicalOperatorImpl("map", new HashMap<>(), mapOperator, new OperatorProfile());
+
+    final Map<ExecutionVertex, MISTEdge> filterEdges = new HashMap<>();
+    filterEdges.put(map, new MISTEdge(Direction.LEFT));
+    filterOperator.setOutputEmitter(new OperatorOutputEmitter(filterEdges, filter.getProfile()));
+    mapOperator.setOutputEmitter(new OperatorOutputEmitter(new HashMap<>(), map.getProfile()));
+
+    final Map<ExecutionVertex, MISTEdge> sourceEdges = new HashMap<>();
+    sourceEdges.put(filter, new MISTEdge(Direction.LEFT));
+    final OperatorOutputEmitter sourceEmitter = new OperatorOutputEmitter(sourceEdges);
+    // Warm up the code paths, so that the one-off class loading is not attributed to the filter
+    for (int i = 0; i < 10; i++) {
+      sourceEmitter.emitData(new MistDataEvent(i, i));
+    }
+    for (final PhysicalOperator operator : new PhysicalOperator[]{filter, map}) {
+      operator.getProfile().merge();
+      operator.getProfile().merge();
+    }
+
+    for (int i = 0; i < 10; i++) {
+      sourceEmitter.emitData(new MistDataEvent(i, i));
+    }
+
+    // The counters are not visible until they are merged
+    Assert.assertEquals(0L, filter.getProfile().getInputs());
+    filter.getProfile().merge();
+    map.getProfile().merge();
+
+    Assert.assertEquals(10L, filter.getProfile().getInputs());
+    Assert.assertEquals(5L, filter.getProfile().getOutputs());
+    Assert.assertEquals(0.5, filter.getProfile().getSelectivity(), 0.0001);
+    Assert.assertEquals(5L, map.getProfile().getInputs());
+    Assert.assertEquals(5L, map.getProfile().getOutputs());
+    Assert.assertTrue(map.getProfile().getProcessingTime() >= 5 * MAP_TIME);
+    // The processing time of the filter excludes that of the map
+    Assert.assertTrue(filter.getProfile().getProcessingTime() < MAP_TIME);
+
+    // The counters are reset after the merge
+    filter.getProfile().merge();
+    Assert.assertEquals(0L, filter.getProfile().getInputs());
+    Assert.assertEquals(0.0, filter.getProfile().getSelectivity(), 0.0001);
+  }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2018 Seoul National University
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package edu.snu.mist.core.task.parallel;
+
+import edu.snu.mist.core.MistCheckpointEvent;
+import edu.snu.mist.core.MistDataEvent;
+import edu.snu.mist.core.MistEvent;
+import edu.snu.mist.core.MistWatermarkEvent;
+import edu.snu.mist.core.OutputEmitter;
+import edu.snu.mist.core.operators.ApplyStatefulOperator;
+import edu.snu.mist.core.operators.KeyedOperator;
+import edu.snu.mist.core.operators.MapOperator;
+import edu.snu.mist.core.operators.OneStreamOperator;
+import edu.snu.mist.core.task.DefaultQueryImpl;
+import edu.snu.mist.core.task.Query;
+import edu.snu.mist.core.task.groupaware.Group;
+import edu.snu.mist.core.utils.FindMaxIntFunction;
+import edu.snu.mist.core.utils.OutputBufferEmitter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+
+public final class ParallelOperatorTest {
+
+  /**
+   * The checkpoint in the inputs.
+   */
+  private static final MistCheckpointEvent CHECKPOINT = new MistCheckpointEvent();
+
+  /**
+   * The timestamp of the latest event before the checkpoint.
+   */
+  private static final long CHECKPOINT_TIMESTAMP = 700L;
+
+  /**
+   * The input events which contain data, watermarks and a checkpoint.
+   */
+  private final List<MistEvent> inputs = createInputs();
+
+  private static List<MistEvent> createInputs() {
+    final List<MistEvent> events = new ArrayList<>();
+    final int[] values = {3, 7, 1, 9, 4, 2, 8, 5, 6, 10, 0, 11};
+    for (int i = 0; i < values.length; i++) {
+      events.add(new MistDataEvent(values[i], 100L * (i + 1)));
+      if (i % 4 == 3) {
+        events.add(new MistWatermarkEvent(100L * (i + 1)));
+      }
+      if (i == 6) {
+        events.add(CHECKPOINT);
+      }
+    }
+    return events;
+  }
+
+  private static void process(final OneStreamOperator operator, final List<MistEvent> events) {
+    for (final MistEvent event : events) {
+      if (event.isData()) {
+        operator.processLeftData((MistDataEvent) event);
+      } else if (event.isCheckpoint()) {
+        operator.processLeftCheckpoint((MistCheckpointEvent) event);
+      } else {
+        operator.processLeftWatermark((MistWatermarkEvent) event);
+      }
+    }
+  }
+
+  /**
+   * Check whether the two event lists have the same events in the same order.
+   */
+  private static void assertSameEvents(final List<MistEvent> expected, final List<MistEvent> actual) {
+    Assert.assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Assert.assertEquals(expected.get(i).getClass(), actual.get(i).getClass());
+      Assert.assertEquals(expected.get(i).getTimestamp(), actual.get(i).getTimestamp());
+      if (expected.get(i).isData()) {
+        Assert.assertEquals(((MistDataEvent) expected.get(i)).getValue(),
+            ((MistDataEvent) actual.get(i)).getValue());
+      }
+    }
+  }
+
+  private static OneStreamOperator newKeyedOperator() {
+    return new KeyedOperator<Integer, Integer>(x -> x % 3,
+        () -> new ApplyStatefulOperator<>(new FindMaxIntFunction()), true, 0L);
+  }
+
+  /**
+   * Test whether the replicas are processed by the thread of the operator
+   * before the replica queries are assigned to groups.
+   */
+  @Test
+  public void testInlineReplicas() {
+    final List<MistEvent> expected = new LinkedList<>();
+    final MapOperator<Integer, Integer> mapOperator = new MapOperator<>(x -> x * 2);
+    mapOperator.setOutputEmitter(new OutputBufferEmitter(expected));
+    process(mapOperator, inputs);
+
+    final List<OneStreamOperator> replicas = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      replicas.add(new MapOperator<Integer, Integer>(x -> x * 2));
+    }
+    final ParallelOperator parallelOperator = new ParallelOperator(replicas, null);
+    final List<MistEvent> result = new LinkedList<>();
+    parallelOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    Assert.assertEquals(3, parallelOperator.setUpReplicas(new DefaultQueryImpl("q1")).size());
+    process(parallelOperator, inputs);
+    assertSameEvents(expected, result);
+  }
+
+  /**
+   * Test whether the inputs of the keyed replicas are partitioned by the key,
+   * and the outputs are merged in the input order even though the replicas are processed out of order.
+   */
+  @Test
+  public void testKeyedReplicas() {
+    final List<MistEvent> expected = new LinkedList<>();
+    final OneStreamOperator keyedOperator = newKeyedOperator();
+    keyedOperator.setOutputEmitter(new OutputBufferEmitter(expected));
+    process(keyedOperator, inputs);
+
+    final List<OneStreamOperator> replicas = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      replicas.add(newKeyedOperator());
+    }
+    final ParallelOperator parallelOperator = new ParallelOperator(replicas, (Integer x) -> x % 3);
+    final List<MistEvent> result = new LinkedList<>();
+    parallelOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    final Query query = new DefaultQueryImpl("q1");
+    query.setGroup(mock(Group.class));
+    final List<Query> replicaQueries = parallelOperator.setUpReplicas(query);
+    for (final Query replicaQuery : replicaQueries) {
+      replicaQuery.setGroup(mock(Group.class));
+    }
+
+    process(parallelOperator, inputs);
+    // The data of keys 0 and 2 go to the first replica, and the data of key 1 go to the second replica.
+    // The watermarks and the checkpoint are broadcast.
+    Assert.assertEquals(8 + 4, replicaQueries.get(0).numberOfRemainingEvents());
+    Assert.assertEquals(4 + 4, replicaQueries.get(1).numberOfRemainingEvents());
+    Assert.assertTrue(result.isEmpty());
+
+    replicaQueries.get(1).processAllEvent();
+    query.processAllEvent();
+    Assert.assertTrue(result.isEmpty());
+    // The checkpoint is not stored until all replicas process it
+    Assert.assertNull(parallelOperator.getMaxAvailableTimestamp(CHECKPOINT_TIMESTAMP));
+    replicaQueries.get(0).processAllEvent();
+    query.processAllEvent();
+    assertSameEvents(expected, result);
+
+    // The states of the replicas are captured by the replicas at the checkpoint
+    Assert.assertEquals(CHECKPOINT_TIMESTAMP, (long) parallelOperator.getMaxAvailableTimestamp(Long.MAX_VALUE));
+    final Map<String, Object> state = parallelOperator.getOperatorState(CHECKPOINT_TIMESTAMP);
+    Assert.assertTrue(state.containsKey("replica-0"));
+    Assert.assertTrue(state.containsKey("replica-1"));
+  }
+
+  /**
+   * Test whether the outputs of the replicas to the selected edges are merged with their indices.
+   */
+  @Test
+  public void testIndexedOutputs() {
+    final List<OneStreamOperator> replicas = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      replicas.add(new OddEvenBranchOperator());
+    }
+    final ParallelOperator parallelOperator = new ParallelOperator(replicas, null);
+    final List<Integer> indices = new LinkedList<>();
+    parallelOperator.setOutputEmitter(new OutputEmitter() {
+      @Override
+      public void emitData(final MistDataEvent data) {
+        indices.add(-1);
+      }
+
+      @Override
+      public void emitData(final MistDataEvent data, final int index) {
+        indices.add(index);
+      }
+
+      @Override
+      public void emitWatermark(final MistWatermarkEvent watermark) {
+        // do nothing
+      }
+
+      @Override
+      public void emitCheckpoint(final MistCheckpointEvent checkpoint) {
+        // do nothing
+      }
+    });
+    parallelOperator.setUpReplicas(new DefaultQueryImpl("q1"));
+    for (int i = 0; i < 4; i++) {
+      parallelOperator.processLeftData(new MistDataEvent(i, i));
+    }
+    Assert.assertEquals(Arrays.asList(0, 1, 0, 1), indices);
+  }
+
+  /**
+   * An operator that emits the even inputs to the edge of index 0 and the odd inputs to the edge of index 1.
+   */
+  private static final class OddEvenBranchOperator extends OneStreamOperator {
+    @Override
+    public void processLeftData(final MistDataEvent input) {
+      outputEmitter.emitData(input, (Integer) input.getValue() % 2);
+    }
+
+    @Override
+    public void processLeftWatermark(final MistWatermarkEvent input) {
+      outputEmitter.emitWatermark(input);
+    }
+
+    @Override
+    public void processLeftCheckpoint(final MistCheckpointEvent input) {
+      outputEmitter.emitCheckpoint(input);
+    }
+  }
+
+  /**
+   * Test whether the states of the keyed replicas are restored from the snapshot.
+   */
+  @Test
+  public void testReplicaState() {
+    final List<MistEvent> expected = new LinkedList<>();
+    final OneStreamOperator keyedOperator = newKeyedOperator();
+    keyedOperator.setOutputEmitter(new OutputBufferEmitter(expected));
+    process(keyedOperator, inputs);
+
+    // Recover from the checkpoint
+    final int splitIndex = inputs.indexOf(CHECKPOINT) + 1;
+    final List<MistEvent> result = new LinkedList<>();
+    final ParallelOperator parallelOperator = newParallelKeyedOperator(result);
+    process(parallelOperator, inputs.subList(0, splitIndex));
+    final Map<String, Object> state = parallelOperator.getOperatorState(CHECKPOINT_TIMESTAMP);
+    Assert.assertEquals(state, parallelOperator.getStateSnapshot());
+
+    final ParallelOperator restoredOperator = newParallelKeyedOperator(result);
+    restoredOperator.setState(state);
+    process(restoredOperator, inputs.subList(splitIndex, inputs.size()));
+    assertSameEvents(expected, result);
+  }
+
+  private ParallelOperator newParallelKeyedOperator(final List<MistEvent> result) {
+    final List<OneStreamOperator> replicas = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      replicas.add(newKeyedOperator());
+    }
+    final ParallelOperator parallelOperator = new ParallelOperator(replicas, (Integer x) -> x % 3);
+    parallelOperator.setOutputEmitter(new OutputBufferEmitter(result));
+    parallelOperator.setUpReplicas(new DefaultQueryImpl("q1"));
+    return parallelOperator;
+  }
+}